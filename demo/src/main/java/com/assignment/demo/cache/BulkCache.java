@@ -0,0 +1,22 @@
+package com.assignment.demo.cache;
+
+import org.springframework.cache.Cache.ValueWrapper;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Multi-key operations for caches that can serve them in one round trip (MGET, a pipelined write).
+ * Decorators implement it by passing the calls down to a delegate that does.
+ */
+public interface BulkCache {
+
+    /**
+     * Returns the entries present for the given keys; absent keys are missing from the map, cached
+     * nulls are present with a null value.
+     */
+    Map<Object, ValueWrapper> getAll(Collection<?> keys);
+
+    /** Stores every entry, each with the TTL a single put would give it. Null values are cached too. */
+    void putAll(Map<?, ?> entries);
+}
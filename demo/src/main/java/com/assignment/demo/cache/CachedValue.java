@@ -0,0 +1,31 @@
+package com.assignment.demo.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Envelope stored in Redis for soft/hard TTL caching.
+ *
+ * The Redis key expires at the hard TTL. Until then readers are served the cached value, and once
+ * the soft expiry approaches a single background refresh is triggered (see {@link RefreshPolicy}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue<T> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private T value;
+
+    // Epoch millis after which the value is considered stale and due for a background refresh
+    private long softExpiresAt;
+
+    // How long the value took to load; scales the probabilistic early refresh window
+    private long computeMillis;
+}
@@ -0,0 +1,149 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.jfr.RedisCommandEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Routes every Redis connection, and therefore every RedisTemplate and RedisCache command, through a
+ * {@link RedisCircuitBreaker}.
+ *
+ * While the breaker is open {@link #getConnection()} throws straight away, which the existing
+ * catch-and-fall-back paths already handle. Otherwise the connection is proxied and the latency and
+ * outcome of each command is recorded. Commands issued through the {@code xxxCommands()} views are
+ * proxied the same way. Calls queued inside a pipeline return immediately; their outcome is recorded
+ * once, at {@code closePipeline}. Each recorded command is also a {@link RedisCommandEvent} in JFR.
+ */
+public class CircuitBreakingRedisConnectionFactory implements RedisConnectionFactory {
+
+    private static final RedisConnectionFailureException CIRCUIT_OPEN =
+            new RedisConnectionFailureException("Redis circuit is open") {
+                @Override
+                public synchronized Throwable fillInStackTrace() {
+                    // Thrown on every call during an outage; a stack trace would cost more than the call
+                    return this;
+                }
+            };
+
+    private final RedisConnectionFactory delegate;
+    private final RedisCircuitBreaker breaker;
+
+    public CircuitBreakingRedisConnectionFactory(RedisConnectionFactory delegate, RedisCircuitBreaker breaker) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        if (!breaker.allowRequest()) throw CIRCUIT_OPEN;
+        long start = System.nanoTime();
+        RedisConnection connection;
+        try {
+            connection = delegate.getConnection();
+        } catch (RuntimeException e) {
+            breaker.record(System.nanoTime() - start, true);
+            throw e;
+        }
+        return (RedisConnection) Proxy.newProxyInstance(
+                RedisConnection.class.getClassLoader(),
+                new Class<?>[]{RedisConnection.class},
+                new Recording(connection, connection));
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        return delegate.getClusterConnection();
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        return delegate.translateExceptionIfPossible(ex);
+    }
+
+    private final class Recording implements InvocationHandler {
+
+        private final Object target;
+        private final RedisConnection connection;
+
+        Recording(Object target, RedisConnection connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            boolean command = isCommand(method);
+            if (command && !breaker.allowRequest()) throw CIRCUIT_OPEN;
+
+            RedisCommandEvent event = command ? new RedisCommandEvent() : null;
+            if (event != null) event.begin();
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (command) {
+                    breaker.record(System.nanoTime() - start, true);
+                    commit(event, method, true);
+                }
+                throw e.getCause();
+            }
+            if (command) {
+                breaker.record(System.nanoTime() - start, false);
+                commit(event, method, false);
+            }
+
+            // stringCommands(), keyCommands(), ... hand out views that must be measured too
+            if (result != null && isCommandView(method)) {
+                return Proxy.newProxyInstance(
+                        RedisConnection.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()},
+                        new Recording(result, connection));
+            }
+            return result;
+        }
+
+        private static void commit(RedisCommandEvent event, Method method, boolean failed) {
+            if (!event.shouldCommit()) return;
+            event.command = method.getName();
+            event.failed = failed;
+            event.commit();
+        }
+
+        private boolean isCommand(Method method) {
+            if (method.getName().equals("closePipeline") || method.getName().equals("exec")) return true;
+            // Connection lifecycle and state (close, isPipelined, openPipeline, ...) are not commands
+            Class<?> declaring = method.getDeclaringClass();
+            if (declaring == RedisConnection.class || declaring == Object.class || declaring == AutoCloseable.class) {
+                return false;
+            }
+            if (isCommandView(method)) return false;
+            return !connection.isPipelined() && !connection.isQueueing();
+        }
+
+        private static boolean isCommandView(Method method) {
+            return method.getParameterCount() == 0
+                    && method.getReturnType().isInterface()
+                    && method.getReturnType().getSimpleName().endsWith("Commands");
+        }
+    }
+}
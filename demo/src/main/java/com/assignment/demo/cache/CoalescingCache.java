@@ -0,0 +1,214 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.jfr.DbFallbackEvent;
+import com.assignment.demo.logging.RateLimitedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Cache decorator adding miss coalescing and stale-while-revalidate on top of a Redis cache.
+ *
+ * Values are stored wrapped in a {@link CachedValue} envelope carrying a soft expiry; the Redis key
+ * itself lives until the hard TTL configured on the underlying cache. On the synchronized read path
+ * ({@code @Cacheable(sync = true)}):
+ * - a hit before the soft expiry is returned as-is
+ * - a hit past (or probabilistically close to) the soft expiry is returned immediately while one
+ *   background task reloads it
+ * - a miss is loaded once for all concurrent callers via {@link SingleFlight}
+ *
+ * Every other operation is passed through, wrapping and unwrapping the envelope. Bulk reads report
+ * entries due for a refresh as misses, so the caller's batch load refreshes them.
+ *
+ * Null values are cached like any other (as negative entries); the soft TTL function decides how
+ * long each value, null included, stays fresh.
+ *
+ * A load (miss or background refresh) can read a row just before an update commits and write it back
+ * just after the update evicted the key. Writers therefore record the new version before evicting, and
+ * after each write-back, single or bulk, the {@code superseded} check drops loaded values if a newer
+ * version is recorded.
+ */
+public class CoalescingCache implements Cache, BulkCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingCache.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private final Cache delegate;
+    private final SingleFlight singleFlight;
+    private final RefreshPolicy refreshPolicy;
+    private final Function<Object, Duration> softTtl;
+    private final SupersededCheck superseded;
+
+    public CoalescingCache(Cache delegate, SingleFlight singleFlight, RefreshPolicy refreshPolicy,
+                           Function<Object, Duration> softTtl, SupersededCheck superseded) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+        this.refreshPolicy = refreshPolicy;
+        this.softTtl = softTtl;
+        this.superseded = superseded;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CachedValue<?> entry = lookup(key);
+        return entry == null ? null : new SimpleValue(entry.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        CachedValue<?> entry = lookup(key);
+        if (entry == null || entry.getValue() == null) return null;
+        if (type != null && !type.isInstance(entry.getValue())) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + entry.getValue());
+        }
+        return (T) entry.getValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String flightKey = getName() + "::" + key;
+
+        CachedValue<?> hit = lookup(key);
+        if (hit != null) {
+            if (refreshPolicy.isRefreshDue(hit)) {
+                // Serve the stale value now; exactly one background task per key reloads it
+                singleFlight.refreshAsync(flightKey, () -> loadAndPut(key, valueLoader));
+            }
+            return (T) hit.getValue();
+        }
+
+        // All concurrent misses for this key share one load and one write-back
+        CachedValue<?> loaded = singleFlight.execute(flightKey, () -> lookup(key), () -> loadAndPut(key, valueLoader));
+        return (T) loaded.getValue();
+    }
+
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> raw;
+        if (delegate instanceof BulkCache bulk) {
+            raw = bulk.getAll(keys);
+        } else {
+            raw = new HashMap<>();
+            for (Object key : keys) {
+                ValueWrapper wrapper = delegate.get(key);
+                if (wrapper != null) raw.put(key, wrapper);
+            }
+        }
+
+        Map<Object, ValueWrapper> result = new HashMap<>();
+        raw.forEach((key, wrapper) -> {
+            CachedValue<?> entry = unwrap(wrapper.get());
+            if (!refreshPolicy.isRefreshDue(entry)) result.put(key, new SimpleValue(entry.getValue()));
+        });
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<Object, Object> wrapped = new LinkedHashMap<>();
+        entries.forEach((key, value) -> wrapped.put(key, refreshPolicy.wrap(value, softTtl.apply(value), 0L)));
+        if (delegate instanceof BulkCache bulk) {
+            bulk.putAll(wrapped);
+        } else {
+            wrapped.forEach(delegate::put);
+        }
+        // Same race as in loadAndPut: bulk loads (multi-gets) may have read rows an update has replaced
+        superseded.supersededKeys(entries).forEach(delegate::evict);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, refreshPolicy.wrap(value, softTtl.apply(value), 0L));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, refreshPolicy.wrap(value, softTtl.apply(value), 0L));
+        return existing == null ? null : new SimpleValue(unwrap(existing.get()).getValue());
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private CachedValue<?> lookup(Object key) {
+        ValueWrapper raw = delegate.get(key);
+        return raw == null ? null : unwrap(raw.get());
+    }
+
+    private <T> CachedValue<T> loadAndPut(Object key, Callable<T> valueLoader) {
+        DbFallbackEvent event = new DbFallbackEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        long computeMillis = (System.nanoTime() - start) / 1_000_000L;
+
+        CachedValue<T> entry = refreshPolicy.wrap(value, softTtl.apply(value), computeMillis);
+        try {
+            delegate.put(key, entry);
+            // Checked after the put: an update that recorded its version before this check is seen here,
+            // and one recording it later evicts this key afterwards
+            if (value != null && superseded.supersededKeys(Collections.singletonMap(key, value)).contains(key)) delegate.evict(key);
+        } catch (RuntimeException e) {
+            // The loaded value is still returned to every waiter; only the write-back is lost
+            rateLimitedLog.warn(e, "Redis PUT error on cache '{}' key '{}': {}", getName(), key, e.getMessage());
+        }
+        if (event.shouldCommit()) {
+            event.source = getName();
+            event.key = String.valueOf(key);
+            event.commit();
+        }
+        return entry;
+    }
+
+    // Entries written before the envelope was introduced are treated as already soft-expired
+    private CachedValue<?> unwrap(Object stored) {
+        if (stored instanceof CachedValue<?> entry) return entry;
+        return new CachedValue<>(stored, 0L, 0L);
+    }
+
+    private record SimpleValue(Object get) implements ValueWrapper {
+    }
+}
@@ -0,0 +1,56 @@
+package com.assignment.demo.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Wraps every cache of the delegate manager in a {@link CoalescingCache}.
+ * The delegate's entry TTL acts as the hard TTL; {@code softTtl} maps a value (possibly null) to the
+ * point at which background refreshes start, and {@code superseded} tells which loaded values are
+ * already older than the recorded version. {@code storeDecorator} is applied to each delegate cache
+ * underneath the coalescing layer (e.g. {@link DegradedModeCache}).
+ */
+public class CoalescingCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final SingleFlight singleFlight;
+    private final RefreshPolicy refreshPolicy;
+    private final Function<Object, Duration> softTtl;
+    private final SupersededCheck superseded;
+    private final UnaryOperator<Cache> storeDecorator;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public CoalescingCacheManager(CacheManager delegate, SingleFlight singleFlight,
+                                  RefreshPolicy refreshPolicy, Function<Object, Duration> softTtl,
+                                  SupersededCheck superseded, UnaryOperator<Cache> storeDecorator) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+        this.refreshPolicy = refreshPolicy;
+        this.softTtl = softTtl;
+        this.superseded = superseded;
+        this.storeDecorator = storeDecorator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) return cache;
+
+        Cache target = delegate.getCache(name);
+        if (target == null) return null;
+        return caches.computeIfAbsent(name, n ->
+                new CoalescingCache(storeDecorator.apply(target), singleFlight, refreshPolicy, softTtl, superseded));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -0,0 +1,243 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.jfr.CacheLookupEvent;
+import com.assignment.demo.logging.RateLimitedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Redis cache decorator that keeps serving from a small in-process LRU while the
+ * {@link RedisCircuitBreaker} is open.
+ *
+ * With the circuit closed every operation goes to Redis. While it is open, reads and writes use the
+ * local LRU instead (bounded to {@code maxEntries}), so hot keys are still answered from memory and
+ * only the first read of each key reaches the database. Writes and evictions are applied locally and
+ * the Redis key is marked dirty; the breaker deletes those keys in bulk before closing. The local entries are dropped
+ * when the circuit closes, since other nodes may have changed the same keys in Redis meanwhile.
+ */
+public class DegradedModeCache implements Cache, BulkCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DegradedModeCache.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private final Cache delegate;
+    private final RedisCircuitBreaker breaker;
+    private final Map<Object, Object> local;
+
+    public DegradedModeCache(Cache delegate, RedisCircuitBreaker breaker, int maxEntries) {
+        this.delegate = delegate;
+        this.breaker = breaker;
+        this.local = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        breaker.onClose(this::clearLocal);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        ValueWrapper result;
+        String tier;
+        if (breaker.allowRequest()) {
+            tier = CacheLookupEvent.TIER_REDIS;
+            result = delegate.get(key);
+        } else {
+            tier = CacheLookupEvent.TIER_LOCAL;
+            synchronized (local) {
+                // Stored values may be null (negative entries), so presence is checked separately
+                result = local.containsKey(key) ? new SimpleValue(local.get(key)) : null;
+            }
+        }
+        if (event.shouldCommit()) {
+            event.cache = getName();
+            event.key = String.valueOf(key);
+            event.tier = tier;
+            event.hit = result != null;
+            event.commit();
+        }
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        if (breaker.allowRequest()) return delegate.get(key, type);
+        ValueWrapper wrapper = get(key);
+        return wrapper == null ? null : (T) wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (breaker.allowRequest()) return delegate.get(key, valueLoader);
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) return (T) wrapper.get();
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (breaker.allowRequest()) {
+            try {
+                delegate.put(key, value);
+            } catch (RuntimeException e) {
+                // Whatever Redis still holds for the key is now outdated
+                breaker.markDirty(redisKey(key));
+                throw e;
+            }
+            return;
+        }
+        synchronized (local) {
+            local.put(key, value);
+        }
+        // The put may carry a newer state than Redis holds; at worst this costs one reload after recovery
+        breaker.markDirty(redisKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (breaker.allowRequest()) return delegate.putIfAbsent(key, value);
+        synchronized (local) {
+            if (local.containsKey(key)) return new SimpleValue(local.get(key));
+            local.put(key, value);
+            return null;
+        }
+    }
+
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        Map<Object, ValueWrapper> result = new HashMap<>();
+        if (breaker.allowRequest()) {
+            if (delegate instanceof BulkCache bulk) return bulk.getAll(keys);
+            for (Object key : keys) {
+                ValueWrapper wrapper = delegate.get(key);
+                if (wrapper != null) result.put(key, wrapper);
+            }
+            return result;
+        }
+        synchronized (local) {
+            for (Object key : keys) {
+                if (local.containsKey(key)) result.put(key, new SimpleValue(local.get(key)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (breaker.allowRequest()) {
+            try {
+                if (delegate instanceof BulkCache bulk) {
+                    bulk.putAll(entries);
+                } else {
+                    entries.forEach(delegate::put);
+                }
+            } catch (RuntimeException e) {
+                // Whatever Redis still holds for these keys is now outdated
+                entries.keySet().forEach(key -> breaker.markDirty(redisKey(key)));
+                throw e;
+            }
+            return;
+        }
+        synchronized (local) {
+            entries.forEach(local::put);
+        }
+        entries.keySet().forEach(key -> breaker.markDirty(redisKey(key)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        synchronized (local) {
+            local.remove(key);
+        }
+        if (!breaker.allowRequest()) {
+            breaker.markDirty(redisKey(key));
+            return;
+        }
+        try {
+            delegate.evict(key);
+        } catch (RuntimeException e) {
+            // The breaker deletes the key once Redis answers again
+            breaker.markDirty(redisKey(key));
+            rateLimitedLog.warn(e, "Redis EVICT error on cache '{}' key '{}': {}", getName(), key, e.getMessage());
+        }
+    }
+
+    /**
+     * Same as {@link #evict}, returning whether an entry was removed: from the local LRU, or from
+     * Redis while the circuit is closed. A Redis key only marked dirty while open is not counted.
+     */
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean removed;
+        synchronized (local) {
+            removed = local.containsKey(key);
+            local.remove(key);
+        }
+        if (!breaker.allowRequest()) {
+            breaker.markDirty(redisKey(key));
+            return removed;
+        }
+        try {
+            return delegate.evictIfPresent(key) || removed;
+        } catch (RuntimeException e) {
+            // The breaker deletes the key once Redis answers again
+            breaker.markDirty(redisKey(key));
+            rateLimitedLog.warn(e, "Redis EVICT error on cache '{}' key '{}': {}", getName(), key, e.getMessage());
+            return removed;
+        }
+    }
+
+    @Override
+    public void clear() {
+        clearLocal();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clearLocal();
+        return delegate.invalidate();
+    }
+
+    private void clearLocal() {
+        synchronized (local) {
+            local.clear();
+        }
+    }
+
+    // RedisCache's default key layout: "<cacheName>::<key>"
+    private String redisKey(Object key) {
+        return getName() + "::" + key;
+    }
+
+    private record SimpleValue(Object get) implements ValueWrapper {
+    }
+}
@@ -0,0 +1,302 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.matching.PriceTicks;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * Order cache in a memory-mapped file, so it outlives the JVM: after a restart the hot orders are
+ * still in the OS page cache and are served without a DB load, and the entries never live on the heap.
+ *
+ * The file is an open-addressing table of fixed-width 64-byte slots holding the {@link OrderResponse}
+ * fields in binary form. Each orderId hashes to a bucket of {@value #BUCKET_SLOTS} adjacent slots
+ * that is probed linearly; a full bucket gives up its oldest order (lowest, time-ordered id). Every
+ * slot carries a CRC32C, so a write torn by a crash reads as a miss.
+ *
+ * Entries can be stale — other nodes keep changing orders while this one is down — so callers check
+ * an entry's {@code version} against the order's current one before serving it.
+ */
+@Component
+public class MappedOrderCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedOrderCache.class);
+
+    static final int SLOT_BYTES = 64;
+    static final int BUCKET_SLOTS = 8;
+    private static final int HEADER_BYTES = 64;
+    private static final int LOCK_STRIPES = 1024;
+
+    // Header: magic, layout version, slot size, slot count
+    private static final long MAGIC = 0x4F52444552534C54L; // "ORDERSLT"
+    private static final int LAYOUT_VERSION = 2;
+
+    // Slot layout; orderId 0 marks an empty slot
+    private static final int ORDER_ID = 0;
+    private static final int VERSION = 8;
+    private static final int USER_ID = 16;
+    private static final int PRICE_TICKS = 24;
+    private static final int CREATED_AT = 32;
+    private static final int UPDATED_AT = 40;
+    private static final int QUANTITY = 48;
+    private static final int FILLED_QUANTITY = 52;
+    private static final int ORDER_TYPE = 56;
+    private static final int STATUS = 57;
+    private static final int PADDING = 58;
+    private static final int CHECKSUM = 60;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+
+    private final boolean enabled;
+    private final Path path;
+    private final int slots;
+    private final int buckets;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private volatile MappedByteBuffer buffer;
+
+    public MappedOrderCache(@Value("${app.cache.orders.mapped.enabled:false}") boolean enabled,
+                            @Value("${app.cache.orders.mapped.path:data/orders.cache}") String path,
+                            @Value("${app.cache.orders.mapped.slots:4194304}") int slots) {
+        if (slots < BUCKET_SLOTS || (long) HEADER_BYTES + (long) slots * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("app.cache.orders.mapped.slots must be between "
+                    + BUCKET_SLOTS + " and " + (Integer.MAX_VALUE - HEADER_BYTES) / SLOT_BYTES);
+        }
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.buckets = slots / BUCKET_SLOTS;
+        this.slots = buckets * BUCKET_SLOTS;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        long size = HEADER_BYTES + (long) slots * SLOT_BYTES;
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // A file from another layout or size is started over; truncating zeroes every slot
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                boolean reset = channel.size() != size || channel.read(header, 0) != HEADER_BYTES || !headerMatches(header);
+                if (reset) channel.truncate(0);
+                // The mapping stays valid after the channel is closed
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                mapped.order(ByteOrder.LITTLE_ENDIAN);
+                if (reset) writeHeader(mapped);
+                buffer = mapped;
+                log.info("Mapped order cache {} at {} ({} slots, {} MiB)",
+                        reset ? "created" : "reopened", path, slots, size >> 20);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map order cache file " + path, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null) return;
+        buffer = null;
+        mapped.force();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached copy of the order, or null if it is not cached (or its slot is corrupt).
+     * The copy may be stale; compare its version before serving it.
+     */
+    public OrderResponse get(Long orderId) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null || orderId == null || orderId == 0L) return null;
+        int bucket = bucketOf(orderId);
+        synchronized (lockFor(bucket)) {
+            int offset = find(mapped, bucket, orderId);
+            if (offset < 0) return null;
+            if (mapped.getInt(offset + CHECKSUM) != checksum(mapped, offset)) {
+                clear(mapped, offset);
+                return null;
+            }
+            return read(mapped, offset);
+        }
+    }
+
+    /**
+     * Stores the order, replacing an older copy; a copy with a newer version is kept, so a slow
+     * reader cannot roll back a concurrent update. Orders whose fields do not fit the slot (e.g. a
+     * price that is not exact in {@link PriceTicks}) are not cached.
+     */
+    public void put(OrderResponse order) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null || order == null || !fits(order)) return;
+        long orderId = order.getOrderId();
+        int bucket = bucketOf(orderId);
+        synchronized (lockFor(bucket)) {
+            int offset = find(mapped, bucket, orderId);
+            if (offset < 0) {
+                offset = freeOrOldest(mapped, bucket);
+            } else if (mapped.getLong(offset + VERSION) > order.getVersion()) {
+                return;
+            }
+            write(mapped, offset, order);
+        }
+    }
+
+    public void remove(Long orderId) {
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null || orderId == null || orderId == 0L) return;
+        int bucket = bucketOf(orderId);
+        synchronized (lockFor(bucket)) {
+            int offset = find(mapped, bucket, orderId);
+            if (offset >= 0) clear(mapped, offset);
+        }
+    }
+
+    // ── Slots ───────────────────────────────────────────────────────────────
+
+    private int find(MappedByteBuffer mapped, int bucket, long orderId) {
+        int base = HEADER_BYTES + bucket * BUCKET_SLOTS * SLOT_BYTES;
+        for (int i = 0; i < BUCKET_SLOTS; i++) {
+            int offset = base + i * SLOT_BYTES;
+            if (mapped.getLong(offset + ORDER_ID) == orderId) return offset;
+        }
+        return -1;
+    }
+
+    private int freeOrOldest(MappedByteBuffer mapped, int bucket) {
+        int base = HEADER_BYTES + bucket * BUCKET_SLOTS * SLOT_BYTES;
+        int oldest = base;
+        for (int i = 0; i < BUCKET_SLOTS; i++) {
+            int offset = base + i * SLOT_BYTES;
+            long id = mapped.getLong(offset + ORDER_ID);
+            if (id == 0L) return offset;
+            if (id < mapped.getLong(oldest + ORDER_ID)) oldest = offset;
+        }
+        return oldest;
+    }
+
+    private static boolean fits(OrderResponse order) {
+        return order.getOrderId() != null && order.getOrderId() != 0L
+                && order.getVersion() != null && order.getUserId() != null
+                && order.getOrderType() != null && order.getStatus() != null
+                && order.getQuantity() != null && order.getFilledQuantity() != null
+                && order.getPrice() != null
+                && order.getPrice().scale() <= PriceTicks.SCALE
+                && order.getPrice().compareTo(PriceTicks.toPrice(PriceTicks.MAX_PRICE_TICKS)) <= 0;
+    }
+
+    private static void write(MappedByteBuffer mapped, int offset, OrderResponse order) {
+        mapped.putLong(offset + ORDER_ID, order.getOrderId());
+        mapped.putLong(offset + VERSION, order.getVersion());
+        mapped.putLong(offset + USER_ID, order.getUserId());
+        mapped.putLong(offset + PRICE_TICKS, PriceTicks.of(order.getPrice()));
+        mapped.putLong(offset + CREATED_AT, toMicros(order.getCreatedAt()));
+        mapped.putLong(offset + UPDATED_AT, toMicros(order.getUpdatedAt()));
+        mapped.putInt(offset + QUANTITY, order.getQuantity());
+        mapped.putInt(offset + FILLED_QUANTITY, order.getFilledQuantity());
+        mapped.put(offset + ORDER_TYPE, (byte) order.getOrderType().ordinal());
+        mapped.put(offset + STATUS, (byte) order.getStatus().ordinal());
+        mapped.putShort(offset + PADDING, (short) 0);
+        mapped.putInt(offset + CHECKSUM, checksum(mapped, offset));
+    }
+
+    private static OrderResponse read(MappedByteBuffer mapped, int offset) {
+        int orderType = mapped.get(offset + ORDER_TYPE);
+        int status = mapped.get(offset + STATUS);
+        if (orderType >= ORDER_TYPES.length || status >= ORDER_STATUSES.length) return null;
+        return OrderResponse.builder()
+                .orderId(mapped.getLong(offset + ORDER_ID))
+                .version(mapped.getLong(offset + VERSION))
+                .userId(mapped.getLong(offset + USER_ID))
+                .price(PriceTicks.toPrice(mapped.getLong(offset + PRICE_TICKS)))
+                .createdAt(fromMicros(mapped.getLong(offset + CREATED_AT)))
+                .updatedAt(fromMicros(mapped.getLong(offset + UPDATED_AT)))
+                .quantity(mapped.getInt(offset + QUANTITY))
+                .filledQuantity(mapped.getInt(offset + FILLED_QUANTITY))
+                .orderType(ORDER_TYPES[orderType])
+                .status(ORDER_STATUSES[status])
+                .build();
+    }
+
+    private static void clear(MappedByteBuffer mapped, int offset) {
+        for (int i = 0; i < SLOT_BYTES; i += 8) {
+            mapped.putLong(offset + i, 0L);
+        }
+    }
+
+    private static int checksum(MappedByteBuffer mapped, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(mapped.slice(offset, CHECKSUM));
+        return (int) crc.getValue();
+    }
+
+    // ── File header ─────────────────────────────────────────────────────────
+
+    private boolean headerMatches(ByteBuffer header) {
+        return header.getLong(0) == MAGIC
+                && header.getInt(8) == LAYOUT_VERSION
+                && header.getInt(12) == SLOT_BYTES
+                && header.getInt(16) == slots;
+    }
+
+    private void writeHeader(MappedByteBuffer mapped) {
+        mapped.putLong(0, MAGIC);
+        mapped.putInt(8, LAYOUT_VERSION);
+        mapped.putInt(12, SLOT_BYTES);
+        mapped.putInt(16, slots);
+    }
+
+    private int bucketOf(long orderId) {
+        return (int) Math.floorMod(mix(orderId), (long) buckets);
+    }
+
+    private Object lockFor(int bucket) {
+        return locks[bucket & (LOCK_STRIPES - 1)];
+    }
+
+    // SplitMix64 finalizer — the low bits of time-ordered ids are a per-millisecond sequence
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Timestamps are stored as UTC epoch micros, the precision the orders table keeps
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) return NO_TIMESTAMP;
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIMESTAMP) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
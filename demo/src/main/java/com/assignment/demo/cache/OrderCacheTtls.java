@@ -0,0 +1,54 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * TTLs for cached order data, chosen per value.
+ *
+ * - null (order not found): short negative TTL
+ * - COMPLETED / CANCELLED / FAILED: the order can never change again, so it is cached for the long
+ *   terminal TTL and never refreshed early
+ * - anything else: the regular soft/hard TTL pair; without stale-while-revalidate nothing is served
+ *   past the soft TTL, so the hard TTL is the soft one
+ */
+@Component
+public class OrderCacheTtls {
+
+    private final Duration softTtl;
+    private final Duration hardTtl;
+    private final Duration negativeTtl;
+    private final Duration terminalTtl;
+
+    public OrderCacheTtls(@Value("${app.cache.orders.soft-ttl-seconds:60}") long softTtlSeconds,
+                          @Value("${app.cache.orders.hard-ttl-seconds:120}") long hardTtlSeconds,
+                          @Value("${app.cache.orders.negative-ttl-seconds:10}") long negativeTtlSeconds,
+                          @Value("${app.cache.orders.terminal-ttl-seconds:86400}") long terminalTtlSeconds,
+                          @Value("${app.cache.stale-while-revalidate.enabled:true}") boolean staleWhileRevalidate) {
+        this.softTtl = Duration.ofSeconds(softTtlSeconds);
+        this.hardTtl = Duration.ofSeconds(staleWhileRevalidate ? hardTtlSeconds : softTtlSeconds);
+        this.negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.terminalTtl = Duration.ofSeconds(terminalTtlSeconds);
+    }
+
+    public Duration softTtl(Object value) {
+        if (value == null) return negativeTtl;
+        return isTerminal(value) ? terminalTtl : softTtl;
+    }
+
+    public Duration hardTtl(Object value) {
+        if (value == null) return negativeTtl;
+        return isTerminal(value) ? terminalTtl : hardTtl;
+    }
+
+    public Duration terminalTtl() {
+        return terminalTtl;
+    }
+
+    private boolean isTerminal(Object value) {
+        return value instanceof OrderResponse order && order.getStatus() != null && order.getStatus().isTerminal();
+    }
+}
@@ -0,0 +1,153 @@
+package com.assignment.demo.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link RedisCache} decorator adding {@link BulkCache}: one MGET for many keys and one pipeline of
+ * SETs (each with the cache's per-value TTL) for many entries.
+ *
+ * Keys and values are written exactly as RedisCache writes them ("&lt;cacheName&gt;::&lt;key&gt;",
+ * the configured value serializer, {@link NullValue} for null), so single-key and bulk operations
+ * read each other's entries.
+ */
+public class RedisBulkCache implements Cache, BulkCache {
+
+    private final RedisCache delegate;
+    private final RedisConnectionFactory connectionFactory;
+
+    public RedisBulkCache(RedisCache delegate, RedisConnectionFactory connectionFactory) {
+        this.delegate = delegate;
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        if (keys.isEmpty()) return Map.of();
+        List<Object> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = new byte[keyList.size()][];
+        for (int i = 0; i < rawKeys.length; i++) {
+            rawKeys[i] = rawKey(keyList.get(i));
+        }
+
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+
+        RedisCacheConfiguration config = delegate.getCacheConfiguration();
+        Map<Object, ValueWrapper> result = new HashMap<>();
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] raw = rawValues == null ? null : rawValues.get(i);
+            if (raw == null) continue;
+            Object value = config.getValueSerializationPair().read(ByteBuffer.wrap(raw));
+            result.put(keyList.get(i), new SimpleValue(value instanceof NullValue ? null : value));
+        }
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) return;
+        RedisCacheConfiguration config = delegate.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            try {
+                RedisStringCommands commands = connection.stringCommands();
+                for (Map.Entry<?, ?> entry : entries.entrySet()) {
+                    Object stored = entry.getValue() == null ? NullValue.INSTANCE : entry.getValue();
+                    byte[] rawValue = ByteUtils.getBytes(config.getValueSerializationPair().write(stored));
+                    Duration ttl = config.getTtlFunction().getTimeToLive(entry.getKey(), entry.getValue());
+                    Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                            ? Expiration.persistent()
+                            : Expiration.from(ttl);
+                    commands.set(rawKey(entry.getKey()), rawValue, expiration, RedisStringCommands.SetOption.upsert());
+                }
+            } finally {
+                connection.closePipeline();
+            }
+        }
+    }
+
+    private byte[] rawKey(Object key) {
+        RedisCacheConfiguration config = delegate.getCacheConfiguration();
+        String cacheKey = config.usePrefix() ? config.getKeyPrefixFor(getName()) + key : String.valueOf(key);
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+
+    // ── Single-key operations: passed through ───────────────────────────────
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private record SimpleValue(Object get) implements ValueWrapper {
+    }
+}
@@ -0,0 +1,242 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.logging.RateLimitedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker in front of every Redis command.
+ *
+ * Outcomes of the last {@code windowSize} commands are kept in a ring. Once at least
+ * {@code minimumCalls} are recorded, the breaker opens when the share of failures, or of calls slower
+ * than {@code slowCallNanos}, reaches its threshold. While open every command fails immediately (see
+ * {@link CircuitBreakingRedisConnectionFactory}), so a Redis outage costs callers microseconds instead
+ * of a full command timeout each.
+ *
+ * Nothing on the request path probes Redis while open: after {@code openNanos} a scheduled PING on
+ * the raw connection factory decides whether to close. Before closing, keys that callers marked dirty
+ * during the outage (writes and evictions that never reached Redis) are deleted in bulk, so no node
+ * reads an entry this node failed to update; then the close listeners run (e.g. dropping local
+ * fallback caches).
+ */
+public class RedisCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private static final int DEL_CHUNK = 1_000;
+
+    private static final byte OK = 0;
+    private static final byte SLOW = 1;
+    private static final byte FAILED = 2;
+
+    public enum State { CLOSED, OPEN }
+
+    private final RedisConnectionFactory probeFactory;
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int maxDirtyKeys;
+
+    // Sliding window, guarded by this
+    private final byte[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private volatile State state = State.CLOSED;
+    private volatile long openedAt;
+
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirtyOverflowLogged = new AtomicBoolean();
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    public RedisCircuitBreaker(RedisConnectionFactory probeFactory, boolean enabled, int windowSize,
+                               int minimumCalls, int failureRateThreshold, int slowCallRateThreshold,
+                               long slowCallMs, long openMs, int maxDirtyKeys) {
+        this.probeFactory = probeFactory;
+        this.enabled = enabled;
+        this.window = new byte[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.maxDirtyKeys = maxDirtyKeys;
+    }
+
+    /**
+     * False while the circuit is open: the caller must not touch Redis.
+     */
+    public boolean allowRequest() {
+        return state == State.CLOSED;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Records the outcome of one Redis command.
+     */
+    public void record(long elapsedNanos, boolean failed) {
+        if (!enabled) return;
+        byte outcome = failed ? FAILED : elapsedNanos >= slowCallNanos ? SLOW : OK;
+        boolean trip;
+        int failedCalls;
+        int slowCallCount;
+        int windowCalls;
+        synchronized (this) {
+            if (recorded == window.length) {
+                byte evicted = window[next];
+                if (evicted == FAILED) failures--;
+                else if (evicted == SLOW) slowCalls--;
+            } else {
+                recorded++;
+            }
+            window[next] = outcome;
+            next = (next + 1) % window.length;
+            if (outcome == FAILED) failures++;
+            else if (outcome == SLOW) slowCalls++;
+
+            trip = state == State.CLOSED && recorded >= minimumCalls
+                    && (failures * 100 >= failureRateThreshold * recorded
+                        || (failures + slowCalls) * 100 >= slowCallRateThreshold * recorded);
+            // Copied before open() resets the window, for the log line below
+            failedCalls = failures;
+            slowCallCount = slowCalls;
+            windowCalls = recorded;
+            if (trip) open();
+        }
+        if (trip) {
+            log.warn("Redis circuit opened: {} failed and {} slow of the last {} commands", failedCalls, slowCallCount, windowCalls);
+        }
+    }
+
+    /**
+     * Remembers a key whose Redis value may now be stale because a write or delete for it failed.
+     * It is deleted before the circuit next closes (or at the next successful probe).
+     */
+    public void markDirty(String key) {
+        if (dirtyKeys.size() >= maxDirtyKeys) {
+            // Past the bound the entry just lives out its TTL
+            if (dirtyOverflowLogged.compareAndSet(false, true)) {
+                log.warn("Redis dirty-key set is full ({} keys); further stale keys expire by TTL only", maxDirtyKeys);
+            }
+            return;
+        }
+        dirtyKeys.add(key);
+    }
+
+    public void markDirty(Collection<String> keys) {
+        keys.forEach(this::markDirty);
+    }
+
+    public int dirtyKeyCount() {
+        return dirtyKeys.size();
+    }
+
+    /**
+     * Registers an action to run each time the circuit closes, after dirty keys are deleted.
+     */
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    // ── Recovery ────────────────────────────────────────────────────────────
+
+    /**
+     * While open, PINGs Redis once the open period has passed and closes the circuit if it answers and
+     * the dirty keys could be deleted. While closed, retries leftover dirty keys (from failed commands
+     * that did not trip the breaker).
+     */
+    @Scheduled(fixedDelayString = "${app.redis.circuit-breaker.probe-interval-ms:1000}")
+    public void probe() {
+        if (!enabled) return;
+        if (state == State.CLOSED) {
+            if (!dirtyKeys.isEmpty()) flushDirtyKeys();
+            return;
+        }
+        if (System.nanoTime() - openedAt < openNanos) return;
+
+        if (!ping() || !flushDirtyKeys()) {
+            // Still down: start another open period
+            openedAt = System.nanoTime();
+            return;
+        }
+        synchronized (this) {
+            resetWindow();
+            state = State.CLOSED;
+        }
+        dirtyOverflowLogged.set(false);
+        log.info("Redis circuit closed after a successful probe");
+        for (Runnable listener : closeListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("Redis circuit close listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    private boolean ping() {
+        try (RedisConnection connection = probeFactory.getConnection()) {
+            return "PONG".equalsIgnoreCase(connection.ping());
+        } catch (RuntimeException e) {
+            log.debug("Redis probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Bypasses the breaker (raw factory); keys are removed from the set only once their DEL succeeded
+    private boolean flushDirtyKeys() {
+        if (dirtyKeys.isEmpty()) return true;
+        List<String> keys = new ArrayList<>(dirtyKeys);
+        try (RedisConnection connection = probeFactory.getConnection()) {
+            for (int from = 0; from < keys.size(); from += DEL_CHUNK) {
+                List<String> chunk = keys.subList(from, Math.min(from + DEL_CHUNK, keys.size()));
+                byte[][] raw = new byte[chunk.size()][];
+                for (int i = 0; i < raw.length; i++) {
+                    raw[i] = chunk.get(i).getBytes(StandardCharsets.UTF_8);
+                }
+                connection.keyCommands().del(raw);
+                chunk.forEach(dirtyKeys::remove);
+            }
+            log.info("Deleted {} Redis keys left stale during the outage", keys.size());
+            return true;
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis DEL error while clearing {} dirty keys: {}", keys.size(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.assignment.demo.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides when a soft-expired cache entry should be refreshed.
+ *
+ * Uses probabilistic early expiration (XFetch): a reader triggers the refresh when
+ * {@code now + delta * beta * -ln(rand) >= softExpiresAt}, where delta is how long the value took to
+ * load, but at least {@code minDeltaMillis}. Loads here take milliseconds, so without the floor the
+ * early window would be a few milliseconds of a 60s TTL and every hot key written at the same moment
+ * would still refresh at its soft expiry. With it, each read of a key within a few deltas of its soft
+ * expiry has a rising chance to refresh it, and expensive keys start earlier still.
+ */
+@Component
+public class RefreshPolicy {
+
+    private final boolean enabled;
+    private final double beta;
+    private final long minDeltaMillis;
+
+    public RefreshPolicy(@Value("${app.cache.stale-while-revalidate.enabled:true}") boolean enabled,
+                         @Value("${app.cache.early-refresh.beta:1.0}") double beta,
+                         @Value("${app.cache.early-refresh.min-delta-ms:1000}") long minDeltaMillis) {
+        this.enabled = enabled;
+        this.beta = beta;
+        this.minDeltaMillis = minDeltaMillis;
+    }
+
+    public <T> CachedValue<T> wrap(T value, Duration softTtl, long computeMillis) {
+        return new CachedValue<>(value, System.currentTimeMillis() + softTtl.toMillis(), computeMillis);
+    }
+
+    /**
+     * True if this reader should trigger a background refresh. Always false when stale-while-revalidate
+     * is disabled, in which case entries simply live until their hard TTL.
+     */
+    public boolean isRefreshDue(CachedValue<?> entry) {
+        if (!enabled || entry == null) return false;
+        long delta = Math.max(entry.getComputeMillis(), minDeltaMillis);
+        // 1 - nextDouble() is in (0, 1], so the log is finite and <= 0
+        double gap = delta * beta * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+        return System.currentTimeMillis() + gap >= entry.getSoftExpiresAt();
+    }
+}
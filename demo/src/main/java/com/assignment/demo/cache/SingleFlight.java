@@ -0,0 +1,211 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.logging.RateLimitedLogger;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Per-key request coalescing for cache misses.
+ *
+ * Within a node, concurrent callers asking for the same key share a single load: the first caller
+ * becomes the leader and runs the loader, everyone else waits on the leader's future and receives
+ * the same value (or the same exception).
+ *
+ * When the Redis lease is enabled, the leader additionally takes a short-lived SET NX lease in Redis
+ * so that only one node in the cluster loads a given key. Nodes that lose the race poll the cache
+ * (via the supplied re-check) until the lease holder has written the value back, and only load
+ * themselves if the wait times out or Redis is unavailable.
+ *
+ * Stale-while-revalidate refreshes go through {@link #refreshAsync}, which runs at most one background
+ * refresh per key at a time on a small bounded pool so readers never wait for them.
+ */
+@Component
+public class SingleFlight {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleFlight.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private static final String LEASE_KEY = "lease:%s";
+
+    // Compare-and-delete so a leader whose lease already expired never releases someone else's lease
+    private static final RedisScript<Long> RELEASE_LEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean leaseEnabled;
+    private final Duration leaseTtl;
+    private final long leaseWaitNanos;
+    private final long leasePollMillis;
+
+    public SingleFlight(RedisTemplate<String, String> redisTemplate,
+                        @Value("${app.cache.single-flight.redis-lease.enabled:false}") boolean leaseEnabled,
+                        @Value("${app.cache.single-flight.redis-lease.ttl-ms:2000}") long leaseTtlMs,
+                        @Value("${app.cache.single-flight.redis-lease.wait-ms:500}") long leaseWaitMs,
+                        @Value("${app.cache.single-flight.redis-lease.poll-ms:20}") long leasePollMs,
+                        @Value("${app.cache.refresh.threads:2}") int refreshThreads,
+                        @Value("${app.cache.refresh.queue-capacity:1000}") int refreshQueueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.leaseEnabled = leaseEnabled;
+        this.leaseTtl = Duration.ofMillis(leaseTtlMs);
+        this.leaseWaitNanos = TimeUnit.MILLISECONDS.toNanos(leaseWaitMs);
+        this.leasePollMillis = leasePollMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(
+                refreshThreads, refreshThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "cache-refresh-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs the loader once per key across all concurrent callers on this node.
+     */
+    public <T> T execute(String key, Supplier<T> loader) {
+        return execute(key, () -> null, loader);
+    }
+
+    /**
+     * Runs the loader once per key across all concurrent callers on this node.
+     *
+     * The re-check is consulted by the leader before loading (a previous leader may have just written
+     * the value back) and, in lease mode, while waiting for another node to populate the cache.
+     * It must return null when the value is still absent.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> recheck, Supplier<T> loader) {
+        CompletableFuture<Object> leader = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+
+        try {
+            T value = recheck.get();
+            if (value == null) {
+                value = leaseEnabled ? loadUnderLease(key, recheck, loader) : loader.get();
+            }
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * Schedules a background refresh for the key unless one is already queued or running.
+     * If the refresh pool is saturated the request is dropped; the entry stays servable until its
+     * hard TTL and a later reader will try again.
+     */
+    public void refreshAsync(String key, Runnable refresher) {
+        if (!refreshing.add(key)) return;
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresher.run();
+                } catch (RuntimeException e) {
+                    rateLimitedLog.warn(e, "Background refresh failed for key '{}': {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Re-throw the leader's original exception so waiters see e.g. EntityNotFoundException unchanged
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    // ── Redis lease (cross-node coalescing) ─────────────────────────────────
+
+    private <T> T loadUnderLease(String key, Supplier<T> recheck, Supplier<T> loader) {
+        String leaseKey = String.format(LEASE_KEY, key);
+        String token = UUID.randomUUID().toString();
+
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey, token, leaseTtl);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis SET NX error for lease '{}': {}", leaseKey, e.getMessage());
+            // Redis is down — nothing to coordinate with, load locally
+            return loader.get();
+        }
+
+        if (Boolean.TRUE.equals(acquired)) {
+            try {
+                return loader.get();
+            } finally {
+                releaseLease(leaseKey, token);
+            }
+        }
+
+        // Another node holds the lease — wait for its write-back, then load ourselves as a last resort
+        long deadline = System.nanoTime() + leaseWaitNanos;
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(leasePollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            T value = recheck.get();
+            if (value != null) return value;
+        }
+        return loader.get();
+    }
+
+    private void releaseLease(String leaseKey, String token) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE_SCRIPT, List.of(leaseKey), token);
+        } catch (RuntimeException e) {
+            // The lease expires on its own after leaseTtl
+            rateLimitedLog.warn(e, "Redis DEL error while releasing lease '{}': {}", leaseKey, e.getMessage());
+        }
+    }
+}
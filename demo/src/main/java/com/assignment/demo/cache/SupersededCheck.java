@@ -0,0 +1,20 @@
+package com.assignment.demo.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tells which values just written back to a cache are already older than a newer recorded version,
+ * so the write-back can be undone. Run after the write: an update recording its version before the
+ * check is seen by it, and one recording it later evicts the key itself.
+ */
+@FunctionalInterface
+public interface SupersededCheck {
+
+    SupersededCheck NONE = written -> Set.of();
+
+    /**
+     * Returns the keys among {@code written} (key to value, values may be null) whose value is superseded.
+     */
+    Set<Object> supersededKeys(Map<?, ?> written);
+}
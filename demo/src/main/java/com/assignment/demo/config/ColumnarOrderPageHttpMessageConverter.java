@@ -0,0 +1,88 @@
+package com.assignment.demo.config;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.PagedOrderResponse;
+import com.assignment.demo.enums.OrderField;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes a {@link PagedOrderResponse} as one JSON array per field instead of one object per order:
+ *
+ * {"page":0,"size":20,"totalElements":2,"totalPages":1,"last":true,
+ *  "columns":{"orderId":["42","43"],"status":["NEW","COMPLETED"]}}
+ *
+ * Property names are sent once per page rather than once per row. Only the fields selected with
+ * {@code fields=} are written (all fields otherwise). Selected by {@code Accept: application/vnd.orders.columnar+json}.
+ */
+public class ColumnarOrderPageHttpMessageConverter extends AbstractHttpMessageConverter<PagedOrderResponse> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.orders.columnar+json";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarOrderPageHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MEDIA_TYPE);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PagedOrderResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PagedOrderResponse readInternal(Class<? extends PagedOrderResponse> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar order pages are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(PagedOrderResponse page, HttpOutputMessage outputMessage) throws IOException {
+        Set<OrderField> fields = page.getFields() == null
+                ? EnumSet.allOf(OrderField.class)
+                : OrderField.parse(String.join(",", page.getFields()));
+        List<OrderResponse> rows = page.getContent();
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeNumberField("page", page.getPage());
+            gen.writeNumberField("size", page.getSize());
+            gen.writeNumberField("totalElements", page.getTotalElements());
+            gen.writeNumberField("totalPages", page.getTotalPages());
+            gen.writeBooleanField("last", page.isLast());
+            gen.writeObjectFieldStart("columns");
+            for (OrderField field : fields) {
+                gen.writeArrayFieldStart(field.property());
+                for (OrderResponse row : rows) {
+                    Object value = field.get(row);
+                    // Order ids as strings, like OrderResponse.orderId in the object layout
+                    if (field == OrderField.ORDER_ID && value != null) {
+                        gen.writeString(value.toString());
+                    } else {
+                        gen.writeObject(value);
+                    }
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+    }
+}
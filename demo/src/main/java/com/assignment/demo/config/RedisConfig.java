@@ -1,18 +1,33 @@
 package com.assignment.demo.config;
 
+import com.assignment.demo.cache.CachedValue;
+import com.assignment.demo.cache.CircuitBreakingRedisConnectionFactory;
+import com.assignment.demo.cache.CoalescingCacheManager;
+import com.assignment.demo.cache.DegradedModeCache;
+import com.assignment.demo.cache.OrderCacheTtls;
+import com.assignment.demo.cache.RedisBulkCache;
+import com.assignment.demo.cache.RedisCircuitBreaker;
+import com.assignment.demo.cache.RefreshPolicy;
+import com.assignment.demo.cache.SingleFlight;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.logging.RateLimitedLogger;
+import com.assignment.demo.service.OrderRedisService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.cache.interceptor.SimpleCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -37,7 +52,7 @@ public class RedisConfig implements CachingConfigurer {
     private int redisPort;
 
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory lettuceConnectionFactory() {
         LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
                 .commandTimeout(Duration.ofSeconds(1))
                 .shutdownTimeout(Duration.ZERO)
@@ -48,7 +63,37 @@ public class RedisConfig implements CachingConfigurer {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCircuitBreaker redisCircuitBreaker(
+            LettuceConnectionFactory lettuceConnectionFactory,
+            @Value("${app.redis.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${app.redis.circuit-breaker.window-size:100}") int windowSize,
+            @Value("${app.redis.circuit-breaker.minimum-calls:20}") int minimumCalls,
+            @Value("${app.redis.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.redis.circuit-breaker.slow-call-rate-threshold:80}") int slowCallRateThreshold,
+            @Value("${app.redis.circuit-breaker.slow-call-ms:250}") long slowCallMs,
+            @Value("${app.redis.circuit-breaker.open-ms:5000}") long openMs,
+            @Value("${app.redis.circuit-breaker.max-dirty-keys:100000}") int maxDirtyKeys) {
+        return new RedisCircuitBreaker(lettuceConnectionFactory, enabled, windowSize, minimumCalls,
+                failureRateThreshold, slowCallRateThreshold, slowCallMs, openMs, maxDirtyKeys);
+    }
+
+    // Every Redis user (templates and caches) goes through the breaker: while it is open, commands
+    // fail immediately instead of each waiting out the 1s command timeout
+    @Bean
+    @Primary
+    public RedisConnectionFactory redisConnectionFactory(LettuceConnectionFactory lettuceConnectionFactory,
+                                                         RedisCircuitBreaker redisCircuitBreaker) {
+        return new CircuitBreakingRedisConnectionFactory(lettuceConnectionFactory, redisCircuitBreaker);
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                     SingleFlight singleFlight,
+                                     RefreshPolicy refreshPolicy,
+                                     OrderCacheTtls orderCacheTtls,
+                                     RedisCircuitBreaker redisCircuitBreaker,
+                                     @Lazy OrderRedisService orderRedisService,
+                                     @Value("${app.redis.circuit-breaker.fallback-cache-size:10000}") int fallbackCacheSize) {
         ObjectMapper objectMapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
@@ -57,16 +102,35 @@ public class RedisConfig implements CachingConfigurer {
                         ObjectMapper.DefaultTyping.NON_FINAL);
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofSeconds(60))
+                // Hard TTL per value — entries are refreshed in the background from the soft TTL onwards,
+                // "not found" entries live briefly and terminal orders are kept for a long time
+                .entryTtl((key, value) -> orderCacheTtls.hardTtl(unwrap(value)))
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 new GenericJackson2JsonRedisSerializer(objectMapper)));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Concurrent misses on the same key share one DB load (see @Cacheable(sync = true) call sites),
+        // and entries past the soft TTL are served stale while one background task refreshes them;
+        // while the Redis circuit is open each cache is served from a bounded in-process LRU. Redis
+        // caches also get MGET / pipelined bulk operations (RedisBulkCache). A loaded order older than its
+        // version stamp is not kept, whether loaded alone or by a multi-get (it raced an update's eviction)
+        return new CoalescingCacheManager(redisCacheManager, singleFlight, refreshPolicy,
+                orderCacheTtls::softTtl,
+                orderRedisService::supersededKeys,
+                cache -> new DegradedModeCache(
+                        cache instanceof RedisCache redisCache ? new RedisBulkCache(redisCache, connectionFactory) : cache,
+                        redisCircuitBreaker, fallbackCacheSize));
+    }
+
+    private static Object unwrap(Object stored) {
+        return stored instanceof CachedValue<?> entry ? entry.getValue() : stored;
     }
 
     @Bean
@@ -85,26 +149,27 @@ public class RedisConfig implements CachingConfigurer {
     @Override
     public CacheErrorHandler errorHandler() {
         return new SimpleCacheErrorHandler() {
-            private final Logger log = LoggerFactory.getLogger(RedisConfig.class);
+            // Every cached call fails while Redis is down; one line per error type per interval is enough
+            private final RateLimitedLogger log = RateLimitedLogger.of(LoggerFactory.getLogger(RedisConfig.class));
 
             @Override
             public void handleCacheGetError(RuntimeException e, Cache cache, Object key) {
-                log.warn("Redis GET error on cache '{}' key '{}': {}", cache.getName(), key, e.getMessage());
+                log.warn(e, "Redis GET error on cache '{}' key '{}': {}", cache.getName(), key, e.getMessage());
             }
 
             @Override
             public void handleCachePutError(RuntimeException e, Cache cache, Object key, Object value) {
-                log.warn("Redis PUT error on cache '{}' key '{}': {}", cache.getName(), key, e.getMessage());
+                log.warn(e, "Redis PUT error on cache '{}' key '{}': {}", cache.getName(), key, e.getMessage());
             }
 
             @Override
             public void handleCacheEvictError(RuntimeException e, Cache cache, Object key) {
-                log.warn("Redis EVICT error on cache '{}' key '{}': {}", cache.getName(), key, e.getMessage());
+                log.warn(e, "Redis EVICT error on cache '{}' key '{}': {}", cache.getName(), key, e.getMessage());
             }
 
             @Override
             public void handleCacheClearError(RuntimeException e, Cache cache) {
-                log.warn("Redis CLEAR error on cache '{}': {}", cache.getName(), e.getMessage());
+                log.warn(e, "Redis CLEAR error on cache '{}': {}", cache.getName(), e.getMessage());
             }
         };
     }
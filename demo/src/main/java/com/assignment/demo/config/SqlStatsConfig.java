@@ -0,0 +1,24 @@
+package com.assignment.demo.config;
+
+import com.assignment.demo.sql.CountingStatementInspector;
+import com.assignment.demo.sql.StatementTimingListener;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hooks statement counting and JDBC timing into every Hibernate session (see
+ * {@link com.assignment.demo.sql.StatementScope}).
+ */
+@Configuration
+public class SqlStatsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementAccountingCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, StatementTimingListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.assignment.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    // Boot's ObjectMapper, so columnar output formats dates exactly like the regular JSON responses
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // CBOR and Smile converters are registered by Spring MVC itself once the Jackson dataformat
+        // modules are on the classpath; only the columnar JSON layout needs a converter of its own.
+        // First in line, since the Jackson JSON converter also accepts application/*+json; plain JSON
+        // stays the default for Accept: */* through the list endpoint's produces order
+        converters.add(0, new ColumnarOrderPageHttpMessageConverter(objectMapper));
+    }
+}
@@ -2,6 +2,7 @@ package com.assignment.demo.controller;
 
 import com.assignment.demo.dto.AuthResponse;
 import com.assignment.demo.dto.LoginRequest;
+import com.assignment.demo.dto.RefreshTokenRequest;
 import com.assignment.demo.dto.RegisterRequest;
 import com.assignment.demo.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -54,7 +55,7 @@ public class AuthController {
 
     @Operation(
         summary = "Login and obtain JWT",
-        description = "Authenticates with email and password. Returns a JWT valid for 1 hour.",
+        description = "Authenticates with email and password. Returns a JWT valid for 1 hour and a single-use refresh token.",
         security = {}
     )
     @ApiResponses({
@@ -70,4 +71,24 @@ public class AuthController {
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
+
+    @Operation(
+        summary = "Refresh JWT",
+        description = "Exchanges a refresh token for a new JWT and a new refresh token, without a password. "
+                + "Each refresh token works once; replaying a used one revokes every token from that login.",
+        security = {}
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Refresh successful — new token pair returned",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = AuthResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Refresh token unknown, expired, already used or revoked",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Invalid or expired refresh token\"}")))
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
 }
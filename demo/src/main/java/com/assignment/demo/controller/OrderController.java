@@ -1,21 +1,30 @@
 package com.assignment.demo.controller;
 
+import com.assignment.demo.config.ColumnarOrderPageHttpMessageConverter;
 import com.assignment.demo.dto.CreateOrderRequest;
+import com.assignment.demo.dto.OrderBookDepthResponse;
 import com.assignment.demo.dto.OrderFilterRequest;
 import com.assignment.demo.dto.OrderResponse;
 import com.assignment.demo.dto.PagedOrderResponse;
 import com.assignment.demo.dto.UpdateOrderStatusRequest;
+import com.assignment.demo.enums.OrderField;
+import com.assignment.demo.exception.PreconditionFailedException;
 import com.assignment.demo.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -25,14 +34,18 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Tag(name = "Orders", description = "Create, retrieve, filter, and manage trade orders")
 @RestController
@@ -40,8 +53,14 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OrderController {
 
+    // Registered by Spring MVC with the Jackson Smile module; MediaType has no constant for it
+    private static final String SMILE_MEDIA_TYPE_VALUE = "application/x-jackson-smile";
+
     private final OrderService orderService;
 
+    @Value("${app.http.terminal-order-max-age-seconds:86400}")
+    private long terminalOrderMaxAgeSeconds;
+
     @Operation(
         summary = "Create a new order",
         description = "Roles: ADMIN, USER. ADMIN can create on behalf of any userId; USER can only create for their own account."
@@ -69,12 +88,14 @@ public class OrderController {
 
     @Operation(
         summary = "Get order by ID",
-        description = "Roles: ADMIN, USER. Response is Redis-cached for 60 seconds. USER can only access their own orders."
+        description = "Roles: ADMIN, USER. Response is Redis-cached (60 seconds, or much longer once the order is COMPLETED, CANCELLED or FAILED). USER can only access their own orders. " +
+                      "Returns an ETag; send it back in If-None-Match to get 304 Not Modified while the order is unchanged."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Order found",
             content = @Content(mediaType = "application/json",
                 schema = @Schema(implementation = OrderResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Order unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "403", description = "USER accessing another user's order",
             content = @Content(mediaType = "application/json",
                 schema = @Schema(example = "{\"error\": \"Access denied\"}"))),
@@ -86,25 +107,81 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<OrderResponse> getOrderById(
             @Parameter(description = "Order ID", required = true, example = "42") @PathVariable Long id,
+            @Parameter(description = "ETag from a previous response", example = "\"42-3\"")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
 
+        // 1. Conditional GET fast path — compare against the cached version stamp only
+        if (ifNoneMatch != null) {
+            OrderResponse stamp = orderService.getOrderVersion(id, authentication);
+            if (stamp != null && eTagMatches(ifNoneMatch, eTagOf(stamp))) {
+                return notModified(stamp);
+            }
+        }
+
+        // 2. Full read (cache or DB)
         OrderResponse response = orderService.getOrderById(id, authentication);
-        return ResponseEntity.ok(response);
+        if (response.getVersion() == null) {
+            return ResponseEntity.ok(response);
+        }
+        if (ifNoneMatch != null && eTagMatches(ifNoneMatch, eTagOf(response))) {
+            return notModified(response);
+        }
+        return ResponseEntity.ok()
+                .eTag(eTagOf(response))
+                .cacheControl(cacheControlFor(response))
+                .body(response);
+    }
+
+    @Operation(
+        summary = "Get many orders by ID",
+        description = "Roles: ADMIN, USER. Up to 200 ids, returned in the requested order. All ids are resolved from the Redis order cache in one MGET; " +
+                      "misses are loaded with one query and cached. USER can only access their own orders: one foreign or unknown id fails the whole request."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Orders found",
+            content = @Content(mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = OrderResponse.class)))),
+        @ApiResponse(responseCode = "400", description = "No ids or more than 200",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"At most 200 ids per request\"}"))),
+        @ApiResponse(responseCode = "403", description = "USER accessing another user's order",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Access denied\"}"))),
+        @ApiResponse(responseCode = "404", description = "An order was not found",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Order not found\"}")))
+    })
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<List<OrderResponse>> getOrdersByIds(
+            @Parameter(description = "Comma-separated order IDs (max 200)", required = true, example = "42,43,44")
+            @RequestParam List<Long> ids,
+            Authentication authentication) {
+
+        return ResponseEntity.ok(orderService.getOrdersByIds(ids, authentication));
     }
 
     @Operation(
         summary = "List orders with filters and pagination",
-        description = "Roles: ADMIN, USER. ADMIN can filter by any userId. USER always sees only their own orders (userId param is ignored)."
+        description = "Roles: ADMIN, USER. ADMIN can filter by any userId. USER always sees only their own orders (userId param is ignored). " +
+                      "Besides JSON, responds with CBOR (application/cbor), Smile (application/x-jackson-smile) or column-per-field JSON (" + ColumnarOrderPageHttpMessageConverter.MEDIA_TYPE_VALUE + ") depending on Accept."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Paginated order list",
-            content = @Content(mediaType = "application/json",
-                schema = @Schema(implementation = PagedOrderResponse.class))),
+            content = {
+                @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = PagedOrderResponse.class)),
+                @Content(mediaType = ColumnarOrderPageHttpMessageConverter.MEDIA_TYPE_VALUE,
+                    schema = @Schema(example = "{\"page\": 0, \"size\": 20, \"totalElements\": 2, \"totalPages\": 1, \"last\": true, \"columns\": {\"orderId\": [\"42\", \"43\"], \"status\": [\"NEW\", \"COMPLETED\"]}}"))
+            }),
         @ApiResponse(responseCode = "400", description = "Invalid filter parameters",
             content = @Content(mediaType = "application/json",
                 schema = @Schema(example = "{\"error\": \"Invalid status value\"}")))
     })
-    @GetMapping
+    // JSON first, so it is what Accept: */* gets
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            SMILE_MEDIA_TYPE_VALUE, ColumnarOrderPageHttpMessageConverter.MEDIA_TYPE_VALUE})
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<PagedOrderResponse> listOrders(
             @Parameter(description = "Filter by user ID (ADMIN only)", example = "5")
@@ -146,6 +223,9 @@ public class OrderController {
             @Parameter(description = "Sort direction: asc or desc", example = "desc")
             @RequestParam(defaultValue = "desc") String sortDir,
 
+            @Parameter(description = "Sparse fieldset: comma-separated properties to select and return (default all)", example = "orderId,status")
+            @RequestParam(required = false) String fields,
+
             Authentication authentication) {
 
         OrderFilterRequest filter = new OrderFilterRequest();
@@ -162,13 +242,15 @@ public class OrderController {
         filter.setSize(size);
         filter.setSortBy(sortBy);
         filter.setSortDir(sortDir);
+        filter.setFields(fields);
 
         return ResponseEntity.ok(orderService.listOrders(filter, authentication));
     }
 
     @Operation(
         summary = "Update order status",
-        description = "Role: ADMIN only. Valid transitions: NEW → PROCESSING | CANCELLED; PROCESSING → COMPLETED | FAILED | CANCELLED. Terminal states (COMPLETED, FAILED, CANCELLED) cannot be changed."
+        description = "Role: ADMIN only. Valid transitions: NEW → PROCESSING | CANCELLED; PROCESSING → COMPLETED | FAILED | CANCELLED. Terminal states (COMPLETED, FAILED, CANCELLED) cannot be changed. " +
+                      "Send the order's ETag in If-Match to apply the update only if nobody changed the order since (412 otherwise); the response carries the new ETag."
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Status updated",
@@ -185,16 +267,24 @@ public class OrderController {
                 schema = @Schema(example = "{\"error\": \"Order not found\"}"))),
         @ApiResponse(responseCode = "409", description = "Conflict while updating",
             content = @Content(mediaType = "application/json",
-                schema = @Schema(example = "{\"error\": \"Conflict while updating\"}")))
+                schema = @Schema(example = "{\"error\": \"Conflict while updating\"}"))),
+        @ApiResponse(responseCode = "412", description = "The order no longer has the version in If-Match",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Order 42 is at version 4, not 3\"}")))
     })
     @PatchMapping("/{id}/status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<OrderResponse> updateOrderStatus(
             @Parameter(description = "Order ID", required = true, example = "42") @PathVariable Long id,
             @Valid @RequestBody UpdateOrderStatusRequest request,
+            @Parameter(description = "ETag the update is conditional on", example = "\"42-3\"")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
 
-        return ResponseEntity.ok(orderService.updateOrderStatus(id, request, authentication));
+        OrderResponse response = orderService.updateOrderStatus(id, request, expectedVersion(ifMatch, id), authentication);
+        return ResponseEntity.ok()
+                .eTag(eTagOf(response))
+                .body(response);
     }
 
     @Operation(
@@ -234,8 +324,144 @@ public class OrderController {
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     public ResponseEntity<List<OrderResponse>> getUserRecentOrders(
             @Parameter(description = "User ID", required = true, example = "5") @PathVariable Long userId,
+            @Parameter(description = "Sparse fieldset: comma-separated properties to return (default all)", example = "orderId,status")
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+
+        // Recent orders are served whole from Redis, so the fieldset only trims the serialized output
+        Set<OrderField> selected = OrderField.parse(fields);
+        return ResponseEntity.ok(OrderField.select(orderService.getRecentOrdersForUser(userId, authentication), selected));
+    }
+
+    @Operation(
+        summary = "Get order counts for many users",
+        description = "Role: ADMIN only. Up to 500 comma-separated userIds; counters are read in one Redis round trip and "
+                + "only the misses are loaded from the DB. Unknown users are left out of the result."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Order count per userId",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"5\": 13, \"7\": 2}"))),
+        @ApiResponse(responseCode = "400", description = "Empty or too many userIds",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"At most 500 userIds per request\"}"))),
+        @ApiResponse(responseCode = "403", description = "Not ADMIN",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Access denied\"}")))
+    })
+    @GetMapping("/order-counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<Long, Long>> getUserOrderCounts(
+            @Parameter(description = "Comma-separated user IDs", required = true, example = "5,7,9") @RequestParam List<Long> userIds,
             Authentication authentication) {
 
-        return ResponseEntity.ok(orderService.getRecentOrdersForUser(userId, authentication));
+        return ResponseEntity.ok(orderService.countUserOrdersBatch(userIds, authentication));
+    }
+
+    @Operation(
+        summary = "Get recent orders for many users",
+        description = "Role: ADMIN only. Up to 500 comma-separated userIds; lists are read in one Redis round trip and "
+                + "only the misses are loaded from the DB. Unknown users are left out of the result."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Recent orders per userId, newest first",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"5\": [{\"orderId\": \"42\", \"status\": \"NEW\"}], \"7\": []}"))),
+        @ApiResponse(responseCode = "400", description = "Empty or too many userIds",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"At most 500 userIds per request\"}"))),
+        @ApiResponse(responseCode = "403", description = "Not ADMIN",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Access denied\"}")))
+    })
+    @GetMapping("/recent-orders")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<Long, List<OrderResponse>>> getUsersRecentOrders(
+            @Parameter(description = "Comma-separated user IDs", required = true, example = "5,7,9") @RequestParam List<Long> userIds,
+            @Parameter(description = "Sparse fieldset: comma-separated properties to return (default all)", example = "orderId,status")
+            @RequestParam(required = false) String fields,
+            Authentication authentication) {
+
+        Set<OrderField> selected = OrderField.parse(fields);
+        Map<Long, List<OrderResponse>> result = new LinkedHashMap<>();
+        orderService.getRecentOrdersForUsers(userIds, authentication)
+                .forEach((userId, orders) -> result.put(userId, OrderField.select(orders, selected)));
+        return ResponseEntity.ok(result);
+    }
+
+    @Operation(
+        summary = "Get order book depth",
+        description = "Roles: ADMIN, USER. Open quantity aggregated per price level for BUY (bids) and SELL (asks), best level first, "
+                + "served from the matching engine's in-memory book."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Depth snapshot returned",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = OrderBookDepthResponse.class))),
+        @ApiResponse(responseCode = "400", description = "depth out of range",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"depth must be between 1 and 50\"}"))),
+        @ApiResponse(responseCode = "503", description = "Matching engine disabled on this instance",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Order book is not available on this instance\"}")))
+    })
+    @GetMapping("/book")
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    public ResponseEntity<OrderBookDepthResponse> getOrderBookDepth(
+            @Parameter(description = "Price levels per side (default 10, max app.matching.depth-levels)", example = "10")
+            @RequestParam(defaultValue = "10") int depth) {
+
+        return ResponseEntity.ok(orderService.getOrderBookDepth(depth));
+    }
+
+    // ── Conditional GET helpers ──────────────────────────────────────────────
+
+    private ResponseEntity<OrderResponse> notModified(OrderResponse order) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTagOf(order))
+                .cacheControl(cacheControlFor(order))
+                .build();
+    }
+
+    private static String eTagOf(OrderResponse order) {
+        return "\"" + order.getOrderId() + "-" + order.getVersion() + "\"";
+    }
+
+    // Terminal orders never change, so clients and private caches may keep them; everything else
+    // must be revalidated (cheaply, via If-None-Match) on every use
+    private CacheControl cacheControlFor(OrderResponse order) {
+        if (order.getStatus() != null && order.getStatus().isTerminal()) {
+            return CacheControl.maxAge(Duration.ofSeconds(terminalOrderMaxAgeSeconds)).cachePrivate().immutable();
+        }
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    // The version named by If-Match, or null when the update is unconditional ("*" only requires the
+    // order to exist). Strong comparison: weak tags and tags of other orders never match.
+    private static Long expectedVersion(String ifMatch, Long orderId) {
+        if (ifMatch == null) return null;
+        String prefix = "\"" + orderId + "-";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return null;
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // not one of our tags; try the next
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name a version of order " + orderId);
+    }
+
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(eTag)) return true;
+        }
+        return false;
     }
 }
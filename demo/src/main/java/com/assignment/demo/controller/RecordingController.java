@@ -0,0 +1,108 @@
+package com.assignment.demo.controller;
+
+import com.assignment.demo.dto.RecordingRequest;
+import com.assignment.demo.dto.RecordingStatusResponse;
+import com.assignment.demo.jfr.RecordingManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Tag(name = "Profiling", description = "Flight recordings and SQL statement statistics of this instance")
+@RestController
+@RequestMapping("/api/admin/recordings")
+@RequiredArgsConstructor
+public class RecordingController {
+
+    private final RecordingManager recordingManager;
+
+    @Operation(
+        summary = "Start a flight recording (ADMIN only)",
+        description = "Records JDK events (CPU samples, socket I/O, locks, GC) together with the order-service "
+                + "events (order create, cache lookup, Redis command, DB fallback, status transition, JWT "
+                + "verification) slower than the given thresholds. One recording per instance."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Recording started",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = RecordingStatusResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid threshold, duration or event name",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Unknown event 'Redis'. Accepted values: OrderCreate, CacheLookup, RedisCommand, DbFallback, StatusTransition, JwtVerification\"}"))),
+        @ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Access denied\"}"))),
+        @ApiResponse(responseCode = "409", description = "A recording is already running",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Recording 3 is already running; stop it first\"}")))
+    })
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecordingStatusResponse> start(@Valid @RequestBody(required = false) RecordingRequest req) {
+        return ResponseEntity.ok(recordingManager.start(req != null ? req : new RecordingRequest()));
+    }
+
+    @Operation(summary = "Show the current flight recording (ADMIN only)")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Recording found",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = RecordingStatusResponse.class))),
+        @ApiResponse(responseCode = "404", description = "No recording on this instance",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"No recording on this instance\"}")))
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RecordingStatusResponse> status() {
+        return ResponseEntity.ok(recordingManager.status());
+    }
+
+    @Operation(
+        summary = "Stop the flight recording and download it (ADMIN only)",
+        description = "Returns the .jfr file; open it with JDK Mission Control or `jfr print`."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "The recording",
+            content = @Content(mediaType = "application/octet-stream")),
+        @ApiResponse(responseCode = "404", description = "No recording on this instance",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"No recording on this instance\"}")))
+    })
+    @PostMapping("/stop")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> stop() throws IOException {
+        Path file = recordingManager.stop();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,47 @@
+package com.assignment.demo.controller;
+
+import com.assignment.demo.dto.EndpointStatementStats;
+import com.assignment.demo.sql.StatementStatsRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(name = "Profiling", description = "Flight recordings and SQL statement statistics of this instance")
+@RestController
+@RequestMapping("/api/admin/sql-stats")
+@RequiredArgsConstructor
+public class SqlStatsController {
+
+    private final StatementStatsRegistry statementStatsRegistry;
+
+    @Operation(
+        summary = "SQL statements per request, by endpoint (ADMIN only)",
+        description = "Histograms of Hibernate statements issued per request on this instance since startup, "
+                + "with mean JDBC execution time and the number of requests over the statement budget."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "One entry per endpoint",
+            content = @Content(mediaType = "application/json",
+                array = @ArraySchema(schema = @Schema(implementation = EndpointStatementStats.class)))),
+        @ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Access denied\"}")))
+    })
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EndpointStatementStats>> statementStats() {
+        return ResponseEntity.ok(statementStatsRegistry.snapshot());
+    }
+}
@@ -0,0 +1,58 @@
+package com.assignment.demo.controller;
+
+import com.assignment.demo.dto.UserImportResponse;
+import com.assignment.demo.service.UserImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Users", description = "User administration")
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserImportService userImportService;
+
+    @Operation(
+        summary = "Bulk import users (ADMIN only)",
+        description = "Registers many users from CSV (text/csv, header row with fullName,email,password[,role]) "
+                + "or NDJSON (application/x-ndjson, one register payload per line). Rows are validated like "
+                + "POST /api/auth/register and imported independently; rejected rows are listed by line number."
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Import finished — see imported/failed counts",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = UserImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Unreadable header or too many rows",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Import is limited to 10000 rows per request\"}"))),
+        @ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"Access denied\"}"))),
+        @ApiResponse(responseCode = "503", description = "Another import is running on this instance",
+            content = @Content(mediaType = "application/json",
+                schema = @Schema(example = "{\"error\": \"A user import is already running. Please retry later.\"}")))
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestBody String body) {
+
+        return ResponseEntity.ok(userImportService.importUsers(body, contentType));
+    }
+}
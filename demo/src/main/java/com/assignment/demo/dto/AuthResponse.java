@@ -6,10 +6,14 @@ import lombok.Data;
 
 @Data
 @AllArgsConstructor
-@Schema(description = "JWT token returned after successful login")
+@Schema(description = "JWT token returned after successful login or refresh")
 public class AuthResponse {
 
     @Schema(description = "JWT Bearer token — use as: Authorization: Bearer <token>",
             example = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJqYW5lQGV4YW1wbGUuY29tIn0.xxx")
     private String token;
+
+    @Schema(description = "Single-use refresh token — exchange at POST /api/auth/refresh for a new token pair",
+            example = "3q2-7wAAAAB0ZXN0LXJlZnJlc2gtdG9rZW4tdmFsdWU")
+    private String refreshToken;
 }
@@ -1,6 +1,7 @@
 package com.assignment.demo.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -23,6 +24,8 @@ public class CreateOrderRequest {
 
     @NotNull(message = "price is required")
     @Positive(message = "price must be greater than 0")
+    // Exactly representable in PriceTicks: four decimals as stored, and at most 10^18 - 1 ticks
+    @Digits(integer = 14, fraction = 4, message = "price must have at most 14 integer digits and 4 decimals")
     @Schema(description = "Price per unit", example = "250.00")
     private BigDecimal price;
 
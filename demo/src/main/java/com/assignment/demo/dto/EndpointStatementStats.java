@@ -0,0 +1,38 @@
+package com.assignment.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "SQL statements issued per request to one endpoint since startup")
+public class EndpointStatementStats {
+
+    @Schema(description = "HTTP method and route pattern", example = "GET /api/orders")
+    private String endpoint;
+
+    @Schema(description = "Requests measured", example = "1200")
+    private long requests;
+
+    @Schema(description = "Requests per statement count; keys are counts or ranges", example = "{\"3\": 1100, \"4\": 100}")
+    private Map<String, Long> histogram;
+
+    @Schema(description = "Mean statements per request", example = "3.08")
+    private double meanStatements;
+
+    @Schema(description = "Most statements seen in one request", example = "4")
+    private long maxStatements;
+
+    @Schema(description = "Mean JDBC execution time per request (ms)", example = "1.7")
+    private double meanExecutionMillis;
+
+    @Schema(description = "Requests that exceeded the statement budget", example = "0")
+    private long overBudget;
+}
@@ -0,0 +1,54 @@
+package com.assignment.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Aggregated open quantity per price level, best level first")
+public class OrderBookDepthResponse {
+
+    @Schema(description = "Highest open BUY price; absent when there are no bids", example = "249.50")
+    private BigDecimal bestBid;
+
+    @Schema(description = "Lowest open SELL price; absent when there are no asks", example = "250.00")
+    private BigDecimal bestAsk;
+
+    @Schema(description = "BUY levels, highest price first")
+    private List<Level> bids;
+
+    @Schema(description = "SELL levels, lowest price first")
+    private List<Level> asks;
+
+    @Schema(description = "Snapshot sequence number; increases whenever the book changes", example = "1042")
+    private long sequence;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Level {
+
+        @Schema(description = "Price of the level", example = "249.50")
+        private BigDecimal price;
+
+        @Schema(description = "Open (unfilled) quantity at this price", example = "120")
+        private long quantity;
+
+        @Schema(description = "Number of open orders at this price", example = "3")
+        private int orders;
+
+        @Schema(description = "Open quantity times price", example = "29940.00")
+        private BigDecimal notional;
+
+        @Schema(description = "Notional of this level and every better one: the cost of taking the book out to this price", example = "54890.00")
+        private BigDecimal cumulativeNotional;
+    }
+}
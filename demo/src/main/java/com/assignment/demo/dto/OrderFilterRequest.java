@@ -34,4 +34,7 @@ public class OrderFilterRequest {
     // Sorting
     private String sortBy = "createdAt";
     private String sortDir = "desc";
+
+    // Sparse fieldset — comma-separated property names; null means all fields
+    private String fields;
 }
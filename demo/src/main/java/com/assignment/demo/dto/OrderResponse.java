@@ -2,6 +2,8 @@ package com.assignment.demo.dto;
 
 import com.assignment.demo.enums.OrderStatus;
 import com.assignment.demo.enums.OrderType;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,7 +25,9 @@ public class OrderResponse implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    @Schema(description = "Unique order identifier", example = "42")
+    // Snowflake ids exceed 2^53, which JavaScript numbers cannot hold exactly, so they go out as strings
+    @JsonSerialize(using = ToStringSerializer.class)
+    @Schema(description = "Unique order identifier (64-bit, sent as a string)", type = "string", example = "42")
     private Long orderId;
 
     @Schema(description = "Order type", example = "BUY")
@@ -35,6 +39,9 @@ public class OrderResponse implements Serializable {
     @Schema(description = "Price per unit", example = "250.00")
     private BigDecimal price;
 
+    @Schema(description = "Units matched so far", example = "4")
+    private Integer filledQuantity;
+
     @Schema(description = "Current status of the order", example = "NEW")
     private OrderStatus status;
 
@@ -46,4 +53,7 @@ public class OrderResponse implements Serializable {
 
     @Schema(description = "Timestamp when the order was last updated", example = "2025-06-01T10:05:00")
     private LocalDateTime updatedAt;
+
+    @Schema(description = "Optimistic-lock version; changes on every update (basis of the ETag)", example = "1")
+    private Long version;
 }
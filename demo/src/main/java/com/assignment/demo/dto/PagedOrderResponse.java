@@ -1,5 +1,6 @@
 package com.assignment.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,4 +25,8 @@ public class PagedOrderResponse implements Serializable {
     private long totalElements;
     private int totalPages;
     private boolean last;
+
+    // Selected properties when a sparse fieldset was requested; absent for full responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> fields;
 }
@@ -0,0 +1,34 @@
+package com.assignment.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Schema(description = "Settings for an on-demand flight recording; every field is optional")
+public class RecordingRequest {
+
+    @PositiveOrZero(message = "thresholdMs must not be negative")
+    @Schema(description = "Minimum duration for the order-service events to be recorded (ms); defaults to app.jfr.default-threshold-ms",
+            example = "5")
+    private Long thresholdMs;
+
+    @Schema(description = "Per-event overrides of thresholdMs, keyed by event: OrderCreate, CacheLookup, RedisCommand, "
+            + "DbFallback, StatusTransition, JwtVerification",
+            example = "{\"RedisCommand\": 20, \"CacheLookup\": 20}")
+    private Map<String, @PositiveOrZero(message = "thresholds must not be negative") Long> thresholdsMs;
+
+    @Min(value = 1, message = "maxDurationSeconds must be at least 1")
+    @Max(value = 3600, message = "maxDurationSeconds must be at most 3600")
+    @Schema(description = "The recording stops by itself after this long; defaults to app.jfr.max-duration-seconds",
+            example = "300")
+    private Integer maxDurationSeconds;
+
+    @Schema(description = "Also record the JDK 'profile' settings (CPU samples, allocation, socket I/O, locks); "
+            + "false uses the lighter 'default' settings", example = "true")
+    private Boolean profile;
+}
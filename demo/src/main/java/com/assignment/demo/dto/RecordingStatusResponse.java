@@ -0,0 +1,33 @@
+package com.assignment.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "The flight recording held by this instance")
+public class RecordingStatusResponse {
+
+    @Schema(description = "JFR recording id", example = "3")
+    private long id;
+
+    @Schema(description = "RUNNING, or STOPPED once maxDurationSeconds has passed", example = "RUNNING")
+    private String state;
+
+    @Schema(description = "When the recording started")
+    private Instant startedAt;
+
+    @Schema(description = "The recording stops by itself after this many seconds", example = "300")
+    private long maxDurationSeconds;
+
+    @Schema(description = "Effective threshold per order-service event (ms)")
+    private Map<String, Long> thresholdsMs;
+}
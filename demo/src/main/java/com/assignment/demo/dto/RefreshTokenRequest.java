@@ -0,0 +1,14 @@
+package com.assignment.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+@Schema(description = "Refresh token issued by login or a previous refresh")
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    @Schema(description = "Opaque refresh token; single use", example = "3q2-7wAAAAB0ZXN0LXJlZnJlc2gtdG9rZW4tdmFsdWU")
+    private String refreshToken;
+}
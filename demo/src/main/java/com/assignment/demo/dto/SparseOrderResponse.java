@@ -0,0 +1,18 @@
+package com.assignment.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serial;
+
+/**
+ * An {@link OrderResponse} carrying only the properties picked with {@code fields=}. Unselected
+ * properties are null and left out of the output; full responses keep their nulls.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Trade order with only the requested properties")
+public class SparseOrderResponse extends OrderResponse {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
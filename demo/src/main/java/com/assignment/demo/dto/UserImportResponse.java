@@ -0,0 +1,44 @@
+package com.assignment.demo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk user import; rows are imported independently")
+public class UserImportResponse {
+
+    @Schema(description = "Data rows read from the upload (header and blank lines excluded)", example = "5000")
+    private int total;
+
+    @Schema(description = "Users created", example = "4997")
+    private int imported;
+
+    @Schema(description = "Rows rejected; see errors", example = "3")
+    private int failed;
+
+    @Schema(description = "One entry per rejected row, in line order")
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+
+        @Schema(description = "1-based line number in the upload", example = "17")
+        private int line;
+
+        @Schema(description = "Email on the row, if it could be read", example = "jane@example.com")
+        private String email;
+
+        @Schema(description = "Why the row was rejected", example = "Email is already registered")
+        private String error;
+    }
+}
@@ -2,6 +2,7 @@ package com.assignment.demo.entity;
 
 import com.assignment.demo.enums.OrderStatus;
 import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,8 +28,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Order {
 
+    // Assigned in-process (time-ordered, node-unique) so inserts can be batched and ids are known pre-flush
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long orderId;
 
     @Enumerated(EnumType.STRING)
@@ -41,6 +43,11 @@ public class Order {
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal price;
 
+    // Units matched so far by the matching engine; equals quantity once the order is COMPLETED by fills
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer filledQuantity = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     @Builder.Default
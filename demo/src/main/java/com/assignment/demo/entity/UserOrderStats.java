@@ -0,0 +1,43 @@
+package com.assignment.demo.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * One stripe of a user's order count. Each insert increments a random stripe, so concurrent creates
+ * for the same user rarely wait on the same row lock; the count is the sum of the user's stripes.
+ * Lives on the user's shard, next to their orders.
+ */
+@Entity
+@Table(name = "user_order_stats")
+@IdClass(UserOrderStats.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "stripe")
+    private Integer stripe;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Integer stripe;
+    }
+}
@@ -0,0 +1,113 @@
+package com.assignment.demo.enums;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.SparseOrderResponse;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Order properties selectable through the {@code fields=} sparse-fieldset parameter.
+ * Each constant names the entity/response property and knows how to read and write it on an
+ * {@link OrderResponse}.
+ */
+public enum OrderField {
+
+    ORDER_ID("orderId", OrderResponse::getOrderId, (o, v) -> o.setOrderId((Long) v)),
+    ORDER_TYPE("orderType", OrderResponse::getOrderType, (o, v) -> o.setOrderType((OrderType) v)),
+    QUANTITY("quantity", OrderResponse::getQuantity, (o, v) -> o.setQuantity((Integer) v)),
+    FILLED_QUANTITY("filledQuantity", OrderResponse::getFilledQuantity, (o, v) -> o.setFilledQuantity((Integer) v)),
+    PRICE("price", OrderResponse::getPrice, (o, v) -> o.setPrice((BigDecimal) v)),
+    STATUS("status", OrderResponse::getStatus, (o, v) -> o.setStatus((OrderStatus) v)),
+    USER_ID("userId", OrderResponse::getUserId, (o, v) -> o.setUserId((Long) v)),
+    CREATED_AT("createdAt", OrderResponse::getCreatedAt, (o, v) -> o.setCreatedAt((LocalDateTime) v)),
+    UPDATED_AT("updatedAt", OrderResponse::getUpdatedAt, (o, v) -> o.setUpdatedAt((LocalDateTime) v)),
+    VERSION("version", OrderResponse::getVersion, (o, v) -> o.setVersion((Long) v));
+
+    private final String property;
+    private final Function<OrderResponse, Object> getter;
+    private final BiConsumer<OrderResponse, Object> setter;
+
+    OrderField(String property, Function<OrderResponse, Object> getter, BiConsumer<OrderResponse, Object> setter) {
+        this.property = property;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public Object get(OrderResponse order) {
+        return getter.apply(order);
+    }
+
+    public void set(OrderResponse order, Object value) {
+        setter.accept(order, value);
+    }
+
+    /**
+     * Orders responses by this field the way the database's ORDER BY does. Enums are stored as
+     * strings, so they compare by name rather than by declaration order.
+     */
+    @SuppressWarnings("unchecked")
+    public Comparator<OrderResponse> comparator() {
+        return (a, b) -> {
+            Object x = get(a);
+            Object y = get(b);
+            if (x instanceof Enum<?> e) x = e.name();
+            if (y instanceof Enum<?> e) y = e.name();
+            return ((Comparable<Object>) x).compareTo(y);
+        };
+    }
+
+    public static OrderField fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(f -> f.property.equals(property))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown order field '" + property + "'"));
+    }
+
+    /**
+     * Parses a comma-separated property list (e.g. "orderId,status"). Returns null for a null or blank
+     * value, meaning "all fields".
+     */
+    public static Set<OrderField> parse(String csv) {
+        if (csv == null || csv.isBlank()) return null;
+        Set<OrderField> fields = EnumSet.noneOf(OrderField.class);
+        for (String name : csv.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            fields.add(Arrays.stream(values())
+                    .filter(f -> f.property.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid field '" + trimmed + "'. Accepted values: " +
+                            Arrays.stream(values()).map(OrderField::property).collect(Collectors.joining(", ")))));
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+
+    /**
+     * Copies only the selected fields into new {@link SparseOrderResponse}s; returns the input unchanged for "all fields".
+     */
+    public static List<OrderResponse> select(List<OrderResponse> orders, Set<OrderField> fields) {
+        if (fields == null) return orders;
+        return orders.stream()
+                .map(order -> {
+                    OrderResponse sparse = new SparseOrderResponse();
+                    for (OrderField field : fields) {
+                        field.set(sparse, field.get(order));
+                    }
+                    return sparse;
+                })
+                .collect(Collectors.toList());
+    }
+}
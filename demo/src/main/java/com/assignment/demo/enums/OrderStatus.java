@@ -40,4 +40,9 @@ public enum OrderStatus {
     public boolean canTransitionTo(OrderStatus target) {
         return allowedTransitions().contains(target);
     }
+
+    // Terminal orders can never change again, which makes them safe to cache for a long time
+    public boolean isTerminal() {
+        return allowedTransitions().isEmpty();
+    }
 }
@@ -2,5 +2,18 @@ package com.assignment.demo.enums;
 
 public enum Role {
     ADMIN,
-    USER
+    USER;
+
+    /**
+     * Parses a role as supplied by a client; blank means USER.
+     */
+    public static Role parse(String raw) {
+        String value = raw == null ? null : raw.trim();
+        if (value == null || value.isBlank()) return USER;
+        try {
+            return Role.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role. Accepted values: ADMIN, USER");
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.assignment.demo.exception;
+
+/**
+ * The request clashes with the current state of a resource on this instance; mapped to 409.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.assignment.demo.exception;
+
+/**
+ * A refresh token that is unknown, expired, already used or revoked; mapped to 401.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.assignment.demo.exception;
+
+/**
+ * A conditional request's precondition (e.g. If-Match) does not hold; mapped to 412.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
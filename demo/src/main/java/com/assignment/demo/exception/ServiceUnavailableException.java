@@ -0,0 +1,11 @@
+package com.assignment.demo.exception;
+
+/**
+ * A capability this instance cannot serve right now (disabled or saturated); mapped to 503.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
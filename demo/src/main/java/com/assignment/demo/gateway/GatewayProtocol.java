@@ -0,0 +1,95 @@
+package com.assignment.demo.gateway;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format of the binary order-entry gateway.
+ *
+ * Every message is a frame: an unsigned 16-bit body length followed by the body, whose first byte is
+ * the message type. Bodies have a fixed layout (all integers big-endian, prices as
+ * {@link com.assignment.demo.matching.PriceTicks} ticks), so fields are read at fixed offsets
+ * straight from the receive buffer:
+ *
+ * <pre>
+ * LOGON          type(1) tokenLength(2) token(tokenLength, ASCII JWT)
+ * LOGON_ACK      type(1) result(1) userId(8)
+ * NEW_ORDER      type(1) clientRef(8) side(1) quantity(4) priceTicks(8) userId(8, 0 = self)
+ * STATUS_UPDATE  type(1) clientRef(8) orderId(8) status(1)
+ * ACK            type(1) clientRef(8) result(1) orderId(8) status(1) version(8)
+ * </pre>
+ *
+ * {@code clientRef} is chosen by the client and echoed in the ACK; acks of pipelined messages may
+ * arrive out of order. Sides and statuses are {@code OrderType} and {@code OrderStatus} ordinals.
+ */
+public final class GatewayProtocol {
+
+    public static final int LENGTH_PREFIX = 2;
+    public static final int MAX_BODY = 4096;
+
+    // ── Message types ───────────────────────────────────────────────────────
+    public static final byte LOGON = 1;
+    public static final byte LOGON_ACK = 2;
+    public static final byte NEW_ORDER = 3;
+    public static final byte STATUS_UPDATE = 4;
+    public static final byte ACK = 5;
+
+    // ── Body lengths ────────────────────────────────────────────────────────
+    public static final int LOGON_ACK_LENGTH = 1 + 1 + 8;
+    public static final int NEW_ORDER_LENGTH = 1 + 8 + 1 + 4 + 8 + 8;
+    public static final int STATUS_UPDATE_LENGTH = 1 + 8 + 8 + 1;
+    public static final int ACK_LENGTH = 1 + 8 + 1 + 8 + 1 + 8;
+
+    // ── Result codes (LOGON_ACK and ACK) ────────────────────────────────────
+    public static final byte OK = 0;
+    public static final byte INVALID = 1;
+    public static final byte NOT_FOUND = 2;
+    public static final byte CONFLICT = 3;
+    public static final byte FORBIDDEN = 4;
+    public static final byte UNAVAILABLE = 5;
+    public static final byte NOT_LOGGED_ON = 6;
+    public static final byte ERROR = 7;
+
+    private GatewayProtocol() {}
+
+    public static void putLogon(ByteBuffer buffer, byte[] token) {
+        buffer.putShort((short) (1 + 2 + token.length));
+        buffer.put(LOGON);
+        buffer.putShort((short) token.length);
+        buffer.put(token);
+    }
+
+    public static void putLogonAck(ByteBuffer buffer, byte result, long userId) {
+        buffer.putShort((short) LOGON_ACK_LENGTH);
+        buffer.put(LOGON_ACK);
+        buffer.put(result);
+        buffer.putLong(userId);
+    }
+
+    public static void putNewOrder(ByteBuffer buffer, long clientRef, int side, int quantity, long priceTicks, long userId) {
+        buffer.putShort((short) NEW_ORDER_LENGTH);
+        buffer.put(NEW_ORDER);
+        buffer.putLong(clientRef);
+        buffer.put((byte) side);
+        buffer.putInt(quantity);
+        buffer.putLong(priceTicks);
+        buffer.putLong(userId);
+    }
+
+    public static void putStatusUpdate(ByteBuffer buffer, long clientRef, long orderId, int status) {
+        buffer.putShort((short) STATUS_UPDATE_LENGTH);
+        buffer.put(STATUS_UPDATE);
+        buffer.putLong(clientRef);
+        buffer.putLong(orderId);
+        buffer.put((byte) status);
+    }
+
+    public static void putAck(ByteBuffer buffer, long clientRef, byte result, long orderId, int status, long version) {
+        buffer.putShort((short) ACK_LENGTH);
+        buffer.put(ACK);
+        buffer.putLong(clientRef);
+        buffer.put(result);
+        buffer.putLong(orderId);
+        buffer.put((byte) status);
+        buffer.putLong(version);
+    }
+}
@@ -0,0 +1,92 @@
+package com.assignment.demo.gateway;
+
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One client connection. Its buffers are allocated once at accept; the inbound buffer is only touched
+ * by the selector thread, the outbound buffer by whichever thread holds the session's monitor.
+ */
+class GatewaySession {
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer inbound;
+    private final ByteBuffer outbound;
+    final long acceptedAtMillis;
+
+    // Messages handed to workers and not yet acknowledged
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    // Set once by the logon worker; read by the selector thread
+    volatile Authentication authentication;
+    volatile long userId;
+    volatile long expiresAtMillis;
+    volatile boolean loggingOn;
+    volatile boolean closed;
+
+    GatewaySession(SocketChannel channel, SelectionKey key, int bufferBytes, long acceptedAtMillis) {
+        this.channel = channel;
+        this.key = key;
+        this.acceptedAtMillis = acceptedAtMillis;
+        this.inbound = ByteBuffer.allocateDirect(bufferBytes);
+        this.outbound = ByteBuffer.allocateDirect(bufferBytes);
+    }
+
+    boolean isLoggedOn() {
+        return authentication != null && System.currentTimeMillis() < expiresAtMillis;
+    }
+
+    synchronized boolean sendLogonAck(byte result, long userId) {
+        if (outbound.remaining() < GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.LOGON_ACK_LENGTH) return false;
+        GatewayProtocol.putLogonAck(outbound, result, userId);
+        return flush();
+    }
+
+    /**
+     * Queues an ack and writes as much as the socket takes without blocking. Returns false if the
+     * client is not reading fast enough to leave room for it, or the write failed.
+     */
+    synchronized boolean sendAck(long clientRef, byte result, long orderId, int status, long version) {
+        if (outbound.remaining() < GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.ACK_LENGTH) return false;
+        GatewayProtocol.putAck(outbound, clientRef, result, orderId, status, version);
+        return flush();
+    }
+
+    /**
+     * Writes pending bytes; asks the selector for OP_WRITE while some remain.
+     */
+    synchronized boolean flush() {
+        if (closed) return false;
+        try {
+            outbound.flip();
+            channel.write(outbound);
+            boolean drained = !outbound.hasRemaining();
+            outbound.compact();
+            if (drained) {
+                key.interestOpsAnd(~SelectionKey.OP_WRITE);
+            } else {
+                key.interestOpsOr(SelectionKey.OP_WRITE);
+                key.selector().wakeup();
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.assignment.demo.gateway;
+
+import com.assignment.demo.dto.CreateOrderRequest;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.UpdateOrderStatusRequest;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.exception.ConflictException;
+import com.assignment.demo.exception.ServiceUnavailableException;
+import com.assignment.demo.jfr.JwtVerificationEvent;
+import com.assignment.demo.logging.RateLimitedLogger;
+import com.assignment.demo.matching.PriceTicks;
+import com.assignment.demo.security.CustomUserDetailsService;
+import com.assignment.demo.security.JwtService;
+import com.assignment.demo.service.OrderService;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional binary order-entry gateway ({@code app.gateway.enabled}): a non-blocking TCP server
+ * speaking {@link GatewayProtocol}, for clients that want to skip HTTP, JSON and per-request JWT
+ * checks.
+ *
+ * A session logs on once with a JWT; the token's user and roles are then used for every message until
+ * the token expires. One selector thread does all socket I/O and decodes frames in place from each
+ * session's direct buffer into primitives. Orders and status updates are executed by a worker pool
+ * through the same {@link OrderService} calls as the REST endpoints, with the same role rules.
+ *
+ * Each session may have at most {@code max-in-flight} unacknowledged messages; beyond that the
+ * gateway stops reading from its socket, which pushes back on the client through TCP. A client that
+ * does not read its acks fast enough is disconnected.
+ *
+ * Every session costs two direct buffers of {@code buffer-bytes}, so connections beyond
+ * {@code max-sessions} are closed before any buffer is allocated. A session that is not logged on
+ * (never, or since its token expired) has its messages answered with NOT_LOGGED_ON and is closed once
+ * it has gone {@code logon-timeout-ms} without a valid logon.
+ */
+@Component
+public class OrderGatewayServer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderGatewayServer.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+
+    private final OrderService orderService;
+    private final JwtService jwtService;
+    private final CustomUserDetailsService userDetailsService;
+    private final boolean enabled;
+    private final int port;
+    private final int workerThreads;
+    private final int maxInFlight;
+    private final int bufferBytes;
+    private final int maxSessions;
+    private final long logonTimeoutMillis;
+    private final long logonCheckMillis;
+    private long nextLogonCheck;
+
+    // Sessions whose reading was paused and can continue; drained by the selector thread
+    private final Queue<GatewaySession> resumable = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ThreadPoolExecutor workers;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public OrderGatewayServer(OrderService orderService,
+                              JwtService jwtService,
+                              CustomUserDetailsService userDetailsService,
+                              @Value("${app.gateway.enabled:false}") boolean enabled,
+                              @Value("${app.gateway.port:9090}") int port,
+                              @Value("${app.gateway.worker-threads:8}") int workerThreads,
+                              @Value("${app.gateway.max-in-flight:64}") int maxInFlight,
+                              @Value("${app.gateway.buffer-bytes:65536}") int bufferBytes,
+                              @Value("${app.gateway.max-sessions:256}") int maxSessions,
+                              @Value("${app.gateway.logon-timeout-ms:5000}") long logonTimeoutMillis) {
+        if (bufferBytes < GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.MAX_BODY) {
+            throw new IllegalArgumentException("app.gateway.buffer-bytes must hold a frame of "
+                    + (GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.MAX_BODY) + " bytes");
+        }
+        this.orderService = orderService;
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.enabled = enabled;
+        this.port = port;
+        this.workerThreads = workerThreads;
+        this.maxInFlight = maxInFlight;
+        this.bufferBytes = bufferBytes;
+        this.maxSessions = maxSessions;
+        this.logonTimeoutMillis = logonTimeoutMillis;
+        this.logonCheckMillis = Math.max(10L, Math.min(1000L, logonTimeoutMillis / 2));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) return;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // Unbounded queue: its length is already capped by sessions x max-in-flight
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "gateway-worker-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::run, "gateway-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Order gateway listening on port {}", localPort());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running) return;
+        running = false;
+        selector.wakeup();
+        selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+        workers.shutdownNow();
+    }
+
+    /** The bound port; differs from {@code app.gateway.port} when that is 0. */
+    public int localPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("Gateway socket is closed", e);
+        }
+    }
+
+    // ── Selector thread ─────────────────────────────────────────────────────
+
+    private void run() {
+        try {
+            while (running) {
+                // Wakes at least every logonCheckMillis to close sessions past their logon deadline
+                selector.select(logonCheckMillis);
+
+                GatewaySession resumed;
+                while ((resumed = resumable.poll()) != null) {
+                    if (resumed.closed) continue;
+                    if (decode(resumed)) resumed.key.interestOpsOr(SelectionKey.OP_READ);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    GatewaySession session = (GatewaySession) key.attachment();
+                    try {
+                        if (key.isWritable() && !session.flush()) {
+                            session.close();
+                            continue;
+                        }
+                        if (key.isReadable()) read(session);
+                    } catch (IOException | CancelledKeyException e) {
+                        session.close();
+                    }
+                }
+
+                long now = System.currentTimeMillis();
+                if (now >= nextLogonCheck) {
+                    closeExpiredLogons(now);
+                    nextLogonCheck = now + logonCheckMillis;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Order gateway selector failed: {}", e.getMessage(), e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof GatewaySession session) session.close();
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) return;
+        // One key is the server socket's; keys of sessions closed since the last select still count
+        if (selector.keys().size() - 1 >= maxSessions) {
+            rateLimitedLog.warn("Order gateway at its limit of {} sessions, refusing a connection", maxSessions);
+            channel.close();
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new GatewaySession(channel, key, bufferBytes, System.currentTimeMillis()));
+    }
+
+    private void closeExpiredLogons(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (!(key.attachment() instanceof GatewaySession session) || session.closed) continue;
+            if (session.loggingOn || session.isLoggedOn()) continue;
+            long notLoggedOnSince = session.authentication == null ? session.acceptedAtMillis : session.expiresAtMillis;
+            if (now - notLoggedOnSince >= logonTimeoutMillis) session.close();
+        }
+    }
+
+    private void read(GatewaySession session) throws IOException {
+        if (session.channel.read(session.inbound) < 0) {
+            session.close();
+            return;
+        }
+        if (!decode(session)) session.key.interestOpsAnd(~SelectionKey.OP_READ);
+    }
+
+    /**
+     * Dispatches every complete frame in the session's inbound buffer. Returns false if reading must
+     * pause (a logon is being checked or too many messages are in flight) or the session was closed.
+     */
+    private boolean decode(GatewaySession session) {
+        ByteBuffer in = session.inbound;
+        in.flip();
+        try {
+            while (in.remaining() >= GatewayProtocol.LENGTH_PREFIX) {
+                if (session.loggingOn || session.inFlight.get() >= maxInFlight) return false;
+
+                int start = in.position();
+                int length = Short.toUnsignedInt(in.getShort(start));
+                if (length == 0 || length > GatewayProtocol.MAX_BODY) {
+                    session.close();
+                    return false;
+                }
+                if (in.remaining() < GatewayProtocol.LENGTH_PREFIX + length) break;
+
+                if (!dispatch(session, in, start + GatewayProtocol.LENGTH_PREFIX, length)) {
+                    session.close();
+                    return false;
+                }
+                in.position(start + GatewayProtocol.LENGTH_PREFIX + length);
+            }
+            return true;
+        } finally {
+            in.compact();
+        }
+    }
+
+    /**
+     * Reads one message at {@code offset} with absolute gets and hands it to a worker. Returns false
+     * on a protocol violation.
+     */
+    private boolean dispatch(GatewaySession session, ByteBuffer in, int offset, int length) {
+        byte type = in.get(offset);
+
+        if (type == GatewayProtocol.LOGON) {
+            // A session whose token expired may log on again
+            if (session.isLoggedOn() || length < 3) return false;
+            int tokenLength = Short.toUnsignedInt(in.getShort(offset + 1));
+            if (length != 3 + tokenLength) return false;
+            byte[] token = new byte[tokenLength];
+            in.get(offset + 3, token);
+            session.loggingOn = true;
+            return submit(session, () -> logon(session, new String(token, StandardCharsets.US_ASCII)));
+        }
+
+        if (type == GatewayProtocol.NEW_ORDER && length == GatewayProtocol.NEW_ORDER_LENGTH) {
+            long clientRef = in.getLong(offset + 1);
+            if (!session.isLoggedOn()) return rejectNotLoggedOn(session, clientRef);
+            byte side = in.get(offset + 9);
+            int quantity = in.getInt(offset + 10);
+            long priceTicks = in.getLong(offset + 14);
+            long userId = in.getLong(offset + 22);
+            session.inFlight.incrementAndGet();
+            return submit(session, () -> newOrder(session, clientRef, side, quantity, priceTicks, userId));
+        }
+
+        if (type == GatewayProtocol.STATUS_UPDATE && length == GatewayProtocol.STATUS_UPDATE_LENGTH) {
+            long clientRef = in.getLong(offset + 1);
+            if (!session.isLoggedOn()) return rejectNotLoggedOn(session, clientRef);
+            long orderId = in.getLong(offset + 9);
+            byte status = in.get(offset + 17);
+            session.inFlight.incrementAndGet();
+            return submit(session, () -> statusUpdate(session, clientRef, orderId, status));
+        }
+
+        return false;
+    }
+
+    private boolean submit(GatewaySession session, Runnable task) {
+        try {
+            workers.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            return false;
+        }
+    }
+
+    // The session stays open, so the ack is actually delivered and the client can still log on before
+    // its deadline; only a client that stopped reading its acks is closed
+    private boolean rejectNotLoggedOn(GatewaySession session, long clientRef) {
+        return session.sendAck(clientRef, GatewayProtocol.NOT_LOGGED_ON, 0, -1, 0);
+    }
+
+    // ── Workers ─────────────────────────────────────────────────────────────
+
+    private void logon(GatewaySession session, String token) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+
+        byte result = GatewayProtocol.FORBIDDEN;
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtService.extractEmail(token));
+            if (jwtService.isTokenValid(token, userDetails) && canTrade(userDetails)) {
+                session.userId = ((User) userDetails).getId();
+                session.expiresAtMillis = jwtService.extractClaim(token, Claims::getExpiration).getTime();
+                session.authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+                result = GatewayProtocol.OK;
+            }
+        } catch (RuntimeException e) {
+            // Bad signature, expired, malformed or unknown user
+        }
+
+        if (event.shouldCommit()) {
+            event.userId = session.userId;
+            event.valid = result == GatewayProtocol.OK;
+            event.commit();
+        }
+
+        session.loggingOn = false;
+        if (!session.sendLogonAck(result, session.userId) || result != GatewayProtocol.OK) {
+            session.close();
+            return;
+        }
+        resume(session);
+    }
+
+    private void newOrder(GatewaySession session, long clientRef, byte side, int quantity, long priceTicks, long userId) {
+        OrderResponse response = null;
+        byte result;
+        try {
+            // Same checks as the Bean Validation constraints on CreateOrderRequest
+            if (side < 0 || side >= ORDER_TYPES.length) throw new IllegalArgumentException("Invalid side");
+            if (quantity <= 0) throw new IllegalArgumentException("quantity must be greater than 0");
+            if (priceTicks <= 0) throw new IllegalArgumentException("price must be greater than 0");
+            if (priceTicks > PriceTicks.MAX_PRICE_TICKS) {
+                throw new IllegalArgumentException("price must have at most 14 integer digits and 4 decimals");
+            }
+
+            CreateOrderRequest request = new CreateOrderRequest();
+            request.setOrderType(ORDER_TYPES[side].name());
+            request.setQuantity(quantity);
+            request.setPrice(PriceTicks.toPrice(priceTicks));
+            if (userId != 0) request.setUserId(userId);
+            response = orderService.createOrder(request, session.authentication);
+            result = GatewayProtocol.OK;
+        } catch (RuntimeException e) {
+            result = resultOf(e);
+        }
+        complete(session, clientRef, result, response);
+    }
+
+    private void statusUpdate(GatewaySession session, long clientRef, long orderId, byte status) {
+        OrderResponse response = null;
+        byte result;
+        try {
+            // PATCH /api/orders/{id}/status is ADMIN-only
+            if (!hasRole(session.authentication, "ROLE_ADMIN")) throw new AccessDeniedException("Access denied");
+            if (status < 0 || status >= ORDER_STATUSES.length) throw new IllegalArgumentException("Invalid status");
+
+            UpdateOrderStatusRequest request = new UpdateOrderStatusRequest();
+            request.setStatus(ORDER_STATUSES[status].name());
+            response = orderService.updateOrderStatus(orderId, request, null, session.authentication);
+            result = GatewayProtocol.OK;
+        } catch (RuntimeException e) {
+            result = resultOf(e);
+        }
+        complete(session, clientRef, result, response);
+    }
+
+    private void complete(GatewaySession session, long clientRef, byte result, OrderResponse response) {
+        boolean sent = response == null
+                ? session.sendAck(clientRef, result, 0, -1, 0)
+                : session.sendAck(clientRef, result, response.getOrderId(), response.getStatus().ordinal(),
+                        response.getVersion() == null ? 0 : response.getVersion());
+        if (!sent) {
+            // The client stopped reading its acks
+            session.close();
+            return;
+        }
+        if (session.inFlight.decrementAndGet() == maxInFlight - 1) resume(session);
+    }
+
+    private void resume(GatewaySession session) {
+        resumable.add(session);
+        selector.wakeup();
+    }
+
+    // Mirrors the HTTP status GlobalExceptionHandler picks for the same exception
+    private static byte resultOf(RuntimeException e) {
+        if (e instanceof IllegalArgumentException) return GatewayProtocol.INVALID;
+        if (e instanceof EntityNotFoundException) return GatewayProtocol.NOT_FOUND;
+        if (e instanceof ObjectOptimisticLockingFailureException
+                || e instanceof OptimisticLockException
+                || e instanceof ConflictException) return GatewayProtocol.CONFLICT;
+        if (e instanceof AccessDeniedException) return GatewayProtocol.FORBIDDEN;
+        if (e instanceof ServiceUnavailableException) return GatewayProtocol.UNAVAILABLE;
+        rateLimitedLog.warn(e, "Order gateway request failed: {}", e.getMessage());
+        return GatewayProtocol.ERROR;
+    }
+
+    private static boolean canTrade(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                .anyMatch(a -> a.equals("ROLE_ADMIN") || a.equals("ROLE_USER"));
+    }
+
+    private static boolean hasRole(Authentication authentication, String role) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch(role::equals);
+    }
+}
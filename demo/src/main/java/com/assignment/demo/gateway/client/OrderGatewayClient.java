@@ -0,0 +1,158 @@
+package com.assignment.demo.gateway.client;
+
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.gateway.GatewayProtocol;
+import com.assignment.demo.matching.PriceTicks;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Blocking client for the binary order gateway. Not thread-safe; use one client per thread.
+ *
+ * {@link #newOrder} and {@link #updateStatus} send a message and wait for its ack. For pipelining,
+ * {@link #sendNewOrder} / {@link #sendStatusUpdate} followed by {@link #readAck} let a caller keep
+ * several messages in flight and match acks on {@code clientRef}.
+ */
+public class OrderGatewayClient implements AutoCloseable {
+
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+
+    private final SocketChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.MAX_BODY);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+    private final long userId;
+    private long nextClientRef = 1;
+
+    private OrderGatewayClient(SocketChannel channel, String jwt) throws IOException {
+        this.channel = channel;
+        this.in.flip();
+
+        GatewayProtocol.putLogon(out, jwt.getBytes(StandardCharsets.US_ASCII));
+        send();
+        int offset = nextFrame();
+        if (in.get(offset) != GatewayProtocol.LOGON_ACK) throw new IOException("Expected a logon ack");
+        byte result = in.get(offset + 1);
+        this.userId = in.getLong(offset + 2);
+        consumeFrame();
+        if (result != GatewayProtocol.OK) {
+            channel.close();
+            throw new IOException("Logon rejected (result " + result + ")");
+        }
+    }
+
+    /**
+     * Connects and logs on with a JWT obtained from {@code /api/auth/login}.
+     *
+     * @throws IOException if the connection fails or the token is rejected
+     */
+    public static OrderGatewayClient connect(String host, int port, String jwt) throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        try {
+            return new OrderGatewayClient(channel, jwt);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** The logged-on user's id. */
+    public long userId() {
+        return userId;
+    }
+
+    public Ack newOrder(OrderType side, int quantity, BigDecimal price) throws IOException {
+        return await(sendNewOrder(side, quantity, PriceTicks.of(price), 0));
+    }
+
+    public Ack updateStatus(long orderId, OrderStatus status) throws IOException {
+        return await(sendStatusUpdate(orderId, status));
+    }
+
+    /**
+     * Sends a new order without waiting and returns its clientRef. {@code userId} 0 places it for the
+     * logged-on user; other ids are honoured for admins only, as on the REST endpoint.
+     */
+    public long sendNewOrder(OrderType side, int quantity, long priceTicks, long userId) throws IOException {
+        long clientRef = nextClientRef++;
+        GatewayProtocol.putNewOrder(out, clientRef, side.ordinal(), quantity, priceTicks, userId);
+        send();
+        return clientRef;
+    }
+
+    /** Sends a status update (admins only) without waiting and returns its clientRef. */
+    public long sendStatusUpdate(long orderId, OrderStatus status) throws IOException {
+        long clientRef = nextClientRef++;
+        GatewayProtocol.putStatusUpdate(out, clientRef, orderId, status.ordinal());
+        send();
+        return clientRef;
+    }
+
+    /** Blocks for the next ack from the gateway. */
+    public Ack readAck() throws IOException {
+        int offset = nextFrame();
+        if (in.get(offset) != GatewayProtocol.ACK) throw new IOException("Expected an ack");
+        int status = in.get(offset + 18);
+        Ack ack = new Ack(
+                in.getLong(offset + 1),
+                in.get(offset + 9),
+                in.getLong(offset + 10),
+                status < 0 ? null : ORDER_STATUSES[status],
+                in.getLong(offset + 19));
+        consumeFrame();
+        return ack;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Ack await(long clientRef) throws IOException {
+        Ack ack = readAck();
+        if (ack.clientRef() != clientRef) throw new IOException("Ack for clientRef " + ack.clientRef() + " while waiting for " + clientRef);
+        return ack;
+    }
+
+    private void send() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    // Reads until a whole frame is buffered; returns the offset of its body
+    private int nextFrame() throws IOException {
+        while (in.remaining() < GatewayProtocol.LENGTH_PREFIX
+                || in.remaining() < GatewayProtocol.LENGTH_PREFIX + Short.toUnsignedInt(in.getShort(in.position()))) {
+            in.compact();
+            int read = channel.read(in);
+            in.flip();
+            if (read < 0) throw new EOFException("Gateway closed the connection");
+        }
+        return in.position() + GatewayProtocol.LENGTH_PREFIX;
+    }
+
+    private void consumeFrame() {
+        in.position(in.position() + GatewayProtocol.LENGTH_PREFIX + Short.toUnsignedInt(in.getShort(in.position())));
+    }
+
+    /**
+     * Gateway reply to one message. {@code orderId}, {@code status} and {@code version} describe the
+     * order after the change and are only set when {@code result} is {@link GatewayProtocol#OK}.
+     */
+    public record Ack(long clientRef, byte result, long orderId, OrderStatus status, long version) {
+
+        public boolean isOk() {
+            return result == GatewayProtocol.OK;
+        }
+    }
+}
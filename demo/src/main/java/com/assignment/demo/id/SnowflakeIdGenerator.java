@@ -0,0 +1,75 @@
+package com.assignment.demo.id;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 64-bit id generator.
+ *
+ * Layout (most to least significant): 1 unused sign bit, 41 bits of milliseconds since
+ * {@link #EPOCH}, 10 bits of node id, 12 bits of per-millisecond sequence. Ids from one generator
+ * are strictly increasing; ids from different nodes never collide as long as node ids are unique.
+ *
+ * The timestamp and sequence live together in a single AtomicLong and are advanced with one CAS, so
+ * {@link #nextId()} neither locks nor allocates. When the sequence overflows within a millisecond,
+ * or the wall clock steps backwards, the carry simply moves the logical timestamp forward; ids stay
+ * unique and monotonic and the logical clock re-joins the wall clock once it catches up.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final long EPOCH_MILLIS = EPOCH.toEpochMilli();
+
+    // One generator per node id per JVM — two instances sharing a node id would hand out duplicates
+    private static final ConcurrentHashMap<Integer, SnowflakeIdGenerator> INSTANCES = new ConcurrentHashMap<>();
+
+    private final long nodeBits;
+
+    // (millisSinceEpoch << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+
+    private SnowflakeIdGenerator(int nodeId) {
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public static SnowflakeIdGenerator forNode(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID + ", was " + nodeId);
+        }
+        return INSTANCES.computeIfAbsent(nodeId, SnowflakeIdGenerator::new);
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            // New millisecond: restart the sequence. Same millisecond, clock behind, or sequence
+            // exhausted: +1 — an overflowing sequence carries into the timestamp bits.
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // ── Decoding ────────────────────────────────────────────────────────────
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static int sequenceOf(long id) {
+        return (int) (id & SEQUENCE_MASK);
+    }
+}
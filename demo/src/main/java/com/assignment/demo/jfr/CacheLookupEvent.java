@@ -0,0 +1,34 @@
+package com.assignment.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(CacheLookupEvent.NAME)
+@Label("Cache Lookup")
+@Category({"Order Service", "Cache"})
+@Description("One read of a Spring cache entry, from Redis or from the in-process fallback while the Redis circuit is open")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    public static final String NAME = "com.assignment.demo.CacheLookup";
+
+    public static final String TIER_REDIS = "redis";
+    public static final String TIER_LOCAL = "local";
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Key")
+    public String key;
+
+    @Label("Tier")
+    @Description("redis, or local while the Redis circuit is open")
+    public String tier;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,23 @@
+package com.assignment.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(DbFallbackEvent.NAME)
+@Label("DB Fallback")
+@Category({"Order Service", "Database"})
+@Description("A database load caused by a Redis miss, including the write-back to Redis")
+public class DbFallbackEvent extends Event {
+
+    public static final String NAME = "com.assignment.demo.DbFallback";
+
+    @Label("Source")
+    @Description("Cache name, or order-count / recent-orders")
+    public String source;
+
+    @Label("Key")
+    public String key;
+}
@@ -0,0 +1,24 @@
+package com.assignment.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(JwtVerificationEvent.NAME)
+@Label("JWT Verification")
+@Category({"Order Service", "Security"})
+@Description("Signature and expiry check of a bearer token, including the user lookup")
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    public static final String NAME = "com.assignment.demo.JwtVerification";
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Valid")
+    public boolean valid;
+}
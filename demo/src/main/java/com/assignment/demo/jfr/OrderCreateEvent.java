@@ -0,0 +1,28 @@
+package com.assignment.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(OrderCreateEvent.NAME)
+@Label("Order Create")
+@Category({"Order Service", "Orders"})
+@Description("POST /api/orders from validation to the committed insert and cache updates")
+public class OrderCreateEvent extends Event {
+
+    public static final String NAME = "com.assignment.demo.OrderCreate";
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("Order Type")
+    public String orderType;
+
+    @Label("Group Commit")
+    public boolean groupCommit;
+}
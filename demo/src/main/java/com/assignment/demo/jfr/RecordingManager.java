@@ -0,0 +1,164 @@
+package com.assignment.demo.jfr;
+
+import com.assignment.demo.dto.RecordingRequest;
+import com.assignment.demo.dto.RecordingStatusResponse;
+import com.assignment.demo.exception.ConflictException;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts and stops the single on-demand JFR recording of this instance.
+ *
+ * A recording combines the JDK's own settings ({@code profile}: CPU samples, socket reads, lock
+ * waits, GC; or the lighter {@code default}) with the order-service events in this package, each
+ * enabled with a duration threshold so only slow operations are kept. Together they let one file
+ * show whether a slow request waited on Redis, on MySQL, or burned CPU. A recording stops by itself
+ * after its maximum duration and is kept until it is downloaded or the next one starts.
+ */
+@Component
+public class RecordingManager {
+
+    private static final Logger log = LoggerFactory.getLogger(RecordingManager.class);
+
+    /** Order-service events by the short names accepted in {@link RecordingRequest#getThresholdsMs()}. */
+    public static final Map<String, String> EVENTS = eventNames();
+
+    private final long defaultThresholdMs;
+    private final int defaultMaxDurationSeconds;
+
+    // Guarded by this
+    private Recording recording;
+    private Map<String, Long> thresholds;
+
+    public RecordingManager(@Value("${app.jfr.default-threshold-ms:1}") long defaultThresholdMs,
+                            @Value("${app.jfr.max-duration-seconds:300}") int defaultMaxDurationSeconds) {
+        this.defaultThresholdMs = defaultThresholdMs;
+        this.defaultMaxDurationSeconds = defaultMaxDurationSeconds;
+    }
+
+    public synchronized RecordingStatusResponse start(RecordingRequest req) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new ConflictException("Recording " + recording.getId() + " is already running; stop it first");
+        }
+        Map<String, Long> resolved = resolveThresholds(req);
+        boolean profile = req.getProfile() == null || req.getProfile();
+        int maxDurationSeconds = req.getMaxDurationSeconds() != null ? req.getMaxDurationSeconds() : defaultMaxDurationSeconds;
+
+        Map<String, String> settings = new HashMap<>(baseSettings(profile ? "profile" : "default"));
+        resolved.forEach((event, ms) -> {
+            settings.put(EVENTS.get(event) + "#enabled", "true");
+            settings.put(EVENTS.get(event) + "#threshold", ms + " ms");
+        });
+
+        // A finished recording nobody downloaded is dropped here
+        closeCurrent();
+        Recording next = new Recording(settings);
+        next.setName("order-service");
+        next.setToDisk(true);
+        next.setDuration(Duration.ofSeconds(maxDurationSeconds));
+        next.start();
+        recording = next;
+        thresholds = resolved;
+        log.info("Started JFR recording {} ({} settings, max {}s, thresholds {})",
+                next.getId(), profile ? "profile" : "default", maxDurationSeconds, resolved);
+        return status();
+    }
+
+    public synchronized RecordingStatusResponse status() {
+        Recording current = requireRecording();
+        return RecordingStatusResponse.builder()
+                .id(current.getId())
+                .state(current.getState().name())
+                .startedAt(current.getStartTime())
+                .maxDurationSeconds(current.getDuration().toSeconds())
+                .thresholdsMs(thresholds)
+                .build();
+    }
+
+    /**
+     * Stops the recording (if still running) and writes it to a temporary {@code .jfr} file, which
+     * the caller must delete once it has been sent.
+     */
+    public synchronized Path stop() throws IOException {
+        Recording current = requireRecording();
+        try {
+            if (current.getState() == RecordingState.RUNNING) current.stop();
+            Path file = Files.createTempFile("order-service-" + current.getId() + "-", ".jfr");
+            try {
+                current.dump(file);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            log.info("Stopped JFR recording {} ({} bytes)", current.getId(), Files.size(file));
+            return file;
+        } finally {
+            closeCurrent();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void closeCurrent() {
+        if (recording == null) return;
+        recording.close();
+        recording = null;
+        thresholds = null;
+    }
+
+    private Recording requireRecording() {
+        if (recording == null) throw new EntityNotFoundException("No recording on this instance");
+        return recording;
+    }
+
+    private Map<String, Long> resolveThresholds(RecordingRequest req) {
+        long base = req.getThresholdMs() != null ? req.getThresholdMs() : defaultThresholdMs;
+        Map<String, Long> resolved = new LinkedHashMap<>();
+        EVENTS.keySet().forEach(event -> resolved.put(event, base));
+        if (req.getThresholdsMs() != null) {
+            req.getThresholdsMs().forEach((event, ms) -> {
+                if (!EVENTS.containsKey(event)) {
+                    throw new IllegalArgumentException("Unknown event '" + event + "'. Accepted values: "
+                            + String.join(", ", EVENTS.keySet()));
+                }
+                if (ms != null) resolved.put(event, ms);
+            });
+        }
+        return resolved;
+    }
+
+    private static Map<String, String> baseSettings(String name) {
+        try {
+            return Configuration.getConfiguration(name).getSettings();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR configuration '" + name + "' is not available", e);
+        }
+    }
+
+    private static Map<String, String> eventNames() {
+        Map<String, String> events = new LinkedHashMap<>();
+        events.put("OrderCreate", OrderCreateEvent.NAME);
+        events.put("CacheLookup", CacheLookupEvent.NAME);
+        events.put("RedisCommand", RedisCommandEvent.NAME);
+        events.put("DbFallback", DbFallbackEvent.NAME);
+        events.put("StatusTransition", StatusTransitionEvent.NAME);
+        events.put("JwtVerification", JwtVerificationEvent.NAME);
+        return Collections.unmodifiableMap(events);
+    }
+}
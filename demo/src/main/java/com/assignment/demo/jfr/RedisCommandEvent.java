@@ -0,0 +1,24 @@
+package com.assignment.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(RedisCommandEvent.NAME)
+@Label("Redis Command")
+@Category({"Order Service", "Redis"})
+@Description("One Redis command, or one pipeline or transaction at its closePipeline/exec")
+@StackTrace(false)
+public class RedisCommandEvent extends Event {
+
+    public static final String NAME = "com.assignment.demo.RedisCommand";
+
+    @Label("Command")
+    public String command;
+
+    @Label("Failed")
+    public boolean failed;
+}
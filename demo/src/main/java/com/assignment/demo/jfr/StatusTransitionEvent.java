@@ -0,0 +1,28 @@
+package com.assignment.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(StatusTransitionEvent.NAME)
+@Label("Order Status Transition")
+@Category({"Order Service", "Orders"})
+@Description("A status change through PATCH /api/orders/{id}/status, from the row read to the flushed update")
+public class StatusTransitionEvent extends Event {
+
+    public static final String NAME = "com.assignment.demo.StatusTransition";
+
+    @Label("Order Id")
+    public long orderId;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+}
@@ -0,0 +1,84 @@
+package com.assignment.demo.logging;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicating WARN logger for paths that fail on every request while a dependency is down (Redis
+ * errors, degraded-mode fallbacks).
+ *
+ * Each message template is logged at most once per interval per exception class; the arguments of
+ * the first occurrence are kept and the rest are counted. The next line that gets through reports how
+ * many were suppressed, so the log still shows the outage's rate, at one line per interval instead of
+ * one per request.
+ */
+public final class RateLimitedLogger {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final Map<String, Map<Class<?>, Window>> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public static RateLimitedLogger of(Logger log) {
+        return new RateLimitedLogger(log, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Logs a failure caused by {@code error}; occurrences with the same template and exception class
+     * within the interval are only counted. The error itself is not attached (no stack trace).
+     */
+    public void warn(Throwable error, String format, Object... args) {
+        if (!log.isWarnEnabled()) return;
+        emit(window(format, error == null ? Void.class : error.getClass()), format, args);
+    }
+
+    /**
+     * Logs a condition without an exception, rate limited per template.
+     */
+    public void warn(String format, Object... args) {
+        if (!log.isWarnEnabled()) return;
+        emit(window(format, Void.class), format, args);
+    }
+
+    private Window window(String format, Class<?> errorClass) {
+        Map<Class<?>, Window> byClass = windows.get(format);
+        if (byClass == null) byClass = windows.computeIfAbsent(format, f -> new ConcurrentHashMap<>());
+        Window window = byClass.get(errorClass);
+        return window != null ? window : byClass.computeIfAbsent(errorClass, c -> new Window());
+    }
+
+    private void emit(Window window, String format, Object[] args) {
+        long now = System.nanoTime();
+        long openAt = window.openAt.get();
+        if (now - openAt < 0 || !window.openAt.compareAndSet(openAt, now + intervalNanos)) {
+            window.suppressed.increment();
+            return;
+        }
+        long suppressed = window.suppressed.sumThenReset();
+        if (suppressed == 0) {
+            log.warn(format, args);
+            return;
+        }
+        Object[] withCount = Arrays.copyOf(args, args.length + 1);
+        withCount[args.length] = suppressed;
+        log.warn(format + " [{} similar suppressed]", withCount);
+    }
+
+    private static final class Window {
+        // Earliest System.nanoTime() at which the next line may be logged
+        final AtomicLong openAt = new AtomicLong(System.nanoTime());
+        final LongAdder suppressed = new LongAdder();
+    }
+}
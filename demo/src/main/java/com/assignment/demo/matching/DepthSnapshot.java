@@ -0,0 +1,25 @@
+package com.assignment.demo.matching;
+
+/**
+ * Immutable copy of the top price levels of the book, best level first on each side.
+ * Published by the matching thread after every batch and read without locking.
+ *
+ * @param sequence increases with every published snapshot
+ */
+public record DepthSnapshot(long sequence, Side bids, Side asks) {
+
+    public static final DepthSnapshot EMPTY = new DepthSnapshot(0L, Side.EMPTY, Side.EMPTY);
+
+    /**
+     * Parallel arrays, one entry per level: price in {@link PriceTicks}, total open quantity and
+     * number of resting orders.
+     */
+    public record Side(long[] prices, long[] quantities, int[] orders) {
+
+        static final Side EMPTY = new Side(new long[0], new long[0], new int[0]);
+
+        public int levels() {
+            return prices.length;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.assignment.demo.matching;
+
+/**
+ * Receives every execution produced by {@link OrderBook#match}. Called on the matching thread inside
+ * the match loop, so it takes primitives only and must not block.
+ */
+@FunctionalInterface
+public interface FillListener {
+
+    FillListener NONE = (takerOrderId, takerUserId, takerFilled, takerRemaining,
+                         makerOrderId, makerUserId, makerFilled, makerRemaining, priceTicks, quantity) -> {};
+
+    /**
+     * @param takerFilled    units of the incoming order filled so far, this execution included
+     * @param takerRemaining units of the incoming order still open after this execution
+     * @param makerFilled    units of the resting order filled so far, this execution included
+     * @param makerRemaining units of the resting order still open after this execution
+     * @param priceTicks     execution price (the resting order's price), in {@link PriceTicks}
+     * @param quantity       units exchanged by this execution
+     */
+    void onFill(long takerOrderId, long takerUserId, int takerFilled, int takerRemaining,
+                long makerOrderId, long makerUserId, int makerFilled, int makerRemaining,
+                long priceTicks, int quantity);
+}
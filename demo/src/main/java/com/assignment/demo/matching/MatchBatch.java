@@ -0,0 +1,79 @@
+package com.assignment.demo.matching;
+
+import com.assignment.demo.enums.OrderStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the fills produced while the engine drains one batch of commands, together with the
+ * latest filled quantity of every order they touched. Multiple fills of one order within a batch
+ * collapse into a single row update.
+ */
+final class MatchBatch implements FillListener {
+
+    /**
+     * Latest state of one order touched by fills. Side and limit price are kept so a rejected fill
+     * can be handed back to the book (see {@link MatchPersister}).
+     */
+    record OrderState(long orderId, long userId, boolean buy, long priceTicks, int quantity,
+                      int filledQuantity, OrderStatus status) {
+    }
+
+    private final Map<Long, OrderState> orders = new LinkedHashMap<>();
+    private final List<OrderFill> fills = new ArrayList<>();
+    private boolean takerBuy;
+    private long takerPriceTicks;
+
+    /**
+     * Sets the side and limit price of the order about to be matched; fills only carry the maker's price.
+     */
+    void taker(boolean buy, long priceTicks) {
+        this.takerBuy = buy;
+        this.takerPriceTicks = priceTicks;
+    }
+
+    @Override
+    public void onFill(long takerOrderId, long takerUserId, int takerFilled, int takerRemaining,
+                       long makerOrderId, long makerUserId, int makerFilled, int makerRemaining,
+                       long priceTicks, int quantity) {
+        record(takerOrderId, takerUserId, takerBuy, takerPriceTicks, takerFilled, takerRemaining);
+        record(makerOrderId, makerUserId, !takerBuy, priceTicks, makerFilled, makerRemaining);
+        fills.add(new OrderFill(takerOrderId, takerUserId, makerOrderId, makerUserId, priceTicks, quantity, Instant.now()));
+    }
+
+    boolean isEmpty() {
+        return fills.isEmpty();
+    }
+
+    Map<Long, OrderState> orders() {
+        return orders;
+    }
+
+    List<OrderFill> fills() {
+        return fills;
+    }
+
+    /**
+     * Folds a later batch into this one; the later state of an order wins.
+     */
+    void merge(MatchBatch later) {
+        orders.putAll(later.orders);
+        fills.addAll(later.fills);
+    }
+
+    void clear() {
+        orders.clear();
+        fills.clear();
+    }
+
+    // NEW orders that trade skip straight to COMPLETED when fully filled; the engine, not a caller,
+    // drives these transitions
+    private void record(long orderId, long userId, boolean buy, long priceTicks, int filled, int remaining) {
+        OrderStatus status = remaining == 0 ? OrderStatus.COMPLETED : OrderStatus.PROCESSING;
+        orders.put(orderId, new OrderState(orderId, userId, buy, priceTicks, filled + remaining, filled, status));
+    }
+}
@@ -0,0 +1,311 @@
+package com.assignment.demo.matching;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.logging.RateLimitedLogger;
+import com.assignment.demo.service.OrderRedisService;
+import com.assignment.demo.service.UserRedisService;
+import com.assignment.demo.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Writes matching results to the database off the matching thread.
+ *
+ * Batches handed over by the engine are merged while a write is in progress, so under load each
+ * flush covers many fills: one JDBC batch and one commit per shard. Only after the commit are the
+ * affected cache entries invalidated and the fills published as {@link OrderFill} events.
+ *
+ * The database has the last word on whether a fill happened. Cancels commit first and reach the
+ * book later (or, from other instances, not at all), so each flush locks its rows first. A fill
+ * involving an order that is already closed is rejected whole: neither side is written, it is not
+ * published, and the engine drops the closed order and returns the units to the other side.
+ *
+ * A failed write keeps the pending state and is retried; newer batches keep merging into it, so the
+ * database converges on the book's state once it is reachable again.
+ */
+@Component
+public class MatchPersister {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchPersister.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private static final int LOCK_CHUNK_SIZE = 500;
+
+    private static final String LOCK_ROWS_SQL =
+            "SELECT order_id, status, filled_quantity, version FROM orders WHERE order_id IN (%s) FOR UPDATE";
+
+    // Only runs on rows locked and checked in the same transaction
+    private static final String UPDATE_FILL_SQL =
+            "UPDATE orders SET filled_quantity = ?, status = ?, version = version + 1, updated_at = ? WHERE order_id = ?";
+
+    /** Receives the outcome of rejected fills; see {@link MatchingEngine#correct}. */
+    @FunctionalInterface
+    interface RejectionHandler {
+        void rejected(List<Long> closedOrderIds, List<MatchBatch.OrderState> survivors, Map<Long, Integer> units);
+    }
+
+    private record Row(OrderStatus status, int filledQuantity, long version) {
+    }
+
+    /** What one flush commits, and what it rejected. */
+    private record Resolution(Map<Long, MatchBatch.OrderState> updates, List<OrderFill> fills,
+                              List<Long> closed, List<MatchBatch.OrderState> survivors, Map<Long, Integer> returned) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate shardTransaction;
+    private final ShardRouter shardRouter;
+    private final CacheManager cacheManager;
+    private final OrderRedisService orderRedisService;
+    private final UserRedisService userRedisService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long retryMillis;
+
+    private final BlockingQueue<MatchBatch> handoff;
+    private final MatchBatch pending = new MatchBatch();
+    private volatile RejectionHandler rejectionHandler = (closed, survivors, units) -> {};
+    private Thread writer;
+    private volatile boolean running = true;
+
+    public MatchPersister(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          ShardRouter shardRouter,
+                          CacheManager cacheManager,
+                          OrderRedisService orderRedisService,
+                          UserRedisService userRedisService,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.matching.persist-queue-capacity:1024}") int queueCapacity,
+                          @Value("${app.matching.persist-retry-ms:1000}") long retryMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Each shard of a flush gets its own transaction, all held open until every shard is locked
+        this.shardTransaction = new TransactionTemplate(transactionManager);
+        this.shardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardRouter = shardRouter;
+        this.cacheManager = cacheManager;
+        this.orderRedisService = orderRedisService;
+        this.userRedisService = userRedisService;
+        this.eventPublisher = eventPublisher;
+        this.retryMillis = retryMillis;
+        this.handoff = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer = new Thread(this::run, "match-persister");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.interrupt();
+    }
+
+    /**
+     * Hands a batch to the writer. Blocks when the writer is far behind, which in turn slows the
+     * matching thread and, through its bounded queue, order intake.
+     */
+    void submit(MatchBatch batch) throws InterruptedException {
+        handoff.put(batch);
+    }
+
+    void onRejected(RejectionHandler handler) {
+        this.rejectionHandler = handler;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (pending.isEmpty()) {
+                    pending.merge(handoff.take());
+                }
+                MatchBatch next;
+                while ((next = handoff.poll()) != null) {
+                    pending.merge(next);
+                }
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Persisting {} order fills failed, retrying in {} ms: {}",
+                        pending.fills().size(), retryMillis, e.getMessage());
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void flush() {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (MatchBatch.OrderState state : pending.orders().values()) {
+            byShard.computeIfAbsent(shardRouter.shardFor(state.userId()), s -> new ArrayList<>()).add(state.orderId());
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now();
+        Map<Long, Row> rows = new HashMap<>();
+        Resolution resolution = lockAndWrite(new ArrayList<>(byShard.entrySet()), 0, rows,
+                Timestamp.valueOf(updatedAt));
+
+        invalidateCaches(resolution.updates().values(), rows, updatedAt);
+        resolution.fills().forEach(eventPublisher::publishEvent);
+        if (!resolution.closed().isEmpty()) {
+            rateLimitedLog.warn("Rejected {} of {} fills against {} orders already closed in the database",
+                    pending.fills().size() - resolution.fills().size(), pending.fills().size(), resolution.closed().size());
+            rejectionHandler.rejected(resolution.closed(), resolution.survivors(), resolution.returned());
+        }
+        pending.clear();
+    }
+
+    // Shards are locked in ascending order, each in a transaction that stays open until the innermost
+    // call has resolved the whole flush; every shard then writes its own rows on the way back out
+    private Resolution lockAndWrite(List<Map.Entry<Integer, List<Long>>> shards, int index, Map<Long, Row> rows,
+                                    Timestamp now) {
+        if (index == shards.size()) return resolve(rows);
+
+        Map.Entry<Integer, List<Long>> shard = shards.get(index);
+        return shardRouter.onShardIndex(shard.getKey(), () -> shardTransaction.execute(tx -> {
+            lockRows(shard.getValue(), rows);
+            Resolution resolution = lockAndWrite(shards, index + 1, rows, now);
+
+            List<MatchBatch.OrderState> writes = shard.getValue().stream()
+                    .map(resolution.updates()::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (!writes.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_FILL_SQL, writes, writes.size(), (ps, row) -> {
+                    ps.setInt(1, row.filledQuantity());
+                    ps.setString(2, row.status().name());
+                    ps.setTimestamp(3, now);
+                    ps.setLong(4, row.orderId());
+                });
+            }
+            return resolution;
+        }));
+    }
+
+    private void lockRows(List<Long> orderIds, Map<Long, Row> rows) {
+        for (int from = 0; from < orderIds.size(); from += LOCK_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + LOCK_CHUNK_SIZE));
+            String sql = String.format(LOCK_ROWS_SQL, String.join(",", Collections.nCopies(chunk.size(), "?")));
+            jdbcTemplate.query(sql, rs -> {
+                rows.put(rs.getLong("order_id"),
+                        new Row(OrderStatus.valueOf(rs.getString("status")), rs.getInt("filled_quantity"), rs.getLong("version")));
+            }, chunk.toArray());
+        }
+    }
+
+    private Resolution resolve(Map<Long, Row> rows) {
+        // 1. Orders closed (or gone) in the database. A COMPLETED row already carrying the book's
+        //    quantity is this flush's own write, committed by an attempt that failed on another shard
+        Set<Long> closed = new LinkedHashSet<>();
+        for (MatchBatch.OrderState state : pending.orders().values()) {
+            Row row = rows.get(state.orderId());
+            boolean ownWrite = row != null && row.status() == OrderStatus.COMPLETED
+                    && row.filledQuantity() == state.filledQuantity();
+            if (row == null || row.status().isTerminal() && !ownWrite) closed.add(state.orderId());
+        }
+
+        // 2. A fill touching a closed order is dropped whole; the other side gets its units back
+        List<OrderFill> fills = new ArrayList<>(pending.fills().size());
+        Map<Long, Integer> returned = new HashMap<>();
+        for (OrderFill fill : pending.fills()) {
+            boolean takerClosed = closed.contains(fill.takerOrderId());
+            boolean makerClosed = closed.contains(fill.makerOrderId());
+            if (!takerClosed && !makerClosed) {
+                fills.add(fill);
+                continue;
+            }
+            if (!takerClosed) returned.merge(fill.takerOrderId(), fill.quantity(), Integer::sum);
+            if (!makerClosed) returned.merge(fill.makerOrderId(), fill.quantity(), Integer::sum);
+        }
+
+        // 3. Rows to write: open orders whose filled quantity, net of dropped fills, moved past the row's
+        Map<Long, MatchBatch.OrderState> updates = new LinkedHashMap<>();
+        List<MatchBatch.OrderState> survivors = new ArrayList<>();
+        for (MatchBatch.OrderState state : pending.orders().values()) {
+            if (closed.contains(state.orderId())) continue;
+            int units = returned.getOrDefault(state.orderId(), 0);
+            if (units > 0) survivors.add(state);
+
+            int filled = state.filledQuantity() - units;
+            if (filled <= rows.get(state.orderId()).filledQuantity()) continue;
+            OrderStatus status = filled == state.quantity() ? OrderStatus.COMPLETED : OrderStatus.PROCESSING;
+            updates.put(state.orderId(), new MatchBatch.OrderState(state.orderId(), state.userId(), state.buy(),
+                    state.priceTicks(), state.quantity(), filled, status));
+        }
+        return new Resolution(updates, fills, List.copyOf(closed), survivors, returned);
+    }
+
+    private void invalidateCaches(Collection<MatchBatch.OrderState> updated, Map<Long, Row> rows, LocalDateTime now) {
+        if (updated.isEmpty()) return;
+        List<Long> orderIds = updated.stream().map(MatchBatch.OrderState::orderId).toList();
+
+        // Stamp the versions just written before evicting, so a cache load that read the rows before
+        // this flush sees the newer stamp and drops its copy (see CoalescingCache)
+        orderRedisService.recordVersions(updated.stream()
+                .map(state -> OrderResponse.builder()
+                        .orderId(state.orderId())
+                        .userId(state.userId())
+                        .version(rows.get(state.orderId()).version() + 1)
+                        .status(state.status())
+                        .build())
+                .toList());
+        try {
+            Cache ordersCache = cacheManager.getCache("orders");
+            if (ordersCache != null) orderIds.forEach(ordersCache::evict);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis EVICT error for {} filled orders: {}", orderIds.size(), e.getMessage());
+        }
+
+        // Patch the filled orders in place in their owners' recent-orders lists, mirroring the UPDATE:
+        // only entries still open change, and each flush bumps the version once
+        Map<Long, Map<Long, UnaryOperator<OrderResponse>>> byUser = new LinkedHashMap<>();
+        for (MatchBatch.OrderState state : updated) {
+            byUser.computeIfAbsent(state.userId(), u -> new HashMap<>()).put(state.orderId(), cached -> {
+                if (cached.getStatus() != OrderStatus.NEW && cached.getStatus() != OrderStatus.PROCESSING) return null;
+                cached.setFilledQuantity(state.filledQuantity());
+                cached.setStatus(state.status());
+                cached.setVersion(cached.getVersion() == null ? null : cached.getVersion() + 1);
+                cached.setUpdatedAt(now);
+                return cached;
+            });
+        }
+        byUser.forEach(userRedisService::patchRecentOrders);
+    }
+}
@@ -0,0 +1,250 @@
+package com.assignment.demo.matching;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.shard.KWayMerge;
+import com.assignment.demo.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-writer matching engine in front of one {@link OrderBook}.
+ *
+ * Newly created orders and cancels are queued and applied by one dedicated thread, which owns the
+ * book and never does I/O: each drained batch of commands is matched in memory and the resulting
+ * fills are handed to {@link MatchPersister}. Orders therefore reach the book in commit order and
+ * match with strict price-time priority.
+ *
+ * At startup the book is rebuilt by replaying every open (NEW/PROCESSING) order in id order — ids
+ * are time-ordered — which also matches any crossing orders created while the engine was off.
+ *
+ * After every batch the engine also publishes a {@link DepthSnapshot} of the top levels, so depth
+ * readers never touch the book and a snapshot read costs the same however many orders are open.
+ *
+ * Fills are only proposals until {@link MatchPersister} commits them: one against an order that was
+ * closed in the database before the book heard of it is rejected there, and comes back as a
+ * correction that drops the closed order and returns the units to its counterparty.
+ *
+ * Orders carry no instrument, so there is one book for the whole application. Matching is
+ * single-node only: orders reach the book only from the instance that created them, so enable it
+ * only when the application runs as a single instance.
+ */
+@Component
+public class MatchingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingEngine.class);
+
+    private static final int DRAIN_LIMIT = 512;
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+    private static final List<OrderStatus> OPEN_STATUSES = List.of(OrderStatus.NEW, OrderStatus.PROCESSING);
+
+    private sealed interface Command permits Submit, Cancel, Restore {}
+
+    private record Submit(long orderId, long userId, boolean buy, long priceTicks, int quantity, int filled) implements Command {}
+
+    private record Cancel(long orderId) implements Command {}
+
+    private record Restore(long orderId, long userId, boolean buy, long priceTicks, int quantity, int units) implements Command {}
+
+    private final OrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+    private final MatchPersister persister;
+    private final boolean enabled;
+    private final long offerTimeoutMillis;
+    private final int depthLevels;
+
+    private final BlockingQueue<Command> commands;
+    private final OrderBook book = new OrderBook(1 << 16);
+    private volatile DepthSnapshot depth = DepthSnapshot.EMPTY;
+    private long depthSequence;
+    private Thread matcher;
+    private volatile boolean running = true;
+
+    public MatchingEngine(OrderRepository orderRepository,
+                          ShardRouter shardRouter,
+                          MatchPersister persister,
+                          @Value("${app.matching.enabled:false}") boolean enabled,
+                          @Value("${app.matching.queue-capacity:65536}") int queueCapacity,
+                          @Value("${app.matching.offer-timeout-ms:1000}") long offerTimeoutMillis,
+                          @Value("${app.matching.depth-levels:50}") int depthLevels) {
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+        this.persister = persister;
+        this.enabled = enabled;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.depthLevels = depthLevels;
+        this.commands = new ArrayBlockingQueue<>(queueCapacity);
+        persister.onRejected(this::correct);
+    }
+
+    @PostConstruct
+    public void start() throws InterruptedException {
+        if (!enabled) return;
+
+        // Runs before the web server accepts requests, so no new order can race the replay
+        rebuild();
+
+        matcher = new Thread(this::run, "order-matcher");
+        matcher.setDaemon(true);
+        matcher.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (matcher != null) matcher.interrupt();
+    }
+
+    /**
+     * Queues a committed order for matching. Call only after the insert has committed, so the
+     * persister never updates a row that does not exist yet.
+     */
+    public void submit(OrderResponse order) {
+        if (!enabled) return;
+        offer(new Submit(order.getOrderId(), order.getUserId(), order.getOrderType() == OrderType.BUY,
+                PriceTicks.of(order.getPrice()), order.getQuantity(),
+                order.getFilledQuantity() == null ? 0 : order.getFilledQuantity()));
+    }
+
+    /**
+     * Queues removal of an order from the book, e.g. after it was manually moved to a terminal status.
+     */
+    public void cancel(Long orderId) {
+        if (!enabled) return;
+        offer(new Cancel(orderId));
+    }
+
+    /**
+     * Applies the outcome of fills the persister rejected: closed orders leave the book, and each
+     * surviving counterparty gets back the units it traded against them.
+     */
+    void correct(List<Long> closedOrderIds, List<MatchBatch.OrderState> survivors, Map<Long, Integer> units) {
+        if (!enabled) return;
+        closedOrderIds.forEach(this::cancel);
+        for (MatchBatch.OrderState s : survivors) {
+            offer(new Restore(s.orderId(), s.userId(), s.buy(), s.priceTicks(), s.quantity(), units.get(s.orderId())));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Maximum number of levels per side kept in the published depth snapshot. */
+    public int depthLevels() {
+        return depthLevels;
+    }
+
+    /**
+     * Latest published top-of-book snapshot; at most one batch of commands behind the book.
+     */
+    public DepthSnapshot depth() {
+        return depth;
+    }
+
+    private void offer(Command command) {
+        try {
+            if (!commands.offer(command, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                // The order stays open in the DB and is picked up by the next rebuild
+                log.warn("Matching queue full, dropped {}", command);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Command> drained = new ArrayList<>(DRAIN_LIMIT);
+        while (running) {
+            try {
+                drained.add(commands.take());
+                commands.drainTo(drained, DRAIN_LIMIT - 1);
+
+                MatchBatch batch = new MatchBatch();
+                for (Command command : drained) {
+                    apply(command, batch);
+                }
+                drained.clear();
+                publishDepth();
+                if (!batch.isEmpty()) persister.submit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // A bad command must not take the matching thread down with it
+                log.error("Matching failed for a batch of {} commands: {}", drained.size(), e.getMessage(), e);
+                drained.clear();
+            }
+        }
+    }
+
+    private void apply(Command command, MatchBatch batch) {
+        if (command instanceof Submit s) {
+            if (book.contains(s.orderId())) return;
+            batch.taker(s.buy(), s.priceTicks());
+            book.match(s.orderId(), s.userId(), s.buy(), s.priceTicks(), s.quantity(), s.filled(), batch);
+        } else if (command instanceof Cancel c) {
+            book.cancel(c.orderId());
+        } else if (command instanceof Restore r) {
+            // Re-entered at the back of its level with the rejected units open again; it may match at once
+            int open = book.remaining(r.orderId());
+            book.cancel(r.orderId());
+            batch.taker(r.buy(), r.priceTicks());
+            book.match(r.orderId(), r.userId(), r.buy(), r.priceTicks(), r.quantity(),
+                    Math.max(0, r.quantity() - open - r.units()), batch);
+        }
+    }
+
+    private void publishDepth() {
+        depth = book.snapshot(depthLevels, ++depthSequence);
+    }
+
+    // ── Startup rebuild ─────────────────────────────────────────────────────
+
+    private void rebuild() throws InterruptedException {
+        long start = System.nanoTime();
+        List<List<Order>> perShard = shardRouter.onEachShard(this::loadOpenOrders);
+        int total = perShard.stream().mapToInt(List::size).sum();
+        List<Order> open = KWayMerge.merge(perShard, Comparator.comparing(Order::getOrderId), 0, total);
+
+        MatchBatch batch = new MatchBatch();
+        for (Order order : open) {
+            batch.taker(order.getOrderType() == OrderType.BUY, PriceTicks.of(order.getPrice()));
+            book.match(order.getOrderId(), order.getUserId(), order.getOrderType() == OrderType.BUY,
+                    PriceTicks.of(order.getPrice()), order.getQuantity(), order.getFilledQuantity(), batch);
+        }
+        publishDepth();
+        if (!batch.isEmpty()) persister.submit(batch);
+
+        log.info("Order book rebuilt from {} open orders in {} ms: {} resting, {} fills on replay",
+                total, (System.nanoTime() - start) / 1_000_000L, book.restingOrders(), batch.fills().size());
+    }
+
+    private List<Order> loadOpenOrders() {
+        List<Order> open = new ArrayList<>();
+        long afterId = Long.MIN_VALUE;
+        List<Order> chunk;
+        do {
+            chunk = orderRepository.findInStatusesAfter(OPEN_STATUSES, afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            open.addAll(chunk);
+            if (!chunk.isEmpty()) afterId = chunk.get(chunk.size() - 1).getOrderId();
+        } while (chunk.size() == REBUILD_CHUNK_SIZE);
+        return open;
+    }
+}
@@ -0,0 +1,291 @@
+package com.assignment.demo.matching;
+
+import java.util.Arrays;
+
+/**
+ * Limit order book with price-time priority.
+ *
+ * Each side keeps its price levels in a sorted array with the best level last, so the match loop
+ * reads and removes the top of book in O(1); a new level costs a binary search plus a short shift,
+ * which is near-free when prices cluster around the top. Within a level, resting orders form an
+ * intrusive FIFO, and an id index allows O(1) cancels. Prices are {@link PriceTicks}, so the hot path
+ * does only long and int arithmetic; level and order nodes are recycled to keep it allocation-free.
+ *
+ * Not thread-safe: a book is owned by exactly one thread (see {@link MatchingEngine}).
+ */
+public final class OrderBook {
+
+    private final Side bids = new Side(true);
+    private final Side asks = new Side(false);
+    private final LongIndex<Resting> restingById;
+
+    private Resting freeOrders;
+    private Level freeLevels;
+
+    public OrderBook() {
+        this(1024);
+    }
+
+    public OrderBook(int expectedRestingOrders) {
+        this.restingById = new LongIndex<>(expectedRestingOrders);
+    }
+
+    /**
+     * Matches an incoming limit order against the opposite side and rests whatever is left.
+     *
+     * @param quantity total size of the order
+     * @param filled   units already filled before this call (non-zero only when replaying open orders)
+     * @return units left open (resting in the book) after matching
+     */
+    public int match(long orderId, long userId, boolean buy, long priceTicks, int quantity, int filled,
+                     FillListener listener) {
+        Side opposite = buy ? asks : bids;
+        int remaining = quantity - filled;
+
+        while (remaining > 0 && opposite.size > 0) {
+            Level level = opposite.best();
+            if (buy ? level.price > priceTicks : level.price < priceTicks) break;
+
+            Resting maker = level.head;
+            while (maker != null && remaining > 0) {
+                int traded = Math.min(remaining, maker.remaining);
+                remaining -= traded;
+                maker.remaining -= traded;
+                level.quantity -= traded;
+
+                listener.onFill(orderId, userId, quantity - remaining, remaining,
+                        maker.orderId, maker.userId, maker.quantity - maker.remaining, maker.remaining,
+                        level.price, traded);
+
+                if (maker.remaining == 0) {
+                    Resting next = maker.next;
+                    restingById.remove(maker.orderId);
+                    level.unlink(maker);
+                    recycle(maker);
+                    maker = next;
+                }
+            }
+            if (level.head == null) {
+                opposite.removeBest();
+                recycle(level);
+            }
+        }
+
+        if (remaining > 0) {
+            rest(orderId, userId, buy, priceTicks, quantity, remaining);
+        }
+        return remaining;
+    }
+
+    /**
+     * Removes a resting order. Returns false if it is not in the book (already filled or cancelled).
+     */
+    public boolean cancel(long orderId) {
+        Resting order = restingById.remove(orderId);
+        if (order == null) return false;
+
+        Level level = order.level;
+        level.quantity -= order.remaining;
+        level.unlink(order);
+        if (level.head == null) {
+            (order.buy ? bids : asks).remove(level);
+            recycle(level);
+        }
+        recycle(order);
+        return true;
+    }
+
+    public boolean contains(long orderId) {
+        return restingById.get(orderId) != null;
+    }
+
+    /** Units of a resting order still open, or 0 if it is not in the book. */
+    public int remaining(long orderId) {
+        Resting order = restingById.get(orderId);
+        return order == null ? 0 : order.remaining;
+    }
+
+    public int restingOrders() {
+        return restingById.size();
+    }
+
+    /**
+     * Copies the best {@code maxLevels} levels of each side into an immutable snapshot. Costs
+     * O(maxLevels) regardless of how many orders rest in the book.
+     */
+    public DepthSnapshot snapshot(int maxLevels, long sequence) {
+        return new DepthSnapshot(sequence, bids.top(maxLevels), asks.top(maxLevels));
+    }
+
+    /** Best bid in ticks, or {@link Long#MIN_VALUE} when there are no bids. */
+    public long bestBid() {
+        return bids.size == 0 ? Long.MIN_VALUE : bids.best().price;
+    }
+
+    /** Best ask in ticks, or {@link Long#MAX_VALUE} when there are no asks. */
+    public long bestAsk() {
+        return asks.size == 0 ? Long.MAX_VALUE : asks.best().price;
+    }
+
+    private void rest(long orderId, long userId, boolean buy, long priceTicks, int quantity, int remaining) {
+        Resting order = freeOrders;
+        if (order != null) {
+            freeOrders = order.next;
+            order.next = null;
+        } else {
+            order = new Resting();
+        }
+        order.orderId = orderId;
+        order.userId = userId;
+        order.buy = buy;
+        order.quantity = quantity;
+        order.remaining = remaining;
+
+        Level level = (buy ? bids : asks).levelFor(priceTicks, this);
+        level.append(order);
+        level.quantity += remaining;
+        restingById.put(orderId, order);
+    }
+
+    private Level newLevel(long price) {
+        Level level = freeLevels;
+        if (level != null) {
+            freeLevels = level.nextFree;
+            level.nextFree = null;
+        } else {
+            level = new Level();
+        }
+        level.price = price;
+        level.quantity = 0L;
+        level.orders = 0;
+        return level;
+    }
+
+    private void recycle(Resting order) {
+        order.prev = null;
+        order.level = null;
+        order.next = freeOrders;
+        freeOrders = order;
+    }
+
+    private void recycle(Level level) {
+        level.head = null;
+        level.tail = null;
+        level.nextFree = freeLevels;
+        freeLevels = level;
+    }
+
+    // ── Book structure ──────────────────────────────────────────────────────
+
+    private static final class Resting {
+        long orderId;
+        long userId;
+        boolean buy;
+        int quantity;
+        int remaining;
+        Level level;
+        Resting prev;
+        Resting next;
+    }
+
+    private static final class Level {
+        long price;
+        long quantity;
+        int orders;
+        Resting head;
+        Resting tail;
+        Level nextFree;
+
+        void append(Resting order) {
+            order.level = this;
+            order.prev = tail;
+            if (tail == null) head = order; else tail.next = order;
+            tail = order;
+            orders++;
+        }
+
+        void unlink(Resting order) {
+            if (order.prev == null) head = order.next; else order.prev.next = order.next;
+            if (order.next == null) tail = order.prev; else order.next.prev = order.prev;
+            orders--;
+        }
+    }
+
+    /**
+     * One side of the book. Levels are sorted worst-to-best so the best level is always at
+     * {@code size - 1}: ascending prices for bids, descending for asks.
+     */
+    private static final class Side {
+        private final boolean bids;
+        private long[] prices = new long[64];
+        private Level[] levels = new Level[64];
+        private int size;
+
+        Side(boolean bids) {
+            this.bids = bids;
+        }
+
+        Level best() {
+            return levels[size - 1];
+        }
+
+        void removeBest() {
+            levels[--size] = null;
+        }
+
+        Level levelFor(long price, OrderBook book) {
+            int i = search(price);
+            if (i >= 0) return levels[i];
+
+            int insertAt = -i - 1;
+            if (size == prices.length) grow();
+            System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+            System.arraycopy(levels, insertAt, levels, insertAt + 1, size - insertAt);
+            Level level = book.newLevel(price);
+            prices[insertAt] = price;
+            levels[insertAt] = level;
+            size++;
+            return level;
+        }
+
+        DepthSnapshot.Side top(int maxLevels) {
+            int n = Math.min(maxLevels, size);
+            long[] topPrices = new long[n];
+            long[] topQuantities = new long[n];
+            int[] topOrders = new int[n];
+            for (int i = 0; i < n; i++) {
+                Level level = levels[size - 1 - i];
+                topPrices[i] = level.price;
+                topQuantities[i] = level.quantity;
+                topOrders[i] = level.orders;
+            }
+            return new DepthSnapshot.Side(topPrices, topQuantities, topOrders);
+        }
+
+        void remove(Level level) {
+            int i = search(level.price);
+            System.arraycopy(prices, i + 1, prices, i, size - i - 1);
+            System.arraycopy(levels, i + 1, levels, i, size - i - 1);
+            levels[--size] = null;
+        }
+
+        // Binary search in worst-to-best order; returns the index, or -(insertion point) - 1
+        private int search(long price) {
+            int lo = 0;
+            int hi = size - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long p = prices[mid];
+                if (p == price) return mid;
+                boolean worse = bids ? p < price : p > price;
+                if (worse) lo = mid + 1; else hi = mid - 1;
+            }
+            return -(lo + 1);
+        }
+
+        private void grow() {
+            prices = Arrays.copyOf(prices, prices.length * 2);
+            levels = Arrays.copyOf(levels, levels.length * 2);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.assignment.demo.matching;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One execution between an incoming (taker) and a resting (maker) order. Published as a Spring
+ * application event once the fill and both orders' new state are committed.
+ */
+public record OrderFill(long takerOrderId, long takerUserId,
+                        long makerOrderId, long makerUserId,
+                        long priceTicks, int quantity, Instant executedAt) {
+
+    public BigDecimal price() {
+        return PriceTicks.toPrice(priceTicks);
+    }
+}
@@ -0,0 +1,90 @@
+package com.assignment.demo.matching;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point prices for the matching engine: a price is a long count of 1/10,000ths, the same scale
+ * as the {@code orders.price} column, so conversion in either direction is exact.
+ *
+ * Notional values (price × quantity) use the same scale, so sums of them stay plain long additions.
+ * Arithmetic is overflow-checked: it throws instead of wrapping around.
+ */
+public final class PriceTicks {
+
+    public static final int SCALE = 4;
+
+    /** Largest accepted price: 14 integer digits and 4 decimals, as validated on order requests. */
+    public static final long MAX_PRICE_TICKS = 999_999_999_999_999_999L;
+
+    private PriceTicks() {}
+
+    /**
+     * Converts a price to ticks, rounding extra decimals the way the DECIMAL(19,4) column stores them.
+     *
+     * @throws ArithmeticException if the price does not fit in a long at this scale
+     */
+    public static long of(BigDecimal price) {
+        return price.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toPrice(long ticks) {
+        return BigDecimal.valueOf(ticks, SCALE);
+    }
+
+    /**
+     * Notional value of {@code quantity} units at {@code priceTicks}, in ticks.
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long notional(long priceTicks, long quantity) {
+        return Math.multiplyExact(priceTicks, quantity);
+    }
+
+    /**
+     * Sum of two tick amounts (prices or notionals).
+     *
+     * @throws ArithmeticException on overflow
+     */
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * Running notional totals over price levels, best level first: entry i is the notional of levels
+     * 0..i, what it costs to take the book out to that price. Summed in ticks; a total that leaves the
+     * long range continues in BigDecimal.
+     */
+    public static BigDecimal[] cumulativeNotionals(long[] priceTicks, long[] quantities, int levels) {
+        BigDecimal[] totals = new BigDecimal[levels];
+        long ticks = 0;
+        BigDecimal overflowed = null;
+        for (int i = 0; i < levels; i++) {
+            if (overflowed == null) {
+                try {
+                    ticks = add(ticks, notional(priceTicks[i], quantities[i]));
+                    totals[i] = toPrice(ticks);
+                    continue;
+                } catch (ArithmeticException e) {
+                    overflowed = toPrice(ticks);
+                }
+            }
+            overflowed = overflowed.add(toNotional(priceTicks[i], quantities[i]));
+            totals[i] = overflowed;
+        }
+        return totals;
+    }
+
+    /**
+     * Notional value as a decimal for responses. Stays on long arithmetic unless the product
+     * overflows, and falls back to BigDecimal only then.
+     */
+    public static BigDecimal toNotional(long priceTicks, long quantity) {
+        long high = Math.multiplyHigh(priceTicks, quantity);
+        long low = priceTicks * quantity;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return toPrice(low);
+        }
+        return toPrice(priceTicks).multiply(BigDecimal.valueOf(quantity));
+    }
+}
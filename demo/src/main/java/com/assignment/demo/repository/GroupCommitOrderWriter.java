@@ -0,0 +1,238 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.exception.ServiceUnavailableException;
+import com.assignment.demo.id.SnowflakeIdGenerator;
+import com.assignment.demo.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for order inserts.
+ *
+ * Callers enqueue their order into a bounded queue and wait. A single writer thread takes the first
+ * waiting order, keeps collecting for at most {@code window-micros} or until {@code max-batch}
+ * orders, and writes the batch as one multi-row INSERT (plus one batched user_order_stats upsert)
+ * and one commit per shard. Every caller in the batch is released once that commit returns, so N
+ * concurrent creates pay for one fsync instead of N, at the cost of up to one window of added latency.
+ *
+ * A caller never waits longer than {@code wait-timeout-millis}: past it, or once the writer is shut
+ * down, the insert fails with 503. Whatever goes wrong with a batch, even an Error, fails its callers
+ * and the writer carries on with the next one.
+ *
+ * Rows are written with plain JDBC, so the entity's id generator and @PrePersist callback are
+ * applied here instead: ids come from the same node's Snowflake generator and the version starts at
+ * 0, exactly as Hibernate would insert them.
+ */
+@Component
+public class GroupCommitOrderWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitOrderWriter.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO orders (order_id, order_type, quantity, filled_quantity, price, status, user_id, " +
+            "created_at, updated_at, version) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Pending(Order order, CompletableFuture<Order> done) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final UserOrderStatsWriter statsWriter;
+    private final SnowflakeIdGenerator idGenerator;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final long waitTimeoutMillis;
+
+    private final BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running = true;
+
+    public GroupCommitOrderWriter(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ShardRouter shardRouter,
+                                  UserOrderStatsWriter statsWriter,
+                                  @Value("${app.order-id.node-id:0}") int nodeId,
+                                  @Value("${app.orders.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${app.orders.group-commit.window-micros:300}") long windowMicros,
+                                  @Value("${app.orders.group-commit.max-batch:128}") int maxBatch,
+                                  @Value("${app.orders.group-commit.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.orders.group-commit.wait-timeout-millis:5000}") long waitTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.statsWriter = statsWriter;
+        this.idGenerator = SnowflakeIdGenerator.forNode(nodeId);
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatch = maxBatch;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        writer = new Thread(this::run, "order-group-commit");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer != null) writer.interrupt();
+        failQueued();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inserts the order as part of the next group commit and returns it once the commit is durable,
+     * with id, timestamps and version filled in. Fails fast with 503 when the queue is full or the
+     * writer is shut down, and with 503 after waiting {@code wait-timeout-millis} for the commit. An
+     * order already taken into a batch when the wait times out may still be committed.
+     */
+    public Order insert(Order order) {
+        if (!running) {
+            throw new ServiceUnavailableException("Order intake is shutting down, please retry");
+        }
+        CompletableFuture<Order> done = new CompletableFuture<>();
+        Pending pending = new Pending(order, done);
+        if (!queue.offer(pending)) {
+            throw new ServiceUnavailableException("Order intake is saturated, please retry");
+        }
+        // Shut down between the check and the offer: nobody is left to take it
+        if (!running) failQueued();
+        try {
+            return done.orTimeout(waitTimeoutMillis, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                queue.remove(pending);
+                throw new ServiceUnavailableException("Order intake timed out, please retry");
+            }
+            // Re-throw the writer's original exception (e.g. a DataAccessException) unchanged
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    Pending next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(p -> p.done().completeExceptionally(new ServiceUnavailableException("Shutting down")));
+                failQueued();
+                return;
+            } catch (Throwable t) {
+                // Anything write() did not handle itself (an Error, a failure before the shard loop):
+                // fail the whole batch, callers already completed are unaffected
+                log.error("Group commit of {} orders failed", batch.size(), t);
+                batch.forEach(p -> p.done().completeExceptionally(t));
+            } finally {
+                batch.clear();
+            }
+        }
+        failQueued();
+    }
+
+    private void failQueued() {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.done().completeExceptionally(new ServiceUnavailableException("Shutting down"));
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, List<Pending>> byShard = new HashMap<>();
+        for (Pending pending : batch) {
+            Order order = pending.order();
+            order.setOrderId(idGenerator.nextId());
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+            order.setVersion(0L);
+            byShard.computeIfAbsent(shardRouter.shardFor(order.getUserId()), s -> new ArrayList<>()).add(pending);
+        }
+
+        for (Map.Entry<Integer, List<Pending>> shard : byShard.entrySet()) {
+            List<Pending> rows = shard.getValue();
+            try {
+                shardRouter.onShardIndex(shard.getKey(), () -> transactionTemplate.execute(tx -> {
+                    jdbcTemplate.update(insertSql(rows.size()), ps -> bind(ps, rows));
+                    statsWriter.incrementAll(rows.stream().map(Pending::order).toList());
+                    return null;
+                }));
+                rows.forEach(p -> p.done().complete(p.order()));
+            } catch (RuntimeException e) {
+                log.warn("Group commit of {} orders on shard {} failed: {}", rows.size(), shard.getKey(), e.getMessage());
+                rows.forEach(p -> p.done().completeExceptionally(e));
+            }
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private static void bind(PreparedStatement ps, List<Pending> rows) throws SQLException {
+        int i = 1;
+        for (Pending pending : rows) {
+            Order order = pending.order();
+            Timestamp createdAt = Timestamp.valueOf(order.getCreatedAt());
+            ps.setLong(i++, order.getOrderId());
+            ps.setString(i++, order.getOrderType().name());
+            ps.setInt(i++, order.getQuantity());
+            ps.setInt(i++, order.getFilledQuantity());
+            ps.setBigDecimal(i++, order.getPrice());
+            ps.setString(i++, order.getStatus().name());
+            ps.setLong(i++, order.getUserId());
+            ps.setTimestamp(i++, createdAt);
+            ps.setTimestamp(i++, createdAt);
+            ps.setLong(i++, order.getVersion());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Set;
+
+public interface OrderProjectionRepository {
+
+    /**
+     * Like {@code findAll(spec, pageable)}, but selects only the given columns and returns
+     * {@link com.assignment.demo.dto.SparseOrderResponse}s with just those fields populated.
+     */
+    Page<OrderResponse> findProjected(Specification<Order> spec, Set<OrderField> fields, Pageable pageable);
+}
@@ -0,0 +1,73 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.SparseOrderResponse;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class OrderProjectionRepositoryImpl implements OrderProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Page and count read in one transaction, like the built-in findAll(spec, pageable)
+    @Override
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> findProjected(Specification<Order> spec, Set<OrderField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        // ── page query: only the requested columns ───────────────────────────
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (OrderField field : fields) {
+            selections.add(root.get(field.property()).alias(field.property()));
+        }
+        query.multiselect(selections);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        typed.setFirstResult((int) pageable.getOffset());
+        typed.setMaxResults(pageable.getPageSize());
+
+        List<OrderResponse> content = new ArrayList<>();
+        for (Tuple tuple : typed.getResultList()) {
+            OrderResponse sparse = new SparseOrderResponse();
+            for (OrderField field : fields) {
+                field.set(sparse, tuple.get(field.property()));
+            }
+            content.add(sparse);
+        }
+
+        // ── count query ──────────────────────────────────────────────────────
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Order> countRoot = countQuery.from(Order.class);
+        countQuery.select(cb.count(countRoot));
+        Predicate countPredicate = spec.toPredicate(countRoot, countQuery, cb);
+        if (countPredicate != null) countQuery.where(countPredicate);
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+}
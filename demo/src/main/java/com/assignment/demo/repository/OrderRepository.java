@@ -1,15 +1,33 @@
 package com.assignment.demo.repository;
 
 import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long>,
-        JpaSpecificationExecutor<Order> {
+        JpaSpecificationExecutor<Order>, OrderProjectionRepository {
 
     List<Order> findTop10ByUserIdOrderByCreatedAtDesc(Long userId);
 
-    long countByUserId(Long userId);
+    // findTop10ByUserIdOrderByCreatedAtDesc for many users at once: one window query, each user's
+    // orders newest first. Served from the (user_id, created_at) index.
+    @Query(value = "SELECT order_id, order_type, quantity, filled_quantity, price, status, user_id, created_at, updated_at, version " +
+                   "FROM (SELECT o.*, ROW_NUMBER() OVER (PARTITION BY o.user_id ORDER BY o.created_at DESC, o.order_id DESC) AS rn " +
+                   "      FROM orders o WHERE o.user_id IN (:userIds)) ranked " +
+                   "WHERE rn <= :limit ORDER BY user_id, rn", nativeQuery = true)
+    List<Order> findRecentByUserIds(Collection<Long> userIds, int limit);
+
+    // Version only, for validating a cached copy without loading the row into an entity
+    @Query("select o.version from Order o where o.orderId = :orderId")
+    Optional<Long> findVersionById(Long orderId);
+
+    @Query("select o from Order o where o.status in :statuses and o.orderId > :afterId order by o.orderId")
+    List<Order> findInStatusesAfter(Collection<OrderStatus> statuses, Long afterId, Pageable pageable);
 }
@@ -0,0 +1,90 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.entity.User;
+import com.assignment.demo.entity.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts already-validated, already-hashed users with plain JDBC batches.
+ *
+ * {@code users.id} is an IDENTITY column, which Hibernate cannot batch, so a bulk import through
+ * {@code saveAll} would cost one round trip per user plus one per role row. Here each chunk is two
+ * batched statements — users (reading back the generated ids) and user_roles — in one transaction.
+ * With {@code rewriteBatchedStatements=true} MySQL receives each batch as a multi-row INSERT.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserBulkWriter {
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (full_name, email, password, created_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE =
+            "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Inserts the users and their role links atomically and sets the generated id on each user.
+     */
+    public void insert(List<User> users) {
+        if (users.isEmpty()) return;
+        LocalDateTime now = LocalDateTime.now();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // 1. Users, in one batch, collecting generated ids in insertion order
+            GeneratedKeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            User user = users.get(i);
+                            ps.setString(1, user.getFullName());
+                            ps.setString(2, user.getEmail());
+                            ps.setString(3, user.getPassword());
+                            ps.setTimestamp(4, Timestamp.valueOf(now));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return users.size();
+                        }
+                    },
+                    keys);
+
+            List<Map<String, Object>> generated = keys.getKeyList();
+            if (generated.size() != users.size()) {
+                throw new IllegalStateException("Expected " + users.size() + " generated ids, got " + generated.size());
+            }
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                user.setId(((Number) generated.get(i).values().iterator().next()).longValue());
+                user.setCreatedAt(now);
+            }
+
+            // 2. Role links, in one batch
+            List<Object[]> links = new ArrayList<>(users.size());
+            for (User user : users) {
+                for (UserRole role : user.getRoles()) {
+                    links.add(new Object[]{user.getId(), role.getId()});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, links);
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.entity.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintains {@code user_order_stats}, the durable per-user order count.
+ *
+ * Increments join the caller's transaction, so a stripe is only bumped if the order insert commits.
+ * Each call picks a random stripe out of {@code stripes}; the stripe count can be changed at any time
+ * since reads sum whatever stripes a user has. Orders written without an increment (e.g. by an older
+ * version during a rolling deploy) are counted later by {@code UserOrderStatsReconciler}.
+ */
+@Component
+public class UserOrderStatsWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int stripes;
+
+    public UserOrderStatsWriter(JdbcTemplate jdbcTemplate,
+                                @Value("${app.orders.stats.stripes:8}") int stripes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stripes = Math.max(1, stripes);
+    }
+
+    /**
+     * Counts one new order for the user. Must run inside the transaction that inserts it.
+     */
+    public void increment(Long userId) {
+        jdbcTemplate.update(UserOrderStatsRepository.INCREMENT_SQL, userId, randomStripe(), 1L);
+    }
+
+    /**
+     * Counts a batch of new orders, one upsert per user, in the transaction that inserts them.
+     */
+    public void incrementAll(Collection<Order> orders) {
+        // Sorted by user so concurrent batches lock stripe rows in the same order
+        Map<Long, Long> perUser = new TreeMap<>();
+        for (Order order : orders) {
+            perUser.merge(order.getUserId(), 1L, Long::sum);
+        }
+        List<Object[]> args = new ArrayList<>(perUser.size());
+        perUser.forEach((userId, count) -> args.add(new Object[]{userId, randomStripe(), count}));
+        jdbcTemplate.batchUpdate(UserOrderStatsRepository.INCREMENT_SQL, args);
+    }
+
+    /**
+     * Adds reconciliation deltas (negative ones included) to each user's stripe 0, one upsert per user.
+     * See {@code UserOrderStatsReconciler}.
+     */
+    public void adjust(Map<Long, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((userId, delta) -> args.add(new Object[]{userId, 0, delta}));
+        jdbcTemplate.batchUpdate(UserOrderStatsRepository.INCREMENT_SQL, args);
+    }
+
+    private int randomStripe() {
+        return ThreadLocalRandom.current().nextInt(stripes);
+    }
+}
@@ -0,0 +1,155 @@
+package com.assignment.demo.security;
+
+import com.assignment.demo.exception.ServiceUnavailableException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a CPU-heavy password encoder (BCrypt) on its own small, bounded pool.
+ *
+ * Hashing CPU is capped at the pool size no matter how many login or register requests arrive, so a
+ * login storm cannot take cores away from order traffic. The calling request thread still waits for
+ * its hash (parked, for at most the timeout) and is answered with {@link ServiceUnavailableException}
+ * (503) if the hash has not finished by then.
+ *
+ * Calls are rejected immediately, without queueing, when the queue is full or when the hashes already
+ * running and queued would keep them waiting past the timeout (estimated from measured hash times). A
+ * caller that times out takes its task back out of the queue, and a task whose caller has given up is
+ * skipped instead of hashed. A hash that has already started cannot be stopped — BCrypt does not check
+ * for interrupts — so it runs to completion on its pool thread; that is at most one per thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long timeoutNanos;
+
+    // Moving average of the delegate's run time; 0 until the first hash has been measured
+    private final AtomicLong hashNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis) {
+        this.delegate = delegate;
+        this.threads = threads;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only inspects the hash prefix — cheap enough for the caller's thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * The wrapped encoder, for batch jobs that bring their own (separately limited) pool.
+     */
+    public PasswordEncoder delegate() {
+        return delegate;
+    }
+
+    /**
+     * Number of hashing tasks waiting for a thread; exposed for monitoring.
+     */
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        // 1. Reject at once if the work ahead of this call would outlast its timeout
+        if (expectedCompletionNanos() > timeoutNanos) throw busy();
+
+        FutureTask<T> future = new FutureTask<>(() -> {
+            // 2. The caller has already been answered with a 503; don't spend a core on its hash
+            if (System.nanoTime() - deadline > 0) throw new CancellationException();
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                recordHash(System.nanoTime() - start);
+            }
+        });
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+
+        // 3. Wait for the hash; on timeout, free the queue slot if it has not started yet
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(future);
+            throw busy();
+        } catch (InterruptedException e) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for password hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Time until a call submitted now would finish: one hash per running or queued task per thread,
+    // then its own
+    private long expectedCompletionNanos() {
+        long perHash = hashNanos.get();
+        if (perHash == 0) return 0;
+        int ahead = executor.getActiveCount() + executor.getQueue().size();
+        return (ahead / threads + 1) * perHash;
+    }
+
+    private void recordHash(long nanos) {
+        hashNanos.updateAndGet(avg -> avg == 0 ? nanos : avg + (nanos - avg) / 8);
+    }
+
+    // Cancelling does not interrupt: BCrypt would not notice, and a queued task only needs removing
+    private void abandon(FutureTask<?> future) {
+        future.cancel(false);
+        executor.remove(future);
+    }
+
+    private static ServiceUnavailableException busy() {
+        return new ServiceUnavailableException("Too many authentication requests. Please retry shortly.");
+    }
+}
@@ -1,5 +1,7 @@
 package com.assignment.demo.security;
 
+import com.assignment.demo.entity.User;
+import com.assignment.demo.jfr.JwtVerificationEvent;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,17 +38,27 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String token = authHeader.substring(7);
         final String email;
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
 
         try {
             email = jwtService.extractEmail(token);
         } catch (Exception e) {
+            // Bad signature, expired or malformed
+            event.commit();
             chain.doFilter(request, response);
             return;
         }
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-            if (jwtService.isTokenValid(token, userDetails)) {
+            boolean valid = jwtService.isTokenValid(token, userDetails);
+            if (event.shouldCommit()) {
+                if (userDetails instanceof User user) event.userId = user.getId();
+                event.valid = valid;
+                event.commit();
+            }
+            if (valid) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
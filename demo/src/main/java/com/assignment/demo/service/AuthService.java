@@ -2,9 +2,11 @@ package com.assignment.demo.service;
 
 import com.assignment.demo.dto.AuthResponse;
 import com.assignment.demo.dto.LoginRequest;
+import com.assignment.demo.dto.RefreshTokenRequest;
 import com.assignment.demo.dto.RegisterRequest;
 
 public interface AuthService {
     String register(RegisterRequest req);
     AuthResponse login(LoginRequest req);
+    AuthResponse refresh(RefreshTokenRequest req);
 }
@@ -0,0 +1,208 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.matching.MatchingEngine;
+import com.assignment.demo.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancels NEW orders older than {@code app.orders.expiry.ttl}.
+ *
+ * Each run walks {@code idx_orders_status_created} in (created_at, order_id) keyset order, one chunk
+ * at a time: a chunk is read, cancelled with one batch of version-checked UPDATEs in a short
+ * transaction, and its cache entries are evicted with one Redis DEL for the orders and one for the
+ * owners' recent-orders lists. Runs pause between chunks and stop after {@code max-run-ms}, so a
+ * large backlog is drained over several runs instead of in one long burst of row locks.
+ *
+ * Only one node sweeps at a time: a run starts only after taking a Redis lock, and is skipped while
+ * Redis is unreachable.
+ */
+@Component
+public class OrderExpirySweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpirySweeper.class);
+
+    static final String LOCK_KEY = "orders:expiry:lock";
+
+    // InnoDB secondary indexes carry the primary key, so (status, created_at) also orders by order_id
+    private static final String FIRST_CHUNK_SQL =
+            "SELECT order_id, user_id, version, created_at FROM orders " +
+            "WHERE status = 'NEW' AND created_at < ? " +
+            "ORDER BY created_at, order_id LIMIT ?";
+    private static final String NEXT_CHUNK_SQL =
+            "SELECT order_id, user_id, version, created_at FROM orders " +
+            "WHERE status = 'NEW' AND created_at < ? AND (created_at > ? OR (created_at = ? AND order_id > ?)) " +
+            "ORDER BY created_at, order_id LIMIT ?";
+
+    // A row changed since it was read (fill, manual update) no longer matches and is left alone
+    private static final String CANCEL_SQL =
+            "UPDATE orders SET status = 'CANCELLED', version = version + 1, updated_at = ? " +
+            "WHERE order_id = ? AND version = ? AND status = 'NEW'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ShardRouter shardRouter;
+    private final RedisJobLock jobLock;
+    private final OrderRedisService orderRedisService;
+    private final UserRedisService userRedisService;
+    private final MatchingEngine matchingEngine;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long maxRunMillis;
+    private final Duration lockTtl;
+    private int runs;
+
+    public OrderExpirySweeper(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              ShardRouter shardRouter,
+                              RedisJobLock jobLock,
+                              OrderRedisService orderRedisService,
+                              UserRedisService userRedisService,
+                              MatchingEngine matchingEngine,
+                              @Value("${app.orders.expiry.enabled:false}") boolean enabled,
+                              @Value("${app.orders.expiry.ttl:P1D}") Duration ttl,
+                              @Value("${app.orders.expiry.chunk-size:500}") int chunkSize,
+                              @Value("${app.orders.expiry.pause-ms:50}") long pauseMillis,
+                              @Value("${app.orders.expiry.max-run-ms:20000}") long maxRunMillis,
+                              @Value("${app.orders.expiry.transaction-timeout-seconds:5}") int transactionTimeoutSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setTimeout(transactionTimeoutSeconds);
+        this.shardRouter = shardRouter;
+        this.jobLock = jobLock;
+        this.orderRedisService = orderRedisService;
+        this.userRedisService = userRedisService;
+        this.matchingEngine = matchingEngine;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxRunMillis = maxRunMillis;
+        // Outlives the longest run (plus one chunk transaction), so the lock never lapses mid-run
+        this.lockTtl = Duration.ofMillis(maxRunMillis).plusSeconds(transactionTimeoutSeconds).multipliedBy(2);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval-ms:60000}",
+               initialDelayString = "${app.orders.expiry.interval-ms:60000}")
+    public void run() {
+        if (!enabled) return;
+
+        jobLock.runExclusively(LOCK_KEY, lockTtl, "expiry sweep", () -> {
+            int cancelled = sweep();
+            if (cancelled > 0) log.info("Cancelled {} expired NEW orders", cancelled);
+        });
+    }
+
+    /**
+     * Cancels expired orders on every shard, one shard after the other, until none are left or the
+     * run's time budget is spent. Returns the number of orders cancelled. Callers must hold the lock.
+     */
+    int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxRunMillis);
+        int cancelled = 0;
+
+        // Each run starts on the next shard, so a backlog on one shard cannot starve the others
+        int shardCount = shardRouter.shardCount();
+        int first = runs++ % shardCount;
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (first + i) % shardCount;
+            Cursor cursor = null;
+            while (System.nanoTime() < deadline) {
+                Cursor from = cursor;
+                List<Candidate> chunk = shardRouter.onShardIndex(shard, () -> readChunk(cutoff, from));
+                if (chunk.isEmpty()) break;
+
+                cancelled += shardRouter.onShardIndex(shard, () -> cancelChunk(chunk));
+                Candidate last = chunk.get(chunk.size() - 1);
+                cursor = new Cursor(last.createdAt(), last.orderId());
+                if (chunk.size() < chunkSize) break;
+
+                if (!pause()) return cancelled;
+            }
+        }
+        return cancelled;
+    }
+
+    private List<Candidate> readChunk(LocalDateTime cutoff, Cursor cursor) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        if (cursor == null) {
+            return jdbcTemplate.query(FIRST_CHUNK_SQL, OrderExpirySweeper::candidate, before, chunkSize);
+        }
+        Timestamp after = Timestamp.valueOf(cursor.createdAt());
+        return jdbcTemplate.query(NEXT_CHUNK_SQL, OrderExpirySweeper::candidate,
+                before, after, after, cursor.orderId(), chunkSize);
+    }
+
+    private int cancelChunk(List<Candidate> chunk) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = chunkTransaction.execute(tx ->
+                jdbcTemplate.batchUpdate(CANCEL_SQL, chunk, chunk.size(), (ps, row) -> {
+                    ps.setTimestamp(1, now);
+                    ps.setLong(2, row.orderId());
+                    ps.setLong(3, row.version());
+                }));
+
+        // A rewritten batch may report SUCCESS_NO_INFO; such rows are treated as cancelled, which
+        // at worst evicts an entry that was still current
+        List<Long> orderIds = new ArrayList<>(chunk.size());
+        Set<Long> userIds = new LinkedHashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Candidate row = chunk.get(index++);
+                if (count == 0) continue;
+                orderIds.add(row.orderId());
+                userIds.add(row.userId());
+            }
+        }
+
+        orderRedisService.evictOrders(orderIds);
+        userRedisService.evictRecentOrders(userIds);
+        // Reaches the book only when the engine runs on this node. Either way, a fill against an order
+        // cancelled here is rejected when persisted (see MatchPersister)
+        orderIds.forEach(matchingEngine::cancel);
+        return orderIds.size();
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) return true;
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Candidate candidate(ResultSet rs, int rowNum) throws SQLException {
+        return new Candidate(rs.getLong("order_id"), rs.getLong("user_id"), rs.getLong("version"),
+                rs.getTimestamp("created_at").toLocalDateTime());
+    }
+
+    private record Candidate(long orderId, long userId, long version, LocalDateTime createdAt) {
+    }
+
+    private record Cursor(LocalDateTime createdAt, long orderId) {
+    }
+}
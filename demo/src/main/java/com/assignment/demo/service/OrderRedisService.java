@@ -0,0 +1,210 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.OrderCacheTtls;
+import com.assignment.demo.cache.RedisCircuitBreaker;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.logging.RateLimitedLogger;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class OrderRedisService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderRedisService.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    // "<userId>:<version>:<status>" — lets conditional GETs be answered without reading and
+    // deserializing the full cached OrderResponse
+    public static final String ORDER_VERSION_KEY = "order:%d:version";
+
+    // Key of an entry in the "orders" cache (RedisCache layout "<cacheName>::<key>")
+    public static final String ORDER_CACHE_KEY = "orders::%d";
+
+    // KEYS: stamps. ARGV: per key, the new stamp, its version and ttlMillis.
+    // Only moves a stamp forward: a reader that loaded an older row must not overwrite a newer stamp.
+    private static final RedisScript<Long> RECORD_VERSIONS_SCRIPT = new DefaultRedisScript<>("""
+            local written = 0
+            for i = 1, #KEYS do
+                local current = redis.call('GET', KEYS[i])
+                local version = current and tonumber(string.match(current, '^[^:]*:([^:]*):'))
+                if not (version and version > tonumber(ARGV[i * 3 - 1])) then
+                    redis.call('SET', KEYS[i], ARGV[i * 3 - 2], 'PX', ARGV[i * 3])
+                    written = written + 1
+                end
+            end
+            return written
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final OrderCacheTtls orderCacheTtls;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+    private final CacheManager cacheManager;
+
+    // ── Version Stamp Operations ────────────────────────────────────────────
+
+    /**
+     * Records the version of an order, with the same TTL as its entry in the "orders" cache, unless a
+     * newer version is already stamped (compare-and-set in Lua).
+     */
+    public void recordVersion(OrderResponse order) {
+        if (order == null || order.getVersion() == null) return;
+        recordVersions(List.of(order));
+    }
+
+    /**
+     * Records the versions of many orders in one script call, each only if it is not older than the
+     * stamp already there.
+     */
+    public void recordVersions(Collection<OrderResponse> orders) {
+        if (orders.isEmpty()) return;
+        List<String> keys = new ArrayList<>(orders.size());
+        String[] args = new String[orders.size() * 3];
+        int i = 0;
+        for (OrderResponse order : orders) {
+            keys.add(String.format(ORDER_VERSION_KEY, order.getOrderId()));
+            args[i++] = order.getUserId() + ":" + order.getVersion() + ":" + order.getStatus().name();
+            args[i++] = String.valueOf(order.getVersion());
+            args[i++] = String.valueOf(orderCacheTtls.hardTtl(order).toMillis());
+        }
+        try {
+            redisTemplate.execute(RECORD_VERSIONS_SCRIPT, keys, (Object[]) args);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis SET error for order versions, {} orders: {}", orders.size(), e.getMessage());
+            // An older stamp may still be there and would confirm a stale ETag; delete it once Redis is back
+            redisCircuitBreaker.markDirty(keys);
+        }
+    }
+
+    /**
+     * True if a newer version of the order than this copy is stamped, i.e. it changed after the copy
+     * was read. False when there is no stamp or Redis is unavailable.
+     */
+    public boolean isSuperseded(OrderResponse order) {
+        return !supersededIds(List.of(order)).isEmpty();
+    }
+
+    /**
+     * Ids of the orders a newer version than the given copy is stamped for, read with one MGET.
+     * Empty when Redis is unavailable.
+     */
+    public Set<Long> supersededIds(Collection<OrderResponse> orders) {
+        List<OrderResponse> versioned = orders.stream().filter(order -> order.getVersion() != null).toList();
+        if (versioned.isEmpty()) return Set.of();
+        List<String> stamps;
+        try {
+            stamps = redisTemplate.opsForValue().multiGet(versioned.stream()
+                    .map(order -> String.format(ORDER_VERSION_KEY, order.getOrderId()))
+                    .toList());
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis MGET error for order versions, {} orders: {}", versioned.size(), e.getMessage());
+            return Set.of();
+        }
+        if (stamps == null) return Set.of();
+
+        Set<Long> superseded = new HashSet<>();
+        for (int i = 0; i < versioned.size(); i++) {
+            String stamp = stamps.get(i);
+            if (stamp == null) continue;
+            OrderResponse order = versioned.get(i);
+            if (Long.parseLong(stamp.split(":", 3)[1]) > order.getVersion()) superseded.add(order.getOrderId());
+        }
+        return superseded;
+    }
+
+    /**
+     * Write-back check for the caches (see {@link com.assignment.demo.cache.SupersededCheck}): the keys
+     * whose order value is older than its stamp. Other values, cached nulls included, are never superseded.
+     */
+    public Set<Object> supersededKeys(Map<?, ?> written) {
+        List<OrderResponse> orders = new ArrayList<>();
+        written.values().forEach(value -> {
+            if (value instanceof OrderResponse order) orders.add(order);
+        });
+        if (orders.isEmpty()) return Set.of();
+        Set<Long> ids = supersededIds(orders);
+        if (ids.isEmpty()) return Set.of();
+        Set<Object> keys = new HashSet<>();
+        written.forEach((key, value) -> {
+            if (value instanceof OrderResponse order && ids.contains(order.getOrderId())) keys.add(key);
+        });
+        return keys;
+    }
+
+    /**
+     * Drops the version stamps of orders changed outside the normal update path, in one DEL, so
+     * conditional GETs fall through to a full read instead of confirming a stale ETag.
+     */
+    public void forgetVersions(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return;
+        List<String> keys = orderIds.stream().map(id -> String.format(ORDER_VERSION_KEY, id)).toList();
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis DEL error for order versions, {} orders: {}", orderIds.size(), e.getMessage());
+            redisCircuitBreaker.markDirty(keys);
+        }
+    }
+
+    /**
+     * Evicts orders changed by a batch job from the "orders" cache and drops their version stamps,
+     * all in one DEL. While the Redis circuit is open the entries are evicted from the local fallback
+     * cache instead, and the Redis keys are deleted once it closes.
+     */
+    public void evictOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return;
+        if (!redisCircuitBreaker.allowRequest()) {
+            Cache ordersCache = cacheManager.getCache("orders");
+            if (ordersCache != null) orderIds.forEach(ordersCache::evict);
+            forgetVersions(orderIds);
+            return;
+        }
+        List<String> keys = new ArrayList<>(orderIds.size() * 2);
+        for (Long orderId : orderIds) {
+            keys.add(String.format(ORDER_CACHE_KEY, orderId));
+            keys.add(String.format(ORDER_VERSION_KEY, orderId));
+        }
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis DEL error for orders, {} orders: {}", orderIds.size(), e.getMessage());
+            redisCircuitBreaker.markDirty(keys);
+        }
+    }
+
+    /**
+     * Returns an OrderResponse carrying only orderId, userId, version and status, or null if the
+     * stamp is absent or Redis is unavailable. Null signals the caller to take the full read path.
+     */
+    public OrderResponse getVersion(Long orderId) {
+        try {
+            String value = redisTemplate.opsForValue().get(String.format(ORDER_VERSION_KEY, orderId));
+            if (value == null) return null;
+            String[] parts = value.split(":", 3);
+            return OrderResponse.builder()
+                    .orderId(orderId)
+                    .userId(Long.parseLong(parts[0]))
+                    .version(Long.parseLong(parts[1]))
+                    .status(OrderStatus.valueOf(parts[2]))
+                    .build();
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis GET error for order version, orderId '{}': {}", orderId, e.getMessage());
+            return null;
+        }
+    }
+}
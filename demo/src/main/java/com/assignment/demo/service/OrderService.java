@@ -1,6 +1,7 @@
 package com.assignment.demo.service;
 
 import com.assignment.demo.dto.CreateOrderRequest;
+import com.assignment.demo.dto.OrderBookDepthResponse;
 import com.assignment.demo.dto.OrderFilterRequest;
 import com.assignment.demo.dto.OrderResponse;
 import com.assignment.demo.dto.PagedOrderResponse;
@@ -13,8 +14,13 @@ import java.util.Map;
 public interface OrderService {
     OrderResponse createOrder(CreateOrderRequest req, Authentication authentication);
     OrderResponse getOrderById(Long orderId, Authentication authentication);
+    List<OrderResponse> getOrdersByIds(List<Long> orderIds, Authentication authentication);
+    OrderResponse getOrderVersion(Long orderId, Authentication authentication);
     PagedOrderResponse listOrders(OrderFilterRequest filter, Authentication authentication);
-    OrderResponse updateOrderStatus(Long orderId, UpdateOrderStatusRequest request, Authentication authentication);
+    OrderResponse updateOrderStatus(Long orderId, UpdateOrderStatusRequest request, Long expectedVersion, Authentication authentication);
     Map<String, Object> countUserOrders(Long userId, Authentication authentication);
     List<OrderResponse> getRecentOrdersForUser(Long userId, Authentication authentication);
+    Map<Long, Long> countUserOrdersBatch(List<Long> userIds, Authentication authentication);
+    Map<Long, List<OrderResponse>> getRecentOrdersForUsers(List<Long> userIds, Authentication authentication);
+    OrderBookDepthResponse getOrderBookDepth(int depth);
 }
@@ -0,0 +1,65 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.logging.RateLimitedLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keeps a scheduled job to one node at a time.
+ *
+ * The lock is a Redis key set with SET NX to a random token and a TTL, and released only by the
+ * holder of that token, so a run that outlived its TTL cannot release the next holder's lock. The
+ * TTL must outlast the longest run. While Redis is unreachable the job is skipped.
+ */
+@Component
+public class RedisJobLock {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisJobLock.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
+
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisJobLock(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Runs the job while holding {@code lockKey}. Returns false without running it when another node
+     * holds the lock or Redis is unreachable; {@code job} names it in the log.
+     */
+    public boolean runExclusively(String lockKey, Duration ttl, String job, Runnable work) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired;
+        try {
+            acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, ttl);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis SET NX error for lock '{}', skipping {}: {}", lockKey, job, e.getMessage());
+            return false;
+        }
+        if (!Boolean.TRUE.equals(acquired)) return false;
+
+        try {
+            work.run();
+            return true;
+        } finally {
+            try {
+                redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+            } catch (RuntimeException e) {
+                // The lock expires on its own after its TTL
+                rateLimitedLog.warn(e, "Redis DEL error while releasing lock '{}': {}", lockKey, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.entity.RefreshToken;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.exception.InvalidRefreshTokenException;
+import com.assignment.demo.repository.RefreshTokenRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens so clients can renew their access token without a
+ * password (and BCrypt) round trip.
+ *
+ * Tokens are 256 random bits; only their SHA-256 is stored, which is enough for a value with that
+ * much entropy and keeps a refresh at one indexed lookup plus a microsecond hash. Each token is
+ * single use: refreshing spends it and returns its successor in the same family. Presenting a token
+ * that was already spent means it leaked (or a client replayed it), so the whole family is revoked
+ * and the holder must log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${app.jwt.refresh-expiration-ms:1209600000}") long ttlMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = Duration.ofMillis(ttlMs);
+    }
+
+    /**
+     * The refresh token returned to the client and the user it authenticates.
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Starts a new token family for a fresh login and returns its first token.
+     */
+    @Transactional
+    public String issue(User user) {
+        return create(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Spends the presented token and returns its successor along with the owning user.
+     * Unknown, expired, spent or revoked tokens are rejected; a spent token also revokes its family.
+     */
+    // The family revocation must commit even though the request fails
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // 1. Look up by hash, locking the row against a concurrent rotation of the same token
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid or expired refresh token"));
+
+        // 2. Reuse detection
+        if (current.getRevokedAt() != null) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            log.warn("Refresh token reuse detected for userId '{}', family '{}': revoked {} tokens",
+                    current.getUser().getId(), current.getFamilyId(), revoked);
+            throw new InvalidRefreshTokenException("Invalid or expired refresh token");
+        }
+
+        // 3. Expiry
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Invalid or expired refresh token");
+        }
+
+        // 4. Spend it and issue the successor in the same family
+        current.setRevokedAt(now);
+        User user = (User) Hibernate.unproxy(current.getUser());
+        return new Rotation(user, create(user, current.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-ms:3600000}",
+               initialDelayString = "${app.jwt.refresh-cleanup-ms:3600000}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) log.info("Deleted {} expired refresh tokens", deleted);
+    }
+
+    private String create(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .familyId(familyId)
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.BloomFilter;
+import com.assignment.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers "does this userId exist?" without touching MySQL for ids that certainly do not.
+ *
+ * An in-memory Bloom filter is seeded with every user id at startup and kept current by local
+ * registrations and a periodic incremental scan. Ids that miss the filter and lie well below the
+ * scanned high-water mark are rejected without I/O; a filter hit, or an id near or above the mark (a
+ * user possibly registered on another node since the last scan, or committed out of id order) is
+ * confirmed with {@code existsById}. Until the first seed completes every lookup goes to the DB.
+ */
+@Service
+public class UserExistenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceService.class);
+
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    // Re-scan a few ids below the high-water mark so identity values committed out of order
+    // (a lower id committing after a higher one) are still picked up by the next refresh
+    private static final long REFRESH_OVERLAP_IDS = 1_000L;
+
+    private final UserRepository userRepository;
+    private final BloomFilter filter;
+
+    private volatile boolean seeded = false;
+    private volatile long highWaterMark = 0L;
+
+    public UserExistenceService(UserRepository userRepository,
+                                @Value("${app.users.existence-filter.expected-insertions:1000000}") long expectedInsertions,
+                                @Value("${app.users.existence-filter.false-positive-probability:0.01}") double fpp) {
+        this.userRepository = userRepository;
+        this.filter = new BloomFilter(expectedInsertions, fpp);
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) return false;
+        if (rejectedByFilter(userId)) {
+            return false;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) filter.put(userId);
+        return exists;
+    }
+
+    /**
+     * Batch form of {@link #exists}: the ids that exist, in the given order. Filter rejections cost
+     * nothing and the remaining ids are confirmed with one IN query.
+     */
+    public List<Long> existing(Collection<Long> userIds) {
+        List<Long> candidates = userIds.stream()
+                .filter(userId -> userId != null && !rejectedByFilter(userId))
+                .toList();
+        if (candidates.isEmpty()) return List.of();
+        Set<Long> found = new HashSet<>(userRepository.findExistingIds(candidates));
+        found.forEach(filter::put);
+        return candidates.stream().filter(found::contains).toList();
+    }
+
+    /**
+     * Records a newly registered user so this node accepts it immediately.
+     */
+    public void register(Long userId) {
+        filter.put(userId);
+    }
+
+    // Certainly unknown: not in the filter and below the ids a scan may still have missed (those above
+    // the high-water mark, and those just below it that commit out of order)
+    private boolean rejectedByFilter(Long userId) {
+        return seeded && userId <= highWaterMark - REFRESH_OVERLAP_IDS && !filter.mightContain(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long count = scanFrom(0L);
+        seeded = true;
+        log.info("User existence filter seeded with {} ids, high-water mark {}", count, highWaterMark);
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.existence-filter.refresh-ms:30000}",
+               initialDelayString = "${app.users.existence-filter.refresh-ms:30000}")
+    public void refresh() {
+        if (!seeded) return;
+        try {
+            scanFrom(Math.max(0L, highWaterMark - REFRESH_OVERLAP_IDS));
+        } catch (RuntimeException e) {
+            log.warn("User existence filter refresh failed: {}", e.getMessage());
+        }
+    }
+
+    // Keyset-paged scan of user ids; advances the high-water mark only after the ids are in the filter
+    private long scanFrom(long afterId) {
+        long count = 0;
+        long cursor = afterId;
+        while (true) {
+            List<Long> ids = userRepository.findIdsAfter(cursor, PageRequest.ofSize(SEED_CHUNK_SIZE));
+            if (ids.isEmpty()) break;
+            for (Long id : ids) {
+                filter.put(id);
+            }
+            count += ids.size();
+            cursor = ids.get(ids.size() - 1);
+            if (cursor > highWaterMark) highWaterMark = cursor;
+            if (ids.size() < SEED_CHUNK_SIZE) break;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,8 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.dto.UserImportResponse;
+import org.springframework.http.MediaType;
+
+public interface UserImportService {
+    UserImportResponse importUsers(String body, MediaType contentType);
+}
@@ -0,0 +1,142 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.repository.UserOrderStatsWriter;
+import com.assignment.demo.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes {@code user_order_stats} from the orders themselves and corrects any drift.
+ *
+ * Increments are written in the order's transaction, but orders inserted without one — before the
+ * table existed, or by instances still running an older version during a rolling deploy — are never
+ * counted by increments alone. Each run walks every shard's users in user-id order, one chunk at a
+ * time: the chunk's order counts and stats sums are read from the same REPEATABLE READ snapshot, and
+ * the difference is added to the users' stripe 0. Creates committing meanwhile bump both sides, so a
+ * difference taken from one snapshot is exact however late it is applied. Corrected users' Redis
+ * counters are dropped so they are re-seeded from the stats.
+ *
+ * Runs shortly after startup and then every {@code interval-ms}. Only one node reconciles at a time
+ * (Redis lock), so the same difference is never added twice; runs are skipped while Redis is down.
+ */
+@Component
+public class UserOrderStatsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(UserOrderStatsReconciler.class);
+
+    static final String LOCK_KEY = "orders:stats:reconcile:lock";
+
+    // Walks idx_orders_user_id in order, so each chunk is one index range
+    private static final String COUNT_ORDERS_SQL =
+            "SELECT user_id, COUNT(*) AS order_count FROM orders WHERE user_id > ? " +
+            "GROUP BY user_id ORDER BY user_id LIMIT ?";
+    private static final String SUM_STATS_SQL =
+            "SELECT user_id, SUM(order_count) AS order_count FROM user_order_stats WHERE user_id IN (%s) GROUP BY user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ShardRouter shardRouter;
+    private final RedisJobLock jobLock;
+    private final UserOrderStatsWriter statsWriter;
+    private final UserRedisService userRedisService;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration lockTtl;
+
+    public UserOrderStatsReconciler(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ShardRouter shardRouter,
+                                    RedisJobLock jobLock,
+                                    UserOrderStatsWriter statsWriter,
+                                    UserRedisService userRedisService,
+                                    @Value("${app.orders.stats.reconcile.enabled:true}") boolean enabled,
+                                    @Value("${app.orders.stats.reconcile.chunk-size:1000}") int chunkSize,
+                                    @Value("${app.orders.stats.reconcile.lock-ttl-ms:600000}") long lockTtlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Both reads of a chunk must see the same snapshot for their difference to be exact
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.shardRouter = shardRouter;
+        this.jobLock = jobLock;
+        this.statsWriter = statsWriter;
+        this.userRedisService = userRedisService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.lockTtl = Duration.ofMillis(lockTtlMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.stats.reconcile.interval-ms:3600000}",
+               initialDelayString = "${app.orders.stats.reconcile.initial-delay-ms:30000}")
+    public void run() {
+        if (!enabled) return;
+
+        jobLock.runExclusively(LOCK_KEY, lockTtl, "order stats reconcile", () -> {
+            int corrected = reconcile();
+            if (corrected > 0) log.info("Corrected order stats of {} users", corrected);
+        });
+    }
+
+    /**
+     * Corrects every user's stats on every shard and returns the number of users whose count changed.
+     * Callers must hold the lock (or otherwise be the only reconciler running).
+     */
+    public int reconcile() {
+        int corrected = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            long afterUserId = Long.MIN_VALUE;
+            while (true) {
+                long from = afterUserId;
+                Chunk chunk = shardRouter.onShardIndex(shard, () -> snapshotTransaction.execute(tx -> reconcileChunk(from)));
+                userRedisService.evictOrderCounts(chunk.corrected());
+                corrected += chunk.corrected().size();
+                if (chunk.users() < chunkSize) break;
+                afterUserId = chunk.lastUserId();
+            }
+        }
+        return corrected;
+    }
+
+    private Chunk reconcileChunk(long afterUserId) {
+        // 1. Order counts of the next chunk of users, from the orders themselves
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(COUNT_ORDERS_SQL,
+                rs -> { counts.put(rs.getLong("user_id"), rs.getLong("order_count")); },
+                afterUserId, chunkSize);
+        if (counts.isEmpty()) return new Chunk(0, afterUserId, List.of());
+
+        // 2. Their stats sums, from the same snapshot
+        Map<Long, Long> sums = new HashMap<>();
+        String sql = String.format(SUM_STATS_SQL, String.join(",", Collections.nCopies(counts.size(), "?")));
+        jdbcTemplate.query(sql, rs -> { sums.put(rs.getLong("user_id"), rs.getLong("order_count")); },
+                counts.keySet().toArray());
+
+        // 3. Add each difference; creates since the snapshot already counted themselves on both sides
+        Map<Long, Long> deltas = new HashMap<>();
+        counts.forEach((userId, count) -> {
+            long delta = count - sums.getOrDefault(userId, 0L);
+            if (delta != 0) deltas.put(userId, delta);
+        });
+        if (!deltas.isEmpty()) statsWriter.adjust(deltas);
+
+        List<Long> users = new ArrayList<>(counts.keySet());
+        return new Chunk(users.size(), users.get(users.size() - 1), new ArrayList<>(deltas.keySet()));
+    }
+
+    private record Chunk(int users, long lastUserId, List<Long> corrected) {
+    }
+}
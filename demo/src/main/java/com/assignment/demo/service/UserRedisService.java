@@ -1,6 +1,10 @@
 package com.assignment.demo.service;
 
+import com.assignment.demo.cache.CachedValue;
+import com.assignment.demo.cache.RedisCircuitBreaker;
+import com.assignment.demo.cache.RefreshPolicy;
 import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.logging.RateLimitedLogger;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -8,13 +12,28 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,13 +41,99 @@ import java.util.stream.Collectors;
 public class UserRedisService {
 
     private static final Logger log = LoggerFactory.getLogger(UserRedisService.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
 
     public static final String ORDER_COUNT_KEY   = "user:%d:order_count";
+    // Logical name of a user's recent-orders list (also its single-flight key); stored as the two keys below
     public static final String RECENT_ORDERS_KEY = "user:%d:recent_orders";
+    // Hash: orderId -> OrderResponse JSON
+    public static final String RECENT_ORDERS_PAYLOAD_KEY = "user:%d:recent_orders:payload";
+    // Sorted set: orderId scored by createdAt (epoch millis)
+    public static final String RECENT_ORDERS_INDEX_KEY = "user:%d:recent_orders:index";
+    // "<softExpiresAt>:<computeMillis>" for the list above — drives stale-while-revalidate
+    public static final String RECENT_ORDERS_META_KEY = "user:%d:recent_orders:meta";
     private static final int   RECENT_ORDERS_MAX = 10;
-    private static final long  RECENT_ORDERS_TTL_SECONDS = 300L;
+
+    // KEYS: payload, index, meta. ARGV: orderId, score, json, max, ttlSeconds.
+    // Only extends an existing list; overflowing ids are dropped from both the index and the hash.
+    private static final RedisScript<Long> PUSH_RECENT_ORDER_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 0 then return 0 end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+            redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+            local overflow = redis.call('ZRANGE', KEYS[2], 0, -(tonumber(ARGV[4]) + 1))
+            if #overflow > 0 then
+                redis.call('HDEL', KEYS[1], unpack(overflow))
+                redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[4]) + 1))
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[5])
+            redis.call('EXPIRE', KEYS[2], ARGV[5])
+            redis.call('EXPIRE', KEYS[3], ARGV[5])
+            return 1
+            """, Long.class);
+
+    // KEYS: payload. ARGV: orderId, json, version. Replaces an existing entry unless it is newer.
+    private static final RedisScript<Long> UPDATE_RECENT_ORDER_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('HGET', KEYS[1], ARGV[1])
+            if not current then return 0 end
+            local version = cjson.decode(current)['version']
+            if type(version) == 'number' and version > tonumber(ARGV[3]) then return 0 end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // KEYS: payload. ARGV: (orderId, expected json, new json) per entry. Compare-and-set of each entry;
+    // returns how many entries had changed in the meantime and were left alone.
+    private static final RedisScript<Long> REPLACE_RECENT_ORDERS_SCRIPT = new DefaultRedisScript<>("""
+            local conflicts = 0
+            for i = 1, #ARGV, 3 do
+                if redis.call('HGET', KEYS[1], ARGV[i]) == ARGV[i + 1] then
+                    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 2])
+                else
+                    conflicts = conflicts + 1
+                end
+            end
+            return conflicts
+            """, Long.class);
+
+    // KEYS: payload, index, meta. ARGV: max. Returns {meta or '', payload...} newest first, or {} if absent.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final RedisScript<List<String>> READ_RECENT_ORDERS_SCRIPT = new DefaultRedisScript<>("""
+            local ids = redis.call('ZREVRANGE', KEYS[2], 0, tonumber(ARGV[1]) - 1)
+            if #ids == 0 then return {} end
+            local result = { redis.call('GET', KEYS[3]) or '' }
+            local payloads = redis.call('HMGET', KEYS[1], unpack(ids))
+            for i = 1, #ids do result[i + 1] = payloads[i] or '' end
+            return result
+            """, (Class) List.class);
+
+    // KEYS: payload, index, meta. ARGV: ttlSeconds, meta, then (orderId, score, json) per order.
+    private static final RedisScript<Long> REPOPULATE_RECENT_ORDERS_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1], KEYS[2])
+            for i = 3, #ARGV, 3 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 2])
+                redis.call('ZADD', KEYS[2], ARGV[i + 1], ARGV[i])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            redis.call('EXPIRE', KEYS[2], ARGV[1])
+            redis.call('SET', KEYS[3], ARGV[2], 'EX', ARGV[1])
+            return 1
+            """, Long.class);
+
+    // Pipelines send the script bodies with EVAL: a pipeline cannot fall back from EVALSHA on NOSCRIPT
+    private static final byte[] READ_RECENT_ORDERS_SCRIPT_BYTES =
+            READ_RECENT_ORDERS_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    private static final byte[] REPOPULATE_RECENT_ORDERS_SCRIPT_BYTES =
+            REPOPULATE_RECENT_ORDERS_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final RefreshPolicy refreshPolicy;
+    private final RedisCircuitBreaker redisCircuitBreaker;
+
+    @Value("${app.cache.recent-orders.soft-ttl-seconds:240}")
+    private long recentOrdersSoftTtlSeconds;
+
+    @Value("${app.cache.recent-orders.hard-ttl-seconds:300}")
+    private long recentOrdersHardTtlSeconds;
 
     // Plain ObjectMapper — no polymorphic typing; used for clean JSON strings in the list
     private final ObjectMapper objectMapper = new ObjectMapper()
@@ -41,8 +146,8 @@ public class UserRedisService {
     private final Set<Long> dirtyCounterUserIds = ConcurrentHashMap.newKeySet();
 
     // In-memory dirty set: userIds whose recent-orders list in Redis is known to be
-    // stale — either a push failed during an outage, or an order status was updated.
-    // On the next read the list key is deleted and fully re-seeded from DB.
+    // stale — a write failed during an outage, or the list could not be updated in place.
+    // On the next read the list is fully re-seeded from DB.
     private final Set<Long> dirtyRecentOrdersUserIds = ConcurrentHashMap.newKeySet();
 
     // ── Counter Operations ──────────────────────────────────────────────────
@@ -52,10 +157,12 @@ public class UserRedisService {
         try {
             redisTemplate.opsForValue().increment(key);
         } catch (RuntimeException e) {
-            log.warn("Redis INCR error for user order count, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "Redis INCR error for user order count, userId '{}': {}", userId, e.getMessage());
             // Mark dirty in local memory — always succeeds even when Redis is down.
             // getOrderCount will bypass the stale Redis key and force a DB fallback + re-seed.
             dirtyCounterUserIds.add(userId);
+            // ...and have the key deleted once Redis is back, so other nodes don't read it either
+            redisCircuitBreaker.markDirty(key);
         }
     }
 
@@ -67,7 +174,7 @@ public class UserRedisService {
     public Long getOrderCount(Long userId) {
         // If any increment was missed for this user, the cached value is stale — bypass Redis
         if (dirtyCounterUserIds.contains(userId)) {
-            log.warn("Counter for userId '{}' is dirty (missed increments during outage), forcing DB fallback", userId);
+            rateLimitedLog.warn("Counter for userId '{}' is dirty (missed increments during outage), forcing DB fallback", userId);
             return null;
         }
         try {
@@ -76,7 +183,7 @@ public class UserRedisService {
             if (value == null) return null;
             return Long.parseLong(value);
         } catch (RuntimeException e) {
-            log.warn("Redis GET error for user order count, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "Redis GET error for user order count, userId '{}': {}", userId, e.getMessage());
             return null;
         }
     }
@@ -93,114 +200,394 @@ public class UserRedisService {
             // and the next read will attempt the DB fallback + re-seed again
             dirtyCounterUserIds.remove(userId);
         } catch (RuntimeException e) {
-            log.warn("Redis SET error while seeding order count, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "Redis SET error while seeding order count, userId '{}': {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Batch form of {@link #getOrderCount}: one MGET for all users. Users that are absent, flagged
+     * dirty or unreadable are left out of the result; an unavailable Redis yields an empty map.
+     */
+    public Map<Long, Long> getOrderCounts(Collection<Long> userIds) {
+        List<Long> readable = userIds.stream().filter(userId -> !dirtyCounterUserIds.contains(userId)).toList();
+        Map<Long, Long> counts = new HashMap<>();
+        if (readable.isEmpty()) return counts;
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(
+                    readable.stream().map(userId -> String.format(ORDER_COUNT_KEY, userId)).toList());
+            for (int i = 0; values != null && i < readable.size(); i++) {
+                String value = values.get(i);
+                if (value != null) counts.put(readable.get(i), Long.parseLong(value));
+            }
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis MGET error for order counts, {} users: {}", readable.size(), e.getMessage());
         }
+        return counts;
     }
 
-    // ── Recent Orders List Operations ────────────────────────────────────────
+    /**
+     * Batch form of {@link #seedOrderCount}: all counters in one MSET; dirty flags are cleared only if
+     * it succeeds.
+     */
+    public void seedOrderCounts(Map<Long, Long> counts) {
+        if (counts.isEmpty()) return;
+        Map<String, String> values = new HashMap<>();
+        counts.forEach((userId, count) -> values.put(String.format(ORDER_COUNT_KEY, userId), String.valueOf(count)));
+        try {
+            redisTemplate.opsForValue().multiSet(values);
+            dirtyCounterUserIds.removeAll(counts.keySet());
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis MSET error while seeding order counts, {} users: {}", counts.size(), e.getMessage());
+        }
+    }
 
+    /**
+     * Drops the counters of many users in one DEL, e.g. after their durable counts were corrected;
+     * each is re-seeded on its next read. Counters that could not be deleted are flagged dirty.
+     */
+    public void evictOrderCounts(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        List<String> keys = userIds.stream().map(userId -> String.format(ORDER_COUNT_KEY, userId)).toList();
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis DEL error during order count eviction, {} users: {}", userIds.size(), e.getMessage());
+            dirtyCounterUserIds.addAll(userIds);
+            redisCircuitBreaker.markDirty(keys);
+        }
+    }
+
+    // ── Recent Orders Operations ────────────────────────────────────────────
+    //
+    // A user's recent orders are a hash (orderId -> JSON payload) plus a sorted set of orderIds scored
+    // by createdAt, so a single order can be replaced in place when its status or fills change. The
+    // index trims itself to the newest RECENT_ORDERS_MAX ids; every multi-key step runs as one script.
+
+    /**
+     * Adds a newly created order to the user's cached list. A user with no cached list is left alone:
+     * a partial list would hide older orders, and the next read seeds the full list from DB.
+     */
     public void pushRecentOrder(Long userId, OrderResponse orderResponse) {
         try {
-            String key = String.format(RECENT_ORDERS_KEY, userId);
             String json = objectMapper.writeValueAsString(orderResponse);
-            redisTemplate.opsForList().leftPush(key, json);
-            redisTemplate.opsForList().trim(key, 0, RECENT_ORDERS_MAX - 1);
-            redisTemplate.expire(key, Duration.ofSeconds(RECENT_ORDERS_TTL_SECONDS));
+            redisTemplate.execute(PUSH_RECENT_ORDER_SCRIPT, recentOrdersKeys(userId),
+                    String.valueOf(orderResponse.getOrderId()),
+                    String.valueOf(score(orderResponse)),
+                    json,
+                    String.valueOf(RECENT_ORDERS_MAX),
+                    String.valueOf(recentOrdersHardTtlSeconds));
         } catch (JsonProcessingException e) {
-            log.warn("JSON serialization error for recent order, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "JSON serialization error for recent order, userId '{}': {}", userId, e.getMessage());
         } catch (RuntimeException e) {
-            log.warn("Redis LPUSH error for recent orders, userId '{}': {}", userId, e.getMessage());
-            // Mark dirty — the list in Redis (if it exists) is now missing this order.
+            rateLimitedLog.warn(e, "Redis push error for recent orders, userId '{}': {}", userId, e.getMessage());
+            // Mark dirty — the cached list (if it exists) is now missing this order.
             // getRecentOrders will bypass Redis and force a DB fallback + full re-seed.
             dirtyRecentOrdersUserIds.add(userId);
+            markRecentOrdersDirty(userId);
+        }
+    }
+
+    /**
+     * Replaces one order in the user's cached list, if it is there, with its new state.
+     * Orders outside the cached top N (or users without a cached list) need nothing. A payload that
+     * already carries a newer version is kept, so out-of-order updates cannot roll an entry back.
+     */
+    public void updateRecentOrder(OrderResponse orderResponse) {
+        Long userId = orderResponse.getUserId();
+        try {
+            String json = objectMapper.writeValueAsString(orderResponse);
+            redisTemplate.execute(UPDATE_RECENT_ORDER_SCRIPT,
+                    List.of(String.format(RECENT_ORDERS_PAYLOAD_KEY, userId)),
+                    String.valueOf(orderResponse.getOrderId()),
+                    json,
+                    String.valueOf(orderResponse.getVersion() == null ? 0L : orderResponse.getVersion()));
+        } catch (JsonProcessingException e) {
+            rateLimitedLog.warn(e, "JSON serialization error for recent order, userId '{}': {}", userId, e.getMessage());
+            invalidateRecentOrders(userId);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis update error for recent orders, userId '{}': {}", userId, e.getMessage());
+            dirtyRecentOrdersUserIds.add(userId);
+            markRecentOrdersDirty(userId);
+        }
+    }
+
+    /**
+     * Applies in-place changes to several of a user's cached orders when only the change, not the full
+     * new state, is known (e.g. fills). Entries are read in one round trip, changed locally and written
+     * back in a second one, as one compare-and-set script; if another writer got there first the user's list is
+     * invalidated instead. The change function may return null to leave an entry untouched.
+     */
+    public void patchRecentOrders(Long userId, Map<Long, UnaryOperator<OrderResponse>> changes) {
+        if (changes.isEmpty()) return;
+        String payloadKey = String.format(RECENT_ORDERS_PAYLOAD_KEY, userId);
+        try {
+            List<Long> orderIds = new ArrayList<>(changes.keySet());
+            List<Object> current = redisTemplate.opsForHash().multiGet(payloadKey,
+                    orderIds.stream().map(String::valueOf).collect(Collectors.toList()));
+
+            List<String> writes = new ArrayList<>();
+            for (int i = 0; i < orderIds.size(); i++) {
+                String json = (String) current.get(i);
+                if (json == null) continue;
+                OrderResponse updated = changes.get(orderIds.get(i)).apply(objectMapper.readValue(json, OrderResponse.class));
+                if (updated == null) continue;
+                writes.add(String.valueOf(orderIds.get(i)));
+                writes.add(json);
+                writes.add(objectMapper.writeValueAsString(updated));
+            }
+            if (writes.isEmpty()) return;
+
+            Long conflicts = redisTemplate.execute(REPLACE_RECENT_ORDERS_SCRIPT, List.of(payloadKey), writes.toArray());
+            if (conflicts == null || conflicts > 0) {
+                invalidateRecentOrders(userId);
+            }
+        } catch (JsonProcessingException e) {
+            rateLimitedLog.warn(e, "JSON error while patching recent orders, userId '{}': {}", userId, e.getMessage());
+            invalidateRecentOrders(userId);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis patch error for recent orders, userId '{}': {}", userId, e.getMessage());
+            dirtyRecentOrdersUserIds.add(userId);
+            markRecentOrdersDirty(userId);
         }
     }
 
     /**
      * Marks the recent-orders list for a user as dirty so the next read forces a full
-     * DB re-seed regardless of whether the Redis key still exists.
-     * Called when an order status is updated so the cached snapshot is invalidated.
+     * DB re-seed regardless of whether the Redis keys still exist.
+     * Used when the list cannot be updated in place.
      */
     public void invalidateRecentOrders(Long userId) {
         dirtyRecentOrdersUserIds.add(userId);
-        // Best-effort delete of the Redis key — avoids serving stale data if Redis is up
+        // Best-effort delete of the Redis keys — avoids serving stale data if Redis is up
         try {
-            redisTemplate.delete(String.format(RECENT_ORDERS_KEY, userId));
+            redisTemplate.delete(recentOrdersKeys(userId));
         } catch (RuntimeException e) {
-            log.warn("Redis DEL error during recent orders invalidation, userId '{}': {}", userId, e.getMessage());
-            // Key not deleted but dirty flag is set, so the read path will still bypass Redis
+            rateLimitedLog.warn(e, "Redis DEL error during recent orders invalidation, userId '{}': {}", userId, e.getMessage());
+            // Keys not deleted but dirty flag is set, so the read path will still bypass Redis
+            markRecentOrdersDirty(userId);
         }
     }
 
     /**
-     * Returns the list from Redis, or null if:
-     * - the list is flagged dirty (missed push or order update invalidated it)
-     * - the key is absent (TTL expired or never seeded)
+     * Drops the recent-orders lists of many users in one DEL, e.g. after a batch job changed their
+     * orders; each list is rebuilt from the DB on its next read.
+     */
+    public void evictRecentOrders(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        List<String> keys = userIds.stream().flatMap(userId -> recentOrdersKeys(userId).stream()).toList();
+        try {
+            redisTemplate.delete(keys);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis DEL error during recent orders eviction, {} users: {}", userIds.size(), e.getMessage());
+            redisCircuitBreaker.markDirty(keys);
+        }
+    }
+
+    /**
+     * Returns the newest orders from Redis wrapped with their soft expiry, or null if:
+     * - the list is flagged dirty (a write during an outage was missed, or it was invalidated)
+     * - the keys are absent (hard TTL expired or never seeded)
      * - Redis is unavailable
-     * Null signals the caller to fall back to DB and fully re-seed.
+     * Null signals the caller to fall back to DB and fully re-seed. A non-null result past its
+     * soft expiry should still be served while the caller refreshes it in the background.
      */
-    public List<OrderResponse> getRecentOrders(Long userId) {
-        // Dirty flag means Redis list is stale — bypass it entirely
+    public CachedValue<List<OrderResponse>> getRecentOrders(Long userId) {
+        // Dirty flag means the cached list is stale — bypass it entirely
         if (dirtyRecentOrdersUserIds.contains(userId)) {
-            log.warn("Recent orders for userId '{}' are dirty, forcing DB fallback", userId);
+            rateLimitedLog.warn("Recent orders for userId '{}' are dirty, forcing DB fallback", userId);
             return null;
         }
         try {
-            String key = String.format(RECENT_ORDERS_KEY, userId);
-            Long size = redisTemplate.opsForList().size(key);
-            if (size == null || size == 0) return null;
-            List<String> jsonList = redisTemplate.opsForList().range(key, 0, -1);
-            if (jsonList == null || jsonList.isEmpty()) return null;
-            return jsonList.stream()
-                    .map(json -> {
-                        try {
-                            return objectMapper.readValue(json, OrderResponse.class);
-                        } catch (JsonProcessingException e) {
-                            log.warn("JSON deserialization error in recent orders, userId '{}': {}", userId, e.getMessage());
-                            return null;
-                        }
-                    })
-                    .filter(o -> o != null)
-                    .collect(Collectors.toList());
+            // One round trip: soft-expiry marker followed by the payloads, newest first
+            List<String> results = redisTemplate.execute(READ_RECENT_ORDERS_SCRIPT, recentOrdersKeys(userId),
+                    String.valueOf(RECENT_ORDERS_MAX));
+            return toRecentOrders(userId, results);
         } catch (RuntimeException e) {
-            log.warn("Redis LRANGE error for recent orders, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "Redis read error for recent orders, userId '{}': {}", userId, e.getMessage());
             return null;
         }
     }
 
     /**
-     * Fully replaces the recent-orders list in Redis from a DB result and clears the dirty flag.
+     * Batch form of {@link #getRecentOrders(Long)}: the read script for every user in one pipeline.
+     * Users that would read as null there are left out of the result.
+     */
+    public Map<Long, CachedValue<List<OrderResponse>>> getRecentOrders(Collection<Long> userIds) {
+        List<Long> readable = userIds.stream().filter(userId -> !dirtyRecentOrdersUserIds.contains(userId)).toList();
+        Map<Long, CachedValue<List<OrderResponse>>> result = new HashMap<>();
+        if (readable.isEmpty()) return result;
+        try {
+            byte[] max = String.valueOf(RECENT_ORDERS_MAX).getBytes(StandardCharsets.UTF_8);
+            List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : readable) {
+                    connection.scriptingCommands().eval(READ_RECENT_ORDERS_SCRIPT_BYTES, ReturnType.MULTI, 3,
+                            scriptKeysAndArgs(userId, max));
+                }
+                return null;
+            }, RedisSerializer.string());
+            for (int i = 0; i < readable.size(); i++) {
+                @SuppressWarnings("unchecked")
+                List<String> reply = (List<String>) replies.get(i);
+                CachedValue<List<OrderResponse>> cached = toRecentOrders(readable.get(i), reply);
+                if (cached != null) result.put(readable.get(i), cached);
+            }
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis pipelined read error for recent orders, {} users: {}", readable.size(), e.getMessage());
+            result.clear();
+        }
+        return result;
+    }
+
+    // Read-script reply to a cached list, or null for a miss
+    private CachedValue<List<OrderResponse>> toRecentOrders(Long userId, List<String> results) {
+        if (results == null || results.size() < 2) return null;
+        List<OrderResponse> orders = new ArrayList<>(results.size() - 1);
+        for (String json : results.subList(1, results.size())) {
+            if (json == null || json.isEmpty()) {
+                // Index and payloads out of step — treat as a miss and re-seed
+                return null;
+            }
+            try {
+                orders.add(objectMapper.readValue(json, OrderResponse.class));
+            } catch (JsonProcessingException e) {
+                rateLimitedLog.warn(e, "JSON deserialization error in recent orders, userId '{}': {}", userId, e.getMessage());
+            }
+        }
+        String meta = results.get(0);
+        return withMeta(orders, meta == null || meta.isEmpty() ? null : meta);
+    }
+
+    /**
+     * Fully replaces the user's cached list from a DB result and clears the dirty flag.
      * The input list must be sorted newest-first (findTop10ByUserIdOrderByCreatedAtDesc order).
-     * Iterates in reverse so leftPush leaves the newest order at index 0.
+     * computeMillis is how long the DB load took; it widens the early-refresh window for slow users.
      * Dirty flag is only cleared after a successful write — if Redis fails, flag stays set
      * and the next read will attempt DB fallback + re-seed again.
      */
-    public void repopulateRecentOrders(Long userId, List<OrderResponse> orders) {
+    public void repopulateRecentOrders(Long userId, List<OrderResponse> orders, long computeMillis) {
         if (orders == null || orders.isEmpty()) {
-            // Nothing to write — but still try to clear a stale key and dirty flag
+            // Nothing to write — but still try to clear stale keys and the dirty flag
             try {
-                redisTemplate.delete(String.format(RECENT_ORDERS_KEY, userId));
+                redisTemplate.delete(recentOrdersKeys(userId));
                 dirtyRecentOrdersUserIds.remove(userId);
             } catch (RuntimeException e) {
-                log.warn("Redis DEL error during empty repopulate, userId '{}': {}", userId, e.getMessage());
+                rateLimitedLog.warn(e, "Redis DEL error during empty repopulate, userId '{}': {}", userId, e.getMessage());
             }
             return;
         }
         try {
-            String key = String.format(RECENT_ORDERS_KEY, userId);
-            redisTemplate.delete(key);
-            for (int i = orders.size() - 1; i >= 0; i--) {
-                String json = objectMapper.writeValueAsString(orders.get(i));
-                redisTemplate.opsForList().leftPush(key, json);
-            }
-            redisTemplate.opsForList().trim(key, 0, RECENT_ORDERS_MAX - 1);
-            redisTemplate.expire(key, Duration.ofSeconds(RECENT_ORDERS_TTL_SECONDS));
+            redisTemplate.execute(REPOPULATE_RECENT_ORDERS_SCRIPT, recentOrdersKeys(userId),
+                    repopulateArgs(orders, computeMillis));
             // Only clear dirty flag after the full write succeeds
             dirtyRecentOrdersUserIds.remove(userId);
         } catch (JsonProcessingException e) {
-            log.warn("JSON serialization error during repopulate recent orders, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "JSON serialization error during repopulate recent orders, userId '{}': {}", userId, e.getMessage());
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis repopulate error for recent orders, userId '{}': {}", userId, e.getMessage());
+            markRecentOrdersDirty(userId);
+        }
+    }
+
+    /**
+     * Batch form of {@link #repopulateRecentOrders(Long, List, long)}: every user's list (or DEL, for
+     * users without orders) in one pipeline. computeMillis is the duration of the whole batch load.
+     */
+    public void repopulateRecentOrders(Map<Long, List<OrderResponse>> ordersByUser, long computeMillis) {
+        if (ordersByUser.isEmpty()) return;
+        Map<Long, Object[]> argsByUser = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, List<OrderResponse>> entry : ordersByUser.entrySet()) {
+                List<OrderResponse> orders = entry.getValue();
+                argsByUser.put(entry.getKey(), orders == null || orders.isEmpty() ? null : repopulateArgs(orders, computeMillis));
+            }
+        } catch (JsonProcessingException e) {
+            rateLimitedLog.warn(e, "JSON serialization error during batch repopulate, {} users: {}", ordersByUser.size(), e.getMessage());
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                argsByUser.forEach((userId, args) -> {
+                    if (args == null) {
+                        connection.keyCommands().del(rawKeys(userId));
+                    } else {
+                        connection.scriptingCommands().eval(REPOPULATE_RECENT_ORDERS_SCRIPT_BYTES, ReturnType.INTEGER, 3,
+                                scriptKeysAndArgs(userId, args));
+                    }
+                });
+                return null;
+            });
+            dirtyRecentOrdersUserIds.removeAll(argsByUser.keySet());
         } catch (RuntimeException e) {
-            log.warn("Redis repopulate error for recent orders, userId '{}': {}", userId, e.getMessage());
+            rateLimitedLog.warn(e, "Redis pipelined repopulate error for recent orders, {} users: {}", argsByUser.size(), e.getMessage());
+            redisCircuitBreaker.markDirty(argsByUser.keySet().stream()
+                    .flatMap(userId -> recentOrdersKeys(userId).stream()).toList());
+        }
+    }
+
+    // ARGV for REPOPULATE_RECENT_ORDERS_SCRIPT
+    private Object[] repopulateArgs(List<OrderResponse> orders, long computeMillis) throws JsonProcessingException {
+        CachedValue<List<OrderResponse>> soft = refreshPolicy.wrap(
+                orders, Duration.ofSeconds(recentOrdersSoftTtlSeconds), computeMillis);
+        int n = Math.min(orders.size(), RECENT_ORDERS_MAX);
+        Object[] args = new Object[2 + 3 * n];
+        args[0] = String.valueOf(recentOrdersHardTtlSeconds);
+        args[1] = soft.getSoftExpiresAt() + ":" + soft.getComputeMillis();
+        for (int i = 0; i < n; i++) {
+            OrderResponse order = orders.get(i);
+            args[2 + 3 * i] = String.valueOf(order.getOrderId());
+            args[3 + 3 * i] = String.valueOf(score(order));
+            args[4 + 3 * i] = objectMapper.writeValueAsString(order);
+        }
+        return args;
+    }
+
+    // The three list keys followed by the script arguments, as raw bytes for a pipelined EVAL
+    private static byte[][] scriptKeysAndArgs(Long userId, Object... args) {
+        byte[][] keys = rawKeys(userId);
+        byte[][] raw = Arrays.copyOf(keys, keys.length + args.length);
+        for (int i = 0; i < args.length; i++) {
+            raw[keys.length + i] = args[i] instanceof byte[] bytes
+                    ? bytes
+                    : String.valueOf(args[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        return raw;
+    }
+
+    private static byte[][] rawKeys(Long userId) {
+        return recentOrdersKeys(userId).stream()
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+    }
+
+    private static List<String> recentOrdersKeys(Long userId) {
+        return List.of(
+                String.format(RECENT_ORDERS_PAYLOAD_KEY, userId),
+                String.format(RECENT_ORDERS_INDEX_KEY, userId),
+                String.format(RECENT_ORDERS_META_KEY, userId));
+    }
+
+    private void markRecentOrdersDirty(Long userId) {
+        redisCircuitBreaker.markDirty(recentOrdersKeys(userId));
+    }
+
+    // Orders by creation time; only the relative order matters
+    private static long score(OrderResponse order) {
+        return order.getCreatedAt() == null ? 0L : order.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    // A missing or unreadable marker is treated as already soft-expired, so the list gets refreshed
+    private CachedValue<List<OrderResponse>> withMeta(List<OrderResponse> orders, String meta) {
+        long softExpiresAt = 0L;
+        long computeMillis = 0L;
+        if (meta != null) {
+            int sep = meta.indexOf(':');
+            try {
+                softExpiresAt = Long.parseLong(meta.substring(0, sep));
+                computeMillis = Long.parseLong(meta.substring(sep + 1));
+            } catch (RuntimeException e) {
+                rateLimitedLog.warn(e, "Malformed recent orders meta '{}': {}", meta, e.getMessage());
+            }
         }
+        return new CachedValue<>(orders, softExpiresAt, computeMillis);
     }
 }
@@ -0,0 +1,35 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.entity.UserRole;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.repository.UserRoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Resolves the {@link UserRole} row for a {@link Role} once per node. Roles are a fixed, tiny set that
+ * is only ever inserted, so after the first lookup registration and bulk import need no role query.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserRoleCache {
+
+    private final UserRoleRepository userRoleRepository;
+
+    private final Map<Role, UserRole> roles = new EnumMap<>(Role.class);
+
+    /**
+     * Returns the role row, creating it on first use if it has not been seeded.
+     */
+    public synchronized UserRole get(Role role) {
+        UserRole cached = roles.get(role);
+        if (cached != null) return cached;
+        UserRole resolved = userRoleRepository.findByName(role)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(role).build()));
+        roles.put(role, resolved);
+        return resolved;
+    }
+}
@@ -2,17 +2,23 @@ package com.assignment.demo.service.impl;
 
 import com.assignment.demo.dto.AuthResponse;
 import com.assignment.demo.dto.LoginRequest;
+import com.assignment.demo.dto.RefreshTokenRequest;
 import com.assignment.demo.dto.RegisterRequest;
 import com.assignment.demo.entity.User;
 import com.assignment.demo.entity.UserRole;
 import com.assignment.demo.enums.Role;
+import com.assignment.demo.exception.ServiceUnavailableException;
 import com.assignment.demo.repository.UserRepository;
-import com.assignment.demo.repository.UserRoleRepository;
 import com.assignment.demo.security.JwtService;
 import com.assignment.demo.service.AuthService;
+import com.assignment.demo.service.RefreshTokenService;
+import com.assignment.demo.service.UserExistenceService;
+import com.assignment.demo.service.UserRoleCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -23,10 +29,12 @@ import java.util.Set;
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final UserRoleRepository userRoleRepository;
+    private final UserRoleCache userRoleCache;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserExistenceService userExistenceService;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     public String register(RegisterRequest req) {
@@ -37,27 +45,14 @@ public class AuthServiceImpl implements AuthService {
         String password = req.getPassword().trim();
 
         // ── role ──────────────────────────────────────────────────────────────
-        Role roleEnum;
-        String rawRole = req.getRole() == null ? null : req.getRole().trim();
-        if (rawRole == null || rawRole.isBlank()) {
-            roleEnum = Role.USER;
-        } else {
-            try {
-                roleEnum = Role.valueOf(rawRole.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid role. Accepted values: ADMIN, USER");
-            }
-        }
+        Role roleEnum = Role.parse(req.getRole());
 
         // ── duplicate email ───────────────────────────────────────────────────
         if (userRepository.existsByEmail(email))
             throw new IllegalArgumentException("Email is already registered");
 
-        // ── resolve UserRole (create if not yet seeded) ───────────────────────
-        UserRole userRole = userRoleRepository.findByName(roleEnum)
-                .orElseGet(() -> userRoleRepository.save(
-                        UserRole.builder().name(roleEnum).build()
-                ));
+        // ── resolve UserRole (cached; created if not yet seeded) ──────────────
+        UserRole userRole = userRoleCache.get(roleEnum);
 
         // ── persist ───────────────────────────────────────────────────────────
         User user = User.builder()
@@ -67,7 +62,8 @@ public class AuthServiceImpl implements AuthService {
                 .roles(Set.of(userRole))
                 .build();
 
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        userExistenceService.register(saved.getId());
         return "User registered successfully";
     }
 
@@ -78,14 +74,29 @@ public class AuthServiceImpl implements AuthService {
         String password = req.getPassword().trim();
 
         // ── authenticate ──────────────────────────────────────────────────────
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password)
-        );
+        // The provider already loaded the user to check the password; reuse it instead of a second lookup
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, password)
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            // A saturated hashing pool surfaces here wrapped; keep it a 503 rather than a 401
+            if (e.getCause() instanceof ServiceUnavailableException unavailable) throw unavailable;
+            throw e;
+        }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found after authentication"));
+        User user = (User) authentication.getPrincipal();
 
         String token = jwtService.generateToken(user);
-        return new AuthResponse(token);
+        return new AuthResponse(token, refreshTokenService.issue(user));
+    }
+
+    @Override
+    public AuthResponse refresh(RefreshTokenRequest req) {
+        // No password check: the single-use refresh token is the credential
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(req.getRefreshToken().trim());
+        String token = jwtService.generateToken(rotation.user());
+        return new AuthResponse(token, rotation.refreshToken());
     }
 }
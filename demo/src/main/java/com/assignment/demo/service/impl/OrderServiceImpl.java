@@ -1,18 +1,40 @@
 package com.assignment.demo.service.impl;
 
+import com.assignment.demo.cache.BulkCache;
+import com.assignment.demo.cache.CachedValue;
+import com.assignment.demo.cache.MappedOrderCache;
+import com.assignment.demo.cache.RefreshPolicy;
+import com.assignment.demo.cache.SingleFlight;
 import com.assignment.demo.dto.CreateOrderRequest;
+import com.assignment.demo.dto.OrderBookDepthResponse;
 import com.assignment.demo.dto.OrderFilterRequest;
 import com.assignment.demo.dto.OrderResponse;
 import com.assignment.demo.dto.PagedOrderResponse;
 import com.assignment.demo.dto.UpdateOrderStatusRequest;
 import com.assignment.demo.entity.Order;
 import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.OrderField;
 import com.assignment.demo.enums.OrderStatus;
 import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.exception.PreconditionFailedException;
+import com.assignment.demo.exception.ServiceUnavailableException;
+import com.assignment.demo.jfr.DbFallbackEvent;
+import com.assignment.demo.jfr.OrderCreateEvent;
+import com.assignment.demo.jfr.StatusTransitionEvent;
+import com.assignment.demo.logging.RateLimitedLogger;
+import com.assignment.demo.matching.DepthSnapshot;
+import com.assignment.demo.matching.MatchingEngine;
+import com.assignment.demo.matching.PriceTicks;
+import com.assignment.demo.repository.GroupCommitOrderWriter;
 import com.assignment.demo.repository.OrderRepository;
-import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.repository.UserOrderStatsRepository;
+import com.assignment.demo.repository.UserOrderStatsWriter;
+import com.assignment.demo.service.OrderRedisService;
 import com.assignment.demo.service.OrderService;
+import com.assignment.demo.service.UserExistenceService;
 import com.assignment.demo.service.UserRedisService;
+import com.assignment.demo.shard.KWayMerge;
+import com.assignment.demo.shard.ShardRouter;
 import com.assignment.demo.specification.OrderSpecification;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +45,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -36,9 +59,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -47,22 +78,34 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+    private static final RateLimitedLogger rateLimitedLog = RateLimitedLogger.of(log);
 
     @Setter(onMethod_ = {@Autowired, @Lazy})
     private OrderServiceImpl self;
 
     private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceService userExistenceService;
     private final CacheManager cacheManager;
     private final UserRedisService userRedisService;
+    private final OrderRedisService orderRedisService;
+    private final SingleFlight singleFlight;
+    private final RefreshPolicy refreshPolicy;
+    private final ShardRouter shardRouter;
+    private final MatchingEngine matchingEngine;
+    private final GroupCommitOrderWriter groupCommitOrderWriter;
+    private final UserOrderStatsWriter userOrderStatsWriter;
+    private final UserOrderStatsRepository userOrderStatsRepository;
+    private final MappedOrderCache mappedOrderCache;
 
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of(
             "createdAt", "updatedAt", "price", "quantity", "orderId", "status", "orderType"
     );
 
+    // Not @Transactional: the insert's own transaction must start after the user's shard is selected
     @Override
-    @Transactional
     public OrderResponse createOrder(CreateOrderRequest req, Authentication authentication) {
+        OrderCreateEvent event = new OrderCreateEvent();
+        event.begin();
 
         // 1. Extract caller from SecurityContext (JwtAuthFilter sets a full User entity as principal)
         User caller = (User) authentication.getPrincipal();
@@ -73,7 +116,7 @@ public class OrderServiceImpl implements OrderService {
         // 3. Resolve effective userId
         Long effectiveUserId;
         if (isAdmin && req.getUserId() != null) {
-            if (!userRepository.existsById(req.getUserId())) {
+            if (!userExistenceService.exists(req.getUserId())) {
                 throw new EntityNotFoundException("User not found with id: " + req.getUserId());
             }
             effectiveUserId = req.getUserId();
@@ -89,29 +132,49 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("Invalid orderType. Accepted values: BUY, SELL");
         }
 
-        // 5. Build and persist the order
-        Order saved = orderRepository.save(Order.builder()
+        // 5. Build and persist the order and its user_order_stats increment on the owning user's
+        //    shard — batched with concurrent creates into one commit when group commit is enabled
+        Order order = Order.builder()
                 .orderType(orderType)
                 .quantity(req.getQuantity())
                 .price(req.getPrice())
                 .status(OrderStatus.NEW)
                 .userId(effectiveUserId)
-                .build());
+                .build();
+        Order saved = groupCommitOrderWriter.isEnabled()
+                ? groupCommitOrderWriter.insert(order)
+                : shardRouter.onShard(effectiveUserId, () -> self.insertOrder(order));
 
         OrderResponse response = toResponse(saved);
 
-        // 8. Update Redis counter and recent-orders list (best-effort; failures are logged, never thrown)
+        // 8. Update Redis counter, recent-orders list and the order cache (best-effort; failures are
+        //    logged, never thrown). Writing the order through also replaces any negative entry
+        //    cached for this id by a client that probed it before it existed.
+        putOrderCache(response);
         userRedisService.incrementOrderCount(effectiveUserId);
         userRedisService.pushRecentOrder(effectiveUserId, response);
 
+        // 9. Hand the committed order to the matching engine; fills are applied asynchronously,
+        //    so the response reflects the order as inserted
+        matchingEngine.submit(response);
+
+        event.userId = effectiveUserId;
+        event.orderId = response.getOrderId();
+        event.orderType = orderType.name();
+        event.groupCommit = groupCommitOrderWriter.isEnabled();
+        event.commit();
         return response;
     }
 
     @Override
     public OrderResponse getOrderById(Long orderId, Authentication authentication) {
 
-        // 1. Fetch order (from Redis cache or DB) — via self-proxy so @Cacheable is honoured
+        // 1. Fetch order (from Redis cache or DB) — via self-proxy so @Cacheable is honoured.
+        //    A missing order comes back as a cached null, so repeated lookups of absent ids skip the DB.
         OrderResponse response = self.fetchOrderById(orderId);
+        if (response == null) {
+            throw new EntityNotFoundException("Order not found with id: " + orderId);
+        }
 
         // 2. Role-based access check — always runs, even on cache hit
         User caller = (User) authentication.getPrincipal();
@@ -124,15 +187,126 @@ public class OrderServiceImpl implements OrderService {
         return response;
     }
 
-    @Cacheable(value = "orders", key = "#orderId")
+    @Override
+    public List<OrderResponse> getOrdersByIds(List<Long> orderIds, Authentication authentication) {
+
+        // 1. Validate and de-duplicate, keeping the requested order
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        if (ids.size() > 200) {
+            throw new IllegalArgumentException("At most 200 ids per request");
+        }
+
+        // 2. Resolve all ids from the order cache in one MGET (the local fallback while Redis is down)
+        BulkCache ordersCache = (BulkCache) cacheManager.getCache("orders");
+        Map<Long, OrderResponse> found = new HashMap<>();
+        try {
+            ordersCache.getAll(ids).forEach((key, wrapper) -> found.put((Long) key, (OrderResponse) wrapper.get()));
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis MGET error for {} orders: {}", ids.size(), e.getMessage());
+        }
+
+        // 3. Load every miss with one IN query (one per shard, in parallel, when sharded) and write them
+        //    back in one pipeline — unknown ids as negative entries, as fetchOrderById caches them.
+        //    An update committing meanwhile may already have evicted these keys: the cache drops rows
+        //    older than their version stamp after the write, and those rows skip the mapped tier.
+        List<Long> misses = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            DbFallbackEvent event = new DbFallbackEvent();
+            event.begin();
+            Map<Long, OrderResponse> loaded = new LinkedHashMap<>();
+            misses.forEach(id -> loaded.put(id, null));
+            shardRouter.onEachShard(() -> orderRepository.findAllById(misses))
+                    .forEach(orders -> orders.forEach(order -> loaded.put(order.getOrderId(), toResponse(order))));
+            found.putAll(loaded);
+            try {
+                ordersCache.putAll(loaded);
+            } catch (RuntimeException e) {
+                rateLimitedLog.warn(e, "Redis PUT error for {} orders: {}", loaded.size(), e.getMessage());
+            }
+            List<OrderResponse> rows = loaded.values().stream().filter(Objects::nonNull).toList();
+            Set<Long> superseded = orderRedisService.supersededIds(rows);
+            rows.stream().filter(row -> !superseded.contains(row.getOrderId())).forEach(mappedOrderCache::put);
+            event.source = "orders-multi-get";
+            event.key = String.valueOf(misses.size());
+            event.commit();
+        }
+
+        // 4. Same checks as getOrderById, for every requested order
+        User caller = (User) authentication.getPrincipal();
+        boolean isAdmin = hasRole(authentication, "ROLE_ADMIN");
+        List<OrderResponse> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            OrderResponse response = found.get(id);
+            if (response == null) {
+                throw new EntityNotFoundException("Order not found with id: " + id);
+            }
+            if (!isAdmin && !response.getUserId().equals(caller.getId())) {
+                throw new AccessDeniedException("Access denied");
+            }
+            result.add(response);
+        }
+        return result;
+    }
+
+    // sync = true routes misses through CoalescingCache, so concurrent misses share one findById.
+    // Returns null for an unknown id; the null is cached with the short negative TTL.
+    // A current copy in the memory-mapped cache (kept across restarts) is served without loading the
+    // row. Otherwise the id says nothing about the owning user, so with sharding every shard is probed
+    // in parallel — unless a stale mapped copy names the owner.
+    @Cacheable(value = "orders", key = "#orderId", sync = true)
     public OrderResponse fetchOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
-        return toResponse(order);
+        OrderResponse mapped = mappedOrderCache.get(orderId);
+        OrderResponse response;
+        if (mapped != null && isCurrent(mapped)) {
+            response = mapped;
+        } else {
+            Optional<Order> order = mapped != null
+                    ? shardRouter.onShard(mapped.getUserId(), () -> orderRepository.findById(orderId))
+                    : shardRouter.onEachShard(() -> orderRepository.findById(orderId)).stream()
+                            .flatMap(Optional::stream)
+                            .findFirst();
+            response = order.map(this::toResponse).orElse(null);
+            if (response != null) {
+                mappedOrderCache.put(response);
+            } else if (mapped != null) {
+                mappedOrderCache.remove(orderId);
+            }
+        }
+        orderRedisService.recordVersion(response);
+        return response;
+    }
+
+    // Terminal orders never change again. Any other copy is checked against the Redis version stamp
+    // or, failing that, a version-only read on the owner's shard.
+    private boolean isCurrent(OrderResponse mapped) {
+        if (mapped.getStatus().isTerminal()) return true;
+        OrderResponse stamp = orderRedisService.getVersion(mapped.getOrderId());
+        Long current = stamp != null
+                ? stamp.getVersion()
+                : shardRouter.onShard(mapped.getUserId(), () -> orderRepository.findVersionById(mapped.getOrderId())).orElse(null);
+        return mapped.getVersion().equals(current);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public OrderResponse getOrderVersion(Long orderId, Authentication authentication) {
+        // Compact "userId:version:status" stamp — no OrderResponse payload is read or deserialized
+        OrderResponse stamp = orderRedisService.getVersion(orderId);
+        if (stamp == null) return null;
+
+        // Same access rule as getOrderById, so a 304 never confirms another user's order
+        User caller = (User) authentication.getPrincipal();
+        boolean isAdmin = hasRole(authentication, "ROLE_ADMIN");
+        if (!isAdmin && !stamp.getUserId().equals(caller.getId())) {
+            throw new AccessDeniedException("Access denied");
+        }
+        return stamp;
+    }
+
+    // Not @Transactional: each shard query opens its own read-only transaction on its shard
+    @Override
     public PagedOrderResponse listOrders(OrderFilterRequest filter, Authentication authentication) {
 
         // 1. Resolve caller identity and role
@@ -143,7 +317,7 @@ public class OrderServiceImpl implements OrderService {
         Long effectiveUserId;
         if (isAdmin) {
             // ADMIN: may optionally filter by userId; validate it exists if provided
-            if (filter.getUserId() != null && !userRepository.existsById(filter.getUserId())) {
+            if (filter.getUserId() != null && !userExistenceService.exists(filter.getUserId())) {
                 throw new EntityNotFoundException("User not found with id: " + filter.getUserId());
             }
             effectiveUserId = filter.getUserId(); // null = no filter, all users
@@ -211,7 +385,10 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("size must be between 1 and 100");
         }
 
-        // 9. Build Sort — whitelist allowed sort fields; unknown values fall back to createdAt
+        // 9. Parse sparse fieldset (null = all fields)
+        Set<OrderField> fields = OrderField.parse(filter.getFields());
+
+        // 10. Build Sort — whitelist allowed sort fields; unknown values fall back to createdAt
         String sortBy = (filter.getSortBy() != null && ALLOWED_SORT_FIELDS.contains(filter.getSortBy()))
                 ? filter.getSortBy()
                 : "createdAt";
@@ -220,7 +397,7 @@ public class OrderServiceImpl implements OrderService {
                 : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), direction, sortBy);
 
-        // 10. Build Specification and query
+        // 11. Build Specification and query — a sparse fieldset also narrows the SQL select list
         Specification<Order> spec = OrderSpecification.buildFrom(
                 effectiveUserId,
                 parsedOrderType,
@@ -233,7 +410,9 @@ public class OrderServiceImpl implements OrderService {
                 filter.getMaxQty()
         );
 
-        Page<Order> resultPage = orderRepository.findAll(spec, pageable);
+        Page<OrderResponse> resultPage = effectiveUserId != null || !shardRouter.isSharded()
+                ? shardRouter.onShard(effectiveUserId, () -> findOrders(spec, fields, pageable))
+                : scatterGatherOrders(spec, fields, pageable);
 
         // Validate requested page is within bounds (totalPages only known after query)
         if (filter.getPage() > 0 && filter.getPage() >= resultPage.getTotalPages()) {
@@ -242,24 +421,21 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
-        // 11. Map to response
-        List<OrderResponse> content = resultPage.getContent().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-
+        // 12. Map to response
         return PagedOrderResponse.builder()
-                .content(content)
+                .content(resultPage.getContent())
                 .page(resultPage.getNumber())
                 .size(resultPage.getSize())
                 .totalElements(resultPage.getTotalElements())
                 .totalPages(resultPage.getTotalPages())
                 .last(resultPage.isLast())
+                .fields(fields == null ? null : fields.stream().map(OrderField::property).collect(Collectors.toList()))
                 .build();
     }
 
     @Override
-    @Transactional
-    public OrderResponse updateOrderStatus(Long orderId, UpdateOrderStatusRequest request, Authentication authentication) {
+    public OrderResponse updateOrderStatus(Long orderId, UpdateOrderStatusRequest request, Long expectedVersion,
+                                           Authentication authentication) {
 
         // 1. Parse and validate the requested new status (null/blank already handled by @NotBlank)
         OrderStatus newStatus;
@@ -270,11 +446,56 @@ public class OrderServiceImpl implements OrderService {
                     Arrays.stream(OrderStatus.values()).map(Enum::name).collect(Collectors.joining(", ")));
         }
 
+        // 2. Locate the order's shard through its owner, read via the order cache (404 if not found)
+        Long ownerId = null;
+        if (shardRouter.isSharded()) {
+            OrderResponse current = self.fetchOrderById(orderId);
+            if (current == null) {
+                throw new EntityNotFoundException("Order not found with id: " + orderId);
+            }
+            ownerId = current.getUserId();
+        }
+        OrderResponse response = shardRouter.onShard(ownerId, () -> self.applyStatusUpdate(orderId, newStatus, expectedVersion));
+
+        // 6. Stamp the new version for conditional GETs, then evict the single-order cache entry — in that
+        //    order, so a concurrent load of the old row drops its copy (see CoalescingCache). Write the
+        //    order through to the mapped cache and replace it in place in the user's recent-orders list
+        orderRedisService.recordVersion(response);
+        evictOrderCache(orderId);
+        mappedOrderCache.put(response);
+        userRedisService.updateRecentOrder(response);
+
+        // 7. A manually closed order must no longer be matchable
+        if (response.getStatus().isTerminal()) {
+            matchingEngine.cancel(orderId);
+        }
+
+        return response;
+    }
+
+    // Runs in its own transaction so it starts on the shard selected by createOrder
+    @Transactional
+    public Order insertOrder(Order order) {
+        Order saved = orderRepository.save(order);
+        userOrderStatsWriter.increment(order.getUserId());
+        return saved;
+    }
+
+    // Runs in its own transaction so it starts on the shard selected by updateOrderStatus
+    @Transactional
+    public OrderResponse applyStatusUpdate(Long orderId, OrderStatus newStatus, Long expectedVersion) {
+        StatusTransitionEvent event = new StatusTransitionEvent();
+        event.begin();
+
         // 3. Fetch the order (throws 404 if not found)
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
 
-        // 4. Validate state transition
+        // 4. Validate the caller's If-Match version (412), then the state transition
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw new PreconditionFailedException(
+                    "Order " + orderId + " is at version " + order.getVersion() + ", not " + expectedVersion);
+        }
         if (!order.getStatus().canTransitionTo(newStatus)) {
             throw new IllegalArgumentException(
                     "Invalid status transition: " + order.getStatus() + " → " + newStatus +
@@ -283,15 +504,18 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
-        // 5. Apply update — @Version causes ObjectOptimisticLockingFailureException on concurrent write → 409
+        // 5. Apply update — @Version causes ObjectOptimisticLockingFailureException on concurrent write → 409.
+        //    Flushed immediately so the response (and its ETag) carries the incremented version.
+        OrderStatus previous = order.getStatus();
         order.setStatus(newStatus);
-        Order saved = orderRepository.save(order);
-
-        // 6. Evict the single-order cache entry and invalidate the user's recent-orders list
-        evictOrderCache(orderId);
-        userRedisService.invalidateRecentOrders(saved.getUserId());
+        OrderResponse response = toResponse(orderRepository.saveAndFlush(order));
 
-        return toResponse(saved);
+        event.orderId = orderId;
+        event.userId = order.getUserId();
+        event.from = previous.name();
+        event.to = newStatus.name();
+        event.commit();
+        return response;
     }
 
     @Override
@@ -302,16 +526,29 @@ public class OrderServiceImpl implements OrderService {
         if (!isAdmin && !caller.getId().equals(userId)) {
             throw new AccessDeniedException("Access denied");
         }
-        if (isAdmin && !userRepository.existsById(userId)) {
+        if (isAdmin && !userExistenceService.exists(userId)) {
             throw new EntityNotFoundException("User not found with id: " + userId);
         }
 
         Long count = userRedisService.getOrderCount(userId);
         if (count == null) {
-            log.warn("Redis miss for order count, userId '{}': falling back to DB and re-seeding Redis", userId);
-            count = orderRepository.countByUserId(userId);
-            // Re-seed Redis with the accurate DB count so subsequent reads are served from Redis
-            userRedisService.seedOrderCount(userId, count);
+            rateLimitedLog.warn("Redis miss for order count, userId '{}': falling back to order stats and re-seeding Redis", userId);
+            // Concurrent misses for the same user share one stats lookup and one re-seed
+            count = singleFlight.execute(
+                    String.format(UserRedisService.ORDER_COUNT_KEY, userId),
+                    () -> userRedisService.getOrderCount(userId),
+                    () -> {
+                        DbFallbackEvent event = new DbFallbackEvent();
+                        event.begin();
+                        // Sum of the user's stat stripes: a primary-key lookup instead of COUNT over orders
+                        long dbCount = shardRouter.onShard(userId, () -> userOrderStatsRepository.sumOrderCount(userId));
+                        // Re-seed Redis with the accurate DB count so subsequent reads are served from Redis
+                        userRedisService.seedOrderCount(userId, dbCount);
+                        event.source = "order-count";
+                        event.key = String.valueOf(userId);
+                        event.commit();
+                        return dbCount;
+                    });
         }
 
         return Map.of("userId", userId, "orderCount", count);
@@ -325,24 +562,217 @@ public class OrderServiceImpl implements OrderService {
         if (!isAdmin && !caller.getId().equals(userId)) {
             throw new AccessDeniedException("Access denied");
         }
-        if (isAdmin && !userRepository.existsById(userId)) {
+        if (isAdmin && !userExistenceService.exists(userId)) {
             throw new EntityNotFoundException("User not found with id: " + userId);
         }
 
-        List<OrderResponse> cached = userRedisService.getRecentOrders(userId);
+        String flightKey = String.format(UserRedisService.RECENT_ORDERS_KEY, userId);
+        CachedValue<List<OrderResponse>> cached = userRedisService.getRecentOrders(userId);
         if (cached != null) {
-            return cached;
+            if (refreshPolicy.isRefreshDue(cached)) {
+                // Past the soft TTL: serve what we have, one background task reloads from DB
+                singleFlight.refreshAsync(flightKey, () -> loadRecentOrders(userId));
+            }
+            return cached.getValue();
+        }
+
+        rateLimitedLog.warn("Redis miss for recent orders, userId '{}': falling back to DB", userId);
+        // Concurrent misses for the same user share one top-10 query and one re-seed
+        return singleFlight.execute(
+                flightKey,
+                () -> {
+                    CachedValue<List<OrderResponse>> recheck = userRedisService.getRecentOrders(userId);
+                    return recheck == null ? null : recheck.getValue();
+                },
+                () -> loadRecentOrders(userId));
+    }
+
+    @Override
+    public Map<Long, Long> countUserOrdersBatch(List<Long> userIds, Authentication authentication) {
+
+        // 1. Admin-only; validate, de-duplicate and drop unknown users (Bloom filter, then one IN query)
+        List<Long> users = existingUsers(userIds, authentication);
+
+        // 2. Every counter in one MGET; dirty and absent counters come back as misses
+        Map<Long, Long> counts = userRedisService.getOrderCounts(users);
+
+        // 3. One grouped stats query per shard for the misses only, re-seeded in one MSET
+        List<Long> misses = users.stream().filter(userId -> !counts.containsKey(userId)).toList();
+        if (!misses.isEmpty()) {
+            DbFallbackEvent event = new DbFallbackEvent();
+            event.begin();
+            Map<Long, Long> loaded = new HashMap<>();
+            misses.forEach(userId -> loaded.put(userId, 0L));
+            byShard(misses).forEach((shard, shardUsers) -> shardRouter.onShardIndex(shard,
+                            () -> userOrderStatsRepository.sumOrderCounts(shardUsers))
+                    .forEach(row -> loaded.put(row.getUserId(), row.getOrderCount())));
+            userRedisService.seedOrderCounts(loaded);
+            counts.putAll(loaded);
+            event.source = "order-count-batch";
+            event.key = String.valueOf(misses.size());
+            event.commit();
         }
 
-        log.warn("Redis miss for recent orders, userId '{}': falling back to DB", userId);
-        List<Order> orders = orderRepository.findTop10ByUserIdOrderByCreatedAtDesc(userId);
-        List<OrderResponse> result = orders.stream()
+        Map<Long, Long> result = new LinkedHashMap<>();
+        users.forEach(userId -> result.put(userId, counts.get(userId)));
+        return result;
+    }
+
+    @Override
+    public Map<Long, List<OrderResponse>> getRecentOrdersForUsers(List<Long> userIds, Authentication authentication) {
+
+        // 1. Admin-only; validate, de-duplicate and drop unknown users
+        List<Long> users = existingUsers(userIds, authentication);
+
+        // 2. Every list through the read script in one pipeline. Lists past their soft TTL are
+        //    reloaded with the misses rather than refreshed one by one in the background.
+        Map<Long, List<OrderResponse>> found = new HashMap<>();
+        userRedisService.getRecentOrders(users).forEach((userId, cached) -> {
+            if (!refreshPolicy.isRefreshDue(cached)) found.put(userId, cached.getValue());
+        });
+
+        // 3. One windowed top-N query per shard for the rest, re-seeded in one pipeline
+        List<Long> misses = users.stream().filter(userId -> !found.containsKey(userId)).toList();
+        if (!misses.isEmpty()) {
+            DbFallbackEvent event = new DbFallbackEvent();
+            event.begin();
+            long start = System.nanoTime();
+            Map<Long, List<OrderResponse>> loaded = new HashMap<>();
+            misses.forEach(userId -> loaded.put(userId, new ArrayList<>()));
+            byShard(misses).forEach((shard, shardUsers) -> shardRouter.onShardIndex(shard,
+                            () -> orderRepository.findRecentByUserIds(shardUsers, 10))
+                    .forEach(order -> loaded.get(order.getUserId()).add(toResponse(order))));
+            userRedisService.repopulateRecentOrders(loaded, (System.nanoTime() - start) / 1_000_000L);
+            found.putAll(loaded);
+            event.source = "recent-orders-batch";
+            event.key = String.valueOf(misses.size());
+            event.commit();
+        }
+
+        Map<Long, List<OrderResponse>> result = new LinkedHashMap<>();
+        users.forEach(userId -> result.put(userId, found.get(userId)));
+        return result;
+    }
+
+    // Requested user ids in order, without duplicates or unknown users
+    private List<Long> existingUsers(List<Long> userIds, Authentication authentication) {
+        if (!hasRole(authentication, "ROLE_ADMIN")) {
+            throw new AccessDeniedException("Access denied");
+        }
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("userIds must not be empty");
+        }
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        if (ids.size() > 500) {
+            throw new IllegalArgumentException("At most 500 userIds per request");
+        }
+        return userExistenceService.existing(ids);
+    }
+
+    // Groups users by owning shard, for one query per shard
+    private Map<Integer, List<Long>> byShard(List<Long> userIds) {
+        return userIds.stream().collect(Collectors.groupingBy(shardRouter::shardFor));
+    }
+
+    @Override
+    public OrderBookDepthResponse getOrderBookDepth(int depth) {
+        if (!matchingEngine.isEnabled()) {
+            throw new ServiceUnavailableException("Order book is not available on this instance");
+        }
+        if (depth < 1 || depth > matchingEngine.depthLevels()) {
+            throw new IllegalArgumentException("depth must be between 1 and " + matchingEngine.depthLevels());
+        }
+
+        // Served from the snapshot the matching thread publishes after every batch — no DB or book access
+        DepthSnapshot snapshot = matchingEngine.depth();
+        return OrderBookDepthResponse.builder()
+                .bestBid(snapshot.bids().levels() == 0 ? null : PriceTicks.toPrice(snapshot.bids().prices()[0]))
+                .bestAsk(snapshot.asks().levels() == 0 ? null : PriceTicks.toPrice(snapshot.asks().prices()[0]))
+                .bids(toLevels(snapshot.bids(), depth))
+                .asks(toLevels(snapshot.asks(), depth))
+                .sequence(snapshot.sequence())
+                .build();
+    }
+
+    private static List<OrderBookDepthResponse.Level> toLevels(DepthSnapshot.Side side, int depth) {
+        int n = Math.min(depth, side.levels());
+        BigDecimal[] cumulative = PriceTicks.cumulativeNotionals(side.prices(), side.quantities(), n);
+        List<OrderBookDepthResponse.Level> levels = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            levels.add(new OrderBookDepthResponse.Level(
+                    PriceTicks.toPrice(side.prices()[i]), side.quantities()[i], side.orders()[i],
+                    PriceTicks.toNotional(side.prices()[i], side.quantities()[i]), cumulative[i]));
+        }
+        return levels;
+    }
+
+    private List<OrderResponse> loadRecentOrders(Long userId) {
+        DbFallbackEvent event = new DbFallbackEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<OrderResponse> result = shardRouter.onShard(userId,
+                        () -> orderRepository.findTop10ByUserIdOrderByCreatedAtDesc(userId)).stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
+        userRedisService.repopulateRecentOrders(userId, result, (System.nanoTime() - start) / 1_000_000L);
+        event.source = "recent-orders";
+        event.key = String.valueOf(userId);
+        event.commit();
+        return result;
+    }
 
-        userRedisService.repopulateRecentOrders(userId, result);
+    private Page<OrderResponse> findOrders(Specification<Order> spec, Set<OrderField> fields, Pageable pageable) {
+        return fields == null
+                ? orderRepository.findAll(spec, pageable).map(this::toResponse)
+                : orderRepository.findProjected(spec, fields, pageable);
+    }
 
-        return result;
+    // Admin listing across all shards: every shard returns its first (page + 1) * size rows in the
+    // requested order, and a k-way merge picks the requested page out of them. Cost grows with page
+    // depth, which is acceptable for the bounded page sizes this endpoint allows.
+    private Page<OrderResponse> scatterGatherOrders(Specification<Order> spec, Set<OrderField> fields, Pageable pageable) {
+        Sort.Order requested = pageable.getSort().iterator().next();
+        OrderField sortField = OrderField.fromProperty(requested.getProperty());
+
+        // orderId breaks ties identically on every shard and in the merge
+        Sort shardSort = Sort.by(requested.getDirection(), sortField.property())
+                .and(Sort.by(requested.getDirection(), OrderField.ORDER_ID.property()));
+        Pageable shardPageable = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), shardSort);
+
+        // A sparse fieldset still has to carry the merge keys; they are stripped again afterwards
+        Set<OrderField> shardFields = null;
+        if (fields != null) {
+            shardFields = EnumSet.copyOf(fields);
+            shardFields.add(sortField);
+            shardFields.add(OrderField.ORDER_ID);
+        }
+        Set<OrderField> queried = shardFields;
+        List<Page<OrderResponse>> shardPages = shardRouter.onEachShard(() -> findOrders(spec, queried, shardPageable));
+
+        Comparator<OrderResponse> mergeOrder = sortField.comparator()
+                .thenComparing(OrderField.ORDER_ID.comparator());
+        if (requested.isDescending()) mergeOrder = mergeOrder.reversed();
+
+        List<OrderResponse> content = KWayMerge.merge(
+                shardPages.stream().map(Page::getContent).collect(Collectors.toList()),
+                mergeOrder,
+                (int) pageable.getOffset(),
+                pageable.getPageSize());
+        long total = shardPages.stream().mapToLong(Page::getTotalElements).sum();
+
+        return new PageImpl<>(fields == null ? content : OrderField.select(content, fields), pageable, total);
+    }
+
+    private void putOrderCache(OrderResponse response) {
+        try {
+            Cache ordersCache = cacheManager.getCache("orders");
+            if (ordersCache == null) return;
+            ordersCache.put(response.getOrderId(), response);
+        } catch (RuntimeException e) {
+            rateLimitedLog.warn(e, "Redis PUT error for order '{}': {}", response.getOrderId(), e.getMessage());
+        }
+        orderRedisService.recordVersion(response);
+        mappedOrderCache.put(response);
     }
 
     private void evictOrderCache(Long orderId) {
@@ -351,7 +781,7 @@ public class OrderServiceImpl implements OrderService {
             if (ordersCache == null) return;
             ordersCache.evict(orderId);
         } catch (RuntimeException e) {
-            log.warn("Redis EVICT error for order '{}': {}", orderId, e.getMessage());
+            rateLimitedLog.warn(e, "Redis EVICT error for order '{}': {}", orderId, e.getMessage());
         }
     }
 
@@ -366,11 +796,13 @@ public class OrderServiceImpl implements OrderService {
                 .orderId(order.getOrderId())
                 .orderType(order.getOrderType())
                 .quantity(order.getQuantity())
+                .filledQuantity(order.getFilledQuantity())
                 .price(order.getPrice())
                 .status(order.getStatus())
                 .userId(order.getUserId())
                 .createdAt(order.getCreatedAt())
                 .updatedAt(order.getUpdatedAt())
+                .version(order.getVersion())
                 .build();
     }
 }
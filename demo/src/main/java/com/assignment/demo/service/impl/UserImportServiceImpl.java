@@ -0,0 +1,369 @@
+package com.assignment.demo.service.impl;
+
+import com.assignment.demo.dto.RegisterRequest;
+import com.assignment.demo.dto.UserImportResponse;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.exception.ServiceUnavailableException;
+import com.assignment.demo.repository.UserBulkWriter;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.security.BoundedPasswordEncoder;
+import com.assignment.demo.service.UserExistenceService;
+import com.assignment.demo.service.UserImportService;
+import com.assignment.demo.service.UserRoleCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admin bulk registration from CSV or NDJSON.
+ *
+ * Where {@code POST /api/auth/register} pays an email query, a role query, a hash and an insert per
+ * user, an import validates every row in memory, checks all emails with a few set-based IN queries,
+ * takes roles from {@link UserRoleCache}, hashes on a dedicated pool sized to the cores and inserts
+ * through {@link UserBulkWriter} in JDBC batches. Rows fail independently and are reported by line.
+ *
+ * Only one import runs per node at a time, so its hashing pool cannot multiply across requests.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int EMAIL_QUERY_CHUNK = 1_000;
+    private static final int INSERT_CHUNK = 500;
+
+    private final UserRepository userRepository;
+    private final UserRoleCache userRoleCache;
+    private final UserBulkWriter userBulkWriter;
+    private final UserExistenceService userExistenceService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PasswordEncoder hasher;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final int maxRows;
+
+    private final Semaphore running = new Semaphore(1);
+
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 UserRoleCache userRoleCache,
+                                 UserBulkWriter userBulkWriter,
+                                 UserExistenceService userExistenceService,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PasswordEncoder passwordEncoder,
+                                 @Value("${app.users.import.max-rows:10000}") int maxRows,
+                                 @Value("${app.users.import.hashing-threads:0}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.userRoleCache = userRoleCache;
+        this.userBulkWriter = userBulkWriter;
+        this.userExistenceService = userExistenceService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.maxRows = maxRows;
+        // Bypass the login pool's queue limit: imports are admin-only, serialized, and bring their own pool
+        this.hasher = passwordEncoder instanceof BoundedPasswordEncoder bounded ? bounded.delegate() : passwordEncoder;
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashingExecutor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "user-import-hash-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportResponse importUsers(String body, MediaType contentType) {
+        if (!running.tryAcquire()) {
+            throw new ServiceUnavailableException("A user import is already running. Please retry later.");
+        }
+        try {
+            return doImport(body, contentType);
+        } finally {
+            running.release();
+        }
+    }
+
+    private UserImportResponse doImport(String body, MediaType contentType) {
+        List<UserImportResponse.RowError> errors = new ArrayList<>();
+
+        // 1. Parse
+        List<Row> rows;
+        if (contentType != null && TEXT_CSV.isCompatibleWith(contentType)) {
+            rows = parseCsv(body, errors);
+        } else if (contentType != null && APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            rows = parseNdjson(body, errors);
+        } else {
+            throw new IllegalArgumentException("Unsupported import format. Use text/csv or application/x-ndjson");
+        }
+        int total = rows.size() + errors.size();
+        if (total > maxRows) {
+            throw new IllegalArgumentException("Import is limited to " + maxRows + " rows per request");
+        }
+
+        // 2. Validate and normalize each row; drop duplicates within the upload
+        List<Row> valid = new ArrayList<>(rows.size());
+        Set<String> seen = new HashSet<>();
+        for (Row row : rows) {
+            String error = validate(row);
+            if (error == null && !seen.add(row.email)) error = "Duplicate email in upload";
+            if (error != null) {
+                errors.add(new UserImportResponse.RowError(row.line, row.email, error));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        // 3. One set-based existence check per chunk of emails
+        valid = rejectExisting(valid, errors);
+
+        // 4. Hash in parallel
+        List<CompletableFuture<String>> hashes = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            hashes.add(CompletableFuture.supplyAsync(() -> hasher.encode(row.password), hashingExecutor));
+        }
+        List<User> users = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            Row row = valid.get(i);
+            users.add(User.builder()
+                    .fullName(row.fullName)
+                    .email(row.email)
+                    .password(hashes.get(i).join())
+                    .roles(Set.of(userRoleCache.get(row.role)))
+                    .build());
+        }
+
+        // 5. Insert in JDBC batches
+        int imported = 0;
+        for (int from = 0; from < users.size(); from += INSERT_CHUNK) {
+            int to = Math.min(from + INSERT_CHUNK, users.size());
+            imported += insertChunk(valid.subList(from, to), users.subList(from, to), errors);
+        }
+
+        errors.sort(Comparator.comparingInt(UserImportResponse.RowError::getLine));
+        log.info("User import finished: {} rows, {} imported, {} failed", total, imported, errors.size());
+        return UserImportResponse.builder()
+                .total(total)
+                .imported(imported)
+                .failed(errors.size())
+                .errors(errors)
+                .build();
+    }
+
+    // ── Parsing ─────────────────────────────────────────────────────────────
+
+    // Header row names the columns (fullName, email, password, role); role may be omitted
+    private List<Row> parseCsv(String body, List<UserImportResponse.RowError> errors) {
+        List<Row> rows = new ArrayList<>();
+        String[] lines = body.split("\r?\n", -1);
+        Map<String, Integer> columns = null;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.isBlank()) continue;
+            List<String> fields;
+            try {
+                fields = splitCsv(line);
+            } catch (IllegalArgumentException e) {
+                if (columns == null) throw new IllegalArgumentException("Malformed CSV header: " + e.getMessage());
+                errors.add(new UserImportResponse.RowError(i + 1, null, e.getMessage()));
+                continue;
+            }
+            if (columns == null) {
+                columns = new HashMap<>();
+                for (int c = 0; c < fields.size(); c++) {
+                    columns.put(fields.get(c).trim().toLowerCase(Locale.ROOT), c);
+                }
+                for (String required : List.of("fullname", "email", "password")) {
+                    if (!columns.containsKey(required)) {
+                        throw new IllegalArgumentException("CSV header must include fullName, email and password");
+                    }
+                }
+                continue;
+            }
+            RegisterRequest request = new RegisterRequest();
+            request.setFullName(field(fields, columns.get("fullname")));
+            request.setEmail(field(fields, columns.get("email")));
+            request.setPassword(field(fields, columns.get("password")));
+            request.setRole(field(fields, columns.get("role")));
+            rows.add(new Row(i + 1, request));
+        }
+        return rows;
+    }
+
+    private List<Row> parseNdjson(String body, List<UserImportResponse.RowError> errors) {
+        List<Row> rows = new ArrayList<>();
+        String[] lines = body.split("\r?\n", -1);
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i].isBlank()) continue;
+            try {
+                rows.add(new Row(i + 1, objectMapper.readValue(lines[i], RegisterRequest.class)));
+            } catch (JsonProcessingException e) {
+                errors.add(new UserImportResponse.RowError(i + 1, null, "Malformed JSON"));
+            }
+        }
+        return rows;
+    }
+
+    // RFC 4180 fields on a single line: commas separate, double quotes enclose, "" escapes a quote
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    current.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(ch);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    // ── Validation ──────────────────────────────────────────────────────────
+
+    // Same rules and normalization as single registration; returns the first error or null
+    private String validate(Row row) {
+        Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(row.request);
+        if (!violations.isEmpty()) {
+            row.email = row.request.getEmail();
+            return violations.iterator().next().getMessage();
+        }
+        row.fullName = row.request.getFullName().trim();
+        row.email = row.request.getEmail().trim().toLowerCase();
+        row.password = row.request.getPassword().trim();
+        try {
+            row.role = Role.parse(row.request.getRole());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private List<Row> rejectExisting(List<Row> rows, List<UserImportResponse.RowError> errors) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < rows.size(); from += EMAIL_QUERY_CHUNK) {
+            List<String> emails = rows.subList(from, Math.min(from + EMAIL_QUERY_CHUNK, rows.size())).stream()
+                    .map(row -> row.email)
+                    .toList();
+            existing.addAll(userRepository.findExistingEmails(emails));
+        }
+        if (existing.isEmpty()) return rows;
+
+        List<Row> remaining = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(row.email)) {
+                errors.add(new UserImportResponse.RowError(row.line, row.email, "Email is already registered"));
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    // ── Insert ──────────────────────────────────────────────────────────────
+
+    // A concurrent registration can take an email between the check and the insert; the chunk is then
+    // re-checked and retried without the conflicting rows, and failed as a whole only if that fails too
+    private int insertChunk(List<Row> rows, List<User> users, List<UserImportResponse.RowError> errors) {
+        try {
+            userBulkWriter.insert(users);
+        } catch (DataIntegrityViolationException first) {
+            Set<String> taken = new HashSet<>(userRepository.findExistingEmails(
+                    users.stream().map(User::getEmail).toList()));
+            List<User> retry = new ArrayList<>(users.size());
+            List<Row> retryRows = new ArrayList<>(rows.size());
+            for (int i = 0; i < users.size(); i++) {
+                if (taken.contains(users.get(i).getEmail())) {
+                    errors.add(new UserImportResponse.RowError(rows.get(i).line, rows.get(i).email,
+                            "Email is already registered"));
+                } else {
+                    retry.add(users.get(i));
+                    retryRows.add(rows.get(i));
+                }
+            }
+            try {
+                userBulkWriter.insert(retry);
+            } catch (RuntimeException second) {
+                log.warn("User import batch of {} rows failed: {}", retry.size(), second.getMessage());
+                for (Row row : retryRows) {
+                    errors.add(new UserImportResponse.RowError(row.line, row.email, "Insert failed"));
+                }
+                return 0;
+            }
+            users = retry;
+        }
+        for (User user : users) {
+            userExistenceService.register(user.getId());
+        }
+        return users.size();
+    }
+
+    private static final class Row {
+        final int line;
+        final RegisterRequest request;
+        String fullName;
+        String email;
+        String password;
+        Role role;
+
+        Row(int line, RegisterRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+}
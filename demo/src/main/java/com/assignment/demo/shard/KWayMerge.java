@@ -0,0 +1,40 @@
+package com.assignment.demo.shard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges per-shard result lists, each already sorted by the same comparator, into one sorted window.
+ */
+public final class KWayMerge {
+
+    private KWayMerge() {}
+
+    /**
+     * Returns elements [skip, skip + limit) of the merged order. Only the heads of the runs are kept in
+     * the heap, so the cost is O((skip + limit) · log k) for k runs.
+     */
+    public static <T> List<T> merge(List<List<T>> sortedRuns, Comparator<? super T> comparator, int skip, int limit) {
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, sortedRuns.size()),
+                (a, b) -> comparator.compare(a.value, b.value));
+        for (List<T> run : sortedRuns) {
+            Iterator<T> it = run.iterator();
+            if (it.hasNext()) heap.add(new Head<>(it.next(), it));
+        }
+
+        List<T> window = new ArrayList<>(limit);
+        int position = 0;
+        while (!heap.isEmpty() && window.size() < limit) {
+            Head<T> head = heap.poll();
+            if (position++ >= skip) window.add(head.value);
+            if (head.rest.hasNext()) heap.add(new Head<>(head.rest.next(), head.rest));
+        }
+        return window;
+    }
+
+    private record Head<T>(T value, Iterator<T> rest) {
+    }
+}
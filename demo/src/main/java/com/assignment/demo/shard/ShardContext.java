@@ -0,0 +1,27 @@
+package com.assignment.demo.shard;
+
+/**
+ * Holds the shard the current thread's next connection should come from.
+ *
+ * Read by {@link ShardRoutingDataSource} when a connection is requested, i.e. when a transaction
+ * begins or a non-transactional statement runs — so the shard has to be set before either happens.
+ * With no shard set, connections come from shard 0, which also holds every non-order table.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
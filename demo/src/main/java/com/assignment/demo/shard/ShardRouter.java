@@ -0,0 +1,131 @@
+package com.assignment.demo.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs order reads and writes against the shard that owns them.
+ *
+ * Orders live on shard {@code hash(userId) mod N}, so everything scoped to one user touches exactly
+ * one shard. Queries that are not user-scoped (lookups by order id, admin listings) run on every
+ * shard in parallel and the caller combines the results.
+ *
+ * The shard count is fixed for the lifetime of the data: changing N remaps users to different
+ * shards and requires moving their orders.
+ *
+ * With sharding disabled there is a single shard and every call runs inline on the caller's thread.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ThreadPoolExecutor scatterExecutor;
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardCount = properties.shardCount();
+        if (shardCount <= 1) {
+            this.scatterExecutor = null;
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scatterExecutor = new ThreadPoolExecutor(
+                properties.getScatterThreads(), properties.getScatterThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getScatterThreads() * 16),
+                r -> {
+                    Thread t = new Thread(r, "shard-scatter-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // Saturated pool: the request thread queries the shard itself instead of failing
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) scatterExecutor.shutdownNow();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    public int shardFor(Long userId) {
+        // Fibonacci hashing spreads sequential user ids evenly across shards
+        return Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), shardCount);
+    }
+
+    /**
+     * Runs the work with the user's shard selected. The work must open its own transaction (e.g. a
+     * repository call or a @Transactional proxy), since the shard is only honoured by connections
+     * acquired inside it.
+     */
+    public <T> T onShard(Long userId, Supplier<T> work) {
+        if (!isSharded()) return work.get();
+        return runOn(shardFor(userId), work);
+    }
+
+    /**
+     * Runs the work on a shard picked by number (0..N-1), e.g. for a batch already grouped by
+     * {@link #shardFor}.
+     */
+    public <T> T onShardIndex(int shard, Supplier<T> work) {
+        if (!isSharded()) return work.get();
+        return runOn(shard, work);
+    }
+
+    /**
+     * Runs the work once per shard, in parallel, and returns the results indexed by shard.
+     */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        if (!isSharded()) return List.of(work.get());
+
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int target = shard;
+            futures.add(scatterExecutor.submit(() -> runOn(target, work)));
+        }
+
+        List<T> results = new ArrayList<>(shardCount);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            // Surface the shard's original exception (e.g. a DataAccessException) unchanged
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    private <T> T runOn(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.assignment.demo.shard;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies the configured {@code ddl-auto} action to shards 1..N-1.
+ *
+ * Hibernate only manages the schema reachable through a plain connection, which the routing data
+ * source resolves to shard 0; this repeats the same schema action once per remaining shard with the
+ * shard selected, so every shard gets the same tables.
+ */
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final int shardCount;
+
+    public ShardSchemaIntegrator(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        ServiceRegistry serviceRegistry = bootstrapContext.getServiceRegistry();
+        Map<String, Object> settings = new HashMap<>(serviceRegistry.requireService(ConfigurationService.class).getSettings());
+
+        for (int shard = 1; shard < shardCount; shard++) {
+            Integer previous = ShardContext.current();
+            ShardContext.set(shard);
+            try {
+                // Drop-on-close is not propagated to the extra shards
+                SchemaManagementToolCoordinator.process(metadata, serviceRegistry, settings, action -> {});
+            } finally {
+                ShardContext.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.assignment.demo.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    /** When false the application runs on the single {@code spring.datasource}. */
+    private boolean enabled = false;
+
+    /** Threads used to query all shards in parallel for scatter-gather reads. */
+    private int scatterThreads = 8;
+
+    /** Every shard, in order; shard 0 also holds users and roles. */
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+
+    public int shardCount() {
+        return enabled ? shards.size() : 1;
+    }
+}
@@ -0,0 +1,16 @@
+package com.assignment.demo.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Attributes every statement Hibernate prepares to the open {@link StatementScope}s of the calling
+ * thread. The SQL is returned unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        StatementScope.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,57 @@
+package com.assignment.demo.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link StatementScope} around each request and records it under the matched route (e.g.
+ * {@code GET /api/orders/{id}}). Runs ahead of the security filters, so the JWT user load is
+ * included in the request's count.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class StatementAccountingFilter extends OncePerRequestFilter {
+
+    private final StatementStatsRegistry registry;
+
+    @Value("${app.sql-stats.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws ServletException, IOException {
+
+        StatementScope scope = StatementScope.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scope.close();
+            registry.record(endpoint(request), scope);
+        }
+    }
+
+    // Route pattern rather than the raw URI, so /api/orders/1 and /api/orders/2 share one histogram
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(unmatched)");
+    }
+}
@@ -0,0 +1,122 @@
+package com.assignment.demo.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements Hibernate prepares, and the time spent executing them, on the current
+ * thread while the scope is open.
+ *
+ * Scopes nest: every open scope on the thread sees every statement, so a test can wrap a whole
+ * MockMvc call while the request filter keeps its own per-request scope. Statements issued on other
+ * threads (scatter-gather shard queries, background cache refreshes) and plain JdbcTemplate
+ * statements, which bypass Hibernate, are not counted.
+ */
+public final class StatementScope implements AutoCloseable {
+
+    private static final ThreadLocal<Deque<StatementScope>> OPEN = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private int statements;
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private long executionNanos;
+    private boolean closed;
+
+    private StatementScope() {
+    }
+
+    /**
+     * Opens a scope on the current thread; close it on the same thread (try-with-resources).
+     */
+    public static StatementScope open() {
+        StatementScope scope = new StatementScope();
+        OPEN.get().push(scope);
+        return scope;
+    }
+
+    // Called by CountingStatementInspector for every statement Hibernate prepares
+    static void statementPrepared(String sql) {
+        Deque<StatementScope> open = OPEN.get();
+        if (open.isEmpty()) return;
+        Kind kind = Kind.of(sql);
+        for (StatementScope scope : open) {
+            scope.statements++;
+            switch (kind) {
+                case SELECT -> scope.selects++;
+                case INSERT -> scope.inserts++;
+                case UPDATE -> scope.updates++;
+                case DELETE -> scope.deletes++;
+                case OTHER -> { }
+            }
+        }
+    }
+
+    // Called by StatementTimingListener after each JDBC execute or batch
+    static void statementExecuted(long nanos) {
+        Deque<StatementScope> open = OPEN.get();
+        if (open.isEmpty()) return;
+        for (StatementScope scope : open) {
+            scope.executionNanos += nanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int selects() {
+        return selects;
+    }
+
+    public int inserts() {
+        return inserts;
+    }
+
+    public int updates() {
+        return updates;
+    }
+
+    public int deletes() {
+        return deletes;
+    }
+
+    public long executionNanos() {
+        return executionNanos;
+    }
+
+    public long executionMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(executionNanos);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        Deque<StatementScope> open = OPEN.get();
+        open.remove(this);
+        if (open.isEmpty()) OPEN.remove();
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements (" + selects + " select, " + inserts + " insert, " + updates + " update, "
+                + deletes + " delete) in " + executionMillis() + " ms";
+    }
+
+    private enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        static Kind of(String sql) {
+            int i = 0;
+            while (i < sql.length() && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '(')) i++;
+            if (sql.regionMatches(true, i, "select", 0, 6) || sql.regionMatches(true, i, "with", 0, 4)) return SELECT;
+            if (sql.regionMatches(true, i, "insert", 0, 6)) return INSERT;
+            if (sql.regionMatches(true, i, "update", 0, 6)) return UPDATE;
+            if (sql.regionMatches(true, i, "delete", 0, 6)) return DELETE;
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.assignment.demo.sql;
+
+import com.assignment.demo.dto.EndpointStatementStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint histograms of statements per request, fed by {@link StatementAccountingFilter}.
+ *
+ * Requests over {@code statement-budget} are logged, at most once per endpoint per
+ * {@code warn-interval-ms}; the warning carries how many were suppressed in between, so an N+1
+ * on a hot endpoint shows up in the log without flooding it.
+ */
+@Component
+public class StatementStatsRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementStatsRegistry.class);
+
+    // Inclusive upper bounds; one more bucket holds everything above the last
+    private static final int[] BUCKET_BOUNDS = {0, 1, 2, 3, 4, 5, 10, 20, 50};
+    private static final String[] BUCKET_LABELS = {"0", "1", "2", "3", "4", "5", "6-10", "11-20", "21-50", ">50"};
+
+    private final int statementBudget;
+    private final long warnIntervalNanos;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public StatementStatsRegistry(@Value("${app.sql-stats.statement-budget:10}") int statementBudget,
+                                  @Value("${app.sql-stats.warn-interval-ms:60000}") long warnIntervalMs) {
+        this.statementBudget = statementBudget;
+        this.warnIntervalNanos = TimeUnit.MILLISECONDS.toNanos(warnIntervalMs);
+    }
+
+    public void record(String endpoint, StatementScope scope) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, e -> new Endpoint());
+        int statements = scope.statements();
+        stats.requests.increment();
+        stats.buckets[bucket(statements)].increment();
+        stats.statements.add(statements);
+        stats.executionNanos.add(scope.executionNanos());
+        stats.max.accumulate(statements);
+
+        if (statements <= statementBudget) return;
+        stats.overBudget.increment();
+        long now = System.nanoTime();
+        long last = stats.lastWarnAt.get();
+        if (last != 0 && now - last < warnIntervalNanos || !stats.lastWarnAt.compareAndSet(last, now)) {
+            stats.suppressed.increment();
+            return;
+        }
+        log.warn("{} issued {} (budget {}); {} more requests over budget since the last warning",
+                endpoint, scope, statementBudget, stats.suppressed.sumThenReset());
+    }
+
+    public List<EndpointStatementStats> snapshot() {
+        return endpoints.entrySet().stream()
+                .map(e -> toResponse(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparing(EndpointStatementStats::getEndpoint))
+                .toList();
+    }
+
+    private static EndpointStatementStats toResponse(String endpoint, Endpoint stats) {
+        long requests = stats.requests.sum();
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_LABELS.length; i++) {
+            long count = stats.buckets[i].sum();
+            if (count > 0) histogram.put(BUCKET_LABELS[i], count);
+        }
+        return EndpointStatementStats.builder()
+                .endpoint(endpoint)
+                .requests(requests)
+                .histogram(histogram)
+                .meanStatements(requests == 0 ? 0 : (double) stats.statements.sum() / requests)
+                .maxStatements(stats.max.get())
+                .meanExecutionMillis(requests == 0 ? 0 : stats.executionNanos.sum() / 1_000_000.0 / requests)
+                .overBudget(stats.overBudget.sum())
+                .build();
+    }
+
+    private static int bucket(int statements) {
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            if (statements <= BUCKET_BOUNDS[i]) return i;
+        }
+        return BUCKET_BOUNDS.length;
+    }
+
+    private static final class Endpoint {
+        final LongAdder requests = new LongAdder();
+        final LongAdder[] buckets = newAdders(BUCKET_LABELS.length);
+        final LongAdder statements = new LongAdder();
+        final LongAdder executionNanos = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        final LongAdder overBudget = new LongAdder();
+        final LongAdder suppressed = new LongAdder();
+        final AtomicLong lastWarnAt = new AtomicLong();
+
+        private static LongAdder[] newAdders(int n) {
+            LongAdder[] adders = new LongAdder[n];
+            for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+            return adders;
+        }
+    }
+}
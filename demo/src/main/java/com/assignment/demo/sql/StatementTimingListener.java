@@ -0,0 +1,32 @@
+package com.assignment.demo.sql;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the JDBC execution time of every statement and batch to the open {@link StatementScope}s.
+ * Hibernate creates one instance per session, and a session is used by one thread at a time.
+ */
+public class StatementTimingListener implements SessionEventListener {
+
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        StatementScope.statementExecuted(System.nanoTime() - startedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        StatementScope.statementExecuted(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,134 @@
+package com.assignment.demo.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingCacheTest {
+
+    private final ConcurrentMapCache store = new ConcurrentMapCache("orders");
+    private final SingleFlight singleFlight = new SingleFlight(null, false, 2000, 500, 20, 1, 10);
+    private final Set<Object> supersededValues = ConcurrentHashMap.newKeySet();
+    private final CoalescingCache cache = new CoalescingCache(store, singleFlight, new RefreshPolicy(true, 1.0, 1000),
+            value -> Duration.ofSeconds(60), written -> written.entrySet().stream()
+                    .filter(entry -> supersededValues.contains(entry.getValue()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet()));
+
+    @AfterEach
+    void tearDown() {
+        singleFlight.shutdown();
+    }
+
+    @Test
+    void freshHitIsServedWithoutLoading() {
+        cache.put(1L, "v1");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1L, () -> { loads.incrementAndGet(); return "v2"; }));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void softExpiredHitIsServedStaleWhileOneBackgroundLoadRefreshesIt() throws InterruptedException {
+        store.put(1L, new CachedValue<>("v1", System.currentTimeMillis() - 1, 5));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            // Each reader gets the stale value at once, however slow the refresh
+            assertEquals("v1", cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "v2";
+            }));
+        }
+        release.countDown();
+
+        assertTrue(awaitValue(1L, "v2"), "refreshed value written back");
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void hardExpiredKeyIsLoadedBeforeReturning() {
+        // Past the hard TTL the store no longer has the key at all
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v2", cache.get(1L, () -> { loads.incrementAndGet(); return "v2"; }));
+        assertEquals(1, loads.get());
+        assertEquals("v2", cache.get(1L, String.class));
+    }
+
+    @Test
+    void loadOlderThanTheRecordedVersionIsReturnedButNotKept() throws InterruptedException {
+        // A refresh read the row, then an update recorded a newer version and evicted the key
+        store.put(1L, new CachedValue<>("v1", System.currentTimeMillis() - 1, 5));
+        supersededValues.add("v1-reloaded");
+        CountDownLatch loaded = new CountDownLatch(1);
+
+        cache.get(1L, () -> {
+            loaded.countDown();
+            return "v1-reloaded";
+        });
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        assertTrue(awaitEvicted(1L), "stale write-back dropped");
+
+        // The same race on a miss: the caller still gets what it loaded, later readers reload
+        assertEquals("v1-reloaded", cache.get(1L, () -> "v1-reloaded"));
+        assertNull(store.get(1L));
+        assertEquals("v3", cache.get(1L, () -> "v3"));
+        assertEquals("v3", cache.get(1L, String.class));
+    }
+
+    @Test
+    void bulkWriteBackDropsValuesOlderThanTheRecordedVersion() {
+        // A multi-get read rows 1 and 2, then an update recorded a newer version of 2 and evicted it
+        supersededValues.add("v2-old");
+
+        cache.putAll(Map.of(1L, "v1", 2L, "v2-old"));
+
+        assertEquals("v1", cache.get(1L, String.class));
+        assertNull(store.get(2L));
+    }
+
+    @Test
+    void bulkReadReportsEntriesDueForRefreshAsMisses() {
+        cache.put(1L, "fresh");
+        store.put(2L, new CachedValue<>("stale", System.currentTimeMillis() - 1, 5));
+
+        Map<Object, ?> hits = cache.getAll(List.of(1L, 2L, 3L));
+        assertEquals(Set.of(1L), hits.keySet());
+    }
+
+    private boolean awaitValue(Object key, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (expected.equals(cache.get(key, Object.class))) return true;
+            Thread.sleep(5);
+        }
+        return false;
+    }
+
+    private boolean awaitEvicted(Object key) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (store.get(key) == null) return true;
+            Thread.sleep(5);
+        }
+        return false;
+    }
+}
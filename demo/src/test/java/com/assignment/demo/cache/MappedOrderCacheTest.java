@@ -0,0 +1,139 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MappedOrderCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<MappedOrderCache> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeAll() {
+        opened.forEach(MappedOrderCache::close);
+    }
+
+    @Test
+    void storesEveryField() {
+        MappedOrderCache cache = open(1024);
+        OrderResponse order = order(42L, 3L, OrderStatus.PROCESSING);
+
+        cache.put(order);
+
+        assertEquals(order, cache.get(42L));
+        assertNull(cache.get(43L));
+    }
+
+    @Test
+    void entriesSurviveReopen() {
+        MappedOrderCache first = open(1024);
+        first.put(order(7L, 1L, OrderStatus.COMPLETED));
+        first.close();
+
+        assertEquals(order(7L, 1L, OrderStatus.COMPLETED), open(1024).get(7L));
+    }
+
+    @Test
+    void olderVersionDoesNotReplaceNewer() {
+        MappedOrderCache cache = open(1024);
+        cache.put(order(5L, 4L, OrderStatus.PROCESSING));
+        cache.put(order(5L, 3L, OrderStatus.NEW));
+
+        assertEquals(4L, cache.get(5L).getVersion());
+
+        cache.remove(5L);
+        assertNull(cache.get(5L));
+    }
+
+    @Test
+    void fullBucketGivesUpOldestOrder() {
+        // One bucket: every id lands in the same slots
+        MappedOrderCache cache = open(MappedOrderCache.BUCKET_SLOTS);
+        for (long id = 1; id <= MappedOrderCache.BUCKET_SLOTS + 1; id++) {
+            cache.put(order(id, 0L, OrderStatus.NEW));
+        }
+
+        assertNull(cache.get(1L));
+        for (long id = 2; id <= MappedOrderCache.BUCKET_SLOTS + 1; id++) {
+            assertNotNull(cache.get(id));
+        }
+    }
+
+    @Test
+    void tornSlotReadsAsMiss() throws IOException {
+        MappedOrderCache cache = open(MappedOrderCache.BUCKET_SLOTS);
+        cache.put(order(9L, 2L, OrderStatus.NEW));
+        cache.close();
+
+        // First slot follows the 64-byte header; flip a byte of its price
+        try (FileChannel channel = FileChannel.open(file(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0x5A}), 64 + 26);
+        }
+
+        assertNull(open(MappedOrderCache.BUCKET_SLOTS).get(9L));
+    }
+
+    @Test
+    void fileWithOtherSizeStartsEmpty() {
+        MappedOrderCache first = open(1024);
+        first.put(order(11L, 1L, OrderStatus.NEW));
+        first.close();
+
+        assertNull(open(2048).get(11L));
+    }
+
+    @Test
+    void disabledCacheHoldsNothing() {
+        MappedOrderCache cache = new MappedOrderCache(false, file().toString(), 1024);
+        cache.open();
+        cache.put(order(1L, 0L, OrderStatus.NEW));
+
+        assertNull(cache.get(1L));
+    }
+
+    private MappedOrderCache open(int slots) {
+        MappedOrderCache cache = new MappedOrderCache(true, file().toString(), slots);
+        cache.open();
+        opened.add(cache);
+        return cache;
+    }
+
+    private Path file() {
+        return dir.resolve("orders.cache");
+    }
+
+    private static OrderResponse order(long orderId, long version, OrderStatus status) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .orderType(OrderType.SELL)
+                .quantity(10)
+                .filledQuantity(4)
+                .price(new BigDecimal("250.1250"))
+                .status(status)
+                .userId(5L)
+                .createdAt(LocalDateTime.of(2025, 6, 1, 10, 0, 0, 123_456_000))
+                .updatedAt(LocalDateTime.of(2025, 6, 1, 10, 5, 0))
+                .version(version)
+                .build();
+    }
+}
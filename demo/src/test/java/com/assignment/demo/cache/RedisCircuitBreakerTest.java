@@ -0,0 +1,214 @@
+package com.assignment.demo.cache;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisCircuitBreakerTest {
+
+    private final RedisConnectionFactory rawFactory = mock(RedisConnectionFactory.class);
+    private final RedisConnection rawConnection = mock(RedisConnection.class);
+    private final RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+    private final RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+
+    RedisCircuitBreakerTest() {
+        when(rawFactory.getConnection()).thenReturn(rawConnection);
+        when(rawConnection.stringCommands()).thenReturn(stringCommands);
+        when(rawConnection.keyCommands()).thenReturn(keyCommands);
+    }
+
+    private RedisCircuitBreaker breaker(long openMs) {
+        return new RedisCircuitBreaker(rawFactory, true, 10, 5, 50, 80, 250, openMs, 100);
+    }
+
+    @Test
+    void opensOnFailureRateAndFailsFast() {
+        RedisCircuitBreaker breaker = breaker(60_000);
+        RedisConnectionFactory factory = new CircuitBreakingRedisConnectionFactory(rawFactory, breaker);
+        when(stringCommands.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RedisConnectionFailureException.class, () -> get(factory));
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+
+        // No further calls reach the raw connection while open
+        assertThrows(RedisConnectionFailureException.class, () -> get(factory));
+        verify(stringCommands, times(5)).get(any());
+    }
+
+    @Test
+    void openLogReportsTheWindowThatTrippedIt() {
+        Logger logger = (Logger) LoggerFactory.getLogger(RedisCircuitBreaker.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            RedisCircuitBreaker breaker = breaker(60_000);
+            breaker.record(1_000, false);
+            breaker.record(1_000_000_000L, false);
+            for (int i = 0; i < 3; i++) {
+                breaker.record(1_000, true);
+            }
+
+            assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+            assertEquals(List.of("Redis circuit opened: 3 failed and 1 slow of the last 5 commands"),
+                    appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    @Test
+    void staysClosedBelowThresholds() {
+        RedisCircuitBreaker breaker = breaker(60_000);
+        for (int i = 0; i < 100; i++) {
+            breaker.record(1_000, i % 3 == 0);
+        }
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        RedisCircuitBreaker breaker = breaker(60_000);
+        for (int i = 0; i < 5; i++) {
+            breaker.record(1_000_000_000L, false);
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void probeClosesAfterDeletingDirtyKeys() {
+        RedisCircuitBreaker breaker = breaker(0);
+        AtomicInteger closed = new AtomicInteger();
+        breaker.onClose(closed::incrementAndGet);
+        trip(breaker);
+        breaker.markDirty("orders::1");
+        breaker.markDirty("user:7:order_count");
+
+        when(rawConnection.ping()).thenThrow(new RedisConnectionFailureException("still down"));
+        breaker.probe();
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+        verify(keyCommands, never()).del(any(byte[][].class));
+
+        doReturn("PONG").when(rawConnection).ping();
+        breaker.probe();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.dirtyKeyCount());
+        assertEquals(1, closed.get());
+        verify(keyCommands).del(any(byte[][].class));
+    }
+
+    @Test
+    void probeWaitsForOpenPeriod() {
+        RedisCircuitBreaker breaker = breaker(60_000);
+        trip(breaker);
+        breaker.probe();
+        verify(rawConnection, never()).ping();
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void degradedCacheServesLocallyWhileOpenAndDropsLocalOnClose() {
+        RedisCircuitBreaker breaker = breaker(0);
+        ConcurrentMapCache redis = new ConcurrentMapCache("orders");
+        DegradedModeCache cache = new DegradedModeCache(redis, breaker, 2);
+        cache.put(1L, "from-redis");
+
+        trip(breaker);
+        assertNull(cache.get(1L), "Redis is not consulted while open");
+        cache.put(1L, "local");
+        cache.put(2L, null);
+        assertEquals("local", cache.get(1L).get());
+        assertTrue(cache.get(2L) != null && cache.get(2L).get() == null, "negative entries are kept");
+        cache.put(3L, "evicts-eldest");
+        assertNull(cache.get(1L), "bounded to maxEntries");
+
+        cache.evict(2L);
+        assertNull(cache.get(2L));
+        assertEquals("from-redis", redis.get(1L).get(), "Redis itself untouched while open");
+
+        when(rawConnection.ping()).thenReturn("PONG");
+        breaker.probe();
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(0, breaker.dirtyKeyCount());
+        assertEquals("from-redis", cache.get(1L).get());
+        verify(keyCommands).del(any(byte[][].class));
+    }
+
+    @Test
+    void degradedCacheServesBulkOperationsLocallyWhileOpen() {
+        RedisCircuitBreaker breaker = breaker(60_000);
+        DegradedModeCache cache = new DegradedModeCache(new ConcurrentMapCache("orders"), breaker, 10);
+        cache.putAll(Map.of(1L, "one"));
+
+        trip(breaker);
+        Map<Long, String> entries = new HashMap<>();
+        entries.put(2L, "two");
+        entries.put(3L, null);
+        cache.putAll(entries);
+
+        Map<Object, Cache.ValueWrapper> found = cache.getAll(List.of(1L, 2L, 3L));
+        assertEquals(Set.of(2L, 3L), found.keySet(), "only local entries while open");
+        assertEquals("two", found.get(2L).get());
+        assertNull(found.get(3L).get(), "negative entries are kept");
+        assertEquals(2, breaker.dirtyKeyCount());
+    }
+
+    @Test
+    void evictIfPresentReportsWhetherAnEntryWasRemoved() {
+        RedisCircuitBreaker breaker = breaker(60_000);
+        DegradedModeCache cache = new DegradedModeCache(new ConcurrentMapCache("orders"), breaker, 10);
+        cache.put(1L, "one");
+
+        assertTrue(cache.evictIfPresent(1L), "removed from Redis");
+        assertFalse(cache.evictIfPresent(1L), "already gone");
+
+        trip(breaker);
+        cache.put(2L, "local");
+        assertTrue(cache.evictIfPresent(2L), "removed from the local LRU");
+        assertFalse(cache.evictIfPresent(3L), "Redis key only marked dirty while open");
+    }
+
+    private static void trip(RedisCircuitBreaker breaker) {
+        for (int i = 0; i < 5; i++) {
+            breaker.record(1_000, true);
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private static byte[] get(RedisConnectionFactory factory) {
+        try (RedisConnection connection = factory.getConnection()) {
+            return connection.stringCommands().get("k".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
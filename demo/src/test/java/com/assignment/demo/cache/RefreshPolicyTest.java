@@ -0,0 +1,79 @@
+package com.assignment.demo.cache;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshPolicyTest {
+
+    private static final int READS = 2_000;
+
+    private final RefreshPolicy policy = new RefreshPolicy(true, 1.0, 1000);
+
+    @Test
+    void freshEntriesAreNotRefreshedAndExpiredOnesAlwaysAre() {
+        CachedValue<String> fresh = policy.wrap("v", Duration.ofSeconds(60), 5);
+        CachedValue<String> expired = new CachedValue<>("v", System.currentTimeMillis() - 1, 5);
+
+        assertEquals(0, dueCount(fresh));
+        assertEquals(READS, dueCount(expired));
+    }
+
+    @Test
+    void readsNearTheSoftExpiryRefreshEarlyAtRandom() {
+        // One minimum delta before the soft expiry, each read refreshes with probability 1/e; a 5ms load
+        // time alone would make that window a few milliseconds wide
+        CachedValue<String> nearlyStale = policy.wrap("v", Duration.ofMillis(1000), 5);
+
+        int due = dueCount(nearlyStale);
+        assertTrue(due > READS / 10 && due < READS * 7 / 10, due + " of " + READS + " reads refreshed early");
+    }
+
+    @Test
+    void slowLoadsStartRefreshingEarlier() {
+        CachedValue<String> cheap = policy.wrap("v", Duration.ofSeconds(5), 5);
+        CachedValue<String> expensive = policy.wrap("v", Duration.ofSeconds(5), 5_000);
+
+        assertTrue(dueCount(expensive) > dueCount(cheap) + READS / 10);
+    }
+
+    @Test
+    void withoutStaleWhileRevalidateNothingIsRefreshed() {
+        RefreshPolicy disabled = new RefreshPolicy(false, 1.0, 1000);
+        CachedValue<String> expired = new CachedValue<>("v", System.currentTimeMillis() - 1, 5);
+
+        for (int i = 0; i < READS; i++) {
+            assertFalse(disabled.isRefreshDue(expired));
+        }
+    }
+
+    @Test
+    void orderHardTtlFallsBackToTheSoftTtlWithoutStaleWhileRevalidate() {
+        OrderResponse open = OrderResponse.builder().orderId(1L).status(OrderStatus.NEW).build();
+        OrderResponse done = OrderResponse.builder().orderId(1L).status(OrderStatus.COMPLETED).build();
+
+        OrderCacheTtls swr = new OrderCacheTtls(60, 120, 10, 86400, true);
+        assertEquals(Duration.ofSeconds(60), swr.softTtl(open));
+        assertEquals(Duration.ofSeconds(120), swr.hardTtl(open));
+
+        OrderCacheTtls plain = new OrderCacheTtls(60, 120, 10, 86400, false);
+        assertEquals(Duration.ofSeconds(60), plain.hardTtl(open));
+        // Negative and terminal entries keep their own TTLs either way
+        assertEquals(Duration.ofSeconds(10), plain.hardTtl(null));
+        assertEquals(Duration.ofSeconds(86400), plain.hardTtl(done));
+    }
+
+    private int dueCount(CachedValue<?> entry) {
+        int due = 0;
+        for (int i = 0; i < READS; i++) {
+            if (policy.isRefreshDue(entry)) due++;
+        }
+        return due;
+    }
+}
@@ -0,0 +1,152 @@
+package com.assignment.demo.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    // Lease disabled, so Redis is never touched
+    private final SingleFlight singleFlight = new SingleFlight(null, false, 2000, 500, 20, 1, 10);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        singleFlight.shutdown();
+    }
+
+    @Test
+    void concurrentCallersForOneKeyShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+
+        List<Future<Object>> results = startCallers("orders::1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return value;
+        });
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertSame(value, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void waitersSeeTheLeadersException() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Object>> results = startCallers("orders::2", () -> {
+            loads.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("db down");
+        });
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException, "got " + e.getCause());
+            assertEquals("db down", e.getCause().getMessage());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void keysDoNotShareLoadsAndFinishedFlightsAreNotReused() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("a", singleFlight.execute("k1", () -> { loads.incrementAndGet(); return "a"; }));
+        assertEquals("b", singleFlight.execute("k2", () -> { loads.incrementAndGet(); return "b"; }));
+        // The first flight for k1 is over, so the next call loads again
+        assertEquals("c", singleFlight.execute("k1", () -> { loads.incrementAndGet(); return "c"; }));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void leaderSkipsTheLoadWhenTheRecheckFindsAValue() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("cached", singleFlight.execute("k", () -> "cached", () -> { loads.incrementAndGet(); return "db"; }));
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void refreshRunsOncePerKeyWhileInFlight() throws Exception {
+        AtomicInteger refreshes = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        Runnable refresher = () -> {
+            refreshes.incrementAndGet();
+            await(release);
+            done.countDown();
+        };
+        for (int i = 0; i < 10; i++) {
+            singleFlight.refreshAsync("orders::3", refresher);
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, refreshes.get());
+    }
+
+    // Starts every caller and returns once all of them are blocked: the leader in the loader,
+    // the rest waiting on its future
+    private List<Future<Object>> startCallers(String key, Supplier<Object> loader) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(CALLERS);
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread());
+                }
+                started.countDown();
+                return singleFlight.execute(key, loader);
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!allBlocked(threads)) {
+            if (System.nanoTime() > deadline) fail("callers did not block on the flight");
+            Thread.sleep(5);
+        }
+        return results;
+    }
+
+    private static boolean allBlocked(List<Thread> threads) {
+        synchronized (threads) {
+            return threads.stream().allMatch(t -> t.getState() == Thread.State.WAITING);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
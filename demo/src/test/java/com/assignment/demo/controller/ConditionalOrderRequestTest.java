@@ -0,0 +1,204 @@
+package com.assignment.demo.controller;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.entity.UserRole;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.repository.UserRoleRepository;
+import com.assignment.demo.security.JwtService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Redis is unreachable here, so every conditional GET is answered from the full read rather than the
+// version stamp (the stamp itself is covered by OrderRedisServiceTest)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLWNvbmRpdGlvbmFsLXJlcXVlc3QtdGVzdHMtMzItYnl0ZXM="
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalOrderRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String bearer;
+    private String adminBearer;
+    private Long userId;
+
+    @BeforeAll
+    void createUsers() {
+        UserRole role = userRoleRepository.findByName(Role.USER)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(Role.USER).build()));
+        User user = userRepository.save(User.builder()
+                .fullName("Conditional User")
+                .email("user@conditional.test")
+                .password("x")
+                .roles(Set.of(role))
+                .build());
+        userId = user.getId();
+        bearer = "Bearer " + jwtService.generateToken(user);
+
+        UserRole adminRole = userRoleRepository.findByName(Role.ADMIN)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(Role.ADMIN).build()));
+        User admin = userRepository.save(User.builder()
+                .fullName("Conditional Admin")
+                .email("admin@conditional.test")
+                .password("x")
+                .roles(Set.of(adminRole))
+                .build());
+        adminBearer = "Bearer " + jwtService.generateToken(admin);
+    }
+
+    @Test
+    void unchangedOrderIsNotModifiedUntilItChanges() throws Exception {
+        Long orderId = newOrder();
+        String eTag = eTagOf(orderId);
+
+        mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        // Any listed tag, weak or strong, may match
+        mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1-1\", W/" + eTag))
+                .andExpect(status().isNotModified());
+
+        patchStatus(orderId, "PROCESSING", null).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+        assertNotEquals(eTag, eTagOf(orderId));
+    }
+
+    @Test
+    void terminalOrdersMayBeCachedByClients() throws Exception {
+        Long orderId = newOrder();
+        assertEquals("no-cache, private", cacheControlOf(orderId));
+
+        patchStatus(orderId, "CANCELLED", null).andExpect(status().isOk());
+        assertEquals("max-age=86400, private, immutable", cacheControlOf(orderId));
+    }
+
+    @Test
+    void updateWithTheCurrentETagAppliesAndReturnsTheNewOne() throws Exception {
+        Long orderId = newOrder();
+        String eTag = eTagOf(orderId);
+
+        String next = patchStatus(orderId, "PROCESSING", eTag)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSING"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, next);
+        assertEquals(next, eTagOf(orderId));
+
+        // "*" only requires the order to exist
+        patchStatus(orderId, "COMPLETED", "*").andExpect(status().isOk());
+    }
+
+    @Test
+    void updateWithAStaleETagFailsWithoutChangingTheOrder() throws Exception {
+        Long orderId = newOrder();
+        String stale = eTagOf(orderId);
+        patchStatus(orderId, "PROCESSING", stale).andExpect(status().isOk());
+
+        patchStatus(orderId, "CANCELLED", stale)
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").exists());
+        assertEquals(OrderStatus.PROCESSING, orderRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void ifMatchMustNameThisOrderWithAStrongTag() throws Exception {
+        Long orderId = newOrder();
+        Long otherId = newOrder();
+        String eTag = eTagOf(orderId);
+
+        patchStatus(orderId, "PROCESSING", eTagOf(otherId)).andExpect(status().isPreconditionFailed());
+        patchStatus(orderId, "PROCESSING", "W/" + eTag).andExpect(status().isPreconditionFailed());
+        patchStatus(orderId, "PROCESSING", "\"" + orderId + "-x\"").andExpect(status().isPreconditionFailed());
+        assertEquals(OrderStatus.NEW, orderRepository.findById(orderId).orElseThrow().getStatus());
+
+        // One matching tag in the list is enough
+        patchStatus(orderId, "PROCESSING", eTagOf(otherId) + ", " + eTag).andExpect(status().isOk());
+    }
+
+    private Long newOrder() {
+        return orderRepository.save(Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(1)
+                .price(BigDecimal.TEN)
+                .status(OrderStatus.NEW)
+                .userId(userId)
+                .build()).getOrderId();
+    }
+
+    private String eTagOf(Long orderId) throws Exception {
+        return mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String cacheControlOf(Long orderId) throws Exception {
+        return mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+    }
+
+    private ResultActions patchStatus(Long orderId, String status, String ifMatch) throws Exception {
+        var request = patch("/api/orders/" + orderId + "/status")
+                .header("Authorization", adminBearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\": \"" + status + "\"}");
+        if (ifMatch != null) request.header(HttpHeaders.IF_MATCH, ifMatch);
+        return mockMvc.perform(request);
+    }
+}
@@ -0,0 +1,210 @@
+package com.assignment.demo.controller;
+
+import com.assignment.demo.config.ColumnarOrderPageHttpMessageConverter;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.SparseOrderResponse;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.entity.UserRole;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.repository.UserRoleRepository;
+import com.assignment.demo.security.JwtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sparse;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXNwYXJzZS1maWVsZHNldC10ZXN0cy1vbmx5LTMyLWJ5"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SparseFieldsetTest {
+
+    private static final List<String> ALL_PROPERTIES = List.of("orderId", "orderType", "quantity", "price",
+            "filledQuantity", "status", "userId", "createdAt", "updatedAt", "version");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String bearer;
+    private Long userId;
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeAll
+    void createUserAndOrders() {
+        UserRole role = userRoleRepository.findByName(Role.USER)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(Role.USER).build()));
+        User user = userRepository.save(User.builder()
+                .fullName("Sparse User")
+                .email("user@sparse.test")
+                .password("x")
+                .roles(Set.of(role))
+                .build());
+        userId = user.getId();
+        bearer = "Bearer " + jwtService.generateToken(user);
+        for (int i = 0; i < 3; i++) {
+            orderIds.add(orderRepository.save(Order.builder()
+                    .orderType(OrderType.BUY)
+                    .quantity(5)
+                    .price(BigDecimal.TEN)
+                    .userId(userId)
+                    .build()).getOrderId());
+        }
+    }
+
+    @Test
+    void sparseListCarriesOnlyTheSelectedProperties() throws Exception {
+        JsonNode body = listOrders("/api/orders?fields=orderId,status");
+
+        assertEquals(3, body.get("content").size());
+        for (JsonNode order : body.get("content")) {
+            assertEquals(List.of("orderId", "status"), propertyNames(order));
+        }
+        assertEquals(List.of("orderId", "status"), propertyNames(body.get("fields")));
+    }
+
+    @Test
+    void fullListCarriesEveryProperty() throws Exception {
+        JsonNode body = listOrders("/api/orders");
+
+        for (JsonNode order : body.get("content")) {
+            assertEquals(ALL_PROPERTIES, propertyNames(order));
+        }
+        assertFalse(body.has("fields"));
+    }
+
+    @Test
+    void sparseRecentOrdersCarryOnlyTheSelectedProperties() throws Exception {
+        mockMvc.perform(get("/api/orders/" + userId + "/recent-orders").param("fields", "orderId")
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].orderId").exists())
+                .andExpect(jsonPath("$[0].status").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+    }
+
+    @Test
+    void acceptSelectsTheEncodingWithJsonAsTheDefault() throws Exception {
+        mockMvc.perform(get("/api/orders").header("Authorization", bearer).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content.length()").value(3));
+
+        mockMvc.perform(get("/api/orders").param("fields", "quantity,status").header("Authorization", bearer)
+                        .accept(ColumnarOrderPageHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ColumnarOrderPageHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content").doesNotExist())
+                .andExpect(jsonPath("$.columns.quantity").value(Matchers.contains(5, 5, 5)))
+                .andExpect(jsonPath("$.columns.status").value(Matchers.contains("NEW", "NEW", "NEW")))
+                .andExpect(jsonPath("$.columns.orderId").doesNotExist());
+
+        mockMvc.perform(get("/api/orders").header("Authorization", bearer).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void onlySparseResponsesDropNulls() throws Exception {
+        OrderResponse full = OrderResponse.builder().orderId(1L).build();
+        SparseOrderResponse sparse = new SparseOrderResponse();
+        sparse.setOrderId(1L);
+
+        JsonNode fullJson = objectMapper.readTree(objectMapper.writeValueAsString(full));
+        assertEquals(ALL_PROPERTIES, propertyNames(fullJson));
+        assertTrue(fullJson.get("updatedAt").isNull());
+        assertEquals(List.of("orderId"), propertyNames(objectMapper.readTree(objectMapper.writeValueAsString(sparse))));
+    }
+
+    @Test
+    void orderIdsAreSentAsExactStrings() throws Exception {
+        Long orderId = orderIds.get(0);
+        // Snowflake ids are past the range JavaScript numbers hold exactly
+        assertTrue(orderId > (1L << 53), "order id " + orderId);
+
+        JsonNode order = objectMapper.readTree(mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertTrue(order.get("orderId").isTextual());
+        assertEquals(String.valueOf(orderId), order.get("orderId").asText());
+        assertEquals(orderId, objectMapper.treeToValue(order, OrderResponse.class).getOrderId());
+
+        JsonNode columnar = objectMapper.readTree(mockMvc.perform(get("/api/orders").param("fields", "orderId")
+                        .header("Authorization", bearer)
+                        .accept(ColumnarOrderPageHttpMessageConverter.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        for (JsonNode id : columnar.get("columns").get("orderId")) {
+            assertTrue(id.isTextual());
+            assertTrue(orderIds.contains(Long.parseLong(id.asText())));
+        }
+    }
+
+    private JsonNode listOrders(String uri) throws Exception {
+        String json = mockMvc.perform(get(uri).header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(json);
+    }
+
+    private static List<String> propertyNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        if (node.isArray()) {
+            node.forEach(element -> names.add(element.asText()));
+        } else {
+            node.fieldNames().forEachRemaining(names::add);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,135 @@
+package com.assignment.demo.gateway;
+
+import com.assignment.demo.DemoApplication;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.entity.UserRole;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.gateway.client.OrderGatewayClient;
+import com.assignment.demo.matching.PriceTicks;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.repository.UserRoleRepository;
+import com.assignment.demo.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip latency of creating one order over {@code POST /api/orders} (HTTP/1.1, JSON, JWT filter,
+ * Spring MVC) against the binary gateway, from a single client against the same running application.
+ *
+ * Both paths end in the same {@code OrderService.createOrder}, so the difference is the transport and
+ * request handling. The application runs in-process on H2 with Redis unreachable (the circuit breaker
+ * keeps that cheap) and matching disabled.
+ *
+ * Run with: {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) com.assignment.demo.gateway.OrderGatewayBenchmark}
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class OrderGatewayBenchmark {
+
+    private static final String ORDER_JSON = "{\"orderType\":\"BUY\",\"quantity\":10,\"price\":250.125}";
+    private static final long PRICE_TICKS = PriceTicks.of(new BigDecimal("250.125"));
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest restRequest;
+    private OrderGatewayClient gatewayClient;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Command-line arguments, so they take precedence over application.properties
+        context = new SpringApplicationBuilder(DemoApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:gateway-bench;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.data.redis.host=localhost",
+                "--spring.data.redis.port=1",
+                "--app.matching.enabled=false",
+                "--app.orders.expiry.enabled=false",
+                "--app.gateway.enabled=true",
+                "--app.gateway.port=0",
+                "--app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLW9yZGVyLWdhdGV3YXktYmVuY2htYXJrLW9ubHktMzItYnl0ZXMh",
+                "--logging.level.root=WARN"
+        );
+
+        UserRoleRepository roles = context.getBean(UserRoleRepository.class);
+        UserRole role = roles.findByName(Role.USER)
+                .orElseGet(() -> roles.save(UserRole.builder().name(Role.USER).build()));
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .fullName("Bench Trader")
+                .email("bench@gateway.test")
+                .password("x")
+                .roles(Set.of(role))
+                .build());
+        String jwt = context.getBean(JwtService.class).generateToken(user);
+
+        int httpPort = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        restRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + httpPort + "/api/orders"))
+                .header("Authorization", "Bearer " + jwt)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(ORDER_JSON))
+                .build();
+        gatewayClient = OrderGatewayClient.connect("localhost", context.getBean(OrderGatewayServer.class).localPort(), jwt);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        gatewayClient.close();
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int rest() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(restRequest, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) throw new IllegalStateException("HTTP " + response.statusCode());
+        return response.body().length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public OrderGatewayClient.Ack gateway() throws IOException {
+        gatewayClient.sendNewOrder(OrderType.BUY, 10, PRICE_TICKS, 0);
+        OrderGatewayClient.Ack ack = gatewayClient.readAck();
+        if (!ack.isOk()) throw new IllegalStateException("Gateway result " + ack.result());
+        return ack;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderGatewayBenchmark.class.getSimpleName()).build()).run();
+    }
+}
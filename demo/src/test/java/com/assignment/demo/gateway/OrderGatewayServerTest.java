@@ -0,0 +1,229 @@
+package com.assignment.demo.gateway;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.entity.UserRole;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.gateway.client.OrderGatewayClient;
+import com.assignment.demo.matching.PriceTicks;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.repository.UserRoleRepository;
+import com.assignment.demo.security.JwtService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:gateway;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.orders.expiry.enabled=false",
+        "app.gateway.enabled=true",
+        "app.gateway.port=0",
+        "app.gateway.max-in-flight=4",
+        "app.gateway.max-sessions=4",
+        "app.gateway.logon-timeout-ms=2000",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLW9yZGVyLWdhdGV3YXktdGVzdHMtb25seS0zMi1ieXRlcyE="
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderGatewayServerTest {
+
+    @Autowired
+    private OrderGatewayServer server;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String userToken;
+    private String adminToken;
+
+    @BeforeAll
+    void createUsers() {
+        userToken = jwtService.generateToken(user("trader@gateway.test", Role.USER));
+        adminToken = jwtService.generateToken(user("admin@gateway.test", Role.ADMIN));
+    }
+
+    @Test
+    void placesOrderThroughOrderService() throws IOException {
+        try (OrderGatewayClient client = connect(userToken)) {
+            OrderGatewayClient.Ack ack = client.newOrder(OrderType.BUY, 10, new BigDecimal("250.125"));
+
+            assertTrue(ack.isOk());
+            assertEquals(OrderStatus.NEW, ack.status());
+            Order order = orderRepository.findById(ack.orderId()).orElseThrow();
+            assertEquals(client.userId(), order.getUserId());
+            assertEquals(0, new BigDecimal("250.125").compareTo(order.getPrice()));
+            assertEquals(10, order.getQuantity());
+        }
+    }
+
+    @Test
+    void statusUpdatesFollowRestRoleRules() throws IOException {
+        long orderId;
+        try (OrderGatewayClient client = connect(userToken)) {
+            orderId = client.newOrder(OrderType.SELL, 5, BigDecimal.TEN).orderId();
+            assertEquals(GatewayProtocol.FORBIDDEN, client.updateStatus(orderId, OrderStatus.CANCELLED).result());
+        }
+        try (OrderGatewayClient admin = connect(adminToken)) {
+            OrderGatewayClient.Ack ack = admin.updateStatus(orderId, OrderStatus.PROCESSING);
+            assertTrue(ack.isOk());
+            assertEquals(OrderStatus.PROCESSING, ack.status());
+            assertEquals(1L, ack.version());
+
+            assertEquals(GatewayProtocol.INVALID, admin.updateStatus(orderId, OrderStatus.NEW).result());
+            assertEquals(GatewayProtocol.NOT_FOUND, admin.updateStatus(-1L, OrderStatus.CANCELLED).result());
+        }
+    }
+
+    @Test
+    void rejectsInvalidOrderAndKeepsSession() throws IOException {
+        try (OrderGatewayClient client = connect(userToken)) {
+            assertEquals(GatewayProtocol.INVALID, client.newOrder(OrderType.BUY, 0, BigDecimal.ONE).result());
+            assertTrue(client.newOrder(OrderType.BUY, 1, BigDecimal.ONE).isOk());
+        }
+    }
+
+    @Test
+    void rejectsLogonWithBadToken() {
+        assertThrows(IOException.class, () -> connect(userToken + "x"));
+    }
+
+    @Test
+    void pipelinedOrdersBeyondInFlightLimitAreAllAcknowledged() throws IOException {
+        int count = 50;
+        try (OrderGatewayClient client = connect(userToken)) {
+            Set<Long> sent = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                sent.add(client.sendNewOrder(OrderType.BUY, 1, PriceTicks.of(BigDecimal.ONE), 0));
+            }
+            Set<Long> acked = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                OrderGatewayClient.Ack ack = client.readAck();
+                assertTrue(ack.isOk());
+                acked.add(ack.clientRef());
+            }
+            assertEquals(sent, acked);
+        }
+    }
+
+    @Test
+    void messageBeforeLogonIsAnsweredAndTheSessionCanStillLogOn() throws IOException {
+        try (Socket socket = new Socket("localhost", server.localPort())) {
+            socket.setSoTimeout(5000);
+            ByteBuffer out = ByteBuffer.allocate(GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.MAX_BODY);
+            GatewayProtocol.putNewOrder(out, 7L, OrderType.BUY.ordinal(), 1, PriceTicks.of(BigDecimal.ONE), 0);
+            send(socket, out);
+
+            ByteBuffer ack = readFrame(socket);
+            assertEquals(GatewayProtocol.ACK, ack.get(0));
+            assertEquals(7L, ack.getLong(1));
+            assertEquals(GatewayProtocol.NOT_LOGGED_ON, ack.get(9));
+
+            GatewayProtocol.putLogon(out, userToken.getBytes(StandardCharsets.US_ASCII));
+            send(socket, out);
+            ByteBuffer logonAck = readFrame(socket);
+            assertEquals(GatewayProtocol.LOGON_ACK, logonAck.get(0));
+            assertEquals(GatewayProtocol.OK, logonAck.get(1));
+        }
+    }
+
+    @Test
+    void sessionWithoutLogonIsClosedAfterTheTimeout() throws IOException {
+        try (Socket socket = new Socket("localhost", server.localPort())) {
+            socket.setSoTimeout(10_000);
+            long start = System.nanoTime();
+            assertEquals(-1, socket.getInputStream().read());
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1500), "closed only after the logon timeout");
+        }
+    }
+
+    @Test
+    void connectionsBeyondMaxSessionsAreRefusedAtOnce() throws IOException {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                sockets.add(new Socket("localhost", server.localPort()));
+            }
+            // Accepted sessions answer a message before logon; the fifth connection is closed unanswered
+            ByteBuffer out = ByteBuffer.allocate(GatewayProtocol.LENGTH_PREFIX + GatewayProtocol.MAX_BODY);
+            for (Socket socket : sockets) {
+                socket.setSoTimeout(1000);
+                GatewayProtocol.putNewOrder(out, 1L, OrderType.BUY.ordinal(), 1, PriceTicks.of(BigDecimal.ONE), 0);
+                send(socket, out);
+                assertEquals(GatewayProtocol.NOT_LOGGED_ON, readFrame(socket).get(9));
+            }
+            try (Socket refused = new Socket("localhost", server.localPort())) {
+                refused.setSoTimeout(1000);
+                assertEquals(-1, refused.getInputStream().read());
+            }
+        } finally {
+            for (Socket socket : sockets) socket.close();
+        }
+    }
+
+    private static void send(Socket socket, ByteBuffer out) throws IOException {
+        out.flip();
+        socket.getOutputStream().write(out.array(), 0, out.limit());
+        out.clear();
+    }
+
+    // Returns the body of the next frame
+    private static ByteBuffer readFrame(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        byte[] body = new byte[in.readUnsignedShort()];
+        in.readFully(body);
+        return ByteBuffer.wrap(body);
+    }
+
+    private OrderGatewayClient connect(String token) throws IOException {
+        return OrderGatewayClient.connect("localhost", server.localPort(), token);
+    }
+
+    private User user(String email, Role roleName) {
+        UserRole role = userRoleRepository.findByName(roleName)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(roleName).build()));
+        return userRepository.save(User.builder()
+                .fullName(email)
+                .email(email)
+                .password("x")
+                .roles(Set.of(role))
+                .build());
+    }
+}
@@ -0,0 +1,116 @@
+package com.assignment.demo.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    void idsFromOneThreadAreStrictlyIncreasing() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(1);
+        long previous = generator.nextId();
+        for (int i = 0; i < 2_000_000; i++) {
+            long id = generator.nextId();
+            if (id <= previous) {
+                fail("id " + id + " not greater than previous " + previous + " at iteration " + i);
+            }
+            previous = id;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAndPerThreadMonotonicUnderContention() throws Exception {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(2);
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        int perThread = 250_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            long[][] results = new long[threads][perThread];
+            for (int t = 0; t < threads; t++) {
+                long[] out = results[t];
+                futures[t] = pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        out[i] = generator.nextId();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+
+            long[] all = new long[threads * perThread];
+            for (int t = 0; t < threads; t++) {
+                for (int i = 1; i < perThread; i++) {
+                    assertTrue(results[t][i] > results[t][i - 1], "ids within a thread must increase");
+                }
+                System.arraycopy(results[t], 0, all, t * perThread, perThread);
+            }
+            Arrays.sort(all);
+            for (int i = 1; i < all.length; i++) {
+                if (all[i] == all[i - 1]) {
+                    fail("duplicate id " + all[i]);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsFromDifferentNodesNeverCollide() {
+        SnowflakeIdGenerator a = SnowflakeIdGenerator.forNode(3);
+        SnowflakeIdGenerator b = SnowflakeIdGenerator.forNode(4);
+        long[] ids = new long[400_000];
+        for (int i = 0; i < ids.length; i += 2) {
+            ids[i] = a.nextId();
+            ids[i + 1] = b.nextId();
+        }
+        Arrays.sort(ids);
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i] != ids[i - 1], "duplicate id across nodes");
+        }
+    }
+
+    @Test
+    void idEncodesNodeAndCurrentTime() {
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forNode(SnowflakeIdGenerator.MAX_NODE_ID);
+        Instant before = Instant.now();
+        long id = generator.nextId();
+
+        assertTrue(id > 0, "ids must be positive");
+        assertEquals(SnowflakeIdGenerator.MAX_NODE_ID, SnowflakeIdGenerator.nodeIdOf(id));
+        Duration skew = Duration.between(before, SnowflakeIdGenerator.timestampOf(id)).abs();
+        assertTrue(skew.toMillis() < 1_000, "timestamp should be close to now, skew was " + skew);
+    }
+
+    @Test
+    void generatorIsSharedPerNode() {
+        assertSame(SnowflakeIdGenerator.forNode(5), SnowflakeIdGenerator.forNode(5));
+    }
+
+    @Test
+    void rejectsOutOfRangeNodeIds() {
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.forNode(-1));
+        assertThrows(IllegalArgumentException.class, () -> SnowflakeIdGenerator.forNode(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+}
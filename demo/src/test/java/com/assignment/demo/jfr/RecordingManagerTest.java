@@ -0,0 +1,80 @@
+package com.assignment.demo.jfr;
+
+import com.assignment.demo.dto.RecordingRequest;
+import com.assignment.demo.dto.RecordingStatusResponse;
+import com.assignment.demo.exception.ConflictException;
+import jakarta.persistence.EntityNotFoundException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordingManagerTest {
+
+    private final RecordingManager manager = new RecordingManager(0, 60);
+
+    @AfterEach
+    void tearDown() {
+        manager.closeCurrent();
+    }
+
+    @Test
+    void recordsOrderServiceEventsAboveTheirThresholds() throws Exception {
+        RecordingRequest req = new RecordingRequest();
+        req.setProfile(false);
+        req.setThresholdsMs(Map.of("RedisCommand", 50L));
+        RecordingStatusResponse status = manager.start(req);
+        assertEquals("RUNNING", status.getState());
+        assertEquals(0L, status.getThresholdsMs().get("OrderCreate"));
+        assertEquals(50L, status.getThresholdsMs().get("RedisCommand"));
+
+        OrderCreateEvent create = new OrderCreateEvent();
+        create.begin();
+        create.userId = 7;
+        create.orderId = 42;
+        create.commit();
+
+        // Faster than its 50 ms threshold, so dropped
+        RedisCommandEvent redis = new RedisCommandEvent();
+        redis.begin();
+        redis.command = "get";
+        redis.commit();
+
+        Path file = manager.stop();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("com.assignment.demo."))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals(OrderCreateEvent.NAME, events.get(0).getEventType().getName());
+            assertEquals(42L, events.get(0).getLong("orderId"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertThrows(EntityNotFoundException.class, manager::status);
+    }
+
+    @Test
+    void allowsOneRecordingAtATime() {
+        RecordingRequest req = new RecordingRequest();
+        req.setProfile(false);
+        manager.start(req);
+        assertThrows(ConflictException.class, () -> manager.start(req));
+    }
+
+    @Test
+    void rejectsUnknownEventNames() {
+        RecordingRequest req = new RecordingRequest();
+        req.setThresholdsMs(Map.of("Redis", 5L));
+        assertThrows(IllegalArgumentException.class, () -> manager.start(req));
+        assertThrows(EntityNotFoundException.class, manager::status);
+    }
+}
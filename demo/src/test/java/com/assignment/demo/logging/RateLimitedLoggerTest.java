@@ -0,0 +1,57 @@
+package com.assignment.demo.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitedLoggerTest {
+
+    private static final String FORMAT = "Redis GET error for user order count, userId '{}': {}";
+
+    private final Logger log = mock(Logger.class);
+
+    RateLimitedLoggerTest() {
+        when(log.isWarnEnabled()).thenReturn(true);
+    }
+
+    @Test
+    void logsOncePerTemplateAndErrorClassPerInterval() {
+        RateLimitedLogger limited = new RateLimitedLogger(log, Duration.ofHours(1));
+        RuntimeException down = new RedisConnectionFailureException("down");
+
+        for (long userId = 0; userId < 100; userId++) {
+            limited.warn(down, FORMAT, userId, down.getMessage());
+        }
+        verify(log, times(1)).warn(FORMAT, new Object[]{0L, "down"});
+
+        // A different error class on the same path is reported separately
+        IllegalStateException other = new IllegalStateException("bad");
+        limited.warn(other, FORMAT, 7L, other.getMessage());
+        verify(log).warn(FORMAT, new Object[]{7L, "bad"});
+    }
+
+    @Test
+    void reportsSuppressedCountWithTheNextLine() throws InterruptedException {
+        RateLimitedLogger limited = new RateLimitedLogger(log, Duration.ofMillis(20));
+        RuntimeException down = new RedisConnectionFailureException("down");
+
+        limited.warn(down, FORMAT, 1L, "down");
+        limited.warn(down, FORMAT, 2L, "down");
+        limited.warn(down, FORMAT, 3L, "down");
+        Thread.sleep(40);
+        limited.warn(down, FORMAT, 4L, "down");
+
+        verify(log).warn(FORMAT, new Object[]{1L, "down"});
+        verify(log).warn(FORMAT + " [{} similar suppressed]", new Object[]{4L, "down", 2L});
+        verify(log, times(2)).warn(anyString(), any(Object[].class));
+    }
+}
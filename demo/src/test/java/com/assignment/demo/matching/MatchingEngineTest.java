@@ -0,0 +1,181 @@
+package com.assignment.demo.matching;
+
+import com.assignment.demo.dto.CreateOrderRequest;
+import com.assignment.demo.dto.OrderBookDepthResponse;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.UpdateOrderStatusRequest;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:matching;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=true",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLW1hdGNoaW5nLXRlc3RzLW9ubHktMzItYnl0ZXMh"
+})
+class MatchingEngineTest {
+
+    @TestConfiguration
+    static class FillCollector {
+        final List<OrderFill> fills = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void on(OrderFill fill) {
+            fills.add(fill);
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FillCollector collector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void crossingOrdersFillPartiallyAndPersist() throws Exception {
+        Authentication seller = asUser(userRepository.save(User.builder()
+                .fullName("Seller").email("seller@match.test").password("x").build()));
+        Authentication buyer = asUser(userRepository.save(User.builder()
+                .fullName("Buyer").email("buyer@match.test").password("x").build()));
+
+        OrderResponse ask = orderService.createOrder(request("SELL", 10, "101.50"), seller);
+        OrderResponse bid = orderService.createOrder(request("BUY", 4, "102.00"), buyer);
+
+        Order askRow = awaitFilled(ask.getOrderId(), 4);
+        Order bidRow = awaitFilled(bid.getOrderId(), 4);
+
+        assertEquals(OrderStatus.PROCESSING, askRow.getStatus());
+        assertEquals(OrderStatus.COMPLETED, bidRow.getStatus());
+        assertTrue(bidRow.getVersion() > bid.getVersion(), "fills bump the optimistic-lock version");
+
+        // Published after the commit and cache invalidation, so it may trail the row update
+        OrderFill fill = awaitFill(bid.getOrderId());
+        assertEquals(ask.getOrderId(), fill.makerOrderId());
+        assertEquals(4, fill.quantity());
+        assertEquals(0, new BigDecimal("101.50").compareTo(fill.price()), "executes at the resting price");
+
+        OrderBookDepthResponse depth = orderService.getOrderBookDepth(5);
+        assertEquals(0, new BigDecimal("101.50").compareTo(depth.getBestAsk()));
+        assertNull(depth.getBestBid());
+        assertEquals(1, depth.getAsks().size());
+        assertEquals(6, depth.getAsks().get(0).getQuantity());
+        assertEquals(0, new BigDecimal("609.00").compareTo(depth.getAsks().get(0).getNotional()));
+        assertEquals(0, new BigDecimal("609.00").compareTo(depth.getAsks().get(0).getCumulativeNotional()));
+    }
+
+    @Test
+    void fillAgainstAnOrderAlreadyCancelledInTheDatabaseIsRejected() throws Exception {
+        Authentication seller = asUser(userRepository.save(User.builder()
+                .fullName("Seller").email("closed-seller@match.test").password("x").build()));
+        Authentication buyer = asUser(userRepository.save(User.builder()
+                .fullName("Buyer").email("closed-buyer@match.test").password("x").build()));
+
+        OrderResponse ask = orderService.createOrder(request("SELL", 5, "50.00"), seller);
+        // Closed in the database only, like a cancel committed on another instance or still queued
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELLED', version = version + 1 WHERE order_id = ?",
+                ask.getOrderId());
+        OrderResponse bid = orderService.createOrder(request("BUY", 5, "50.00"), buyer);
+
+        // The book matched the pair, the persister rejected the fill and the engine handed the units
+        // back: the bid rests in full and the cancelled ask has left the book
+        OrderBookDepthResponse depth = awaitBestBid(new BigDecimal("50.00"));
+        assertEquals(5, depth.getBids().get(0).getQuantity());
+        assertTrue(depth.getAsks().stream().noneMatch(level -> level.getPrice().compareTo(new BigDecimal("50.00")) == 0));
+
+        Order bidRow = orderRepository.findById(bid.getOrderId()).orElseThrow();
+        assertEquals(OrderStatus.NEW, bidRow.getStatus());
+        assertEquals(0, bidRow.getFilledQuantity());
+        Order askRow = orderRepository.findById(ask.getOrderId()).orElseThrow();
+        assertEquals(OrderStatus.CANCELLED, askRow.getStatus());
+        assertEquals(0, askRow.getFilledQuantity());
+        assertTrue(collector.fills.stream().noneMatch(fill -> fill.makerOrderId() == ask.getOrderId()));
+
+        // Leave the book as the other tests expect it
+        orderService.updateOrderStatus(bid.getOrderId(), cancel(), null, buyer);
+        awaitBestBid(null);
+    }
+
+    private OrderBookDepthResponse awaitBestBid(BigDecimal price) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            OrderBookDepthResponse depth = orderService.getOrderBookDepth(5);
+            BigDecimal best = depth.getBestBid();
+            if (price == null ? best == null : best != null && price.compareTo(best) == 0) return depth;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("best bid never reached " + price);
+    }
+
+    private Order awaitFilled(Long orderId, int filled) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            if (order.getFilledQuantity() == filled) return order;
+            Thread.sleep(50);
+        }
+        throw new AssertionError("order " + orderId + " not filled to " + filled);
+    }
+
+    private OrderFill awaitFill(long takerOrderId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            for (OrderFill fill : collector.fills) {
+                if (fill.takerOrderId() == takerOrderId) return fill;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("no fill published for taker " + takerOrderId);
+    }
+
+    private static CreateOrderRequest request(String type, int quantity, String price) {
+        CreateOrderRequest req = new CreateOrderRequest();
+        req.setOrderType(type);
+        req.setQuantity(quantity);
+        req.setPrice(new BigDecimal(price));
+        return req;
+    }
+
+    private static UpdateOrderStatusRequest cancel() {
+        UpdateOrderStatusRequest req = new UpdateOrderStatusRequest();
+        req.setStatus("CANCELLED");
+        return req;
+    }
+
+    private static Authentication asUser(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.assignment.demo.matching;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate notional (sum of price × quantity) over an in-memory column of orders: {@link BigDecimal}
+ * prices as they come out of JPA, against the same prices as {@link PriceTicks} longs.
+ *
+ * Prices carry up to four decimals between 0.0001 and 10,000 and quantities are 1..1,000, so the total
+ * fits a long and both paths return the same value (checked once at setup).
+ *
+ * Run with: {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) com.assignment.demo.matching.NotionalBenchmark}
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class NotionalBenchmark {
+
+    @Param({"10000000"})
+    public int orders;
+
+    private BigDecimal[] prices;
+    private long[] priceTicks;
+    private int[] quantities;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        SplittableRandom random = new SplittableRandom(11);
+        prices = new BigDecimal[orders];
+        priceTicks = new long[orders];
+        quantities = new int[orders];
+        for (int i = 0; i < orders; i++) {
+            long ticks = random.nextLong(1, 100_000_000L);
+            // Same representation as a DECIMAL(19,4) value read through JDBC
+            prices[i] = BigDecimal.valueOf(ticks, PriceTicks.SCALE);
+            priceTicks[i] = ticks;
+            quantities[i] = random.nextInt(1, 1_001);
+        }
+        if (bigDecimal().compareTo(PriceTicks.toPrice(scaledLong())) != 0) {
+            throw new IllegalStateException("BigDecimal and PriceTicks totals differ");
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            total = total.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long scaledLong() {
+        long total = 0;
+        for (int i = 0; i < priceTicks.length; i++) {
+            total = PriceTicks.add(total, PriceTicks.notional(priceTicks[i], quantities[i]));
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotionalBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.assignment.demo.matching;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-core matching throughput and per-order latency of {@link OrderBook}.
+ *
+ * Each operation submits one limit order drawn from a pre-generated stream around a fixed mid price
+ * (so roughly half of them cross and trade, the rest rest) and cancels an older order, keeping the
+ * book at a steady depth of about {@code resting} orders.
+ *
+ * Run with: {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) com.assignment.demo.matching.OrderBookBenchmark}
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBookBenchmark {
+
+    private static final int STREAM_SIZE = 1 << 20;
+    private static final long MID = 1_000_000L;
+
+    @Param({"10000"})
+    public int resting;
+
+    private final boolean[] sides = new boolean[STREAM_SIZE];
+    private final long[] prices = new long[STREAM_SIZE];
+    private final int[] quantities = new int[STREAM_SIZE];
+
+    private OrderBook book;
+    private long nextId;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < STREAM_SIZE; i++) {
+            boolean buy = random.nextBoolean();
+            // Buys centred slightly below mid and sells slightly above, with overlap, so a share cross
+            long offset = random.nextLong(-50, 50);
+            sides[i] = buy;
+            prices[i] = buy ? MID - 10 + offset : MID + 10 + offset;
+            quantities[i] = 1 + random.nextInt(100);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillBook() {
+        book = new OrderBook(resting * 2);
+        nextId = 1;
+        cursor = 0;
+        for (int i = 0; i < resting; i++) {
+            submit(FillListener.NONE);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int throughput() {
+        return submit(FillListener.NONE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int latency() {
+        return submit(FillListener.NONE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int throughputWithFillConsumer(Blackhole blackhole) {
+        return submit((taker, takerUser, takerFilled, takerRemaining,
+                       maker, makerUser, makerFilled, makerRemaining, price, quantity) -> blackhole.consume(price));
+    }
+
+    private int submit(FillListener listener) {
+        int i = cursor;
+        cursor = (cursor + 1) & (STREAM_SIZE - 1);
+        long id = nextId++;
+        int remaining = book.match(id, id, sides[i], prices[i], quantities[i], 0, listener);
+        // Keep the book at a steady depth: orders older than the window are cancelled if still resting
+        book.cancel(id - resting);
+        return remaining;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderBookBenchmark.class.getSimpleName()).build()).run();
+    }
+}
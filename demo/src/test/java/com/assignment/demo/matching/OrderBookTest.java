@@ -0,0 +1,150 @@
+package com.assignment.demo.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+
+    private record Fill(long taker, long maker, long price, int quantity, int takerRemaining, int makerRemaining) {
+    }
+
+    private final List<Fill> fills = new ArrayList<>();
+    private final FillListener recorder = (taker, takerUser, takerFilled, takerRemaining,
+                                           maker, makerUser, makerFilled, makerRemaining, price, quantity) ->
+            fills.add(new Fill(taker, maker, price, quantity, takerRemaining, makerRemaining));
+
+    @Test
+    void nonCrossingOrdersRest() {
+        OrderBook book = new OrderBook();
+        assertEquals(10, book.match(1, 1, true, 100, 10, 0, recorder));
+        assertEquals(5, book.match(2, 2, false, 101, 5, 0, recorder));
+
+        assertTrue(fills.isEmpty());
+        assertEquals(100, book.bestBid());
+        assertEquals(101, book.bestAsk());
+        assertEquals(2, book.restingOrders());
+    }
+
+    @Test
+    void executesAtRestingPriceBestLevelFirst() {
+        OrderBook book = new OrderBook();
+        book.match(1, 1, false, 103, 5, 0, recorder);
+        book.match(2, 1, false, 101, 5, 0, recorder);
+        book.match(3, 1, false, 102, 5, 0, recorder);
+
+        int remaining = book.match(4, 2, true, 102, 12, 0, recorder);
+
+        assertEquals(List.of(
+                new Fill(4, 2, 101, 5, 7, 0),
+                new Fill(4, 3, 102, 5, 2, 0)), fills);
+        assertEquals(2, remaining);
+        assertEquals(102, book.bestBid());
+        assertEquals(103, book.bestAsk());
+    }
+
+    @Test
+    void fillsWithinALevelInTimePriority() {
+        OrderBook book = new OrderBook();
+        book.match(1, 1, true, 100, 3, 0, recorder);
+        book.match(2, 1, true, 100, 3, 0, recorder);
+        book.match(3, 1, true, 100, 3, 0, recorder);
+
+        assertEquals(0, book.match(4, 2, false, 99, 7, 0, recorder));
+
+        assertEquals(List.of(
+                new Fill(4, 1, 100, 3, 4, 0),
+                new Fill(4, 2, 100, 3, 1, 0),
+                new Fill(4, 3, 100, 1, 0, 2)), fills);
+        assertTrue(book.contains(3));
+        assertFalse(book.contains(1));
+        assertEquals(1, book.restingOrders());
+    }
+
+    @Test
+    void cancelRemovesOrderAndEmptyLevel() {
+        OrderBook book = new OrderBook();
+        book.match(1, 1, false, 105, 5, 0, recorder);
+        book.match(2, 1, false, 106, 5, 0, recorder);
+
+        assertTrue(book.cancel(1));
+        assertFalse(book.cancel(1));
+        assertEquals(106, book.bestAsk());
+
+        book.match(3, 2, true, 105, 5, 0, recorder);
+        assertTrue(fills.isEmpty(), "cancelled order must not trade");
+    }
+
+    @Test
+    void snapshotAggregatesLevelsBestFirst() {
+        OrderBook book = new OrderBook();
+        book.match(1, 1, true, 99, 5, 0, recorder);
+        book.match(2, 1, true, 100, 3, 0, recorder);
+        book.match(3, 1, true, 100, 4, 0, recorder);
+        book.match(4, 1, true, 98, 1, 0, recorder);
+        book.match(5, 2, false, 101, 2, 0, recorder);
+        book.match(6, 2, false, 100, 1, 0, recorder); // trades 1 against order 2
+
+        DepthSnapshot snapshot = book.snapshot(2, 7);
+
+        assertEquals(7, snapshot.sequence());
+        assertArrayEquals(new long[] {100, 99}, snapshot.bids().prices());
+        assertArrayEquals(new long[] {6, 5}, snapshot.bids().quantities());
+        assertArrayEquals(new int[] {2, 1}, snapshot.bids().orders());
+        assertArrayEquals(new long[] {101}, snapshot.asks().prices());
+        assertArrayEquals(new long[] {2}, snapshot.asks().quantities());
+
+        book.cancel(3);
+        assertArrayEquals(new long[] {2, 5}, book.snapshot(2, 8).bids().quantities());
+    }
+
+    @Test
+    void replayedOrderMatchesOnlyItsOpenRemainder() {
+        OrderBook book = new OrderBook();
+        book.match(1, 1, true, 100, 10, 6, recorder);
+        book.match(2, 2, false, 100, 10, 0, recorder);
+
+        assertEquals(List.of(new Fill(2, 1, 100, 4, 6, 0)), fills);
+    }
+
+    @Test
+    void randomFlowConservesQuantityAgainstReferenceModel() {
+        OrderBook book = new OrderBook(16);
+        Random random = new Random(42);
+        Map<Long, Integer> open = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        Map<Long, Integer> traded = new HashMap<>();
+        FillListener checker = (taker, takerUser, takerFilled, takerRemaining,
+                                maker, makerUser, makerFilled, makerRemaining, price, quantity) -> {
+            traded.merge(taker, quantity, Integer::sum);
+            traded.merge(maker, quantity, Integer::sum);
+            assertEquals(sizes.get(taker) - takerRemaining, (int) traded.get(taker));
+            assertEquals(sizes.get(maker) - makerRemaining, (int) traded.get(maker));
+        };
+
+        for (long id = 1; id <= 50_000; id++) {
+            if (!open.isEmpty() && random.nextInt(4) == 0) {
+                long victim = open.keySet().iterator().next();
+                assertTrue(book.cancel(victim));
+                open.remove(victim);
+                continue;
+            }
+            int qty = 1 + random.nextInt(20);
+            sizes.put(id, qty);
+            int remaining = book.match(id, id, random.nextBoolean(), 1_000 + random.nextInt(40), qty, 0, checker);
+            if (remaining > 0) open.put(id, remaining);
+            open.keySet().removeIf(o -> !book.contains(o));
+            assertTrue(book.bestBid() < book.bestAsk(), "book must never stay crossed");
+        }
+        assertEquals(open.size(), book.restingOrders());
+    }
+}
@@ -0,0 +1,68 @@
+package com.assignment.demo.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceTicksTest {
+
+    @Test
+    void convertsLosslesslyAtColumnScale() {
+        assertEquals(2_501_250L, PriceTicks.of(new BigDecimal("250.125")));
+        assertEquals(0, new BigDecimal("250.125").compareTo(PriceTicks.toPrice(2_501_250L)));
+
+        BigDecimal max = PriceTicks.toPrice(PriceTicks.MAX_PRICE_TICKS);
+        assertEquals(new BigDecimal("99999999999999.9999"), max);
+        assertEquals(PriceTicks.MAX_PRICE_TICKS, PriceTicks.of(max));
+    }
+
+    @Test
+    void notionalStaysAtTickScale() {
+        long notional = PriceTicks.notional(PriceTicks.of(new BigDecimal("249.50")), 120);
+
+        assertEquals(new BigDecimal("29940.0000"), PriceTicks.toPrice(notional));
+        assertEquals(PriceTicks.toPrice(notional), PriceTicks.toNotional(PriceTicks.of(new BigDecimal("249.50")), 120));
+    }
+
+    @Test
+    void arithmeticThrowsOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> PriceTicks.notional(PriceTicks.MAX_PRICE_TICKS, 10));
+        assertThrows(ArithmeticException.class, () -> PriceTicks.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> PriceTicks.of(new BigDecimal("1000000000000000")));
+    }
+
+    @Test
+    void decimalNotionalFallsBackToBigDecimalBeyondLongRange() {
+        assertEquals(new BigDecimal("999999999999999999.0000"),
+                PriceTicks.toNotional(PriceTicks.MAX_PRICE_TICKS, 10_000));
+        assertEquals(new BigDecimal("-1.0000"), PriceTicks.toNotional(-10_000L, 1));
+    }
+
+    @Test
+    void cumulativeNotionalsRunOverTheLevels() {
+        long[] prices = {PriceTicks.of(new BigDecimal("250.00")), PriceTicks.of(new BigDecimal("250.50")), PriceTicks.of(new BigDecimal("251.25"))};
+        long[] quantities = {100, 20, 4, 7};
+
+        BigDecimal[] totals = PriceTicks.cumulativeNotionals(prices, quantities, 3);
+
+        assertEquals(new BigDecimal("25000.0000"), totals[0]);
+        assertEquals(new BigDecimal("30010.0000"), totals[1]);
+        assertEquals(new BigDecimal("31015.0000"), totals[2]);
+    }
+
+    @Test
+    void cumulativeNotionalsContinueInBigDecimalPastLongRange() {
+        long[] prices = {PriceTicks.MAX_PRICE_TICKS, PriceTicks.MAX_PRICE_TICKS, 10_000L};
+        long[] quantities = {5, 10, 1};
+
+        BigDecimal[] totals = PriceTicks.cumulativeNotionals(prices, quantities, 3);
+
+        BigDecimal max = PriceTicks.toPrice(PriceTicks.MAX_PRICE_TICKS);
+        assertEquals(max.multiply(BigDecimal.valueOf(5)), totals[0]);
+        assertEquals(max.multiply(BigDecimal.valueOf(15)), totals[1]);
+        assertEquals(max.multiply(BigDecimal.valueOf(15)).add(BigDecimal.ONE), totals[2]);
+    }
+}
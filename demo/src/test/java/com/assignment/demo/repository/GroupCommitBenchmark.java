@@ -0,0 +1,97 @@
+package com.assignment.demo.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput versus latency of order inserts from many concurrent request threads: one transaction
+ * per insert against group commit at several batch windows.
+ *
+ * Defaults to a file-backed H2 database; for numbers that include a real fsync per commit point
+ * {@code jdbcUrl} at a MySQL instance, e.g.
+ * {@code -p jdbcUrl=jdbc:mysql://localhost:3307/orders?rewriteBatchedStatements=true -p username=... -p password=...}.
+ *
+ * Run with: {@code mvn test-compile} and then
+ * {@code java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) com.assignment.demo.repository.GroupCommitBenchmark}
+ */
+@State(Scope.Benchmark)
+@Threads(32)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    private static final String SINGLE_INSERT =
+            "INSERT INTO orders (order_id, order_type, quantity, filled_quantity, price, status, user_id, " +
+            "created_at, updated_at, version) VALUES (?, 'BUY', 10, 0, 250.1250, 'NEW', ?, NOW(), NOW(), 0)";
+
+    /** 0 = one transaction per insert on the calling thread; otherwise the group-commit window. */
+    @Param({"0", "100", "300", "1000"})
+    public long windowMicros;
+
+    @Param({"jdbc:h2:file:./target/bench/group-commit;MODE=MySQL"})
+    public String jdbcUrl;
+
+    @Param({"sa"})
+    public String username;
+
+    @Param({""})
+    public String password;
+
+    private OrderTableFixture fixture;
+    private GroupCommitOrderWriter writer;
+
+    @Setup
+    public void setUp() {
+        fixture = new OrderTableFixture(jdbcUrl, username, password);
+        fixture.jdbcTemplate.execute("DELETE FROM orders");
+        fixture.jdbcTemplate.execute("DELETE FROM user_order_stats");
+        if (windowMicros > 0) {
+            writer = fixture.writer(windowMicros, 256);
+            writer.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (writer != null) writer.shutdown();
+        fixture.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object insert() {
+        long userId = ThreadLocalRandom.current().nextLong(1, 10_000);
+        if (writer != null) {
+            return writer.insert(OrderTableFixture.newOrder(userId));
+        }
+        long id = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+        return fixture.transactionTemplate.execute(tx -> {
+            fixture.jdbcTemplate.update(SINGLE_INSERT, id, userId);
+            fixture.statsWriter.increment(userId);
+            return id;
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GroupCommitBenchmark.class.getSimpleName()).build()).run();
+    }
+}
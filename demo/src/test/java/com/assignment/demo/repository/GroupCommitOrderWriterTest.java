@@ -0,0 +1,151 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupCommitOrderWriterTest {
+
+    private OrderTableFixture fixture;
+    private GroupCommitOrderWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        fixture = new OrderTableFixture("jdbc:h2:mem:group-commit-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        writer = fixture.writer(2_000, 64);
+        writer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+        fixture.close();
+    }
+
+    @Test
+    void insertReturnsCommittedOrderWithGeneratedFields() {
+        Order saved = writer.insert(OrderTableFixture.newOrder(7L));
+
+        assertNotNull(saved.getOrderId());
+        assertNotNull(saved.getCreatedAt());
+        assertEquals(0L, saved.getVersion());
+
+        Map<String, Object> row = fixture.jdbcTemplate.queryForMap("SELECT * FROM orders WHERE order_id = ?", saved.getOrderId());
+        assertEquals(7L, ((Number) row.get("USER_ID")).longValue());
+        assertEquals("NEW", row.get("STATUS"));
+        assertEquals(0, new BigDecimal("250.1250").compareTo((BigDecimal) row.get("PRICE")));
+    }
+
+    @Test
+    void concurrentInsertsAreCommittedTogether() throws Exception {
+        int threads = 32;
+        int perThread = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long userId = t;
+                futures.add(pool.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(writer.insert(OrderTableFixture.newOrder(userId)).getOrderId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                ids.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+
+            assertEquals(threads * perThread, ids.size());
+            assertEquals(threads * perThread, fixture.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class));
+            // Rows of one batch share a creation timestamp, so fewer distinct timestamps than rows means batching
+            long batches = fixture.jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT created_at) FROM orders", Long.class);
+            assertTrue(batches < threads * perThread / 4, "expected batched commits, got " + batches + " batches");
+            // Each user's stripes add up to exactly the orders committed for them
+            List<Long> counts = fixture.jdbcTemplate.queryForList(
+                    "SELECT SUM(order_count) FROM user_order_stats GROUP BY user_id", Long.class);
+            assertEquals(threads, counts.size());
+            counts.forEach(count -> assertEquals(perThread, count));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedBatchPropagatesToEveryCaller() {
+        fixture.jdbcTemplate.execute("DROP TABLE orders");
+        assertThrows(RuntimeException.class, () -> writer.insert(OrderTableFixture.newOrder(1L)));
+    }
+
+    @Test
+    void errorInAFlushFailsItsCallersAndTheWriterCarriesOn() {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        GroupCommitOrderWriter failing = fixture.writer(2_000, 64, new UserOrderStatsWriter(fixture.jdbcTemplate, 8) {
+            @Override
+            public void incrementAll(Collection<Order> orders) {
+                if (fail.getAndSet(false)) throw new AssertionError("flush blew up");
+                super.incrementAll(orders);
+            }
+        }, 30_000);
+        failing.start();
+        try {
+            assertThrows(AssertionError.class, () -> failing.insert(OrderTableFixture.newOrder(1L)));
+            assertNotNull(failing.insert(OrderTableFixture.newOrder(1L)).getOrderId());
+            assertEquals(1L, fixture.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class));
+        } finally {
+            failing.shutdown();
+        }
+    }
+
+    @Test
+    void stalledFlushTimesOutWith503() {
+        CountDownLatch release = new CountDownLatch(1);
+        GroupCommitOrderWriter stalled = fixture.writer(2_000, 64, new UserOrderStatsWriter(fixture.jdbcTemplate, 8) {
+            @Override
+            public void incrementAll(Collection<Order> orders) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.incrementAll(orders);
+            }
+        }, 100);
+        stalled.start();
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> stalled.insert(OrderTableFixture.newOrder(1L)));
+        } finally {
+            release.countDown();
+            stalled.shutdown();
+        }
+    }
+
+    @Test
+    void insertAfterShutdownIsRejected() {
+        writer.shutdown();
+        assertThrows(ServiceUnavailableException.class, () -> writer.insert(OrderTableFixture.newOrder(1L)));
+    }
+}
@@ -0,0 +1,145 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.SparseOrderResponse;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderField;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.specification.OrderSpecification;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.assignment.demo.sql.StatementAssertions.assertStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:projection;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXByb2plY3Rpb24tcmVwb3NpdG9yeS10ZXN0cy0zMi1i"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderProjectionRepositoryTest {
+
+    private static final long USER_ID = 7001L;
+    private static final long OTHER_USER_ID = 7002L;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // The user's orders in creation order; prices 1..5 and quantities 10..50
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeAll
+    void createOrders() {
+        for (int i = 1; i <= 5; i++) {
+            orders.add(orderRepository.save(Order.builder()
+                    .orderType(i % 2 == 0 ? OrderType.SELL : OrderType.BUY)
+                    .quantity(i * 10)
+                    .price(BigDecimal.valueOf(i))
+                    .status(i == 5 ? OrderStatus.COMPLETED : OrderStatus.NEW)
+                    .userId(USER_ID)
+                    .build()));
+        }
+        orderRepository.save(Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(1)
+                .price(BigDecimal.ONE)
+                .userId(OTHER_USER_ID)
+                .build());
+    }
+
+    @Test
+    void populatesOnlyTheSelectedFields() {
+        Page<OrderResponse> page = orderRepository.findProjected(OrderSpecification.hasUserId(USER_ID),
+                EnumSet.of(OrderField.ORDER_ID, OrderField.STATUS), PageRequest.of(0, 10, Sort.by("price")));
+
+        assertEquals(5, page.getContent().size());
+        for (int i = 0; i < 5; i++) {
+            OrderResponse sparse = page.getContent().get(i);
+            assertInstanceOf(SparseOrderResponse.class, sparse);
+            assertEquals(orders.get(i).getOrderId(), sparse.getOrderId());
+            assertEquals(orders.get(i).getStatus(), sparse.getStatus());
+            assertNull(sparse.getOrderType());
+            assertNull(sparse.getQuantity());
+            assertNull(sparse.getFilledQuantity());
+            assertNull(sparse.getPrice());
+            assertNull(sparse.getUserId());
+            assertNull(sparse.getCreatedAt());
+            assertNull(sparse.getUpdatedAt());
+            assertNull(sparse.getVersion());
+        }
+    }
+
+    @Test
+    void readsEveryFieldTypeFromItsColumn() {
+        Order expected = orders.get(1);
+        Page<OrderResponse> page = orderRepository.findProjected(
+                (root, query, cb) -> cb.equal(root.get("orderId"), expected.getOrderId()),
+                EnumSet.allOf(OrderField.class), PageRequest.of(0, 1));
+
+        OrderResponse sparse = page.getContent().get(0);
+        assertEquals(expected.getOrderId(), sparse.getOrderId());
+        assertEquals(OrderType.SELL, sparse.getOrderType());
+        assertEquals(20, sparse.getQuantity());
+        assertEquals(0, sparse.getFilledQuantity());
+        assertEquals(0, new BigDecimal("2").compareTo(sparse.getPrice()));
+        assertEquals(OrderStatus.NEW, sparse.getStatus());
+        assertEquals(USER_ID, sparse.getUserId());
+        assertNotNull(sparse.getCreatedAt());
+        assertNotNull(sparse.getUpdatedAt());
+        assertEquals(expected.getVersion(), sparse.getVersion());
+    }
+
+    @Test
+    void appliesTheFilterSortAndPageToBothQueries() {
+        Specification<Order> spec = OrderSpecification.buildFrom(USER_ID, null, OrderStatus.NEW,
+                null, null, null, null, null, null);
+
+        // Page query and count query, nothing else
+        List<Page<OrderResponse>> pages = new ArrayList<>();
+        assertStatements(2, () -> pages.add(orderRepository.findProjected(spec,
+                EnumSet.of(OrderField.QUANTITY), PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "quantity")))));
+        Page<OrderResponse> page = pages.get(0);
+
+        // NEW orders have quantities 40, 30, 20, 10; the second page of two is 20, 10
+        assertEquals(List.of(20, 10), page.getContent().stream().map(OrderResponse::getQuantity).collect(Collectors.toList()));
+        assertEquals(4, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertTrue(page.isLast());
+    }
+
+    @Test
+    void emptyResultStillCounts() {
+        Page<OrderResponse> page = orderRepository.findProjected(OrderSpecification.hasUserId(OTHER_USER_ID),
+                EnumSet.of(OrderField.ORDER_ID), PageRequest.of(3, 10));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(1, page.getTotalElements());
+    }
+}
@@ -0,0 +1,69 @@
+package com.assignment.demo.repository;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.shard.ShardRouter;
+import com.assignment.demo.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * Stand-alone orders and user_order_stats tables and JDBC plumbing for exercising {@link GroupCommitOrderWriter} without
+ * a Spring context.
+ */
+final class OrderTableFixture implements AutoCloseable {
+
+    private final HikariDataSource dataSource;
+
+    final JdbcTemplate jdbcTemplate;
+    final TransactionTemplate transactionTemplate;
+    final UserOrderStatsWriter statsWriter;
+
+    OrderTableFixture(String url, String username, String password) {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(40);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS orders (" +
+                "order_id BIGINT PRIMARY KEY, order_type VARCHAR(10) NOT NULL, quantity INT NOT NULL, " +
+                "filled_quantity INT NOT NULL, price DECIMAL(19,4) NOT NULL, status VARCHAR(20) NOT NULL, " +
+                "user_id BIGINT NOT NULL, created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6) NOT NULL, " +
+                "version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS user_order_stats (" +
+                "user_id BIGINT NOT NULL, stripe INT NOT NULL, order_count BIGINT NOT NULL, " +
+                "PRIMARY KEY (user_id, stripe))");
+        this.statsWriter = new UserOrderStatsWriter(jdbcTemplate, 8);
+    }
+
+    GroupCommitOrderWriter writer(long windowMicros, int maxBatch) {
+        return writer(windowMicros, maxBatch, statsWriter, 30_000);
+    }
+
+    GroupCommitOrderWriter writer(long windowMicros, int maxBatch, UserOrderStatsWriter statsWriter, long waitTimeoutMillis) {
+        return new GroupCommitOrderWriter(jdbcTemplate, transactionTemplate, new ShardRouter(new ShardingProperties()),
+                statsWriter, 0, true, windowMicros, maxBatch, 10_000, waitTimeoutMillis);
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    static Order newOrder(long userId) {
+        return Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(10)
+                .price(new BigDecimal("250.1250"))
+                .status(OrderStatus.NEW)
+                .userId(userId)
+                .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.assignment.demo.security;
+
+import com.assignment.demo.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void encodesAndMatchesThroughTheDelegate() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 4, 5_000)) {
+            String hash = encoder.encode("secret");
+            assertTrue(encoder.matches("secret", hash));
+            assertFalse(encoder.matches("wrong", hash));
+        }
+    }
+
+    @Test
+    void rejectsImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking(started, release), 1, 1, 10_000)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (encoder.queueDepth() < 1) Thread.onSpinWait();
+
+            long start = System.nanoTime();
+            assertThrows(ServiceUnavailableException.class, () -> encoder.encode("c"));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "rejection should not wait");
+
+            release.countDown();
+            assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void timesOutWithServiceUnavailable() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking(new CountDownLatch(1), release), 1, 1, 50)) {
+            assertThrows(ServiceUnavailableException.class, () -> encoder.matches("a", "hash:a"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void timedOutCallerTakesItsTaskOutOfTheQueue() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger hashes = new AtomicInteger();
+        PasswordEncoder blocking = blocking(started, release);
+        PasswordEncoder counting = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashes.incrementAndGet();
+                return blocking.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                hashes.incrementAndGet();
+                return blocking.matches(rawPassword, encodedPassword);
+            }
+        };
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(counting, 1, 4, 100)) {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ServiceUnavailableException.class, () -> encoder.encode("b"));
+            assertEquals(0, encoder.queueDepth());
+
+            // The first caller timed out as well, but its hash had started and runs to completion
+            assertThrows(Exception.class, () -> running.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            Thread.sleep(100);
+            assertEquals(1, hashes.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rejectsImmediatelyOnceTheWorkAheadWouldOutlastTheTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder slow = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (rawPassword.equals("block")) {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+        int queueCapacity = 64;
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, queueCapacity, 1_000)) {
+            // Hashes take about 100 ms, so about ten fit into the 1 s timeout of one thread
+            for (int i = 0; i < 3; i++) encoder.encode("warm-up");
+            CompletableFuture.supplyAsync(() -> encoder.encode("block"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ServiceUnavailableException rejected = null;
+            for (int i = 0; i < queueCapacity && rejected == null; i++) {
+                int depth = encoder.queueDepth();
+                CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> encoder.encode("q"));
+                while (encoder.queueDepth() == depth && !call.isDone()) Thread.onSpinWait();
+                if (call.isCompletedExceptionally()) {
+                    rejected = (ServiceUnavailableException) assertThrows(Exception.class, call::join).getCause();
+                }
+            }
+
+            assertNotNull(rejected, "no call was rejected before the queue filled up");
+            int depth = encoder.queueDepth();
+            assertTrue(depth > 0 && depth < 12, "queued " + depth + " hashes of ~100 ms behind a 1 s timeout");
+
+            long start = System.nanoTime();
+            assertThrows(ServiceUnavailableException.class, () -> encoder.encode("late"));
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50), "rejection should not wait");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static PasswordEncoder blocking(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                await();
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                await();
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+
+            private void await() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+}
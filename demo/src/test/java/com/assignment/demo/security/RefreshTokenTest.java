@@ -0,0 +1,101 @@
+package com.assignment.demo.security;
+
+import com.assignment.demo.dto.AuthResponse;
+import com.assignment.demo.dto.LoginRequest;
+import com.assignment.demo.dto.RefreshTokenRequest;
+import com.assignment.demo.dto.RegisterRequest;
+import com.assignment.demo.exception.InvalidRefreshTokenException;
+import com.assignment.demo.repository.RefreshTokenRepository;
+import com.assignment.demo.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXJlZnJlc2gtdG9rZW4tdGVzdHMtMzItYnl0ZXMh"
+})
+class RefreshTokenTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void refreshRotatesTokenAndMintsAccessToken() {
+        AuthResponse login = registerAndLogin("rotate@refresh.test");
+
+        AuthResponse refreshed = authService.refresh(refresh(login.getRefreshToken()));
+
+        assertEquals("rotate@refresh.test", jwtService.extractEmail(refreshed.getToken()));
+        assertNotEquals(login.getRefreshToken(), refreshed.getRefreshToken());
+        assertTrue(refreshTokenRepository.findAll().stream()
+                .noneMatch(t -> t.getTokenHash().equals(login.getRefreshToken())), "only the hash is stored");
+
+        // The successor works in turn
+        AuthResponse again = authService.refresh(refresh(refreshed.getRefreshToken()));
+        assertEquals("rotate@refresh.test", jwtService.extractEmail(again.getToken()));
+    }
+
+    @Test
+    void reusingSpentTokenRevokesFamily() {
+        AuthResponse login = registerAndLogin("reuse@refresh.test");
+        AuthResponse refreshed = authService.refresh(refresh(login.getRefreshToken()));
+
+        // Replay of the spent token is rejected ...
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh(refresh(login.getRefreshToken())));
+        // ... and takes the legitimate successor down with it
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh(refresh(refreshed.getRefreshToken())));
+
+        // A separate login is its own family and is unaffected
+        AuthResponse other = login("reuse@refresh.test");
+        assertEquals("reuse@refresh.test",
+                jwtService.extractEmail(authService.refresh(refresh(other.getRefreshToken())).getToken()));
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh(refresh("not-a-token")));
+    }
+
+    private AuthResponse registerAndLogin(String email) {
+        RegisterRequest register = new RegisterRequest();
+        register.setFullName("Refresh Test");
+        register.setEmail(email);
+        register.setPassword("secret123");
+        authService.register(register);
+        return login(email);
+    }
+
+    private AuthResponse login(String email) {
+        LoginRequest login = new LoginRequest();
+        login.setEmail(email);
+        login.setPassword("secret123");
+        return authService.login(login);
+    }
+
+    private static RefreshTokenRequest refresh(String token) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(token);
+        return request;
+    }
+}
@@ -0,0 +1,105 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.MappedOrderCache;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mappedcache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.orders.expiry.enabled=false",
+        "app.cache.orders.mapped.enabled=true",
+        "app.cache.orders.mapped.slots=4096",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLW1hcHBlZC1jYWNoZS10ZXN0cy1vbmx5LTMyLWJ5dGVzIQ=="
+})
+class MappedOrderCacheReadTest {
+
+    @DynamicPropertySource
+    static void cacheFile(DynamicPropertyRegistry registry) throws IOException {
+        String path = Files.createTempDirectory("mapped-orders").resolve("orders.cache").toString();
+        registry.add("app.cache.orders.mapped.path", () -> path);
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MappedOrderCache mappedOrderCache;
+
+    @Test
+    void currentMappedCopyIsServedWithoutLoadingTheRow() {
+        OrderResponse stored = copyOf(save(), 0L);
+        // A marker only the mapped copy carries, to tell where the result came from
+        stored.setFilledQuantity(3);
+        mappedOrderCache.put(stored);
+
+        assertEquals(3, orderService.fetchOrderById(stored.getOrderId()).getFilledQuantity());
+    }
+
+    @Test
+    void staleMappedCopyIsReloadedAndReplaced() {
+        Order order = save();
+        OrderResponse stale = copyOf(order, 0L);
+        stale.setFilledQuantity(3);
+        mappedOrderCache.put(stale);
+
+        order.setStatus(OrderStatus.PROCESSING);
+        order = orderRepository.saveAndFlush(order);
+
+        OrderResponse fetched = orderService.fetchOrderById(order.getOrderId());
+        assertEquals(OrderStatus.PROCESSING, fetched.getStatus());
+        assertEquals(0, fetched.getFilledQuantity());
+        assertEquals(order.getVersion(), mappedOrderCache.get(order.getOrderId()).getVersion());
+    }
+
+    private Order save() {
+        return orderRepository.saveAndFlush(Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(10)
+                .price(new BigDecimal("99.5000"))
+                .status(OrderStatus.NEW)
+                .userId(1L)
+                .build());
+    }
+
+    private static OrderResponse copyOf(Order order, long version) {
+        return OrderResponse.builder()
+                .orderId(order.getOrderId())
+                .orderType(order.getOrderType())
+                .quantity(order.getQuantity())
+                .filledQuantity(order.getFilledQuantity())
+                .price(order.getPrice())
+                .status(order.getStatus())
+                .userId(order.getUserId())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .version(version)
+                .build();
+    }
+}
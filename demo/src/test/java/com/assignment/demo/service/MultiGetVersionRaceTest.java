@@ -0,0 +1,134 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.MappedOrderCache;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.UpdateOrderStatusRequest;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.service.impl.OrderServiceImpl;
+import com.assignment.demo.shard.ShardRouter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:multigetrace;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=127.0.0.1",
+        "app.matching.enabled=false",
+        "app.orders.expiry.enabled=false",
+        "app.cache.orders.mapped.enabled=true",
+        "app.cache.orders.mapped.slots=4096",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLW11bHRpLWdldC1yYWNlLXRlc3RzLW9ubHktMzItYnl0ZXMh"
+})
+class MultiGetVersionRaceTest {
+
+    private static final EmbeddedRedis redis = new EmbeddedRedis();
+
+    @DynamicPropertySource
+    static void redisAndCacheFile(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("spring.data.redis.port", () -> redis.port);
+        String path = Files.createTempDirectory("multi-get-orders").resolve("orders.cache").toString();
+        registry.add("app.cache.orders.mapped.path", () -> path);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @Autowired
+    private OrderServiceImpl orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MappedOrderCache mappedOrderCache;
+
+    @MockitoSpyBean
+    private ShardRouter shardRouter;
+
+    @Test
+    void updateCommittedWhileAMultiGetLoadsIsNotOverwrittenByItsRows() {
+        User user = userRepository.save(User.builder()
+                .fullName("Owner").email("owner@multiget.test").password("x").build());
+        Authentication owner = asUser(user);
+        Order racing = save(user);
+        Order untouched = save(user);
+
+        // The multi-get reads both rows, then the cancel commits (recording its version and evicting)
+        // before the multi-get writes them back
+        AtomicReference<Runnable> afterLoad = new AtomicReference<>(
+                () -> orderService.updateOrderStatus(racing.getOrderId(), cancel(), null, owner));
+        doAnswer(invocation -> {
+            Object rows = invocation.callRealMethod();
+            Runnable hook = afterLoad.getAndSet(null);
+            if (hook != null) hook.run();
+            return rows;
+        }).when(shardRouter).onEachShard(any(Supplier.class));
+
+        List<OrderResponse> stale = orderService.getOrdersByIds(
+                List.of(racing.getOrderId(), untouched.getOrderId()), owner);
+        assertEquals(OrderStatus.NEW, stale.get(0).getStatus());
+        assertNull(afterLoad.get(), "update ran during the multi-get");
+
+        // Neither tier keeps the row the update replaced; the untouched row is cached as usual
+        assertEquals(OrderStatus.CANCELLED, orderService.getOrderById(racing.getOrderId(), owner).getStatus());
+        OrderResponse mapped = mappedOrderCache.get(racing.getOrderId());
+        if (mapped != null) assertNotEquals(OrderStatus.NEW, mapped.getStatus());
+        assertEquals(untouched.getVersion(), mappedOrderCache.get(untouched.getOrderId()).getVersion());
+    }
+
+    private Order save(User user) {
+        return orderRepository.saveAndFlush(Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(10)
+                .price(new BigDecimal("99.5000"))
+                .status(OrderStatus.NEW)
+                .userId(user.getId())
+                .build());
+    }
+
+    private static UpdateOrderStatusRequest cancel() {
+        UpdateOrderStatusRequest req = new UpdateOrderStatusRequest();
+        req.setStatus("CANCELLED");
+        return req;
+    }
+
+    private static Authentication asUser(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,87 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:expiry;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.orders.expiry.enabled=false",
+        "app.orders.expiry.ttl=PT1H",
+        "app.orders.expiry.chunk-size=2",
+        "app.orders.expiry.pause-ms=0",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLW9yZGVyLWV4cGlyeS10ZXN0cy1vbmx5LTMyLWJ5dGVzIQ=="
+})
+class OrderExpirySweeperTest {
+
+    @Autowired
+    private OrderExpirySweeper sweeper;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancelsOnlyExpiredNewOrdersAcrossChunks() {
+        // Five expired orders sharing one created_at: chunks of two must advance on order_id
+        Timestamp expired = Timestamp.valueOf(LocalDateTime.now().minusHours(2));
+        List<Long> stale = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            stale.add(save(7L, OrderStatus.NEW));
+        }
+        Long processing = save(8L, OrderStatus.PROCESSING);
+        Long fresh = save(9L, OrderStatus.NEW);
+        for (Long orderId : stale) backdate(orderId, expired);
+        backdate(processing, expired);
+
+        assertEquals(5, sweeper.sweep());
+
+        for (Long orderId : stale) {
+            Order order = orderRepository.findById(orderId).orElseThrow();
+            assertEquals(OrderStatus.CANCELLED, order.getStatus());
+            assertEquals(1L, order.getVersion());
+        }
+        assertEquals(OrderStatus.PROCESSING, orderRepository.findById(processing).orElseThrow().getStatus());
+        assertEquals(OrderStatus.NEW, orderRepository.findById(fresh).orElseThrow().getStatus());
+
+        assertEquals(0, sweeper.sweep(), "a second run finds nothing left");
+    }
+
+    private Long save(Long userId, OrderStatus status) {
+        return orderRepository.save(Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(1)
+                .price(BigDecimal.TEN)
+                .status(status)
+                .userId(userId)
+                .build()).getOrderId();
+    }
+
+    private void backdate(Long orderId, Timestamp createdAt) {
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE order_id = ?", createdAt, orderId);
+    }
+}
@@ -0,0 +1,115 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.OrderCacheTtls;
+import com.assignment.demo.cache.RedisCircuitBreaker;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderRedisServiceTest {
+
+    private final EmbeddedRedis redis = new EmbeddedRedis();
+    private final OrderRedisService service = new OrderRedisService(redis.template,
+            new OrderCacheTtls(60, 120, 10, 86400, true),
+            new RedisCircuitBreaker(null, false, 10, 5, 50, 80, 250, 1000, 100),
+            new ConcurrentMapCacheManager("orders"));
+
+    @AfterAll
+    void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void flush() {
+        redis.flushAll();
+    }
+
+    @Test
+    void stampMovesForwardOnly() {
+        service.recordVersion(order(1L, 3L, OrderStatus.PROCESSING));
+        // A reader that loaded the row before the update must not roll the stamp back
+        service.recordVersion(order(1L, 2L, OrderStatus.NEW));
+
+        OrderResponse stamp = service.getVersion(1L);
+        assertEquals(3L, stamp.getVersion());
+        assertEquals(OrderStatus.PROCESSING, stamp.getStatus());
+        assertEquals(7L, stamp.getUserId());
+
+        service.recordVersion(order(1L, 4L, OrderStatus.COMPLETED));
+        assertEquals(4L, service.getVersion(1L).getVersion());
+    }
+
+    @Test
+    void batchOfStampsSkipsOnlyTheOrdersAlreadyNewer() {
+        service.recordVersion(order(5L, 4L, OrderStatus.PROCESSING));
+
+        service.recordVersions(List.of(order(5L, 3L, OrderStatus.PROCESSING), order(6L, 2L, OrderStatus.COMPLETED)));
+
+        assertEquals(4L, service.getVersion(5L).getVersion());
+        assertEquals(2L, service.getVersion(6L).getVersion());
+        assertEquals(OrderStatus.COMPLETED, service.getVersion(6L).getStatus());
+        assertTrue(service.isSuperseded(order(5L, 3L, OrderStatus.PROCESSING)));
+        assertFalse(service.isSuperseded(order(5L, 4L, OrderStatus.PROCESSING)));
+        assertFalse(service.isSuperseded(order(7L, 1L, OrderStatus.NEW)));
+    }
+
+    @Test
+    void batchCheckFindsOnlyTheCopiesOlderThanTheirStamp() {
+        service.recordVersions(List.of(order(8L, 3L, OrderStatus.PROCESSING), order(9L, 1L, OrderStatus.NEW)));
+
+        assertEquals(Set.of(8L), service.supersededIds(List.of(
+                order(8L, 2L, OrderStatus.NEW), order(9L, 1L, OrderStatus.NEW), order(10L, 1L, OrderStatus.NEW))));
+        // Cache keys map to their order; cached nulls (unknown ids) are never superseded
+        Map<Object, Object> written = new HashMap<>();
+        written.put(8L, order(8L, 2L, OrderStatus.NEW));
+        written.put(11L, null);
+        assertEquals(Set.of(8L), service.supersededKeys(written));
+    }
+
+    @Test
+    void stampTakesTheTtlOfTheOrdersCacheEntry() {
+        service.recordVersion(order(2L, 1L, OrderStatus.NEW));
+        long openTtl = redis.template.getExpire(String.format(OrderRedisService.ORDER_VERSION_KEY, 2L), TimeUnit.SECONDS);
+        assertTrue(openTtl > 60 && openTtl <= 120, "open order stamp TTL " + openTtl);
+
+        // Re-stamping the same version of a now terminal order extends the stamp to the terminal TTL
+        service.recordVersion(order(2L, 2L, OrderStatus.CANCELLED));
+        long terminalTtl = redis.template.getExpire(String.format(OrderRedisService.ORDER_VERSION_KEY, 2L), TimeUnit.SECONDS);
+        assertTrue(terminalTtl > 3600, "terminal order stamp TTL " + terminalTtl);
+    }
+
+    @Test
+    void forgottenAndEvictedStampsAreGone() {
+        service.recordVersion(order(3L, 1L, OrderStatus.NEW));
+        service.recordVersion(order(4L, 1L, OrderStatus.NEW));
+        redis.template.opsForValue().set(String.format(OrderRedisService.ORDER_CACHE_KEY, 4L), "cached");
+
+        service.forgetVersions(List.of(3L));
+        service.evictOrders(List.of(4L));
+
+        assertNull(service.getVersion(3L));
+        assertNull(service.getVersion(4L));
+        assertEquals(Boolean.FALSE, redis.template.hasKey(String.format(OrderRedisService.ORDER_CACHE_KEY, 4L)));
+    }
+
+    private static OrderResponse order(long orderId, long version, OrderStatus status) {
+        return OrderResponse.builder().orderId(orderId).userId(7L).version(version).status(status).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.assignment.demo.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RedisJobLockTest {
+
+    private static final String LOCK_KEY = "test:job:lock";
+
+    private final EmbeddedRedis redis = new EmbeddedRedis();
+    private final RedisJobLock jobLock = new RedisJobLock(redis.template);
+
+    @AfterAll
+    void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void flush() {
+        redis.flushAll();
+    }
+
+    @Test
+    void jobRunsOnceAtATimeAndReleasesTheLock() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertTrue(jobLock.runExclusively(LOCK_KEY, Duration.ofMinutes(1), "test job", () -> {
+            runs.incrementAndGet();
+            // Another node trying meanwhile is turned away
+            assertFalse(jobLock.runExclusively(LOCK_KEY, Duration.ofMinutes(1), "test job", runs::incrementAndGet));
+        }));
+        assertEquals(1, runs.get());
+        assertEquals(Boolean.FALSE, redis.template.hasKey(LOCK_KEY));
+
+        assertTrue(jobLock.runExclusively(LOCK_KEY, Duration.ofMinutes(1), "test job", runs::incrementAndGet));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void lockTakenOverAfterItsTtlIsNotReleasedByTheOldHolder() {
+        jobLock.runExclusively(LOCK_KEY, Duration.ofMinutes(1), "test job",
+                // The lock lapsed mid-run and another node took it
+                () -> redis.template.opsForValue().set(LOCK_KEY, "other-node"));
+
+        assertEquals("other-node", redis.template.opsForValue().get(LOCK_KEY));
+    }
+
+    @Test
+    void failedJobStillReleasesTheLock() {
+        assertThrows(IllegalStateException.class, () -> jobLock.runExclusively(LOCK_KEY, Duration.ofMinutes(1), "test job",
+                () -> { throw new IllegalStateException("boom"); }));
+
+        assertEquals(Boolean.FALSE, redis.template.hasKey(LOCK_KEY));
+    }
+}
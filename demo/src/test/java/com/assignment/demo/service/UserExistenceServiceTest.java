@@ -0,0 +1,121 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.BloomFilter;
+import com.assignment.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceServiceTest {
+
+    // Committed user ids, as the users table would return them
+    private final NavigableSet<Long> users = new ConcurrentSkipListSet<>();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    // A negligible false-positive rate, so "rejected without a query" assertions are deterministic
+    private final UserExistenceService service = new UserExistenceService(userRepository, 100_000, 1e-9);
+
+    UserExistenceServiceTest() {
+        when(userRepository.findIdsAfter(anyLong(), any(Pageable.class))).thenAnswer(call -> {
+            long after = call.getArgument(0);
+            Pageable page = call.getArgument(1);
+            return users.tailSet(after, false).stream().limit(page.getPageSize()).toList();
+        });
+        when(userRepository.existsById(anyLong())).thenAnswer(call -> users.contains(call.<Long>getArgument(0)));
+        when(userRepository.findExistingIds(anyCollection())).thenAnswer(call ->
+                call.<Collection<Long>>getArgument(0).stream().filter(users::contains).toList());
+    }
+
+    @Test
+    void unknownIdsWellBelowTheHighWaterMarkAreRejectedWithoutAQuery() {
+        addUsers(1, 20_000);
+        service.seed();
+        clearInvocations(userRepository);
+
+        for (long id = -5_000; id <= 0; id++) {
+            assertFalse(service.exists(id));
+        }
+        assertEquals(List.of(5L), service.existing(List.of(-1L, -2L, 5L)));
+        verify(userRepository, never()).existsById(anyLong());
+        verify(userRepository).findExistingIds(List.of(5L));
+    }
+
+    @Test
+    void usersRegisteredOnAnotherNodeAboveTheMarkAreFound() {
+        addUsers(1, 5_000);
+        service.seed();
+
+        // Registered elsewhere since the seed: not in this node's filter, ids above its mark
+        addUsers(5_001, 5_100);
+        for (long id = 5_001; id <= 5_100; id++) {
+            assertTrue(service.exists(id), "user " + id);
+        }
+        assertEquals(List.of(5_050L, 5_100L), service.existing(List.of(5_050L, 5_100L, 6_000L)));
+    }
+
+    @Test
+    void userCommittedOutOfIdOrderBelowTheMarkIsFoundBeforeTheNextRefresh() {
+        // 4_990 was allocated before 5_000 but commits after the seed scanned past it
+        addUsers(1, 4_989);
+        addUsers(4_991, 5_000);
+        service.seed();
+        users.add(4_990L);
+
+        assertTrue(service.exists(4_990L));
+        assertEquals(List.of(4_990L), service.existing(List.of(4_990L)));
+    }
+
+    @Test
+    void refreshMovesTheMarkAndCoversLateCommitsInTheOverlap() {
+        addUsers(1, 4_499);
+        addUsers(4_501, 5_000);
+        service.seed();
+
+        // New users with a gap at 6_000, plus a late commit inside the rescanned overlap
+        addUsers(5_001, 5_999);
+        addUsers(6_001, 9_000);
+        users.add(4_500L);
+        service.refresh();
+        clearInvocations(userRepository);
+
+        assertTrue(service.exists(7_000L));
+        assertTrue(service.exists(4_500L));
+        // The gap is now well below the mark, so it is rejected from the filter alone
+        assertFalse(service.exists(6_000L));
+        verify(userRepository, never()).existsById(6_000L);
+    }
+
+    @Test
+    void bloomFilterHasNoFalseNegativesAndAboutTheConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(50_000, 0.01);
+        for (long id = 1; id <= 50_000; id++) filter.put(id);
+
+        for (long id = 1; id <= 50_000; id++) {
+            assertTrue(filter.mightContain(id), "false negative for " + id);
+        }
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            if (filter.mightContain(id)) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000");
+    }
+
+    private void addUsers(long from, long to) {
+        for (long id = from; id <= to; id++) users.add(id);
+    }
+}
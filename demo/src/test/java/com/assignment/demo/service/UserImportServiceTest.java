@@ -0,0 +1,112 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.dto.RegisterRequest;
+import com.assignment.demo.dto.UserImportResponse;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.service.impl.UserImportServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userimport;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.users.import.max-rows=1000",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXVzZXItaW1wb3J0LXRlc3RzLW9ubHktMzItYnl0ZXMh"
+})
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void csvImportCreatesUsersAndReportsRowErrors() {
+        RegisterRequest existing = new RegisterRequest();
+        existing.setFullName("Already Here");
+        existing.setEmail("taken@import.test");
+        existing.setPassword("secret123");
+        authService.register(existing);
+
+        String csv = """
+                fullName,email,password,role
+                Ann One,ANN@import.test,secret123,
+                "Bee, Two",bee@import.test,secret123,admin
+
+                Bad Email,not-an-email,secret123,USER
+                Dup Ann,ann@import.test,secret123,USER
+                Taken,taken@import.test,secret123,USER
+                Bad Role,role@import.test,secret123,OWNER
+                """;
+
+        UserImportResponse response = userImportService.importUsers(csv, UserImportServiceImpl.TEXT_CSV);
+
+        assertEquals(6, response.getTotal());
+        assertEquals(2, response.getImported());
+        assertEquals(4, response.getFailed());
+        assertEquals(List.of(5, 6, 7, 8), response.getErrors().stream().map(UserImportResponse.RowError::getLine).toList());
+        assertEquals("Invalid email format", response.getErrors().get(0).getError());
+        assertEquals("Duplicate email in upload", response.getErrors().get(1).getError());
+        assertEquals("Email is already registered", response.getErrors().get(2).getError());
+        assertEquals("Invalid role. Accepted values: ADMIN, USER", response.getErrors().get(3).getError());
+
+        User ann = userRepository.findByEmail("ann@import.test").orElseThrow();
+        User bee = userRepository.findByEmail("bee@import.test").orElseThrow();
+        assertEquals("Bee, Two", bee.getFullName());
+        assertEquals(Role.USER, ann.getRoles().iterator().next().getName());
+        assertEquals(Role.ADMIN, bee.getRoles().iterator().next().getName());
+        assertTrue(passwordEncoder.matches("secret123", ann.getPassword()));
+    }
+
+    @Test
+    void ndjsonImportSkipsMalformedLines() {
+        String ndjson = """
+                {"fullName":"Nd One","email":"nd1@import.test","password":"secret123"}
+                {"fullName":"Nd Two","email":
+                {"fullName":"Nd Three","email":"nd3@import.test","password":"secret123","role":"USER"}
+                """;
+
+        UserImportResponse response = userImportService.importUsers(ndjson, UserImportServiceImpl.APPLICATION_NDJSON);
+
+        assertEquals(3, response.getTotal());
+        assertEquals(2, response.getImported());
+        assertEquals(2, response.getErrors().get(0).getLine());
+        assertEquals("Malformed JSON", response.getErrors().get(0).getError());
+        assertTrue(userRepository.existsByEmail("nd3@import.test"));
+    }
+
+    @Test
+    void rejectsUploadsOverTheRowLimit() {
+        StringBuilder csv = new StringBuilder("fullName,email,password\n");
+        for (int i = 0; i <= 1000; i++) {
+            csv.append("User ").append(i).append(",limit").append(i).append("@import.test,secret123\n");
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importUsers(csv.toString(), UserImportServiceImpl.TEXT_CSV));
+    }
+}
@@ -0,0 +1,76 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserOrderStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statsreconcile;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.orders.stats.reconcile.enabled=false",
+        "app.orders.stats.reconcile.chunk-size=2",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXN0YXRzLXJlY29uY2lsZS10ZXN0cy1vbmx5LTMyLWJ5dGVzIQ=="
+})
+class UserOrderStatsReconcilerTest {
+
+    @Autowired
+    private UserOrderStatsReconciler reconciler;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserOrderStatsRepository statsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void correctsDriftFromOrdersWrittenWithoutStats() {
+        // Saved through the repository alone, as an instance without the stats table would insert them
+        for (int i = 0; i < 3; i++) save(11L);
+        for (int i = 0; i < 2; i++) save(12L);
+        save(13L);
+        // 12 is already right; 13 is over-counted
+        jdbcTemplate.update(UserOrderStatsRepository.INCREMENT_SQL, 12L, 3, 2L);
+        jdbcTemplate.update(UserOrderStatsRepository.INCREMENT_SQL, 13L, 5, 4L);
+
+        // Chunks of two users: the second chunk starts after user 12
+        assertEquals(2, reconciler.reconcile());
+
+        assertEquals(3, statsRepository.sumOrderCount(11L));
+        assertEquals(2, statsRepository.sumOrderCount(12L));
+        assertEquals(1, statsRepository.sumOrderCount(13L));
+
+        assertEquals(0, reconciler.reconcile(), "a second run finds nothing to correct");
+        assertEquals(3, statsRepository.sumOrderCount(11L));
+    }
+
+    private void save(Long userId) {
+        orderRepository.save(Order.builder()
+                .orderType(OrderType.BUY)
+                .quantity(1)
+                .price(BigDecimal.TEN)
+                .status(OrderStatus.NEW)
+                .userId(userId)
+                .build());
+    }
+}
@@ -0,0 +1,286 @@
+package com.assignment.demo.service;
+
+import com.assignment.demo.cache.CachedValue;
+import com.assignment.demo.cache.RedisCircuitBreaker;
+import com.assignment.demo.cache.RefreshPolicy;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.enums.OrderStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserRedisServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 6, 1, 10, 0);
+
+    private final EmbeddedRedis redis = new EmbeddedRedis();
+    private UserRedisService service;
+
+    @AfterAll
+    void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flushAll();
+        // A fresh service per test, so dirty flags do not leak between tests
+        service = new UserRedisService(redis.template, new RefreshPolicy(true, 1.0, 1000),
+                new RedisCircuitBreaker(null, false, 10, 5, 50, 80, 250, 1000, 100));
+        ReflectionTestUtils.setField(service, "recentOrdersSoftTtlSeconds", 240L);
+        ReflectionTestUtils.setField(service, "recentOrdersHardTtlSeconds", 300L);
+    }
+
+    // ── READ / REPOPULATE ───────────────────────────────────────────────────
+
+    @Test
+    void repopulatedListReadsBackNewestFirstWithItsSoftExpiry() {
+        service.repopulateRecentOrders(USER_ID, orders(3, 1), 42);
+
+        CachedValue<List<OrderResponse>> cached = service.getRecentOrders(USER_ID);
+        assertEquals(List.of(3L, 2L, 1L), ids(cached.getValue()));
+        assertEquals(OrderStatus.NEW, cached.getValue().get(0).getStatus());
+        assertEquals(T0.plusMinutes(3), cached.getValue().get(0).getCreatedAt());
+        assertEquals(42, cached.getComputeMillis());
+        long softTtl = cached.getSoftExpiresAt() - System.currentTimeMillis();
+        assertTrue(softTtl > 230_000 && softTtl <= 240_000, "soft TTL " + softTtl);
+        for (String key : keys()) {
+            long ttl = redis.template.getExpire(key, TimeUnit.SECONDS);
+            assertTrue(ttl > 290 && ttl <= 300, key + " TTL " + ttl);
+        }
+    }
+
+    @Test
+    void repopulateReplacesTheWholeListAndKeepsOnlyTheNewestTen() {
+        service.repopulateRecentOrders(USER_ID, orders(3, 1), 0);
+        service.repopulateRecentOrders(USER_ID, orders(20, 11), 0);
+
+        List<OrderResponse> cached = service.getRecentOrders(USER_ID).getValue();
+        assertEquals(List.of(20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L, 11L), ids(cached));
+        assertEquals(10L, redis.template.opsForHash().size(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY)));
+    }
+
+    @Test
+    void absentOrBrokenListReadsAsMiss() {
+        assertNull(service.getRecentOrders(USER_ID));
+
+        // An indexed id whose payload is gone means index and hash are out of step
+        service.repopulateRecentOrders(USER_ID, orders(2, 1), 0);
+        redis.template.opsForHash().delete(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), "2");
+        assertNull(service.getRecentOrders(USER_ID));
+    }
+
+    @Test
+    void missingMetaReadsAsAlreadySoftExpired() {
+        service.repopulateRecentOrders(USER_ID, orders(1, 1), 0);
+        redis.template.delete(key(UserRedisService.RECENT_ORDERS_META_KEY));
+
+        CachedValue<List<OrderResponse>> cached = service.getRecentOrders(USER_ID);
+        assertEquals(List.of(1L), ids(cached.getValue()));
+        assertEquals(0L, cached.getSoftExpiresAt());
+    }
+
+    @Test
+    void pipelinedReadsAndRepopulatesMatchTheSingleUserForms() {
+        Map<Long, List<OrderResponse>> byUser = new LinkedHashMap<>();
+        byUser.put(1L, orders(1L, 2, 1));
+        byUser.put(2L, orders(2L, 5, 3));
+        byUser.put(3L, List.of());
+        service.repopulateRecentOrders(3L, orders(3L, 1, 1), 0);
+
+        service.repopulateRecentOrders(byUser, 7);
+
+        Map<Long, CachedValue<List<OrderResponse>>> cached = service.getRecentOrders(List.of(1L, 2L, 3L, 4L));
+        assertEquals(List.of(2L, 1L), ids(cached.get(1L).getValue()));
+        assertEquals(List.of(5L, 4L, 3L), ids(cached.get(2L).getValue()));
+        assertEquals(7, cached.get(2L).getComputeMillis());
+        // User 3 had no orders, so the old list was deleted; user 4 never had one
+        assertFalse(cached.containsKey(3L));
+        assertFalse(cached.containsKey(4L));
+    }
+
+    // ── PUSH ────────────────────────────────────────────────────────────────
+
+    @Test
+    void pushWithoutACachedListCreatesNothing() {
+        service.pushRecentOrder(USER_ID, order(1, 1, OrderStatus.NEW));
+
+        for (String key : keys()) {
+            assertEquals(Boolean.FALSE, redis.template.hasKey(key), key);
+        }
+    }
+
+    @Test
+    void pushAddsNewestAndDropsOverflowFromIndexAndPayloads() {
+        service.repopulateRecentOrders(USER_ID, orders(10, 1), 0);
+        redis.template.expire(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), 10, TimeUnit.SECONDS);
+
+        service.pushRecentOrder(USER_ID, order(11, 1, OrderStatus.NEW));
+
+        assertEquals(List.of(11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L), ids(service.getRecentOrders(USER_ID).getValue()));
+        assertFalse(redis.template.opsForHash().hasKey(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), "1"));
+        assertEquals(10L, redis.template.opsForHash().size(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY)));
+        // Every key of the list gets the hard TTL again
+        long ttl = redis.template.getExpire(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), TimeUnit.SECONDS);
+        assertTrue(ttl > 290, "payload TTL " + ttl);
+    }
+
+    @Test
+    void pushOfAnOrderOlderThanTheListIsTrimmedAwayAtOnce() {
+        service.repopulateRecentOrders(USER_ID, orders(11, 2), 0);
+
+        OrderResponse old = order(1, 1, OrderStatus.NEW);
+        old.setCreatedAt(T0);
+        service.pushRecentOrder(USER_ID, old);
+
+        assertEquals(List.of(11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L), ids(service.getRecentOrders(USER_ID).getValue()));
+        assertFalse(redis.template.opsForHash().hasKey(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), "1"));
+    }
+
+    // ── UPDATE ──────────────────────────────────────────────────────────────
+
+    @Test
+    void updateReplacesTheEntryUnlessTheCachedOneIsNewer() {
+        service.repopulateRecentOrders(USER_ID, orders(2, 1), 0);
+
+        service.updateRecentOrder(order(2, 3, OrderStatus.PROCESSING));
+        assertEquals(OrderStatus.PROCESSING, find(2L).getStatus());
+        assertEquals(3L, find(2L).getVersion());
+
+        // An update that lost the race must not roll the entry back
+        service.updateRecentOrder(order(2, 2, OrderStatus.CANCELLED));
+        assertEquals(OrderStatus.PROCESSING, find(2L).getStatus());
+
+        // The same version may be rewritten
+        service.updateRecentOrder(order(2, 3, OrderStatus.COMPLETED));
+        assertEquals(OrderStatus.COMPLETED, find(2L).getStatus());
+        assertEquals(OrderStatus.NEW, find(1L).getStatus());
+    }
+
+    @Test
+    void updateOfAnOrderOutsideTheListIsIgnored() {
+        service.repopulateRecentOrders(USER_ID, orders(2, 1), 0);
+
+        service.updateRecentOrder(order(99, 5, OrderStatus.COMPLETED));
+
+        assertEquals(List.of(2L, 1L), ids(service.getRecentOrders(USER_ID).getValue()));
+        assertFalse(redis.template.opsForHash().hasKey(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), "99"));
+    }
+
+    // ── PATCH (REPLACE script) ──────────────────────────────────────────────
+
+    @Test
+    void patchChangesOnlyCachedEntriesTheChangeApplies() {
+        service.repopulateRecentOrders(USER_ID, orders(3, 1), 0);
+
+        Map<Long, UnaryOperator<OrderResponse>> changes = new LinkedHashMap<>();
+        changes.put(1L, fill(4));
+        changes.put(2L, order -> null);
+        changes.put(99L, fill(1));
+        service.patchRecentOrders(USER_ID, changes);
+
+        assertEquals(4, find(1L).getFilledQuantity());
+        assertEquals(OrderStatus.PROCESSING, find(1L).getStatus());
+        assertEquals(0, find(2L).getFilledQuantity());
+        assertEquals(OrderStatus.NEW, find(2L).getStatus());
+        assertFalse(redis.template.opsForHash().hasKey(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), "99"));
+    }
+
+    @Test
+    void patchThatLosesTheCompareAndSetInvalidatesTheList() {
+        service.repopulateRecentOrders(USER_ID, orders(2, 1), 0);
+
+        // Another writer replaces entry 2 after the patch read it but before it is written back
+        service.patchRecentOrders(USER_ID, Map.of(2L, order -> {
+            service.updateRecentOrder(order(2, 2, OrderStatus.CANCELLED));
+            return fill(3).apply(order);
+        }));
+
+        for (String key : keys()) {
+            assertEquals(Boolean.FALSE, redis.template.hasKey(key), key);
+        }
+        // Flagged dirty too, so a list written behind its back is bypassed until the next DB load clears it
+        redis.template.opsForZSet().add(key(UserRedisService.RECENT_ORDERS_INDEX_KEY), "1", 1);
+        redis.template.opsForHash().put(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY), "1", "{\"orderId\":1}");
+        assertNull(service.getRecentOrders(USER_ID));
+        service.repopulateRecentOrders(USER_ID, orders(2, 1), 0);
+        assertEquals(List.of(2L, 1L), ids(service.getRecentOrders(USER_ID).getValue()));
+    }
+
+    // ── helpers ─────────────────────────────────────────────────────────────
+
+    // Orders to..from of USER_ID, newest (highest id) first, as the DB returns them
+    private static List<OrderResponse> orders(int to, int from) {
+        return orders(USER_ID, to, from);
+    }
+
+    private static List<OrderResponse> orders(long userId, int to, int from) {
+        List<OrderResponse> orders = new ArrayList<>();
+        for (int id = to; id >= from; id--) {
+            OrderResponse order = order(id, 1, OrderStatus.NEW);
+            order.setUserId(userId);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    // Created id minutes after T0, so higher ids are newer
+    private static OrderResponse order(long orderId, long version, OrderStatus status) {
+        return OrderResponse.builder()
+                .orderId(orderId)
+                .userId(USER_ID)
+                .quantity(10)
+                .filledQuantity(0)
+                .status(status)
+                .createdAt(T0.plusMinutes(orderId))
+                .version(version)
+                .build();
+    }
+
+    private static UnaryOperator<OrderResponse> fill(int quantity) {
+        return order -> {
+            order.setFilledQuantity(order.getFilledQuantity() + quantity);
+            order.setStatus(OrderStatus.PROCESSING);
+            return order;
+        };
+    }
+
+    private OrderResponse find(long orderId) {
+        return service.getRecentOrders(USER_ID).getValue().stream()
+                .filter(order -> order.getOrderId() == orderId)
+                .findFirst().orElseThrow();
+    }
+
+    private static List<Long> ids(List<OrderResponse> orders) {
+        return orders.stream().map(OrderResponse::getOrderId).collect(Collectors.toList());
+    }
+
+    private static String key(String pattern) {
+        return String.format(pattern, USER_ID);
+    }
+
+    private static List<String> keys() {
+        return List.of(key(UserRedisService.RECENT_ORDERS_PAYLOAD_KEY),
+                key(UserRedisService.RECENT_ORDERS_INDEX_KEY),
+                key(UserRedisService.RECENT_ORDERS_META_KEY));
+    }
+}
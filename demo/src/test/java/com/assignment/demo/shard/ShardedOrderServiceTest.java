@@ -0,0 +1,225 @@
+package com.assignment.demo.shard;
+
+import com.assignment.demo.dto.CreateOrderRequest;
+import com.assignment.demo.dto.OrderFilterRequest;
+import com.assignment.demo.dto.OrderResponse;
+import com.assignment.demo.dto.PagedOrderResponse;
+import com.assignment.demo.dto.UpdateOrderStatusRequest;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.service.OrderService;
+import com.assignment.demo.service.UserOrderStatsReconciler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the order service against three embedded H2 shards.
+ */
+@SpringBootTest(properties = {
+        "app.sharding.enabled=true",
+        "app.matching.enabled=false",
+        "app.sharding.shards[0].url=jdbc:h2:mem:shard0;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].url=jdbc:h2:mem:shard1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[2].url=jdbc:h2:mem:shard2;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXNoYXJkaW5nLXRlc3RzLW9ubHktMzItYnl0ZXMh"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ShardedOrderServiceTest {
+
+    private static final int USERS = 6;
+    private static final int ORDERS_PER_USER = 5;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserOrderStatsReconciler userOrderStatsReconciler;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<OrderResponse> created = new ArrayList<>();
+    private Authentication admin;
+
+    @BeforeAll
+    void createOrders() {
+        for (int u = 0; u < USERS; u++) {
+            users.add(userRepository.save(User.builder()
+                    .fullName("User " + u)
+                    .email("user" + u + "@shard.test")
+                    .password("x")
+                    .build()));
+        }
+        admin = new UsernamePasswordAuthenticationToken(users.get(0), null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        int n = 0;
+        for (User user : users) {
+            for (int i = 0; i < ORDERS_PER_USER; i++, n++) {
+                CreateOrderRequest req = new CreateOrderRequest();
+                req.setOrderType(n % 2 == 0 ? "BUY" : "SELL");
+                req.setQuantity(1 + n % 7);
+                // Repeated prices exercise the orderId tie-break in the merge
+                req.setPrice(BigDecimal.valueOf(100 + (n * 37) % 11));
+                created.add(orderService.createOrder(req, asUser(user)));
+            }
+        }
+    }
+
+    @Test
+    void ordersLandOnTheirUsersShardOnly() {
+        assertTrue(shardRouter.isSharded());
+        for (User user : users) {
+            int home = shardRouter.shardFor(user.getId());
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                long rows = countOnShard(shard, user.getId());
+                assertEquals(shard == home ? ORDERS_PER_USER : 0, rows,
+                        "user " + user.getId() + " on shard " + shard);
+            }
+        }
+        long used = users.stream().map(u -> shardRouter.shardFor(u.getId())).distinct().count();
+        assertTrue(used > 1, "test users should span more than one shard");
+    }
+
+    @Test
+    void userScopedListingReadsOnlyThatUsersOrders() {
+        User user = users.get(3);
+        OrderFilterRequest filter = new OrderFilterRequest();
+        filter.setSize(100);
+        PagedOrderResponse page = orderService.listOrders(filter, asUser(user));
+
+        assertEquals(ORDERS_PER_USER, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(o -> o.getUserId().equals(user.getId())));
+    }
+
+    @Test
+    void adminListingMergesAllShardsInSortOrder() {
+        Comparator<OrderResponse> byPrice = Comparator.comparing(OrderResponse::getPrice)
+                .thenComparing(OrderResponse::getOrderId);
+        List<Long> expected = created.stream().sorted(byPrice.reversed())
+                .map(OrderResponse::getOrderId).collect(Collectors.toList());
+
+        int size = 4;
+        List<Long> paged = new ArrayList<>();
+        for (int page = 0; page * size < created.size(); page++) {
+            OrderFilterRequest filter = new OrderFilterRequest();
+            filter.setSortBy("price");
+            filter.setSortDir("desc");
+            filter.setPage(page);
+            filter.setSize(size);
+            PagedOrderResponse result = orderService.listOrders(filter, admin);
+
+            assertEquals(created.size(), result.getTotalElements());
+            result.getContent().forEach(o -> paged.add(o.getOrderId()));
+        }
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void sparseAdminListingReturnsOnlyRequestedFields() {
+        OrderFilterRequest filter = new OrderFilterRequest();
+        filter.setSortBy("createdAt");
+        filter.setSortDir("asc");
+        filter.setSize(10);
+        filter.setFields("status");
+        PagedOrderResponse result = orderService.listOrders(filter, admin);
+
+        assertEquals(10, result.getContent().size());
+        for (OrderResponse order : result.getContent()) {
+            assertNotNull(order.getStatus());
+            assertNull(order.getOrderId());
+            assertNull(order.getCreatedAt());
+        }
+    }
+
+    @Test
+    void ordersAreFoundAndUpdatedByIdOnAnyShard() {
+        for (User user : users) {
+            OrderResponse order = created.stream()
+                    .filter(o -> o.getUserId().equals(user.getId()))
+                    .findFirst().orElseThrow();
+            assertEquals(user.getId(), orderService.getOrderById(order.getOrderId(), admin).getUserId());
+
+            UpdateOrderStatusRequest req = new UpdateOrderStatusRequest();
+            req.setStatus("CANCELLED");
+            OrderResponse updated = orderService.updateOrderStatus(order.getOrderId(), req, null, admin);
+            assertEquals(OrderStatus.CANCELLED, updated.getStatus());
+        }
+    }
+
+    @Test
+    void orderCountIsServedFromStatsOnTheUsersShard() {
+        // Redis is unreachable here, so every count comes from user_order_stats
+        assertOrderCountsFromStats();
+
+        // Stats lost on every shard are recounted from the orders themselves
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            onShard(shard, () -> jdbcTemplate.update("delete from user_order_stats"));
+        }
+        userOrderStatsReconciler.reconcile();
+        assertOrderCountsFromStats();
+    }
+
+    private void assertOrderCountsFromStats() {
+        for (User user : users) {
+            assertEquals((long) ORDERS_PER_USER, orderService.countUserOrders(user.getId(), asUser(user)).get("orderCount"));
+            int home = shardRouter.shardFor(user.getId());
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                Long rows = onShard(shard, () -> jdbcTemplate.queryForObject(
+                        "select sum(order_count) from user_order_stats where user_id = ?", Long.class, user.getId()));
+                assertEquals(shard == home ? Long.valueOf(ORDERS_PER_USER) : null, rows,
+                        "stats of user " + user.getId() + " on shard " + shard);
+            }
+        }
+    }
+
+    private long countOnShard(int shard, Long userId) {
+        return onShard(shard, () -> jdbcTemplate.queryForObject("select count(*) from orders where user_id = ?", Long.class, userId));
+    }
+
+    private static <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    private static Authentication asUser(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
@@ -0,0 +1,40 @@
+package com.assignment.demo.sql;
+
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Statement budgets for tests: run a call (typically a MockMvc request) and assert how many SQL
+ * statements Hibernate issued for it on the calling thread.
+ */
+public final class StatementAssertions {
+
+    private StatementAssertions() {
+    }
+
+    public static StatementScope measure(Executable work) {
+        try (StatementScope scope = StatementScope.open()) {
+            work.execute();
+            return scope;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            return fail(t);
+        }
+    }
+
+    public static StatementScope assertStatementsAtMost(int budget, Executable work) {
+        StatementScope scope = measure(work);
+        assertTrue(scope.statements() <= budget, () -> "Expected at most " + budget + " statements, got " + scope);
+        return scope;
+    }
+
+    public static StatementScope assertStatements(int expected, Executable work) {
+        StatementScope scope = measure(work);
+        assertEquals(expected, scope.statements(), () -> "Unexpected statement count: " + scope);
+        return scope;
+    }
+}
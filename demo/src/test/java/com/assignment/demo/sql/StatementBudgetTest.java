@@ -0,0 +1,206 @@
+package com.assignment.demo.sql;
+
+import com.assignment.demo.dto.EndpointStatementStats;
+import com.assignment.demo.entity.Order;
+import com.assignment.demo.entity.User;
+import com.assignment.demo.entity.UserOrderStats;
+import com.assignment.demo.entity.UserRole;
+import com.assignment.demo.enums.OrderStatus;
+import com.assignment.demo.enums.OrderType;
+import com.assignment.demo.enums.Role;
+import com.assignment.demo.repository.OrderRepository;
+import com.assignment.demo.repository.UserOrderStatsRepository;
+import com.assignment.demo.repository.UserRepository;
+import com.assignment.demo.repository.UserRoleRepository;
+import com.assignment.demo.security.JwtService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.assignment.demo.sql.StatementAssertions.assertStatementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlstats;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.data.redis.host=localhost",
+        "spring.data.redis.port=1",
+        "app.matching.enabled=false",
+        "app.jwt.secret=dGVzdC1zZWNyZXQtZm9yLXNxbC1zdGF0cy10ZXN0cy1vbmx5LTMyLWJ5dGVzIQ=="
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementBudgetTest {
+
+    // Locked at today's counts; raise only with a reason
+    private static final int BUDGET_LIST_ORDERS = 3;
+    private static final int BUDGET_GET_ORDER = 3;
+    private static final int BUDGET_GET_ORDERS_BY_IDS = 3;
+    private static final int BUDGET_BATCH_USER_READ = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRoleRepository userRoleRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserOrderStatsRepository userOrderStatsRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private StatementStatsRegistry statementStatsRegistry;
+
+    private String bearer;
+    private String adminBearer;
+    private Long userId;
+    private Long busyUserId;
+    private Long orderId;
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> busyOrderIds = new ArrayList<>();
+
+    @BeforeAll
+    void createUserAndOrders() {
+        UserRole role = userRoleRepository.findByName(Role.USER)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(Role.USER).build()));
+        User user = userRepository.save(User.builder()
+                .fullName("Budget User")
+                .email("budget@sqlstats.test")
+                .password("x")
+                .roles(Set.of(role))
+                .build());
+        for (int i = 0; i < 5; i++) {
+            orderId = orderRepository.save(Order.builder()
+                    .orderType(OrderType.BUY)
+                    .quantity(1)
+                    .price(BigDecimal.TEN)
+                    .status(OrderStatus.NEW)
+                    .userId(user.getId())
+                    .build()).getOrderId();
+            orderIds.add(orderId);
+        }
+        bearer = "Bearer " + jwtService.generateToken(user);
+        userId = user.getId();
+
+        // A second user with more orders than a recent-orders list holds, and an admin to read both
+        User busy = userRepository.save(User.builder()
+                .fullName("Busy User")
+                .email("busy@sqlstats.test")
+                .password("x")
+                .roles(Set.of(role))
+                .build());
+        busyUserId = busy.getId();
+        for (int i = 0; i < 12; i++) {
+            busyOrderIds.add(orderRepository.save(Order.builder()
+                    .orderType(OrderType.SELL)
+                    .quantity(1)
+                    .price(BigDecimal.ONE)
+                    .status(OrderStatus.NEW)
+                    .userId(busyUserId)
+                    .build()).getOrderId());
+        }
+        userOrderStatsRepository.saveAll(List.of(
+                new UserOrderStats(userId, 0, 3L),
+                new UserOrderStats(userId, 1, 2L),
+                new UserOrderStats(busyUserId, 0, 12L)));
+
+        UserRole adminRole = userRoleRepository.findByName(Role.ADMIN)
+                .orElseGet(() -> userRoleRepository.save(UserRole.builder().name(Role.ADMIN).build()));
+        User admin = userRepository.save(User.builder()
+                .fullName("Budget Admin")
+                .email("admin@sqlstats.test")
+                .password("x")
+                .roles(Set.of(adminRole))
+                .build());
+        adminBearer = "Bearer " + jwtService.generateToken(admin);
+    }
+
+    @Test
+    void listOrdersStaysWithinBudget() {
+        // JWT user with roles (one join), page query, count query
+        assertStatementsAtMost(BUDGET_LIST_ORDERS, () ->
+                mockMvc.perform(get("/api/orders").header("Authorization", bearer)).andExpect(status().isOk()));
+
+        EndpointStatementStats stats = statementStatsRegistry.snapshot().stream()
+                .filter(s -> s.getEndpoint().equals("GET /api/orders"))
+                .findFirst().orElseThrow();
+        assertTrue(stats.getRequests() >= 1);
+        assertTrue(stats.getMaxStatements() <= BUDGET_LIST_ORDERS);
+    }
+
+    @Test
+    void getOrderByIdStaysWithinBudget() {
+        // Redis is unreachable here, so the order itself is loaded from the DB as well
+        assertStatementsAtMost(BUDGET_GET_ORDER, () ->
+                mockMvc.perform(get("/api/orders/" + orderId).header("Authorization", bearer)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void getOrdersByIdsLoadsMissesWithOneQuery() {
+        // As for a single order, but all five orders come from one IN query
+        String ids = orderIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        assertStatementsAtMost(BUDGET_GET_ORDERS_BY_IDS, () ->
+                mockMvc.perform(get("/api/orders").param("ids", ids).header("Authorization", bearer))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.length()").value(orderIds.size()))
+                        .andExpect(jsonPath("$[0].orderId").value(String.valueOf(orderIds.get(0)))));
+    }
+
+    @Test
+    void orderCountsForManyUsersLoadMissesWithOneGroupedQuery() {
+        // JWT user and its roles, one IN query confirming the users, one grouped sum over their stat stripes
+        assertStatementsAtMost(BUDGET_BATCH_USER_READ, () ->
+                mockMvc.perform(get("/api/orders/order-counts")
+                                .param("userIds", userId + "," + busyUserId + ",999999")
+                                .header("Authorization", adminBearer))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$['" + userId + "']").value(5))
+                        .andExpect(jsonPath("$['" + busyUserId + "']").value(12))
+                        .andExpect(jsonPath("$['999999']").doesNotExist()));
+    }
+
+    @Test
+    void recentOrdersForManyUsersLoadMissesWithOneWindowQuery() {
+        // JWT user and its roles, one IN query confirming the users, one top-10-per-user window query
+        assertStatementsAtMost(BUDGET_BATCH_USER_READ, () ->
+                mockMvc.perform(get("/api/orders/recent-orders")
+                                .param("userIds", userId + "," + busyUserId)
+                                .header("Authorization", adminBearer))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$['" + userId + "'].length()").value(orderIds.size()))
+                        .andExpect(jsonPath("$['" + busyUserId + "'].length()").value(10))
+                        .andExpect(jsonPath("$['" + busyUserId + "'][0].orderId").value(String.valueOf(busyOrderIds.get(busyOrderIds.size() - 1)))));
+    }
+
+    @Test
+    void batchUserReadsAreAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/orders/order-counts").param("userIds", String.valueOf(userId)).header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+    }
+}